@@ -15,11 +15,35 @@
  */
 package pixela.client;
 
+import java.time.Duration;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import reactor.core.publisher.Mono;
 
 public interface Api<T> {
 
   @NotNull
   Mono<T> call();
+
+  /**
+   * calls this api and waits for the result on the current thread. Suited for callers running on
+   * their own (or virtual) threads, must not be used on reactor's non-blocking threads.
+   *
+   * @return the result, or {@code null} if the api completes without value.
+   */
+  @Nullable
+  default T callBlocking() {
+    return call().block();
+  }
+
+  /**
+   * calls this api and waits for the result up to the timeout.
+   *
+   * @param timeout - maximum time to wait.
+   * @return the result, or {@code null} if the api completes without value.
+   */
+  @Nullable
+  default T callBlocking(@NotNull final Duration timeout) {
+    return call().block(timeout);
+  }
 }
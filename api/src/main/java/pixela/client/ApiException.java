@@ -15,21 +15,41 @@
  */
 package pixela.client;
 
+import org.jetbrains.annotations.NotNull;
 import pixela.client.http.Request;
 
 public class ApiException extends RuntimeException {
 
-  private ApiException(final String message) {
+  @NotNull private final ErrorType errorType;
+
+  protected ApiException(final String message, @NotNull final ErrorType errorType) {
     super(message);
+    this.errorType = errorType;
   }
 
   public static ApiException of(final String message) {
-    return new ApiException(message);
+    return new ApiException(message, ErrorType.UNKNOWN);
+  }
+
+  public static ApiException of(final String message, @NotNull final ErrorType errorType) {
+    return new ApiException(message, errorType);
+  }
+
+  @NotNull
+  public ErrorType errorType() {
+    return errorType;
+  }
+
+  public boolean isRejected() {
+    return errorType == ErrorType.REJECTED;
   }
 
   public ApiException appendDebugInfo(final Request<?> request) {
-    final String message =
-        getMessage() + '\n' + "------" + '\n' + request.errorRequest() + '\n' + "------";
-    return new ApiException(message);
+    return new ApiException(messageWithDebugInfo(request), errorType);
+  }
+
+  @NotNull
+  protected String messageWithDebugInfo(@NotNull final Request<?> request) {
+    return getMessage() + '\n' + "------" + '\n' + request.errorRequest() + '\n' + "------";
   }
 }
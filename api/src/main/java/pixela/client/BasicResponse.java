@@ -21,6 +21,7 @@ import reactor.core.publisher.Mono;
 public class BasicResponse {
   @NotNull private String message = "";
   private boolean isSuccess;
+  private boolean isRejected;
 
   @NotNull
   public String getMessage() {
@@ -39,11 +40,32 @@ public class BasicResponse {
     isSuccess = success;
   }
 
+  public boolean isIsRejected() {
+    return isRejected;
+  }
+
+  public void setIsRejected(final boolean rejected) {
+    isRejected = rejected;
+  }
+
+  @NotNull
+  public ErrorType errorType(final int statusCode) {
+    if (isRejected) {
+      return ErrorType.REJECTED;
+    }
+    return ErrorType.fromStatusCode(statusCode);
+  }
+
+  @NotNull
+  public ApiException toException(final int statusCode) {
+    return ApiException.of(message, errorType(statusCode));
+  }
+
   public Mono<Void> emptyOrError() {
     if (isSuccess) {
       return Mono.empty();
     } else {
-      return Mono.error(ApiException.of(message));
+      return Mono.error(ApiException.of(message, errorType(0)));
     }
   }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.http.Request;
+
+public class CircuitOpenException extends ApiException {
+
+  @NotNull private final String endpoint;
+
+  private CircuitOpenException(final String message, @NotNull final String endpoint) {
+    super(message, ErrorType.CIRCUIT_OPEN);
+    this.endpoint = endpoint;
+  }
+
+  @Contract("_ -> new")
+  @NotNull
+  public static CircuitOpenException of(@NotNull final String endpoint) {
+    return new CircuitOpenException("circuit is open for endpoint: " + endpoint, endpoint);
+  }
+
+  // http method and endpoint template, e.g. "GET /v1/users/{username}/graphs".
+  @NotNull
+  public String endpoint() {
+    return endpoint;
+  }
+
+  @Override
+  public CircuitOpenException appendDebugInfo(final Request<?> request) {
+    return new CircuitOpenException(messageWithDebugInfo(request), endpoint);
+  }
+}
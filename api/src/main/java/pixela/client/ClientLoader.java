@@ -15,15 +15,20 @@
  */
 package pixela.client;
 
+import java.util.List;
 import java.util.ServiceLoader;
-import java.util.Spliterator;
+import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import pixela.client.http.HttpClient;
 import pixela.client.http.HttpClientFactory;
 
 class ClientLoader {
 
+  // scanning class path on each client creation is costly, the factories found first are reused.
+  @Nullable private static volatile List<HttpClientFactory> httpClientFactories;
+
   @NotNull private final PixelaClientConfig config;
 
   private ClientLoader(@NotNull final PixelaClientConfig config) {
@@ -37,12 +42,23 @@ class ClientLoader {
 
   @NotNull
   HttpClient load() {
+    return httpClientFactories().stream()
+        .filter(factory -> factory.supports(config))
+        .findFirst()
+        .orElseThrow(HttpClientFactory::notFoundImplementation)
+        .newClient(config);
+  }
+
+  @NotNull
+  private static List<HttpClientFactory> httpClientFactories() {
+    final List<HttpClientFactory> cached = httpClientFactories;
+    if (cached != null) {
+      return cached;
+    }
     final ServiceLoader<HttpClientFactory> loader = ServiceLoader.load(HttpClientFactory.class);
-    final Spliterator<HttpClientFactory> spliterator = loader.spliterator();
-    final HttpClientFactory httpClientFactory =
-        StreamSupport.stream(spliterator, false)
-            .findFirst()
-            .orElseThrow(HttpClientFactory::notFoundImplementation);
-    return httpClientFactory.newClient(config);
+    final List<HttpClientFactory> found =
+        StreamSupport.stream(loader.spliterator(), false).collect(Collectors.toList());
+    httpClientFactories = found;
+    return found;
   }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+public enum ErrorType {
+  // pixela rejected the request without processing it. it is safe to send it again.
+  REJECTED,
+  NOT_FOUND,
+  CLIENT_ERROR,
+  SERVER_ERROR,
+  UNKNOWN,
+  // the request was not sent because the circuit of its endpoint is open.
+  CIRCUIT_OPEN,
+  ;
+
+  @Contract(pure = true)
+  @NotNull
+  public static ErrorType fromStatusCode(final int statusCode) {
+    if (statusCode == 404) {
+      return NOT_FOUND;
+    } else if (statusCode == 429) {
+      return REJECTED;
+    } else if (400 <= statusCode && statusCode < 500) {
+      return CLIENT_ERROR;
+    } else if (500 <= statusCode && statusCode < 600) {
+      return SERVER_ERROR;
+    }
+    return UNKNOWN;
+  }
+}
@@ -28,6 +28,7 @@ import org.jetbrains.annotations.NotNull;
 import pixela.client.api.graph.*;
 import pixela.client.api.webhook.CreateWebhook;
 import pixela.client.http.HttpClient;
+import reactor.core.publisher.Flux;
 
 public interface Graph {
 
@@ -62,12 +63,31 @@ public interface Graph {
   @NotNull
   PostPixel.PixelDate postPixel();
 
+  @NotNull
+  default PostPixels postPixels(@NotNull final Flux<PixelEntry> entries) {
+    return PostPixels.of(this, entries);
+  }
+
   @NotNull
   GetPixel getPixel(@NotNull final LocalDate date);
 
+  @NotNull
+  default GetPixels pixels(@NotNull final LocalDate from, @NotNull final LocalDate to) {
+    return GetPixels.of(this, from, to);
+  }
+
   @NotNull
   String subPath();
 
+  /**
+   * @param baseUri - base uri of the client.
+   * @return uri of this graph, which implementations keep to reuse.
+   */
+  @NotNull
+  default URI graphUri(@NotNull final URI baseUri) {
+    return URI.create(pixela().usersUri(baseUri).toASCIIString() + subPath());
+  }
+
   @NotNull
   IncrementPixel incrementPixel();
 
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * date of a pixel with its yyyyMMdd form, which is computed once. dates from the start of four
+ * years ago to the end of next year are interned.
+ */
+public final class PixelDate implements Comparable<PixelDate> {
+
+  private static final long FIRST_INTERNED;
+
+  private static final AtomicReferenceArray<PixelDate> INTERNED;
+
+  static {
+    final int year = LocalDate.now(ZoneOffset.UTC).getYear();
+    FIRST_INTERNED = LocalDate.of(year - 4, 1, 1).toEpochDay();
+    final long end = LocalDate.of(year + 2, 1, 1).toEpochDay();
+    INTERNED = new AtomicReferenceArray<>((int) (end - FIRST_INTERNED));
+  }
+
+  @NotNull private final LocalDate date;
+
+  @NotNull private final String text;
+
+  private PixelDate(@NotNull final LocalDate date, @NotNull final String text) {
+    this.date = date;
+    this.text = text;
+  }
+
+  @NotNull
+  public static PixelDate of(@NotNull final LocalDate date) {
+    final long index = date.toEpochDay() - FIRST_INTERNED;
+    if (index < 0 || INTERNED.length() <= index) {
+      return new PixelDate(date, encode(date));
+    }
+    final PixelDate interned = INTERNED.get((int) index);
+    if (interned != null) {
+      return interned;
+    }
+    // a race only builds the same date twice.
+    final PixelDate created = new PixelDate(date, encode(date));
+    INTERNED.compareAndSet((int) index, null, created);
+    return INTERNED.get((int) index);
+  }
+
+  /**
+   * @param text - yyyyMMdd.
+   * @return the date.
+   * @throws java.time.DateTimeException - when text is not a valid date.
+   */
+  @NotNull
+  public static PixelDate parse(@NotNull final CharSequence text) {
+    if (text.length() != 8) {
+      return of(LocalDate.parse(text, Graph.PIXEL_DATE_FORMAT));
+    }
+    final int century = digits(text, 0);
+    final int yearOfCentury = digits(text, 2);
+    final int month = digits(text, 4);
+    final int day = digits(text, 6);
+    // each part is checked before the year is combined, as -1 of one part makes another year.
+    if (century < 0 || yearOfCentury < 0 || month < 0 || day < 0) {
+      return of(LocalDate.parse(text, Graph.PIXEL_DATE_FORMAT));
+    }
+    return of(LocalDate.of(century * 100 + yearOfCentury, month, day));
+  }
+
+  /**
+   * @return yyyyMMdd of the date, without going through {@link Graph#PIXEL_DATE_FORMAT}.
+   */
+  @NotNull
+  public static String format(@NotNull final LocalDate date) {
+    return of(date).text;
+  }
+
+  @NotNull
+  private static String encode(@NotNull final LocalDate date) {
+    final int year = date.getYear();
+    if (year < 0 || 9999 < year) {
+      return date.format(Graph.PIXEL_DATE_FORMAT);
+    }
+    final char[] chars = new char[8];
+    writeDigits(chars, 0, year / 100);
+    writeDigits(chars, 2, year % 100);
+    writeDigits(chars, 4, date.getMonthValue());
+    writeDigits(chars, 6, date.getDayOfMonth());
+    return new String(chars);
+  }
+
+  private static void writeDigits(@NotNull final char[] chars, final int offset, final int value) {
+    chars[offset] = (char) ('0' + value / 10);
+    chars[offset + 1] = (char) ('0' + value % 10);
+  }
+
+  // -1 when they are not digits.
+  private static int digits(@NotNull final CharSequence text, final int offset) {
+    final int high = text.charAt(offset) - '0';
+    final int low = text.charAt(offset + 1) - '0';
+    if (high < 0 || 9 < high || low < 0 || 9 < low) {
+      return -1;
+    }
+    return high * 10 + low;
+  }
+
+  @NotNull
+  public LocalDate toLocalDate() {
+    return date;
+  }
+
+  @NotNull
+  public String asString() {
+    return text;
+  }
+
+  @NotNull
+  public PixelDate plusDays(final long days) {
+    return of(date.plusDays(days));
+  }
+
+  @Override
+  public int compareTo(@NotNull final PixelDate other) {
+    return date.compareTo(other.date);
+  }
+
+  @NotNull
+  @Override
+  public String toString() {
+    return text;
+  }
+
+  @Contract(value = "null -> false", pure = true)
+  @Override
+  public boolean equals(final Object object) {
+    if (this == object) return true;
+    if (!(object instanceof PixelDate)) return false;
+
+    final PixelDate pixelDate = (PixelDate) object;
+
+    return date.equals(pixelDate.date);
+  }
+
+  @Override
+  public int hashCode() {
+    return date.hashCode();
+  }
+}
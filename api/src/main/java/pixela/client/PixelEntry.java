@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Optional;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class PixelEntry {
+
+  @NotNull private final LocalDate date;
+  @NotNull private final Quantity quantity;
+  @Nullable private final String optionalData;
+
+  private PixelEntry(
+      @NotNull final LocalDate date,
+      @NotNull final Quantity quantity,
+      @Nullable final String optionalData) {
+    this.date = Objects.requireNonNull(date);
+    this.quantity = Objects.requireNonNull(quantity);
+    this.optionalData = optionalData;
+  }
+
+  @Contract("_, _ -> new")
+  @NotNull
+  public static PixelEntry of(@NotNull final LocalDate date, @NotNull final Quantity quantity) {
+    return new PixelEntry(date, quantity, null);
+  }
+
+  @Contract("_, _, _ -> new")
+  @NotNull
+  public static PixelEntry of(
+      @NotNull final LocalDate date,
+      @NotNull final Quantity quantity,
+      @NotNull final String optionalDataJson) {
+    return new PixelEntry(date, quantity, Objects.requireNonNull(optionalDataJson));
+  }
+
+  @NotNull
+  public LocalDate date() {
+    return date;
+  }
+
+  @NotNull
+  public Quantity quantity() {
+    return quantity;
+  }
+
+  @NotNull
+  public Optional<String> optionalData() {
+    return Optional.ofNullable(optionalData);
+  }
+
+  @NotNull
+  @Override
+  public String toString() {
+    return "[date:"
+        + PixelDate.format(date)
+        + ",quantity:"
+        + quantity.asString()
+        + ",optionalData:"
+        + (optionalData == null ? "[null]" : optionalData)
+        + "]";
+  }
+
+  @Contract(value = "null -> false", pure = true)
+  @Override
+  public boolean equals(final Object object) {
+    if (this == object) return true;
+    if (!(object instanceof PixelEntry)) return false;
+
+    final PixelEntry that = (PixelEntry) object;
+
+    return date.equals(that.date)
+        && quantity.asString().equals(that.quantity.asString())
+        && Objects.equals(optionalData, that.optionalData);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(date, quantity.asString(), optionalData);
+  }
+}
@@ -20,12 +20,18 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UncheckedIOException;
 import java.net.URL;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.jetbrains.annotations.NotNull;
 import pixela.client.api.user.CreateUser;
 import pixela.client.api.user.PixelaImpl;
+import pixela.client.coalesce.PixelCoalescer;
+import pixela.client.fleet.PixelaFleet;
 import pixela.client.http.HttpClient;
+import pixela.client.journal.PixelJournal;
 import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
 
@@ -33,8 +39,15 @@ public class PixelaClient implements AutoCloseable, Disposable {
 
   @NotNull private final HttpClient httpClient;
 
+  @NotNull private final AtomicBoolean closed = new AtomicBoolean();
+
+  // users registered to the shared journal with this client, which are unregistered on close.
+  @NotNull private final Map<String, Pixela> users = new ConcurrentHashMap<>();
+
   private PixelaClient(@NotNull final HttpClient httpClient) {
     this.httpClient = httpClient;
+    SharedResources.acquire(httpClient.pixelJournal());
+    SharedResources.acquire(httpClient.pixelCoalescer());
   }
 
   @NotNull
@@ -49,7 +62,22 @@ public class PixelaClient implements AutoCloseable, Disposable {
 
   @NotNull
   public PixelaImpl.PixelaToken username(@NotNull final String username) {
-    return token -> PixelaImpl.of(httpClient, UserToken.of(token), Username.of(username));
+    return token ->
+        registered(PixelaImpl.of(httpClient, UserToken.of(token), Username.of(username)));
+  }
+
+  // writes of the user recorded in the journal before restart are sent once it is registered.
+  @NotNull
+  private Pixela registered(@NotNull final Pixela pixela) {
+    httpClient.pixelJournal().register(pixela);
+    users.put(pixela.usersUri(), pixela);
+    return pixela;
+  }
+
+  // runs operations of many users with this client.
+  @NotNull
+  public PixelaFleet fleet() {
+    return PixelaFleet.of(httpClient);
   }
 
   @NotNull
@@ -67,7 +95,7 @@ public class PixelaClient implements AutoCloseable, Disposable {
                       classLoader.getResourceAsStream(Pixela.PROPERTIES_FILE)))) {
             final Properties properties = new Properties();
             properties.load(reader);
-            return PixelaImpl.fromProperties(httpClient, properties);
+            return registered(PixelaImpl.fromProperties(httpClient, properties));
           } catch (final IOException e) {
             throw new UncheckedIOException(
                 "there is not properties file[" + Pixela.PROPERTIES_FILE + "] in system resource.",
@@ -76,9 +104,31 @@ public class PixelaClient implements AutoCloseable, Disposable {
         });
   }
 
+  // steps counted by the coalescer are written before the client is closed, and the journal
+  // stops draining, keeping writes not sent yet for the next start. They are shared by clients of
+  // the same config, so that they are closed with the last one of them. Steps are written even if
+  // other clients are open, as counted pixels may be bound to graphs of this client, and users of
+  // this client are unregistered from the journal until other clients register them.
   @Override
   public void close() throws Exception {
-    httpClient.close();
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    final PixelJournal journal = httpClient.pixelJournal();
+    final PixelCoalescer coalescer = httpClient.pixelCoalescer();
+    AutoCloseables.of(
+            httpClient,
+            SharedResources.release(journal),
+            SharedResources.release(coalescer),
+            () -> users.values().forEach(journal::unregister),
+            () -> flush(coalescer))
+        .close();
+  }
+
+  private static void flush(@NotNull final PixelCoalescer coalescer) {
+    if (coalescer.enabled()) {
+      coalescer.flush().block();
+    }
   }
 
   @Override
@@ -17,6 +17,19 @@ package pixela.client;
 
 import java.net.URI;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pixela.client.cache.GraphDefinitionsCache;
+import pixela.client.cache.PixelCache;
+import pixela.client.cache.SvgCache;
+import pixela.client.coalesce.PixelCoalescer;
+import pixela.client.http.CircuitBreaker;
+import pixela.client.http.HedgingPolicy;
+import pixela.client.http.HttpTransport;
+import pixela.client.http.Instrumentation;
+import pixela.client.http.RateLimiter;
+import pixela.client.http.RetryPolicy;
+import pixela.client.http.SingleFlight;
+import pixela.client.journal.PixelJournal;
 
 // TODO consider proxy
 public class PixelaClientConfig {
@@ -27,6 +40,8 @@ public class PixelaClientConfig {
 
   private static final int THREADS_NUM = 1; // executors thread size for http-client
 
+  private static final int JSON_CODEC_THREADS_NUM = 1; // executors thread size for json codec
+
   public static ServiceUri builder() {
     return uri ->
         milliSeconds -> threadsNum -> () -> new PixelaClientConfig(uri, milliSeconds, threadsNum);
@@ -72,6 +87,54 @@ public class PixelaClientConfig {
 
   private int threadsNum; // executors thread size for http-client
 
+  private int jsonCodecThreadsNum = JSON_CODEC_THREADS_NUM;
+
+  // run http-client tasks on virtual threads instead of threadsNum threads, when the jdk supports.
+  private boolean useVirtualThreads;
+
+  // share http client and executors with other clients of the same base uri, timeout and threads.
+  private boolean shareTransport;
+
+  // decode/encode json on the calling thread instead of the json codec executor
+  private boolean inlineJsonCodec;
+
+  // json longer than this is still handed over to the json codec executor in inline mode
+  private int inlineJsonMaxLength = Integer.MAX_VALUE;
+
+  // use the hand-written json codec instead of the default one, when it is on class path.
+  private boolean lightJsonCodec;
+
+  // NIO has no tls, so that creating a client with it fails with IllegalArgumentException unless
+  // the base uri is http.
+  @NotNull private HttpTransport httpTransport = HttpTransport.JDK;
+
+  @NotNull private RateLimiter rateLimiter = RateLimiter.unlimited();
+
+  @NotNull private RetryPolicy retryPolicy = RetryPolicy.none();
+
+  // only GET requests are hedged.
+  @NotNull private HedgingPolicy hedgingPolicy = HedgingPolicy.none();
+
+  // identical GET requests in flight at the same time share one call.
+  @NotNull private SingleFlight singleFlight = SingleFlight.disabled();
+
+  @NotNull private CircuitBreaker circuitBreaker = CircuitBreaker.disabled();
+
+  @NotNull private PixelCache pixelCache = PixelCache.disabled();
+
+  @NotNull private GraphDefinitionsCache graphDefinitionsCache = GraphDefinitionsCache.disabled();
+
+  @NotNull private SvgCache svgCache = SvgCache.disabled();
+
+  // the coalescer reads a pixel and puts the sum, so only one writer per pixel is supported. Steps
+  // written by other processes or other configs at the same time may be lost.
+  @NotNull private PixelCoalescer pixelCoalescer = PixelCoalescer.disabled();
+
+  @NotNull private PixelJournal pixelJournal = PixelJournal.disabled();
+
+  // loaded by ServiceLoader when not set.
+  @Nullable private Instrumentation instrumentation;
+
   public PixelaClientConfig() {}
 
   private PixelaClientConfig(
@@ -109,4 +172,166 @@ public class PixelaClientConfig {
   public void setThreadsNum(final int threadsNum) {
     this.threadsNum = threadsNum;
   }
+
+  public boolean isUseVirtualThreads() {
+    return useVirtualThreads;
+  }
+
+  public void setUseVirtualThreads(final boolean useVirtualThreads) {
+    this.useVirtualThreads = useVirtualThreads;
+  }
+
+  public boolean isShareTransport() {
+    return shareTransport;
+  }
+
+  public void setShareTransport(final boolean shareTransport) {
+    this.shareTransport = shareTransport;
+  }
+
+  public int getJsonCodecThreadsNum() {
+    return jsonCodecThreadsNum;
+  }
+
+  public void setJsonCodecThreadsNum(final int jsonCodecThreadsNum) {
+    this.jsonCodecThreadsNum = jsonCodecThreadsNum;
+  }
+
+  public boolean isInlineJsonCodec() {
+    return inlineJsonCodec;
+  }
+
+  public void setInlineJsonCodec(final boolean inlineJsonCodec) {
+    this.inlineJsonCodec = inlineJsonCodec;
+  }
+
+  public int getInlineJsonMaxLength() {
+    return inlineJsonMaxLength;
+  }
+
+  public void setInlineJsonMaxLength(final int inlineJsonMaxLength) {
+    this.inlineJsonMaxLength = inlineJsonMaxLength;
+  }
+
+  public boolean isLightJsonCodec() {
+    return lightJsonCodec;
+  }
+
+  public void setLightJsonCodec(final boolean lightJsonCodec) {
+    this.lightJsonCodec = lightJsonCodec;
+  }
+
+  @NotNull
+  public HttpTransport getHttpTransport() {
+    return httpTransport;
+  }
+
+  public void setHttpTransport(@NotNull final HttpTransport httpTransport) {
+    this.httpTransport = httpTransport;
+  }
+
+  @NotNull
+  public RateLimiter getRateLimiter() {
+    return rateLimiter;
+  }
+
+  public void setRateLimiter(@NotNull final RateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+  }
+
+  @NotNull
+  public RetryPolicy getRetryPolicy() {
+    return retryPolicy;
+  }
+
+  public void setRetryPolicy(@NotNull final RetryPolicy retryPolicy) {
+    this.retryPolicy = retryPolicy;
+  }
+
+  @NotNull
+  public HedgingPolicy getHedgingPolicy() {
+    return hedgingPolicy;
+  }
+
+  public void setHedgingPolicy(@NotNull final HedgingPolicy hedgingPolicy) {
+    this.hedgingPolicy = hedgingPolicy;
+  }
+
+  @NotNull
+  public SingleFlight getSingleFlight() {
+    return singleFlight;
+  }
+
+  public void setSingleFlight(@NotNull final SingleFlight singleFlight) {
+    this.singleFlight = singleFlight;
+  }
+
+  @NotNull
+  public CircuitBreaker getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  public void setCircuitBreaker(@NotNull final CircuitBreaker circuitBreaker) {
+    this.circuitBreaker = circuitBreaker;
+  }
+
+  @NotNull
+  public PixelCache getPixelCache() {
+    return pixelCache;
+  }
+
+  public void setPixelCache(@NotNull final PixelCache pixelCache) {
+    this.pixelCache = pixelCache;
+  }
+
+  @NotNull
+  public GraphDefinitionsCache getGraphDefinitionsCache() {
+    return graphDefinitionsCache;
+  }
+
+  public void setGraphDefinitionsCache(@NotNull final GraphDefinitionsCache graphDefinitionsCache) {
+    this.graphDefinitionsCache = graphDefinitionsCache;
+  }
+
+  @NotNull
+  public SvgCache getSvgCache() {
+    return svgCache;
+  }
+
+  public void setSvgCache(@NotNull final SvgCache svgCache) {
+    this.svgCache = svgCache;
+  }
+
+  @NotNull
+  public PixelCoalescer getPixelCoalescer() {
+    return pixelCoalescer;
+  }
+
+  public void setPixelCoalescer(@NotNull final PixelCoalescer pixelCoalescer) {
+    this.pixelCoalescer = pixelCoalescer;
+  }
+
+  @NotNull
+  public PixelJournal getPixelJournal() {
+    return pixelJournal;
+  }
+
+  public void setPixelJournal(@NotNull final PixelJournal pixelJournal) {
+    this.pixelJournal = pixelJournal;
+  }
+
+  @NotNull
+  public Instrumentation getInstrumentation() {
+    final Instrumentation current = instrumentation;
+    if (current != null) {
+      return current;
+    }
+    final Instrumentation loaded = Instrumentation.load();
+    this.instrumentation = loaded;
+    return loaded;
+  }
+
+  public void setInstrumentation(@NotNull final Instrumentation instrumentation) {
+    this.instrumentation = instrumentation;
+  }
 }
@@ -31,6 +31,16 @@ public interface Quantity {
   @NotNull
   Quantity decrement();
 
+  // the quantity after the given number of increments, or decrements if negative.
+  @NotNull
+  default Quantity plus(final long steps) {
+    Quantity quantity = this;
+    for (long i = 0; i < Math.abs(steps); i++) {
+      quantity = steps > 0 ? quantity.increment() : quantity.decrement();
+    }
+    return quantity;
+  }
+
   @Contract("_ -> new")
   @NotNull
   static Quantity string(@NotNull final String quantity) {
@@ -75,6 +85,12 @@ public interface Quantity {
       return toNumberBased().decrement();
     }
 
+    @NotNull
+    @Override
+    public Quantity plus(final long steps) {
+      return toNumberBased().plus(steps);
+    }
+
     @NotNull
     @Contract(" -> new")
     private Quantity toNumberBased() {
@@ -110,6 +126,12 @@ public interface Quantity {
       return new IntQuantity(quantity - 1);
     }
 
+    @NotNull
+    @Override
+    public Quantity plus(final long steps) {
+      return new IntQuantity(Math.toIntExact(quantity + steps));
+    }
+
     @Override
     public String toString() {
       return asString();
@@ -163,6 +185,14 @@ public interface Quantity {
       return new FloatQuantity(next.doubleValue());
     }
 
+    @NotNull
+    @Override
+    public Quantity plus(final long steps) {
+      final BigDecimal current = BigDecimal.valueOf(quantity);
+      final BigDecimal next = current.add(diff.multiply(BigDecimal.valueOf(steps)));
+      return new FloatQuantity(next.doubleValue());
+    }
+
     @Override
     public String toString() {
       return asString();
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * reference counts of the journal and the coalescer of {@link PixelaClientConfig}, which are shared
+ * by every client built from the config. They are closed when the last client using them is closed.
+ */
+final class SharedResources {
+
+  private static final SharedResources INSTANCE = new SharedResources();
+
+  @NotNull private final Map<AutoCloseable, Integer> references = new IdentityHashMap<>();
+
+  static void acquire(@NotNull final AutoCloseable resource) {
+    INSTANCE.lease(resource);
+  }
+
+  /**
+   * releases a reference of the resource.
+   *
+   * @param resource - the resource.
+   * @return the resource if it is released by the last client, or no-op otherwise.
+   */
+  @NotNull
+  static AutoCloseable release(@NotNull final AutoCloseable resource) {
+    return INSTANCE.giveBack(resource);
+  }
+
+  synchronized void lease(@NotNull final AutoCloseable resource) {
+    references.merge(resource, 1, Integer::sum);
+  }
+
+  @NotNull
+  synchronized AutoCloseable giveBack(@NotNull final AutoCloseable resource) {
+    final Integer count = references.get(resource);
+    if (count == null) {
+      return resource;
+    }
+    if (count > 1) {
+      references.put(resource, count - 1);
+      return () -> {};
+    }
+    references.remove(resource);
+    return resource;
+  }
+
+  @TestOnly
+  static int references(@NotNull final AutoCloseable resource) {
+    synchronized (INSTANCE) {
+      return INSTANCE.references.getOrDefault(resource, 0);
+    }
+  }
+}
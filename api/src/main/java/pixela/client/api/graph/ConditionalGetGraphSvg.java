@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.api.graph;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Optional;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.UserToken;
+import pixela.client.http.ConditionalResponse;
+import pixela.client.http.Get;
+
+class ConditionalGetGraphSvg implements Get<ConditionalResponse> {
+
+  @NotNull private final GetGraphSvg getGraphSvg;
+  @NotNull private final Map<String, String> headers;
+
+  ConditionalGetGraphSvg(
+      @NotNull final GetGraphSvg getGraphSvg, @NotNull final Map<String, String> headers) {
+    this.getGraphSvg = getGraphSvg;
+    this.headers = headers;
+  }
+
+  @NotNull
+  @Override
+  public URI apiEndpoint(@NotNull final URI baseUrl) {
+    return getGraphSvg.apiEndpoint(baseUrl);
+  }
+
+  @NotNull
+  @Override
+  public Optional<UserToken> userToken() {
+    return getGraphSvg.userToken();
+  }
+
+  @NotNull
+  @Override
+  public Class<ConditionalResponse> responseType() {
+    return ConditionalResponse.class;
+  }
+
+  @NotNull
+  @Override
+  public Map<String, String> headers() {
+    return headers;
+  }
+
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return getGraphSvg.endpointTemplate();
+  }
+
+  @NotNull
+  @Override
+  public String errorRequest() {
+    return getGraphSvg.errorRequest();
+  }
+
+  @Override
+  public String toString() {
+    return errorRequest();
+  }
+}
@@ -101,9 +101,18 @@ public class CreateGraph implements Post<Void>, Api<Graph> {
   @Override
   public Mono<Graph> call() {
     final Mono<Void> response = httpClient.post(this);
-    return response.thenReturn(
-        new NewGraph(
-            httpClient, pixela, id, GraphName.of(name), GraphUnit.of(unit), type, color, timezone));
+    return response
+        .doOnSuccess(v -> httpClient.graphDefinitionsCache().invalidate(pixela))
+        .thenReturn(
+            new NewGraph(
+                httpClient,
+                pixela,
+                id,
+                GraphName.of(name),
+                GraphUnit.of(unit),
+                type,
+                color,
+                timezone));
   }
 
   @NotNull
@@ -131,6 +140,12 @@ public class CreateGraph implements Post<Void>, Api<Graph> {
     return Void.class;
   }
 
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users/{username}/graphs";
+  }
+
   @NotNull
   @Override
   public String errorRequest() {
@@ -20,8 +20,11 @@ import java.util.Optional;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import pixela.client.*;
+import pixela.client.coalesce.PixelCoalescer;
 import pixela.client.http.HttpClient;
 import pixela.client.http.Put;
+import pixela.client.journal.JournalEntry;
+import pixela.client.journal.PixelJournal;
 import reactor.core.publisher.Mono;
 
 public class DecrementPixel implements Put<Void>, Api<Graph> {
@@ -51,16 +54,37 @@ public class DecrementPixel implements Put<Void>, Api<Graph> {
   @NotNull
   @Override
   public Mono<Graph> call() {
+    final PixelCoalescer coalescer = httpClient.pixelCoalescer();
+    if (coalescer.enabled()) {
+      return Mono.fromCallable(
+          () -> {
+            coalescer.record(graph, -1L);
+            return graph;
+          });
+    }
+    final PixelJournal journal = httpClient.pixelJournal();
+    if (journal.enabled()) {
+      return Mono.fromCallable(
+          () -> {
+            journal.append(pixela, JournalEntry.step(graph.id(), journal.today(), -1L));
+            return graph;
+          });
+    }
     final Mono<Void> response = httpClient.put(this);
-    return response.then(Mono.just(graph)).cache();
+    return response
+        .doOnSuccess(
+            v -> {
+              httpClient.pixelCache().invalidateGraph(pixela, graph.id());
+              httpClient.svgCache().invalidateGraph(pixela, graph.id());
+            })
+        .then(Mono.just(graph))
+        .cache();
   }
 
   @NotNull
   @Override
   public URI apiEndpoint(@NotNull final URI baseUrl) {
-    final String users = pixela.usersUri(baseUrl).toASCIIString();
-    final String uri = users + graph.subPath() + "/decrement";
-    return URI.create(uri);
+    return URI.create(graph.graphUri(baseUrl).toASCIIString() + "/decrement");
   }
 
   @NotNull
@@ -81,6 +105,17 @@ public class DecrementPixel implements Put<Void>, Api<Graph> {
     return Void.class;
   }
 
+  @Override
+  public boolean idempotent() {
+    return false;
+  }
+
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users/{username}/graphs/{graphID}/decrement";
+  }
+
   @NotNull
   @Override
   public String errorRequest() {
@@ -42,7 +42,14 @@ public class DeleteGraph implements Delete<Void>, Api<Pixela> {
   @Override
   public Mono<Pixela> call() {
     final Mono<Void> response = httpClient.delete(this);
-    return response.then(Mono.just(pixela));
+    return response
+        .doOnSuccess(
+            v -> {
+              httpClient.pixelCache().invalidateGraph(pixela, graphId);
+              httpClient.graphDefinitionsCache().invalidate(pixela);
+              httpClient.svgCache().invalidateGraph(pixela, graphId);
+            })
+        .then(Mono.just(pixela));
   }
 
   @NotNull
@@ -64,6 +71,12 @@ public class DeleteGraph implements Delete<Void>, Api<Pixela> {
     return Void.class;
   }
 
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users/{username}/graphs/{graphID}";
+  }
+
   @NotNull
   @Override
   public String errorRequest() {
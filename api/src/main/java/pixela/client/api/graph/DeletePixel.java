@@ -22,6 +22,7 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import pixela.client.Api;
 import pixela.client.Graph;
+import pixela.client.PixelDate;
 import pixela.client.Pixela;
 import pixela.client.UserToken;
 import pixela.client.http.Delete;
@@ -60,14 +61,19 @@ public class DeletePixel implements Delete<Void>, Api<Graph> {
   @Override
   public Mono<Graph> call() {
     final Mono<Void> response = httpClient.delete(this);
-    return response.then(Mono.just(graph));
+    return response
+        .doOnSuccess(
+            v -> {
+              httpClient.pixelCache().invalidate(pixela, graph, date);
+              httpClient.svgCache().invalidateGraph(pixela, graph.id());
+            })
+        .then(Mono.just(graph));
   }
 
   @NotNull
   @Override
   public URI apiEndpoint(@NotNull final URI baseUrl) {
-    final String users = pixela.usersUri(baseUrl).toASCIIString();
-    final String uri = users + graph.subPath() + '/' + date.format(Graph.PIXEL_DATE_FORMAT);
+    final String uri = graph.graphUri(baseUrl).toASCIIString() + '/' + PixelDate.format(date);
     return URI.create(uri);
   }
 
@@ -83,14 +89,16 @@ public class DeletePixel implements Delete<Void>, Api<Graph> {
     return Void.class;
   }
 
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users/{username}/graphs/{graphID}/{yyyyMMdd}";
+  }
+
   @NotNull
   @Override
   public String errorRequest() {
-    return "DELETE "
-        + pixela.usersUri()
-        + graph.subPath()
-        + '/'
-        + date.format(Graph.PIXEL_DATE_FORMAT);
+    return "DELETE " + pixela.usersUri() + graph.subPath() + '/' + PixelDate.format(date);
   }
 
   @Override
@@ -45,6 +45,11 @@ public class GetGraphDefinitions implements Api<List<Graph>>, Get<GraphDefinitio
   @NotNull
   @Override
   public Mono<List<Graph>> call() {
+    return httpClient.graphDefinitionsCache().get(pixela, this::fetch);
+  }
+
+  @NotNull
+  private Mono<List<Graph>> fetch() {
     final Mono<GraphDefinitions> response = httpClient.get(this);
     return response.map(graphDefinitions -> graphDefinitions.asCollection(httpClient, pixela));
   }
@@ -68,6 +73,12 @@ public class GetGraphDefinitions implements Api<List<Graph>>, Get<GraphDefinitio
     return GraphDefinitions.class;
   }
 
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users/{username}/graphs";
+  }
+
   @NotNull
   @Override
   public String errorRequest() {
@@ -26,6 +26,7 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import pixela.client.Api;
 import pixela.client.Graph;
+import pixela.client.PixelDate;
 import pixela.client.Pixela;
 import pixela.client.UserToken;
 import pixela.client.api.QueryParam;
@@ -135,7 +136,7 @@ public interface GetGraphSvg extends Get<String>, Api<Tuple2<Graph, String>> {
         @NotNull
         @Override
         public Optional<String> asString() {
-          return Optional.of(date.format(FORMATTER));
+          return Optional.of(PixelDate.format(date));
         }
 
         @Override
@@ -16,11 +16,15 @@
 package pixela.client.api.graph;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Map;
 import org.jetbrains.annotations.NotNull;
 import pixela.client.Graph;
 import pixela.client.Pixela;
 import pixela.client.api.QueryParams;
+import pixela.client.cache.SvgCache;
+import pixela.client.http.ConditionalResponse;
 import pixela.client.http.HttpClient;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
@@ -51,17 +55,33 @@ class GetGraphSvgImpl implements GetGraphSvg.WithDateOption, GetGraphSvg.NoOptio
   @NotNull
   @Override
   public Mono<Tuple2<Graph, String>> call() {
-    final Mono<String> response = httpClient.get(this);
-    return response.map(svg -> Tuples.of(graph, svg));
+    final SvgCache svgCache = httpClient.svgCache();
+    if (!svgCache.enabled()) {
+      final Mono<String> response = httpClient.get(this);
+      return response.map(svg -> Tuples.of(graph, svg));
+    }
+    return svgCache
+        .get(pixela, graph, date, mode, this::fetch)
+        .map(svg -> Tuples.of(graph, new String(svg, StandardCharsets.UTF_8)));
+  }
+
+  @NotNull
+  private Mono<ConditionalResponse> fetch(@NotNull final Map<String, String> headers) {
+    return httpClient.get(new ConditionalGetGraphSvg(this, headers));
   }
 
   @NotNull
   @Override
   public URI apiEndpoint(@NotNull final URI baseUrl) {
-    final String graphUri = pixela.usersUri(baseUrl).toASCIIString() + graph.subPath();
+    final URI graphUri = graph.graphUri(baseUrl);
     final String query = QueryParams.concatAll(date, mode);
-    final String uri = graphUri + (query.isEmpty() ? "" : "?" + query);
-    return URI.create(uri);
+    return query.isEmpty() ? graphUri : URI.create(graphUri.toASCIIString() + "?" + query);
+  }
+
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users/{username}/graphs/{graphID}";
   }
 
   @NotNull
@@ -56,18 +56,34 @@ public class GetPixel implements Get<PixelRaw>, Api<Pixel> {
   @NotNull
   @Override
   public Mono<Pixel> call() {
-    final Mono<PixelRaw> response = httpClient.get(this);
-    return response.map(raw -> raw.toPixel(httpClient, pixela, graph, date)).cache();
+    return httpClient.pixelCache().get(pixela, graph, date, this::fetch).cache();
+  }
+
+  /**
+   * reads the pixel from pixela, neither from {@link pixela.client.cache.PixelCache} nor from a
+   * call shared with other requests. It is for read-modify-write of the pixel.
+   *
+   * @return {@link Mono} of the pixel.
+   */
+  @NotNull
+  public Mono<Pixel> callLatest() {
+    return toPixel(httpClient.getLatest(this));
+  }
+
+  @NotNull
+  private Mono<Pixel> fetch() {
+    return toPixel(httpClient.get(this));
+  }
+
+  @NotNull
+  private Mono<Pixel> toPixel(@NotNull final Mono<PixelRaw> response) {
+    return response.map(raw -> raw.toPixel(httpClient, pixela, graph, date));
   }
 
   @NotNull
   @Override
   public URI apiEndpoint(@NotNull final URI baseUrl) {
-    final String uri =
-        pixela.usersUri(baseUrl).toASCIIString()
-            + graph.subPath()
-            + '/'
-            + date.format(Graph.PIXEL_DATE_FORMAT);
+    final String uri = graph.graphUri(baseUrl).toASCIIString() + '/' + PixelDate.format(date);
     return URI.create(uri);
   }
 
@@ -83,10 +99,16 @@ public class GetPixel implements Get<PixelRaw>, Api<Pixel> {
     return PixelRaw.class;
   }
 
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users/{username}/graphs/{graphID}/{yyyyMMdd}";
+  }
+
   @NotNull
   @Override
   public String errorRequest() {
-    return "GET " + graph.subPath() + '/' + date.format(Graph.PIXEL_DATE_FORMAT);
+    return "GET " + graph.subPath() + '/' + PixelDate.format(date);
   }
 
   @Override
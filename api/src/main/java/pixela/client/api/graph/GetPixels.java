@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.api.graph;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.Api;
+import pixela.client.ApiException;
+import pixela.client.ErrorType;
+import pixela.client.Graph;
+import pixela.client.Pixel;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class GetPixels implements Api<List<Pixel>> {
+
+  static final int DEFAULT_CONCURRENCY = 4;
+
+  @NotNull private final Graph graph;
+  @NotNull private final LocalDate from;
+  @NotNull private final LocalDate to;
+  private final int concurrency;
+
+  private GetPixels(
+      @NotNull final Graph graph,
+      @NotNull final LocalDate from,
+      @NotNull final LocalDate to,
+      final int concurrency) {
+    this.graph = graph;
+    this.from = from;
+    this.to = to;
+    this.concurrency = concurrency;
+  }
+
+  /**
+   * @param graph - graph of the pixels.
+   * @param from - the first date, inclusive.
+   * @param to - the last date, inclusive.
+   * @return pixels of dates between from and to.
+   */
+  @Contract("_, _, _ -> new")
+  @NotNull
+  public static GetPixels of(
+      @NotNull final Graph graph, @NotNull final LocalDate from, @NotNull final LocalDate to) {
+    if (to.isBefore(from)) {
+      throw new IllegalArgumentException("to should not be before from: " + from + " - " + to);
+    }
+    return new GetPixels(graph, from, to, DEFAULT_CONCURRENCY);
+  }
+
+  @Contract("_ -> new")
+  @NotNull
+  public GetPixels concurrency(final int concurrency) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("concurrency should be positive: " + concurrency);
+    }
+    return new GetPixels(graph, from, to, concurrency);
+  }
+
+  // at most [concurrency] pixels are fetched at once, and emitted in order of date.
+  // dates without pixel are skipped.
+  @NotNull
+  public Flux<Pixel> pixels() {
+    final long first = from.toEpochDay();
+    return Flux.range(0, (int) (to.toEpochDay() - first + 1))
+        .map(day -> LocalDate.ofEpochDay(first + day))
+        .flatMapSequential(this::get, concurrency, concurrency);
+  }
+
+  @NotNull
+  @Override
+  public Mono<List<Pixel>> call() {
+    return pixels().collectList();
+  }
+
+  @NotNull
+  private Mono<Pixel> get(@NotNull final LocalDate date) {
+    return Mono.defer(() -> graph.getPixel(date).call())
+        .onErrorResume(GetPixels::isNotFound, error -> Mono.empty());
+  }
+
+  private static boolean isNotFound(@NotNull final Throwable error) {
+    return error instanceof ApiException
+        && ((ApiException) error).errorType() == ErrorType.NOT_FOUND;
+  }
+}
@@ -23,8 +23,11 @@ import pixela.client.Api;
 import pixela.client.Graph;
 import pixela.client.Pixela;
 import pixela.client.UserToken;
+import pixela.client.coalesce.PixelCoalescer;
 import pixela.client.http.HttpClient;
 import pixela.client.http.Put;
+import pixela.client.journal.JournalEntry;
+import pixela.client.journal.PixelJournal;
 import reactor.core.publisher.Mono;
 
 public class IncrementPixel implements Put<Void>, Api<Graph> {
@@ -54,16 +57,37 @@ public class IncrementPixel implements Put<Void>, Api<Graph> {
   @NotNull
   @Override
   public Mono<Graph> call() {
+    final PixelCoalescer coalescer = httpClient.pixelCoalescer();
+    if (coalescer.enabled()) {
+      return Mono.fromCallable(
+          () -> {
+            coalescer.record(graph, 1L);
+            return graph;
+          });
+    }
+    final PixelJournal journal = httpClient.pixelJournal();
+    if (journal.enabled()) {
+      return Mono.fromCallable(
+          () -> {
+            journal.append(pixela, JournalEntry.step(graph.id(), journal.today(), 1L));
+            return graph;
+          });
+    }
     final Mono<Void> response = httpClient.put(this);
-    return response.then(Mono.just(graph)).cache();
+    return response
+        .doOnSuccess(
+            v -> {
+              httpClient.pixelCache().invalidateGraph(pixela, graph.id());
+              httpClient.svgCache().invalidateGraph(pixela, graph.id());
+            })
+        .then(Mono.just(graph))
+        .cache();
   }
 
   @NotNull
   @Override
   public URI apiEndpoint(@NotNull final URI baseUrl) {
-    final String users = pixela.usersUri(baseUrl).toASCIIString();
-    final String uri = users + graph.subPath() + "/increment";
-    return URI.create(uri);
+    return URI.create(graph.graphUri(baseUrl).toASCIIString() + "/increment");
   }
 
   @NotNull
@@ -84,6 +108,17 @@ public class IncrementPixel implements Put<Void>, Api<Graph> {
     return Void.class;
   }
 
+  @Override
+  public boolean idempotent() {
+    return false;
+  }
+
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users/{username}/graphs/{graphID}/increment";
+  }
+
   @NotNull
   @Override
   public String errorRequest() {
@@ -110,6 +110,12 @@ public class NewGraph implements Graph {
     return simpleGraph.subPath();
   }
 
+  @NotNull
+  @Override
+  public URI graphUri(@NotNull final URI baseUri) {
+    return simpleGraph.graphUri(baseUri);
+  }
+
   @NotNull
   @Override
   public IncrementPixel incrementPixel() {
@@ -19,6 +19,7 @@ import java.time.LocalDate;
 import java.util.Optional;
 import org.jetbrains.annotations.NotNull;
 import pixela.client.Graph;
+import pixela.client.PixelDate;
 import pixela.client.Pixela;
 import pixela.client.http.HttpClient;
 import pixela.client.http.json.JsonDecoder;
@@ -91,7 +92,7 @@ class PixelImpl implements pixela.client.Pixel {
     return "Pixel["
         + graph
         + ",date="
-        + date.format(Graph.PIXEL_DATE_FORMAT)
+        + PixelDate.format(date)
         + ",quantity="
         + raw.quantity()
         + (raw.optionalData().map(data -> ",optionalData=" + data).orElse(""))
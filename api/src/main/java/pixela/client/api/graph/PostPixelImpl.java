@@ -15,6 +15,8 @@
  */
 package pixela.client.api.graph;
 
+import static pixela.client.PixelDate.format;
+
 import java.net.URI;
 import java.time.LocalDate;
 import java.util.Optional;
@@ -22,10 +24,14 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import pixela.client.*;
 import pixela.client.http.HttpClient;
+import pixela.client.http.json.JsonBuffer;
 import pixela.client.http.json.JsonEncoder;
+import pixela.client.http.json.JsonWritable;
+import pixela.client.journal.JournalEntry;
+import pixela.client.journal.PixelJournal;
 import reactor.core.publisher.Mono;
 
-public class PostPixelImpl implements PostPixel, PostPixel.OptionData {
+public class PostPixelImpl implements PostPixel, PostPixel.OptionData, JsonWritable {
 
   @NotNull private final HttpClient httpClient;
   @NotNull private final Pixela pixela;
@@ -66,16 +72,38 @@ public class PostPixelImpl implements PostPixel, PostPixel.OptionData {
   @NotNull
   @Override
   public Mono<Pixel> call() {
+    final PixelJournal journal = httpClient.pixelJournal();
+    if (!journal.enabled()) {
+      return send();
+    }
+    return Mono.subscriberContext()
+        .flatMap(context -> PixelJournal.isReplay(context) ? send() : record(journal));
+  }
+
+  @NotNull
+  private Mono<Pixel> send() {
     final Mono<Void> response = httpClient.post(this);
-    return response.thenReturn(
-        new PixelRaw(quantity, optionalData).toPixel(httpClient, pixela, graph, date));
+    return response
+        .thenReturn(new PixelRaw(quantity, optionalData).toPixel(httpClient, pixela, graph, date))
+        .doOnNext(httpClient.pixelCache()::put)
+        .doOnNext(pixel -> httpClient.svgCache().invalidateGraph(pixela, graph.id()));
+  }
+
+  // the pixel is sent later by the journal.
+  @NotNull
+  private Mono<Pixel> record(@NotNull final PixelJournal journal) {
+    return Mono.fromCallable(
+            () -> {
+              journal.append(pixela, JournalEntry.post(graph.id(), date, quantity, optionalData));
+              return new PixelRaw(quantity, optionalData).toPixel(httpClient, pixela, graph, date);
+            })
+        .doOnNext(httpClient.pixelCache()::put);
   }
 
   @NotNull
   @Override
   public URI apiEndpoint(@NotNull final URI baseUrl) {
-    final String uri = pixela.usersUri(baseUrl).toASCIIString() + graph.subPath();
-    return URI.create(uri);
+    return graph.graphUri(baseUrl);
   }
 
   @NotNull
@@ -96,6 +124,12 @@ public class PostPixelImpl implements PostPixel, PostPixel.OptionData {
     return Void.class;
   }
 
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users/{username}/graphs/{graphID}";
+  }
+
   @NotNull
   @Override
   public String errorRequest() {
@@ -104,7 +138,7 @@ public class PostPixelImpl implements PostPixel, PostPixel.OptionData {
         + graph.subPath()
         + '\n'
         + "  date: "
-        + date.format(Graph.PIXEL_DATE_FORMAT)
+        + format(date)
         + '\n'
         + "  quantity: "
         + quantity
@@ -139,7 +173,7 @@ public class PostPixelImpl implements PostPixel, PostPixel.OptionData {
   @NotNull
   @Override
   public String getDate() {
-    return date.format(Graph.PIXEL_DATE_FORMAT);
+    return format(date);
   }
 
   @NotNull
@@ -153,4 +187,12 @@ public class PostPixelImpl implements PostPixel, PostPixel.OptionData {
   public String getOptionalData() {
     return optionalData;
   }
+
+  @Override
+  public void writeJson(@NotNull final JsonBuffer buffer) {
+    buffer
+        .field("date", getDate())
+        .field("quantity", getQuantity())
+        .field("optionalData", optionalData);
+  }
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.api.graph;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pixela.client.Api;
+import pixela.client.Graph;
+import pixela.client.Pixel;
+import pixela.client.PixelEntry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class PostPixels implements Api<PostPixels.Stats> {
+
+  static final int DEFAULT_CONCURRENCY = 4;
+
+  @NotNull private final Graph graph;
+  @NotNull private final Flux<PixelEntry> entries;
+  private final int concurrency;
+
+  private PostPixels(
+      @NotNull final Graph graph, @NotNull final Flux<PixelEntry> entries, final int concurrency) {
+    this.graph = graph;
+    this.entries = entries;
+    this.concurrency = concurrency;
+  }
+
+  @Contract("_, _ -> new")
+  @NotNull
+  public static PostPixels of(@NotNull final Graph graph, @NotNull final Flux<PixelEntry> entries) {
+    return new PostPixels(graph, entries, DEFAULT_CONCURRENCY);
+  }
+
+  @Contract("_ -> new")
+  @NotNull
+  public PostPixels concurrency(final int concurrency) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("concurrency should be positive: " + concurrency);
+    }
+    return new PostPixels(graph, entries, concurrency);
+  }
+
+  // at most [concurrency] entries are requested from upstream and posted at once.
+  @NotNull
+  public Flux<Result> results() {
+    return entries.flatMap(this::post, concurrency, concurrency);
+  }
+
+  @NotNull
+  @Override
+  public Mono<Stats> call() {
+    return Mono.defer(
+        () -> {
+          final long start = System.nanoTime();
+          return results()
+              .reduce(Stats.EMPTY, Stats::add)
+              .map(stats -> stats.elapsed(Duration.ofNanos(System.nanoTime() - start)));
+        });
+  }
+
+  @NotNull
+  private Mono<Result> post(@NotNull final PixelEntry entry) {
+    return Mono.defer(() -> postPixel(entry).call())
+        .map(pixel -> Result.success(entry, pixel))
+        .onErrorResume(throwable -> Mono.just(Result.failure(entry, throwable)));
+  }
+
+  @NotNull
+  private PostPixel postPixel(@NotNull final PixelEntry entry) {
+    final PostPixel.OptionData optionData =
+        graph.postPixel().date(entry.date()).quantity(entry.quantity());
+    return entry.optionalData().map(optionData::optionDataJson).orElseGet(optionData::noOptionData);
+  }
+
+  public static class Result {
+
+    @NotNull private final PixelEntry entry;
+    @Nullable private final Pixel pixel;
+    @Nullable private final Throwable error;
+
+    private Result(
+        @NotNull final PixelEntry entry,
+        @Nullable final Pixel pixel,
+        @Nullable final Throwable error) {
+      this.entry = entry;
+      this.pixel = pixel;
+      this.error = error;
+    }
+
+    @NotNull
+    static Result success(@NotNull final PixelEntry entry, @NotNull final Pixel pixel) {
+      return new Result(entry, pixel, null);
+    }
+
+    @NotNull
+    static Result failure(@NotNull final PixelEntry entry, @NotNull final Throwable error) {
+      return new Result(entry, null, error);
+    }
+
+    @NotNull
+    public PixelEntry entry() {
+      return entry;
+    }
+
+    public boolean isSuccess() {
+      return error == null;
+    }
+
+    @NotNull
+    public Optional<Pixel> pixel() {
+      return Optional.ofNullable(pixel);
+    }
+
+    @NotNull
+    public Optional<Throwable> error() {
+      return Optional.ofNullable(error);
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+      return "Result[" + entry + (error == null ? ",success]" : ",error:" + error + "]");
+    }
+  }
+
+  public static class Stats {
+
+    static final Stats EMPTY = new Stats(0L, 0L, Duration.ZERO);
+
+    private final long succeeded;
+    private final long failed;
+    @NotNull private final Duration elapsed;
+
+    private Stats(final long succeeded, final long failed, @NotNull final Duration elapsed) {
+      this.succeeded = succeeded;
+      this.failed = failed;
+      this.elapsed = elapsed;
+    }
+
+    @NotNull
+    Stats add(@NotNull final Result result) {
+      return result.isSuccess()
+          ? new Stats(succeeded + 1, failed, elapsed)
+          : new Stats(succeeded, failed + 1, elapsed);
+    }
+
+    @NotNull
+    Stats elapsed(@NotNull final Duration elapsed) {
+      return new Stats(succeeded, failed, elapsed);
+    }
+
+    public long total() {
+      return succeeded + failed;
+    }
+
+    public long succeeded() {
+      return succeeded;
+    }
+
+    public long failed() {
+      return failed;
+    }
+
+    @NotNull
+    public Duration elapsed() {
+      return elapsed;
+    }
+
+    public double throughputPerSecond() {
+      final long nanos = elapsed.toNanos();
+      if (nanos == 0L) {
+        return 0.0;
+      }
+      return total() * 1_000_000_000.0 / nanos;
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+      return "Stats[total:"
+          + total()
+          + ",succeeded:"
+          + succeeded
+          + ",failed:"
+          + failed
+          + ",elapsed:"
+          + elapsed
+          + "]";
+    }
+  }
+}
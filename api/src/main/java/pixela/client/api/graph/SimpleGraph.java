@@ -25,6 +25,7 @@ import pixela.client.GraphId;
 import pixela.client.Pixela;
 import pixela.client.WebhookType;
 import pixela.client.api.webhook.CreateWebhook;
+import pixela.client.http.EndpointCache;
 import pixela.client.http.HttpClient;
 
 public class SimpleGraph implements Graph, PostPixel.PixelDate {
@@ -35,6 +36,10 @@ public class SimpleGraph implements Graph, PostPixel.PixelDate {
 
   @NotNull private final GraphId graphId;
 
+  @NotNull private final String subPath;
+
+  @NotNull private final EndpointCache graphUri;
+
   SimpleGraph(
       @NotNull final HttpClient httpClient,
       @NotNull final Pixela pixela,
@@ -42,6 +47,8 @@ public class SimpleGraph implements Graph, PostPixel.PixelDate {
     this.httpClient = httpClient;
     this.pixela = pixela;
     this.graphId = graphId;
+    this.subPath = Graph.PATH + graphId.path();
+    this.graphUri = EndpointCache.of(baseUri -> pixela.usersUri(baseUri).toASCIIString() + subPath);
   }
 
   @Contract("_, _, _ -> new")
@@ -86,9 +93,7 @@ public class SimpleGraph implements Graph, PostPixel.PixelDate {
   @NotNull
   @Override
   public URI viewUri() {
-    final URI uri = httpClient.baseUri();
-    final URI usersUri = pixela.usersUri(uri);
-    final String string = usersUri.toASCIIString() + subPath() + ".html";
+    final String string = graphUri.asString(httpClient.baseUri()) + ".html";
     return URI.create(string);
   }
 
@@ -112,7 +117,13 @@ public class SimpleGraph implements Graph, PostPixel.PixelDate {
   @NotNull
   @Override
   public String subPath() {
-    return Graph.PATH + graphId.path();
+    return subPath;
+  }
+
+  @NotNull
+  @Override
+  public URI graphUri(@NotNull final URI baseUri) {
+    return graphUri.resolve(baseUri);
   }
 
   @NotNull
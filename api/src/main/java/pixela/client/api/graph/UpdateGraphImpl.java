@@ -27,9 +27,11 @@ import pixela.client.GraphSelfSufficient;
 import pixela.client.Pixela;
 import pixela.client.UserToken;
 import pixela.client.http.HttpClient;
+import pixela.client.http.json.JsonBuffer;
+import pixela.client.http.json.JsonWritable;
 import reactor.core.publisher.Mono;
 
-class UpdateGraphImpl implements UpdateGraph.Unit {
+class UpdateGraphImpl implements UpdateGraph.Unit, JsonWritable {
 
   @NotNull private final HttpClient httpClient;
   @NotNull private final Pixela pixela;
@@ -127,15 +129,19 @@ class UpdateGraphImpl implements UpdateGraph.Unit {
   @Override
   public Mono<Graph> call() {
     final Mono<Void> response = httpClient.put(this);
-    return response.thenReturn(SimpleGraph.of(httpClient, pixela, graph.id()));
+    return response
+        .doOnSuccess(
+            v -> {
+              httpClient.graphDefinitionsCache().invalidate(pixela);
+              httpClient.svgCache().invalidateGraph(pixela, graph.id());
+            })
+        .thenReturn(SimpleGraph.of(httpClient, pixela, graph.id()));
   }
 
   @NotNull
   @Override
   public URI apiEndpoint(@NotNull final URI baseUrl) {
-    final String usersUri = pixela.usersUri(baseUrl).toASCIIString();
-    final String subPath = graph.subPath();
-    return URI.create(usersUri + subPath);
+    return graph.graphUri(baseUrl);
   }
 
   @NotNull
@@ -144,6 +150,12 @@ class UpdateGraphImpl implements UpdateGraph.Unit {
     return Optional.of(pixela.token());
   }
 
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users/{username}/graphs/{graphID}";
+  }
+
   @NotNull
   @Override
   public String errorRequest() {
@@ -306,4 +318,15 @@ class UpdateGraphImpl implements UpdateGraph.Unit {
     return new UpdateGraphImpl(
         httpClient, pixela, graph, name, unit, color, timezone, purgeCacheURLs, selfSufficient);
   }
+
+  @Override
+  public void writeJson(@NotNull final JsonBuffer buffer) {
+    buffer
+        .field("name", name)
+        .field("unit", unit)
+        .field("color", getColor())
+        .field("timezone", getTimezone())
+        .arrayField("purgeCacheURLs", getPurgeCacheURLs())
+        .field("selfSufficient", getSelfSufficient());
+  }
 }
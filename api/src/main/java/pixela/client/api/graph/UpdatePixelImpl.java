@@ -22,10 +22,15 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import pixela.client.*;
 import pixela.client.http.HttpClient;
+import pixela.client.http.json.JsonBuffer;
 import pixela.client.http.json.JsonEncoder;
+import pixela.client.http.json.JsonWritable;
+import pixela.client.journal.JournalEntry;
+import pixela.client.journal.PixelJournal;
 import reactor.core.publisher.Mono;
 
-public class UpdatePixelImpl implements UpdatePixel, UpdatePixel.OptionalData, PixelDetail {
+public class UpdatePixelImpl
+    implements UpdatePixel, UpdatePixel.OptionalData, PixelDetail, JsonWritable {
 
   @NotNull private final HttpClient httpClient;
   @NotNull private final Pixela pixela;
@@ -76,21 +81,40 @@ public class UpdatePixelImpl implements UpdatePixel, UpdatePixel.OptionalData, P
   @NotNull
   @Override
   public Mono<pixela.client.Pixel> call() {
+    final PixelJournal journal = httpClient.pixelJournal();
+    if (!journal.enabled()) {
+      return send();
+    }
+    return Mono.subscriberContext()
+        .flatMap(context -> PixelJournal.isReplay(context) ? send() : record(journal));
+  }
+
+  // the pixel is sent later by the journal.
+  @NotNull
+  private Mono<pixela.client.Pixel> record(@NotNull final PixelJournal journal) {
+    return Mono.<pixela.client.Pixel>fromCallable(
+            () -> {
+              journal.append(pixela, JournalEntry.update(graph.id(), date, quantity, optionalData));
+              return new PixelImpl(httpClient, pixela, graph, date, this);
+            })
+        .doOnNext(httpClient.pixelCache()::put);
+  }
+
+  @NotNull
+  private Mono<pixela.client.Pixel> send() {
     final Mono<Void> response = httpClient.put(this);
     return response
         .<pixela.client.Pixel>then(
             Mono.defer(() -> Mono.just(new PixelImpl(httpClient, pixela, graph, date, this))))
+        .doOnNext(httpClient.pixelCache()::put)
+        .doOnNext(pixel -> httpClient.svgCache().invalidateGraph(pixela, graph.id()))
         .cache();
   }
 
   @NotNull
   @Override
   public URI apiEndpoint(@NotNull final URI baseUrl) {
-    final String uri =
-        pixela.usersUri(baseUrl).toASCIIString()
-            + graph.subPath()
-            + '/'
-            + date.format(Graph.PIXEL_DATE_FORMAT);
+    final String uri = graph.graphUri(baseUrl).toASCIIString() + '/' + PixelDate.format(date);
     return URI.create(uri);
   }
 
@@ -112,6 +136,12 @@ public class UpdatePixelImpl implements UpdatePixel, UpdatePixel.OptionalData, P
     return Void.class;
   }
 
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users/{username}/graphs/{graphID}/{yyyyMMdd}";
+  }
+
   @NotNull
   @Override
   public String errorRequest() {
@@ -119,7 +149,7 @@ public class UpdatePixelImpl implements UpdatePixel, UpdatePixel.OptionalData, P
         + pixela.usersUri()
         + graph.subPath()
         + '/'
-        + date.format(Graph.PIXEL_DATE_FORMAT)
+        + PixelDate.format(date)
         + '\n'
         + "  quantity: "
         + '\n'
@@ -171,4 +201,9 @@ public class UpdatePixelImpl implements UpdatePixel, UpdatePixel.OptionalData, P
         .encodeObject(object)
         .map(opd -> new UpdatePixelImpl(httpClient, pixela, graph, date, quantity, opd));
   }
+
+  @Override
+  public void writeJson(@NotNull final JsonBuffer buffer) {
+    buffer.field("quantity", getQuantity()).field("optionalData", optionalData);
+  }
 }
@@ -105,6 +105,12 @@ public class CreateUser implements Post<Void>, Api<Pixela> {
     return Void.class;
   }
 
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users";
+  }
+
   @NotNull
   @Override
   public String errorRequest() {
@@ -76,6 +76,12 @@ public class DeleteUser implements Delete<Void>, Api<Void> {
     return Void.class;
   }
 
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users/{username}";
+  }
+
   @NotNull
   @Override
   public String errorRequest() {
@@ -31,6 +31,7 @@ import pixela.client.api.graph.CreateGraph;
 import pixela.client.api.graph.GetGraphDefinitions;
 import pixela.client.api.graph.PostPixel;
 import pixela.client.api.webhook.GetWebhooks;
+import pixela.client.http.EndpointCache;
 import pixela.client.http.HttpClient;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
@@ -43,6 +44,10 @@ public class PixelaImpl implements Pixela {
   @NotNull private final UserToken userToken;
   @NotNull private final Username username;
 
+  @NotNull private final String usersPath;
+
+  @NotNull private final EndpointCache usersUri;
+
   private PixelaImpl(
       @NotNull final HttpClient httpClient,
       @NotNull final UserToken userToken,
@@ -50,6 +55,8 @@ public class PixelaImpl implements Pixela {
     this.httpClient = httpClient;
     this.userToken = userToken;
     this.username = username;
+    this.usersPath = USERS_PATH + username.path();
+    this.usersUri = EndpointCache.of(baseUri -> baseUri.toASCIIString() + usersPath);
   }
 
   public interface PixelaToken {
@@ -83,14 +90,13 @@ public class PixelaImpl implements Pixela {
   @NotNull
   @Override
   public URI usersUri(@NotNull final URI baseUri) {
-    final String string = baseUri.toASCIIString() + USERS_PATH + username.path();
-    return URI.create(string);
+    return usersUri.resolve(baseUri);
   }
 
   @NotNull
   @Override
   public String usersUri() {
-    return USERS_PATH + username.path();
+    return usersPath;
   }
 
   @NotNull
@@ -99,6 +99,12 @@ public class UpdateUser implements Put<Void>, Api<Pixela> {
     return Void.class;
   }
 
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users/{username}";
+  }
+
   @NotNull
   @Override
   public String errorRequest() {
@@ -96,6 +96,12 @@ public class CreateWebhook implements Post<CreateWebhookResult>, Api<Webhook> {
     return CreateWebhookResult.class;
   }
 
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users/{username}/webhooks";
+  }
+
   @NotNull
   @Override
   public String errorRequest() {
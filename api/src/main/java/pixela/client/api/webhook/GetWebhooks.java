@@ -70,6 +70,12 @@ public class GetWebhooks implements Get<Webhooks>, Api<List<Webhook>> {
     return Webhooks.class;
   }
 
+  @NotNull
+  @Override
+  public String endpointTemplate() {
+    return "/v1/users/{username}/webhooks";
+  }
+
   @NotNull
   @Override
   public String errorRequest() {
@@ -0,0 +1,401 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import reactor.core.publisher.Mono;
+
+public class Cache<K, V> {
+
+  private final long maxWeight;
+  private final long ttlNanos;
+  @NotNull private final Weigher<? super K, ? super V> weigher;
+  @NotNull private final LongSupplier clock;
+  // groups of keys, to invalidate a group without scanning all entries. null if not grouped.
+  @Nullable private final Function<? super K, ?> group;
+
+  // access ordered, so the eldest entry is the least recently used one.
+  @NotNull private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long weight;
+
+  @NotNull private final Map<Object, Set<K>> groups = new HashMap<>();
+
+  // keys being loaded, to drop results of loads which started before a write to the key.
+  @NotNull private final Map<K, Loading> loading = new HashMap<>();
+
+  @NotNull private final LongAdder hits = new LongAdder();
+  @NotNull private final LongAdder misses = new LongAdder();
+  @NotNull private final LongAdder evictions = new LongAdder();
+  @NotNull private final LongAdder expirations = new LongAdder();
+
+  Cache(
+      final long maxWeight,
+      @NotNull final Duration ttl,
+      @NotNull final Weigher<? super K, ? super V> weigher,
+      @NotNull final LongSupplier clock) {
+    this(maxWeight, ttl, weigher, clock, null);
+  }
+
+  Cache(
+      final long maxWeight,
+      @NotNull final Duration ttl,
+      @NotNull final Weigher<? super K, ? super V> weigher,
+      @NotNull final LongSupplier clock,
+      @Nullable final Function<? super K, ?> group) {
+    if (maxWeight < 1L) {
+      throw new IllegalArgumentException("maxWeight should be positive: " + maxWeight);
+    }
+    if (ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("ttl should be positive: " + ttl);
+    }
+    this.maxWeight = maxWeight;
+    this.ttlNanos = ttl.toNanos();
+    this.weigher = weigher;
+    this.clock = clock;
+    this.group = group;
+  }
+
+  @Contract("_, _ -> new")
+  @NotNull
+  public static <K, V> Cache<K, V> of(final long maxSize, @NotNull final Duration ttl) {
+    return new Cache<>(maxSize, ttl, (k, v) -> 1, System::nanoTime);
+  }
+
+  @Contract("_, _, _ -> new")
+  @NotNull
+  public static <K, V> Cache<K, V> weighted(
+      final long maxWeight,
+      @NotNull final Duration ttl,
+      @NotNull final Weigher<? super K, ? super V> weigher) {
+    return new Cache<>(maxWeight, ttl, weigher, System::nanoTime);
+  }
+
+  @FunctionalInterface
+  public interface Weigher<K, V> {
+    int weigh(@NotNull K key, @NotNull V value);
+  }
+
+  @NotNull
+  public Optional<V> getIfPresent(@NotNull final K key) {
+    final V value = lookup(key);
+    if (value == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return Optional.ofNullable(value);
+  }
+
+  @Nullable
+  private synchronized V lookup(@NotNull final K key) {
+    final Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (entry.isExpired(clock.getAsLong())) {
+      remove(key);
+      expirations.increment();
+      return null;
+    }
+    return entry.value;
+  }
+
+  /**
+   * returns cached value, or subscribes to the loader and caches its value.
+   *
+   * @param key - the key of the value.
+   * @param loader - the source of the value when it is not cached.
+   * @return {@link Mono} of the value.
+   */
+  @NotNull
+  public Mono<V> get(@NotNull final K key, @NotNull final Supplier<Mono<V>> loader) {
+    return Mono.defer(
+        () -> {
+          final Optional<V> cached = getIfPresent(key);
+          if (cached.isPresent()) {
+            return Mono.just(cached.get());
+          }
+          return load(key, loader);
+        });
+  }
+
+  /**
+   * subscribes to the loader and caches its value, unless the key is written or invalidated while
+   * loading.
+   *
+   * @param key - the key of the value.
+   * @param loader - the source of the value.
+   * @return {@link Mono} of the loaded value.
+   */
+  @NotNull
+  public Mono<V> load(@NotNull final K key, @NotNull final Supplier<Mono<V>> loader) {
+    return Mono.defer(
+        () -> {
+          final Loading load = startLoading(key);
+          final long writes = load.writes;
+          return loader
+              .get()
+              .doOnNext(value -> putIfUnchanged(key, value, load, writes))
+              .doFinally(signal -> finishLoading(key, load));
+        });
+  }
+
+  @NotNull
+  private synchronized Loading startLoading(@NotNull final K key) {
+    final Loading load = loading.computeIfAbsent(key, k -> new Loading());
+    load.loads++;
+    return load;
+  }
+
+  private synchronized void finishLoading(@NotNull final K key, @NotNull final Loading load) {
+    load.loads--;
+    if (load.loads == 0) {
+      loading.remove(key, load);
+    }
+  }
+
+  private synchronized void putIfUnchanged(
+      @NotNull final K key,
+      @NotNull final V value,
+      @NotNull final Loading load,
+      final long writes) {
+    // a loaded value is not counted as a write, not to drop other loads of the key running at once.
+    if (load.writes == writes) {
+      store(key, value);
+    }
+  }
+
+  private void written(@NotNull final K key) {
+    final Loading load = loading.get(key);
+    if (load != null) {
+      load.writes++;
+    }
+  }
+
+  public synchronized void put(@NotNull final K key, @NotNull final V value) {
+    written(key);
+    store(key, value);
+  }
+
+  private void store(@NotNull final K key, @NotNull final V value) {
+    final int entryWeight = weigher.weigh(key, value);
+    if (entryWeight > maxWeight) {
+      remove(key);
+      return;
+    }
+    final Entry<V> old =
+        entries.put(key, new Entry<>(value, entryWeight, clock.getAsLong() + ttlNanos));
+    if (old != null) {
+      weight -= old.weight;
+    } else if (group != null) {
+      groups.computeIfAbsent(group.apply(key), g -> new HashSet<>()).add(key);
+    }
+    weight += entryWeight;
+    evict();
+  }
+
+  private void evict() {
+    final Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+    while (weight > maxWeight && iterator.hasNext()) {
+      final Map.Entry<K, Entry<V>> eldest = iterator.next();
+      iterator.remove();
+      weight -= eldest.getValue().weight;
+      ungroup(eldest.getKey());
+      evictions.increment();
+    }
+  }
+
+  public synchronized void invalidate(@NotNull final K key) {
+    written(key);
+    remove(key);
+  }
+
+  public synchronized void invalidateIf(@NotNull final Predicate<? super K> condition) {
+    loading.forEach(
+        (key, load) -> {
+          if (condition.test(key)) {
+            load.writes++;
+          }
+        });
+    final Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<K, Entry<V>> entry = iterator.next();
+      if (condition.test(entry.getKey())) {
+        iterator.remove();
+        weight -= entry.getValue().weight;
+        ungroup(entry.getKey());
+      }
+    }
+  }
+
+  /**
+   * invalidates entries of the group, without scanning entries of other groups.
+   *
+   * @param group - the group given by the function of this cache.
+   * @throws IllegalStateException - when this cache is not grouped.
+   */
+  public synchronized void invalidateGroup(@NotNull final Object group) {
+    final Function<? super K, ?> groupOf = this.group;
+    if (groupOf == null) {
+      throw new IllegalStateException("this cache is not grouped.");
+    }
+    loading.forEach(
+        (key, load) -> {
+          if (group.equals(groupOf.apply(key))) {
+            load.writes++;
+          }
+        });
+    final Set<K> keys = groups.remove(group);
+    if (keys == null) {
+      return;
+    }
+    for (final K key : keys) {
+      final Entry<V> removed = entries.remove(key);
+      if (removed != null) {
+        weight -= removed.weight;
+      }
+    }
+  }
+
+  public synchronized void invalidateAll() {
+    loading.values().forEach(load -> load.writes++);
+    entries.clear();
+    groups.clear();
+    weight = 0L;
+  }
+
+  private void remove(@NotNull final K key) {
+    final Entry<V> removed = entries.remove(key);
+    if (removed != null) {
+      weight -= removed.weight;
+      ungroup(key);
+    }
+  }
+
+  private void ungroup(@NotNull final K key) {
+    if (group == null) {
+      return;
+    }
+    final Object keyGroup = group.apply(key);
+    final Set<K> keys = groups.get(keyGroup);
+    if (keys != null && keys.remove(key) && keys.isEmpty()) {
+      groups.remove(keyGroup);
+    }
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long weight() {
+    return weight;
+  }
+
+  @NotNull
+  public Stats stats() {
+    return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+  }
+
+  private static class Loading {
+
+    private int loads;
+    // count of writes and invalidations of the key since the first of running loads started.
+    private long writes;
+  }
+
+  private static class Entry<V> {
+
+    @NotNull private final V value;
+    private final int weight;
+    private final long expiresAt;
+
+    Entry(@NotNull final V value, final int weight, final long expiresAt) {
+      this.value = value;
+      this.weight = weight;
+      this.expiresAt = expiresAt;
+    }
+
+    boolean isExpired(final long now) {
+      return now - expiresAt >= 0L;
+    }
+  }
+
+  public static class Stats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+
+    Stats(final long hits, final long misses, final long evictions, final long expirations) {
+      this.hits = hits;
+      this.misses = misses;
+      this.evictions = evictions;
+      this.expirations = expirations;
+    }
+
+    public long hits() {
+      return hits;
+    }
+
+    public long misses() {
+      return misses;
+    }
+
+    public long evictions() {
+      return evictions;
+    }
+
+    public long expirations() {
+      return expirations;
+    }
+
+    public double hitRate() {
+      final long requests = hits + misses;
+      return requests == 0L ? 0.0 : (double) hits / requests;
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+      return "Stats[hits:"
+          + hits
+          + ",misses:"
+          + misses
+          + ",evictions:"
+          + evictions
+          + ",expirations:"
+          + expirations
+          + "]";
+    }
+  }
+}
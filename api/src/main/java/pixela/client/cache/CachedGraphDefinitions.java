@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.Graph;
+import pixela.client.Pixela;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+class CachedGraphDefinitions implements GraphDefinitionsCache {
+
+  @NotNull private final Cache<UserKey, Definitions> cache;
+  private final long refreshNanos;
+  @NotNull private final LongSupplier clock;
+  @NotNull private final Scheduler scheduler;
+
+  // users whose definitions are being refreshed in background.
+  @NotNull private final Set<UserKey> refreshing = ConcurrentHashMap.newKeySet();
+
+  CachedGraphDefinitions(
+      final int maxUsers,
+      @NotNull final Duration refreshAfter,
+      @NotNull final Duration expireAfter,
+      @NotNull final LongSupplier clock,
+      @NotNull final Scheduler scheduler) {
+    if (refreshAfter.isNegative() || refreshAfter.compareTo(expireAfter) > 0) {
+      throw new IllegalArgumentException(
+          "refreshAfter should be in [0, expireAfter]: " + refreshAfter + ", " + expireAfter);
+    }
+    this.cache = new Cache<>(maxUsers, expireAfter, (k, v) -> 1, clock);
+    this.refreshNanos = refreshAfter.toNanos();
+    this.clock = clock;
+    this.scheduler = scheduler;
+  }
+
+  @NotNull
+  @Override
+  public Mono<List<Graph>> get(
+      @NotNull final Pixela pixela, @NotNull final Supplier<Mono<List<Graph>>> loader) {
+    final UserKey key = UserKey.of(pixela);
+    return Mono.defer(
+        () -> {
+          final Optional<Definitions> cached = cache.getIfPresent(key);
+          if (!cached.isPresent()) {
+            return load(key, loader).map(definitions -> definitions.graphs);
+          }
+          final Definitions definitions = cached.get();
+          if (definitions.isStale(clock.getAsLong(), refreshNanos)) {
+            refresh(key, loader);
+          }
+          return Mono.just(definitions.graphs);
+        });
+  }
+
+  @NotNull
+  private Mono<Definitions> load(
+      @NotNull final UserKey key, @NotNull final Supplier<Mono<List<Graph>>> loader) {
+    return cache.load(
+        key, () -> loader.get().map(graphs -> new Definitions(graphs, clock.getAsLong())));
+  }
+
+  private void refresh(
+      @NotNull final UserKey key, @NotNull final Supplier<Mono<List<Graph>>> loader) {
+    if (!refreshing.add(key)) {
+      return;
+    }
+    // a failed refresh keeps the stale definitions until they expire.
+    load(key, loader)
+        .subscribeOn(scheduler)
+        .doFinally(signal -> refreshing.remove(key))
+        .subscribe(definitions -> {}, error -> {});
+  }
+
+  @Override
+  public void invalidate(@NotNull final Pixela pixela) {
+    cache.invalidate(UserKey.of(pixela));
+  }
+
+  @NotNull
+  @Override
+  public Cache.Stats stats() {
+    return cache.stats();
+  }
+
+  @Override
+  public String toString() {
+    return "GraphDefinitionsCache[size:" + cache.size() + "," + cache.stats() + "]";
+  }
+
+  private static class Definitions {
+
+    @NotNull private final List<Graph> graphs;
+    private final long loadedAt;
+
+    Definitions(@NotNull final List<Graph> graphs, final long loadedAt) {
+      this.graphs = graphs;
+      this.loadedAt = loadedAt;
+    }
+
+    boolean isStale(final long now, final long refreshNanos) {
+      return now - loadedAt >= refreshNanos;
+    }
+  }
+}
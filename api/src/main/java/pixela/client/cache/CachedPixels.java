@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.cache;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixel;
+import pixela.client.Pixela;
+import reactor.core.publisher.Mono;
+
+class CachedPixels implements PixelCache {
+
+  @NotNull private final Cache<PixelKey, Pixel> cache;
+
+  CachedPixels(@NotNull final Cache<PixelKey, Pixel> cache) {
+    this.cache = cache;
+  }
+
+  @NotNull
+  @Override
+  public Mono<Pixel> get(
+      @NotNull final Pixela pixela,
+      @NotNull final Graph graph,
+      @NotNull final LocalDate date,
+      @NotNull final Supplier<Mono<Pixel>> loader) {
+    return cache.get(PixelKey.of(pixela, graph, date), loader);
+  }
+
+  @Override
+  public void put(@NotNull final Pixel pixel) {
+    cache.put(PixelKey.of(pixel.pixela(), pixel.graph(), pixel.date()), pixel);
+  }
+
+  @Override
+  public void invalidate(
+      @NotNull final Pixela pixela, @NotNull final Graph graph, @NotNull final LocalDate date) {
+    cache.invalidate(PixelKey.of(pixela, graph, date));
+  }
+
+  @Override
+  public void invalidateGraph(@NotNull final Pixela pixela, @NotNull final GraphId graphId) {
+    cache.invalidateGroup(GraphKey.of(pixela, graphId));
+  }
+
+  @NotNull
+  @Override
+  public Cache.Stats stats() {
+    return cache.stats();
+  }
+
+  @Override
+  public String toString() {
+    return "PixelCache[size:" + cache.size() + "," + cache.stats() + "]";
+  }
+}
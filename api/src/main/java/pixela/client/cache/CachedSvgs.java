@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.cache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.ApiException;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixela;
+import pixela.client.api.graph.GetGraphSvg;
+import pixela.client.http.ConditionalResponse;
+import reactor.core.publisher.Mono;
+
+class CachedSvgs implements SvgCache {
+
+  // svgs with validators are kept for revalidation until they are evicted or this long.
+  private static final Duration RETENTION = Duration.ofDays(1L);
+
+  @NotNull private final Cache<SvgKey, Svg> cache;
+  private final long ttlNanos;
+  @NotNull private final LongSupplier clock;
+
+  CachedSvgs(final long maxBytes, @NotNull final Duration ttl, @NotNull final LongSupplier clock) {
+    if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(RETENTION) > 0) {
+      throw new IllegalArgumentException("ttl should be in (0, " + RETENTION + "]: " + ttl);
+    }
+    this.cache =
+        new Cache<>(
+            maxBytes, RETENTION, (k, v) -> v.response.body().length, clock, SvgKey::graph);
+    this.ttlNanos = ttl.toNanos();
+    this.clock = clock;
+  }
+
+  @NotNull
+  @Override
+  public Mono<byte[]> get(
+      @NotNull final Pixela pixela,
+      @NotNull final Graph graph,
+      @NotNull final GetGraphSvg.DateOption date,
+      @NotNull final GetGraphSvg.ModeOption mode,
+      @NotNull final Function<Map<String, String>, Mono<ConditionalResponse>> fetch) {
+    final SvgKey key = SvgKey.of(pixela, graph, date, mode);
+    return Mono.defer(
+        () -> {
+          final Optional<Svg> cached = cache.getIfPresent(key);
+          if (cached.isPresent() && cached.get().isFresh(clock.getAsLong())) {
+            return Mono.just(cached.get().response.body());
+          }
+          final Optional<ConditionalResponse> previous =
+              cached.map(svg -> svg.response).filter(ConditionalResponse::hasValidator);
+          return cache.load(key, () -> revalidate(previous, fetch)).map(svg -> svg.response.body());
+        });
+  }
+
+  @NotNull
+  private Mono<Svg> revalidate(
+      @NotNull final Optional<ConditionalResponse> previous,
+      @NotNull final Function<Map<String, String>, Mono<ConditionalResponse>> fetch) {
+    final Map<String, String> headers =
+        previous.map(ConditionalResponse::conditionalHeaders).orElseGet(Collections::emptyMap);
+    return fetch
+        .apply(headers)
+        .flatMap(
+            response -> {
+              if (!response.isNotModified()) {
+                return Mono.just(response);
+              }
+              return previous
+                  .map(Mono::just)
+                  .orElseGet(
+                      () -> Mono.error(ApiException.of("304 Not Modified for unconditional GET.")));
+            })
+        .map(response -> new Svg(response, clock.getAsLong() + ttlNanos));
+  }
+
+  @Override
+  public void invalidateGraph(@NotNull final Pixela pixela, @NotNull final GraphId graphId) {
+    cache.invalidateGroup(GraphKey.of(pixela, graphId));
+  }
+
+  @NotNull
+  @Override
+  public Cache.Stats stats() {
+    return cache.stats();
+  }
+
+  @Override
+  public String toString() {
+    return "SvgCache[size:" + cache.size() + ",bytes:" + cache.weight() + "," + cache.stats() + "]";
+  }
+
+  private static class Svg {
+
+    @NotNull private final ConditionalResponse response;
+    private final long freshUntil;
+
+    Svg(@NotNull final ConditionalResponse response, final long freshUntil) {
+      this.response = response;
+      this.freshUntil = freshUntil;
+    }
+
+    boolean isFresh(final long now) {
+      return now - freshUntil < 0L;
+    }
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.Graph;
+import pixela.client.Pixela;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+public interface GraphDefinitionsCache {
+
+  /**
+   * returns graph definitions of the user. Definitions older than refresh interval are returned as
+   * they are, while they are refreshed in background.
+   *
+   * @param pixela - the user.
+   * @param loader - the source of definitions.
+   * @return {@link Mono} of the graphs of the user.
+   */
+  @NotNull
+  Mono<List<Graph>> get(
+      @NotNull final Pixela pixela, @NotNull final Supplier<Mono<List<Graph>>> loader);
+
+  void invalidate(@NotNull final Pixela pixela);
+
+  @NotNull
+  Cache.Stats stats();
+
+  @Contract(pure = true)
+  @NotNull
+  static GraphDefinitionsCache disabled() {
+    return Disabled.INSTANCE;
+  }
+
+  /**
+   * creates an instance of {@link GraphDefinitionsCache}.
+   *
+   * @param maxUsers - max number of users whose definitions are kept.
+   * @param refreshAfter - definitions older than this are refreshed in background.
+   * @param expireAfter - definitions older than this are never returned.
+   * @return {@link GraphDefinitionsCache}.
+   */
+  @Contract("_, _, _ -> new")
+  @NotNull
+  static GraphDefinitionsCache of(
+      final int maxUsers,
+      @NotNull final Duration refreshAfter,
+      @NotNull final Duration expireAfter) {
+    return new CachedGraphDefinitions(
+        maxUsers, refreshAfter, expireAfter, System::nanoTime, Schedulers.parallel());
+  }
+
+  enum Disabled implements GraphDefinitionsCache {
+    INSTANCE;
+
+    private static final Cache.Stats NO_STATS = new Cache.Stats(0L, 0L, 0L, 0L);
+
+    @NotNull
+    @Override
+    public Mono<List<Graph>> get(
+        @NotNull final Pixela pixela, @NotNull final Supplier<Mono<List<Graph>>> loader) {
+      return Mono.defer(loader);
+    }
+
+    @Override
+    public void invalidate(@NotNull final Pixela pixela) {}
+
+    @NotNull
+    @Override
+    public Cache.Stats stats() {
+      return NO_STATS;
+    }
+  }
+}
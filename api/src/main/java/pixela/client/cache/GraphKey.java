@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.cache;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.GraphId;
+import pixela.client.Pixela;
+
+class GraphKey {
+
+  @NotNull private final String usersUri;
+  @NotNull private final GraphId graphId;
+
+  GraphKey(@NotNull final String usersUri, @NotNull final GraphId graphId) {
+    this.usersUri = usersUri;
+    this.graphId = graphId;
+  }
+
+  @Contract("_, _ -> new")
+  @NotNull
+  static GraphKey of(@NotNull final Pixela pixela, @NotNull final GraphId graphId) {
+    return new GraphKey(pixela.usersUri(), graphId);
+  }
+
+  @Override
+  public String toString() {
+    return "[" + usersUri + "," + graphId + "]";
+  }
+
+  @Contract(value = "null -> false", pure = true)
+  @Override
+  public boolean equals(final Object object) {
+    if (this == object) return true;
+    if (!(object instanceof GraphKey)) return false;
+
+    final GraphKey graphKey = (GraphKey) object;
+
+    return usersUri.equals(graphKey.usersUri) && graphId.equals(graphKey.graphId);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = usersUri.hashCode();
+    result = 31 * result + graphId.hashCode();
+    return result;
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.cache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixel;
+import pixela.client.Pixela;
+import reactor.core.publisher.Mono;
+
+public interface PixelCache {
+
+  @NotNull
+  Mono<Pixel> get(
+      @NotNull final Pixela pixela,
+      @NotNull final Graph graph,
+      @NotNull final LocalDate date,
+      @NotNull final Supplier<Mono<Pixel>> loader);
+
+  void put(@NotNull final Pixel pixel);
+
+  void invalidate(
+      @NotNull final Pixela pixela, @NotNull final Graph graph, @NotNull final LocalDate date);
+
+  void invalidateGraph(@NotNull final Pixela pixela, @NotNull final GraphId graphId);
+
+  @NotNull
+  Cache.Stats stats();
+
+  @Contract(pure = true)
+  @NotNull
+  static PixelCache disabled() {
+    return Disabled.INSTANCE;
+  }
+
+  @Contract("_, _ -> new")
+  @NotNull
+  static PixelCache of(final int maxSize, @NotNull final Duration ttl) {
+    return new CachedPixels(
+        new Cache<>(maxSize, ttl, (k, v) -> 1, System::nanoTime, PixelKey::graph));
+  }
+
+  enum Disabled implements PixelCache {
+    INSTANCE;
+
+    private static final Cache.Stats NO_STATS = new Cache.Stats(0L, 0L, 0L, 0L);
+
+    @NotNull
+    @Override
+    public Mono<Pixel> get(
+        @NotNull final Pixela pixela,
+        @NotNull final Graph graph,
+        @NotNull final LocalDate date,
+        @NotNull final Supplier<Mono<Pixel>> loader) {
+      return Mono.defer(loader);
+    }
+
+    @Override
+    public void put(@NotNull final Pixel pixel) {}
+
+    @Override
+    public void invalidate(
+        @NotNull final Pixela pixela, @NotNull final Graph graph, @NotNull final LocalDate date) {}
+
+    @Override
+    public void invalidateGraph(@NotNull final Pixela pixela, @NotNull final GraphId graphId) {}
+
+    @NotNull
+    @Override
+    public Cache.Stats stats() {
+      return NO_STATS;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.cache;
+
+import java.time.LocalDate;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixela;
+
+class PixelKey {
+
+  // users uri contains username, so it identifies the user.
+  @NotNull private final String usersUri;
+  @NotNull private final GraphId graphId;
+  @NotNull private final LocalDate date;
+
+  private PixelKey(
+      @NotNull final String usersUri,
+      @NotNull final GraphId graphId,
+      @NotNull final LocalDate date) {
+    this.usersUri = usersUri;
+    this.graphId = graphId;
+    this.date = date;
+  }
+
+  @Contract("_, _, _ -> new")
+  @NotNull
+  static PixelKey of(
+      @NotNull final Pixela pixela, @NotNull final Graph graph, @NotNull final LocalDate date) {
+    return new PixelKey(pixela.usersUri(), graph.id(), date);
+  }
+
+  @Contract(" -> new")
+  @NotNull
+  GraphKey graph() {
+    return new GraphKey(usersUri, graphId);
+  }
+
+  @Override
+  public String toString() {
+    return "[" + usersUri + "," + graphId + ",date:" + date + "]";
+  }
+
+  @Contract(value = "null -> false", pure = true)
+  @Override
+  public boolean equals(final Object object) {
+    if (this == object) return true;
+    if (!(object instanceof PixelKey)) return false;
+
+    final PixelKey pixelKey = (PixelKey) object;
+
+    return usersUri.equals(pixelKey.usersUri)
+        && graphId.equals(pixelKey.graphId)
+        && date.equals(pixelKey.date);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = usersUri.hashCode();
+    result = 31 * result + graphId.hashCode();
+    result = 31 * result + date.hashCode();
+    return result;
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.cache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Function;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixela;
+import pixela.client.api.graph.GetGraphSvg;
+import pixela.client.http.ConditionalResponse;
+import reactor.core.publisher.Mono;
+
+public interface SvgCache {
+
+  /**
+   * returns svg bytes of the graph. The returned array is shared with the cache, so it should not
+   * be modified.
+   *
+   * @param pixela - the user.
+   * @param graph - the graph.
+   * @param date - date option of the svg.
+   * @param mode - mode option of the svg.
+   * @param fetch - sends GET request with the given conditional headers.
+   * @return {@link Mono} of svg bytes.
+   */
+  @NotNull
+  Mono<byte[]> get(
+      @NotNull final Pixela pixela,
+      @NotNull final Graph graph,
+      @NotNull final GetGraphSvg.DateOption date,
+      @NotNull final GetGraphSvg.ModeOption mode,
+      @NotNull final Function<Map<String, String>, Mono<ConditionalResponse>> fetch);
+
+  void invalidateGraph(@NotNull final Pixela pixela, @NotNull final GraphId graphId);
+
+  @NotNull
+  Cache.Stats stats();
+
+  default boolean enabled() {
+    return true;
+  }
+
+  @Contract(pure = true)
+  @NotNull
+  static SvgCache disabled() {
+    return Disabled.INSTANCE;
+  }
+
+  /**
+   * creates an instance of {@link SvgCache}. An svg is returned without request for {@code ttl}.
+   * After that, it is revalidated with If-None-Match/If-Modified-Since when the server gave
+   * ETag/Last-Modified, or downloaded again otherwise.
+   *
+   * @param maxBytes - max total bytes of svgs kept in the cache.
+   * @param ttl - duration while svg is returned without request.
+   * @return {@link SvgCache}.
+   */
+  @Contract("_, _ -> new")
+  @NotNull
+  static SvgCache of(final long maxBytes, @NotNull final Duration ttl) {
+    return new CachedSvgs(maxBytes, ttl, System::nanoTime);
+  }
+
+  enum Disabled implements SvgCache {
+    INSTANCE;
+
+    private static final Cache.Stats NO_STATS = new Cache.Stats(0L, 0L, 0L, 0L);
+
+    @NotNull
+    @Override
+    public Mono<byte[]> get(
+        @NotNull final Pixela pixela,
+        @NotNull final Graph graph,
+        @NotNull final GetGraphSvg.DateOption date,
+        @NotNull final GetGraphSvg.ModeOption mode,
+        @NotNull final Function<Map<String, String>, Mono<ConditionalResponse>> fetch) {
+      return Mono.defer(() -> fetch.apply(Collections.emptyMap())).map(ConditionalResponse::body);
+    }
+
+    @Override
+    public void invalidateGraph(@NotNull final Pixela pixela, @NotNull final GraphId graphId) {}
+
+    @NotNull
+    @Override
+    public Cache.Stats stats() {
+      return NO_STATS;
+    }
+
+    @Override
+    public boolean enabled() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.cache;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixela;
+import pixela.client.api.graph.GetGraphSvg;
+
+class SvgKey {
+
+  @NotNull private final String usersUri;
+  @NotNull private final GraphId graphId;
+  @NotNull private final String date;
+  @NotNull private final GetGraphSvg.ModeOption mode;
+
+  private SvgKey(
+      @NotNull final String usersUri,
+      @NotNull final GraphId graphId,
+      @NotNull final String date,
+      @NotNull final GetGraphSvg.ModeOption mode) {
+    this.usersUri = usersUri;
+    this.graphId = graphId;
+    this.date = date;
+    this.mode = mode;
+  }
+
+  @Contract("_, _, _, _ -> new")
+  @NotNull
+  static SvgKey of(
+      @NotNull final Pixela pixela,
+      @NotNull final Graph graph,
+      @NotNull final GetGraphSvg.DateOption date,
+      @NotNull final GetGraphSvg.ModeOption mode) {
+    return new SvgKey(pixela.usersUri(), graph.id(), date.asString().orElse(""), mode);
+  }
+
+  @Contract(" -> new")
+  @NotNull
+  GraphKey graph() {
+    return new GraphKey(usersUri, graphId);
+  }
+
+  @Override
+  public String toString() {
+    return "[" + usersUri + "," + graphId + ",date:" + date + ",mode:" + mode + "]";
+  }
+
+  @Contract(value = "null -> false", pure = true)
+  @Override
+  public boolean equals(final Object object) {
+    if (this == object) return true;
+    if (!(object instanceof SvgKey)) return false;
+
+    final SvgKey svgKey = (SvgKey) object;
+
+    return usersUri.equals(svgKey.usersUri)
+        && graphId.equals(svgKey.graphId)
+        && date.equals(svgKey.date)
+        && mode == svgKey.mode;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = usersUri.hashCode();
+    result = 31 * result + graphId.hashCode();
+    result = 31 * result + date.hashCode();
+    result = 31 * result + mode.hashCode();
+    return result;
+  }
+}
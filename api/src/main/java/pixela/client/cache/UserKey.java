@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.cache;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.Pixela;
+import pixela.client.UserToken;
+
+class UserKey {
+
+  @NotNull private final String usersUri;
+  // secret graphs are visible only with the token, so entries are separated by token.
+  @NotNull private final UserToken token;
+
+  private UserKey(@NotNull final String usersUri, @NotNull final UserToken token) {
+    this.usersUri = usersUri;
+    this.token = token;
+  }
+
+  @Contract("_ -> new")
+  @NotNull
+  static UserKey of(@NotNull final Pixela pixela) {
+    return new UserKey(pixela.usersUri(), pixela.token());
+  }
+
+  @Override
+  public String toString() {
+    return "[" + usersUri + "]";
+  }
+
+  @Contract(value = "null -> false", pure = true)
+  @Override
+  public boolean equals(final Object object) {
+    if (this == object) return true;
+    if (!(object instanceof UserKey)) return false;
+
+    final UserKey userKey = (UserKey) object;
+
+    return usersUri.equals(userKey.usersUri) && token.equals(userKey.token);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = usersUri.hashCode();
+    result = 31 * result + token.hashCode();
+    return result;
+  }
+}
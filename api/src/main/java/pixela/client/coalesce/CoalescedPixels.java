@@ -0,0 +1,139 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.coalesce;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pixela.client.Graph;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+class CoalescedPixels implements PixelCoalescer {
+
+  private static final int FLUSH_CONCURRENCY = 4;
+
+  @NotNull private final Duration flushInterval;
+  private final int maxStepsPerPixel;
+  @NotNull private final Clock clock;
+  @NotNull private final Scheduler scheduler;
+
+  @NotNull private final Map<String, PixelCounter> counters = new ConcurrentHashMap<>();
+
+  @NotNull private final AtomicBoolean started = new AtomicBoolean();
+  @NotNull private final AtomicBoolean closed = new AtomicBoolean();
+  @Nullable private volatile Disposable timer;
+
+  CoalescedPixels(
+      @NotNull final Duration flushInterval,
+      final int maxStepsPerPixel,
+      @NotNull final Clock clock,
+      @NotNull final Scheduler scheduler) {
+    this.flushInterval = flushInterval;
+    this.maxStepsPerPixel = maxStepsPerPixel;
+    this.clock = clock;
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public void record(@NotNull final Graph graph, final long steps) {
+    if (closed.get()) {
+      throw new IllegalStateException("PixelCoalescer is already closed.");
+    }
+    startTimer();
+    final LocalDate date = LocalDate.now(clock);
+    final PixelCounter counter =
+        counters.computeIfAbsent(
+            PixelCounter.key(graph, date), key -> new PixelCounter(graph, date));
+    if (counter.add(graph, steps) >= maxStepsPerPixel) {
+      write(counter).subscribe(v -> {}, error -> {});
+    }
+  }
+
+  private void startTimer() {
+    if (started.get() || !started.compareAndSet(false, true)) {
+      return;
+    }
+    final long interval = flushInterval.toNanos();
+    timer =
+        scheduler.schedulePeriodically(
+            () -> flush().subscribe(v -> {}, error -> {}),
+            interval,
+            interval,
+            TimeUnit.NANOSECONDS);
+  }
+
+  @NotNull
+  @Override
+  public Mono<Void> flush() {
+    return Flux.defer(() -> Flux.fromIterable(new ArrayList<>(counters.values())))
+        .flatMapDelayError(this::write, FLUSH_CONCURRENCY, FLUSH_CONCURRENCY)
+        .then();
+  }
+
+  @Override
+  public long pendingSteps() {
+    return counters.values().stream().mapToLong(PixelCounter::pending).sum();
+  }
+
+  @Override
+  public void close() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    final Disposable current = timer;
+    if (current != null) {
+      current.dispose();
+    }
+    flush().block();
+  }
+
+  @NotNull
+  private Mono<Void> write(@NotNull final PixelCounter counter) {
+    return Mono.defer(
+        () -> {
+          if (!counter.tryLock()) {
+            return Mono.empty();
+          }
+          final long steps = counter.drain();
+          if (steps == 0L) {
+            counter.unlock();
+            removeIfPast(counter);
+            return Mono.empty();
+          }
+          return PixelSteps.apply(counter.graph(), counter.date(), steps)
+              .doOnError(error -> counter.restore(steps))
+              .doOnCancel(() -> counter.restore(steps))
+              .doFinally(signal -> counter.unlock());
+        });
+  }
+
+  // counters of past days receive no more steps once written.
+  private void removeIfPast(@NotNull final PixelCounter counter) {
+    if (counter.date().isBefore(LocalDate.now(clock)) && counter.pending() == 0L) {
+      counters.remove(PixelCounter.key(counter.graph(), counter.date()), counter);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.coalesce;
+
+import java.time.Clock;
+import java.time.Duration;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.Graph;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * counts increments and decrements of pixels instead of sending a request for each, and writes the
+ * sum as one request per pixel. An enabled coalescer makes {@link Graph#incrementPixel()} and
+ * {@link Graph#decrementPixel()} complete without request.
+ */
+public interface PixelCoalescer extends AutoCloseable {
+
+  /**
+   * counts increments or decrements of today's pixel of the graph.
+   *
+   * @param graph - the graph.
+   * @param steps - number of increments, or decrements if negative.
+   */
+  void record(@NotNull final Graph graph, final long steps);
+
+  /**
+   * writes counted steps of all pixels. Steps of a pixel failed to write are kept for the next
+   * flush, so a step is written at least once.
+   *
+   * @return {@link Mono} completing when all pixels are written, or erroring if any failed.
+   */
+  @NotNull
+  Mono<Void> flush();
+
+  // number of steps counted but not written yet.
+  long pendingSteps();
+
+  default boolean enabled() {
+    return true;
+  }
+
+  // stops periodic flush and writes steps counted so far.
+  @Override
+  void close();
+
+  @Contract(pure = true)
+  @NotNull
+  static PixelCoalescer disabled() {
+    return Disabled.INSTANCE;
+  }
+
+  /**
+   * creates an instance of {@link PixelCoalescer}. Steps are counted per day of the system clock.
+   * Only one writer per pixel is supported: a pixel is written by reading it and putting the
+   * current quantity plus the counted steps, so a write by another process between them is lost.
+   *
+   * @param flushInterval - interval of periodic flush.
+   * @param maxStepsPerPixel - a pixel is written without waiting for periodic flush when this
+   *     number of increments/decrements are counted.
+   * @return {@link PixelCoalescer}.
+   */
+  @Contract("_, _ -> new")
+  @NotNull
+  static PixelCoalescer of(@NotNull final Duration flushInterval, final int maxStepsPerPixel) {
+    return of(flushInterval, maxStepsPerPixel, Clock.systemDefaultZone());
+  }
+
+  /**
+   * creates an instance of {@link PixelCoalescer}. Like {@link #of(Duration, int)}, this coalescer
+   * should be the only writer of its pixels.
+   *
+   * @param flushInterval - interval of periodic flush.
+   * @param maxStepsPerPixel - a pixel is written without waiting for periodic flush when this
+   *     number of increments/decrements are counted.
+   * @param clock - clock deciding the date of the pixel, which should be in the graph's timezone.
+   * @return {@link PixelCoalescer}.
+   */
+  @Contract("_, _, _ -> new")
+  @NotNull
+  static PixelCoalescer of(
+      @NotNull final Duration flushInterval,
+      final int maxStepsPerPixel,
+      @NotNull final Clock clock) {
+    if (flushInterval.isNegative() || flushInterval.isZero()) {
+      throw new IllegalArgumentException("flushInterval should be positive: " + flushInterval);
+    }
+    if (maxStepsPerPixel < 1) {
+      throw new IllegalArgumentException(
+          "maxStepsPerPixel should be positive: " + maxStepsPerPixel);
+    }
+    return new CoalescedPixels(flushInterval, maxStepsPerPixel, clock, Schedulers.parallel());
+  }
+
+  enum Disabled implements PixelCoalescer {
+    INSTANCE;
+
+    @Override
+    public void record(@NotNull final Graph graph, final long steps) {}
+
+    @NotNull
+    @Override
+    public Mono<Void> flush() {
+      return Mono.empty();
+    }
+
+    @Override
+    public long pendingSteps() {
+      return 0L;
+    }
+
+    @Override
+    public boolean enabled() {
+      return false;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.coalesce;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.Graph;
+import pixela.client.PixelDate;
+
+// steps of a pixel counted since the last write.
+class PixelCounter {
+
+  // graph of the latest record, so that the pixel is written with a client still open.
+  @NotNull private volatile Graph graph;
+  @NotNull private final LocalDate date;
+  @NotNull private final LongAdder steps = new LongAdder();
+  // number of record calls, which triggers write by size.
+  @NotNull private final LongAdder records = new LongAdder();
+  // a pixel is written by one flush at a time, as it is read-modify-write.
+  @NotNull private final AtomicBoolean writing = new AtomicBoolean();
+
+  PixelCounter(@NotNull final Graph graph, @NotNull final LocalDate date) {
+    this.graph = graph;
+    this.date = date;
+  }
+
+  @NotNull
+  static String key(@NotNull final Graph graph, @NotNull final LocalDate date) {
+    return graph.pixela().usersUri() + graph.subPath() + "/" + PixelDate.format(date);
+  }
+
+  @NotNull
+  Graph graph() {
+    return graph;
+  }
+
+  @NotNull
+  LocalDate date() {
+    return date;
+  }
+
+  // returns number of records since the last drain.
+  long add(@NotNull final Graph graph, final long steps) {
+    this.graph = graph;
+    this.steps.add(steps);
+    records.increment();
+    return records.sum();
+  }
+
+  long pending() {
+    return steps.sum();
+  }
+
+  boolean tryLock() {
+    return writing.compareAndSet(false, true);
+  }
+
+  void unlock() {
+    writing.set(false);
+  }
+
+  long drain() {
+    records.reset();
+    // sumThenReset loses steps added during it, so that the sum is subtracted instead.
+    final long sum = steps.sum();
+    steps.add(-sum);
+    return sum;
+  }
+
+  // steps whose write failed or is not known to be applied.
+  void restore(final long steps) {
+    this.steps.add(steps);
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.coalesce;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.ApiException;
+import pixela.client.ErrorType;
+import pixela.client.Graph;
+import pixela.client.Pixel;
+import pixela.client.Quantity;
+import pixela.client.api.graph.UpdatePixel;
+import reactor.core.publisher.Mono;
+
+/**
+ * writes increments/decrements counted locally. Pixela has no endpoint adding an arbitrary amount,
+ * so the pixel is read and written with the sum, which is not atomic with other writers.
+ */
+public final class PixelSteps {
+
+  private PixelSteps() {}
+
+  /**
+   * adds steps to the pixel of the date by reading it and writing the sum.
+   *
+   * @param graph - the graph.
+   * @param date - date of the pixel.
+   * @param steps - number of increments, or decrements if negative.
+   * @return {@link Mono} completing when the pixel is written.
+   */
+  @NotNull
+  public static Mono<Void> apply(
+      @NotNull final Graph graph, @NotNull final LocalDate date, final long steps) {
+    // the cached pixel may be older than other writes, which the sum would overwrite.
+    return graph
+        .getPixel(date)
+        .callLatest()
+        .map(Optional::of)
+        .onErrorResume(PixelSteps::isNotFound, error -> Mono.just(Optional.empty()))
+        .flatMap(
+            pixel ->
+                pixel
+                    .map(current -> update(current, steps))
+                    .orElseGet(() -> post(graph, date, steps)));
+  }
+
+  private static boolean isNotFound(@NotNull final Throwable error) {
+    return error instanceof ApiException
+        && ((ApiException) error).errorType() == ErrorType.NOT_FOUND;
+  }
+
+  @NotNull
+  private static Mono<Void> update(@NotNull final Pixel pixel, final long steps) {
+    final UpdatePixel.OptionalData update =
+        pixel.update().quantity(Quantity.string(pixel.quantity()).plus(steps));
+    final UpdatePixel request =
+        pixel.optionalData().<UpdatePixel>map(update::optionalDataString).orElse(update);
+    return request.call().then();
+  }
+
+  // the type of a graph is unknown without a pixel, so the sum is posted as int quantity.
+  @NotNull
+  private static Mono<Void> post(
+      @NotNull final Graph graph, @NotNull final LocalDate date, final long steps) {
+    return graph
+        .postPixel()
+        .date(date)
+        .quantity(Quantity.integer(0).plus(steps))
+        .noOptionData()
+        .call()
+        .then();
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.fleet;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+// dispatches operations of members round robin, keeping at most one operation per member.
+class FleetRun<T> {
+
+  @NotNull private final ArrayDeque<Member<T>> ready;
+  private final int concurrency;
+  @NotNull private final FluxSink<Outcome<T>> sink;
+
+  // completes when the subscriber cancels, to stop running operations.
+  @NotNull private final MonoProcessor<Void> cancelled = MonoProcessor.create();
+
+  // drain is re-entered by operations completing synchronously, which is turned into a loop.
+  @NotNull private final AtomicInteger wip = new AtomicInteger();
+
+  private int inFlight;
+
+  FleetRun(
+      @NotNull final List<Member<T>> members,
+      final int concurrency,
+      @NotNull final FluxSink<Outcome<T>> sink) {
+    this.ready = new ArrayDeque<>(members);
+    this.concurrency = concurrency;
+    this.sink = sink;
+  }
+
+  void start() {
+    sink.onDispose(cancelled::onComplete);
+    drain();
+  }
+
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    do {
+      while (true) {
+        final Member<T> member;
+        synchronized (this) {
+          if (cancelled.isTerminated()) {
+            return;
+          }
+          if (inFlight == 0 && ready.isEmpty()) {
+            sink.complete();
+            return;
+          }
+          if (inFlight >= concurrency || ready.isEmpty()) {
+            break;
+          }
+          member = ready.poll();
+          inFlight++;
+        }
+        run(member);
+      }
+    } while (wip.decrementAndGet() != 0);
+  }
+
+  private void run(@NotNull final Member<T> member) {
+    final Mono<Outcome<T>> operation = member.next();
+    operation.takeUntilOther(cancelled).subscribe(outcome -> finish(member, outcome));
+  }
+
+  private void finish(@NotNull final Member<T> member, @NotNull final Outcome<T> outcome) {
+    synchronized (this) {
+      // the member goes behind the others waiting, so that users take turns.
+      if (member.hasNext()) {
+        ready.offer(member);
+      }
+    }
+    sink.next(outcome);
+    // released after emitting, so that completion is not signalled before this outcome.
+    synchronized (this) {
+      inFlight--;
+    }
+    drain();
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.fleet;
+
+import java.util.ArrayDeque;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.Pixela;
+import pixela.client.UserToken;
+import pixela.client.Username;
+import reactor.core.publisher.Mono;
+
+// a user of the fleet and its operations not yet run.
+class Member<T> {
+
+  @NotNull private final Username username;
+  @NotNull private final Pixela pixela;
+  @NotNull private final ArrayDeque<Function<? super Pixela, ? extends Mono<? extends T>>> pending;
+  private int next;
+
+  Member(@NotNull final Username username, @NotNull final Pixela pixela) {
+    this(username, pixela, new ArrayDeque<>());
+  }
+
+  private Member(
+      @NotNull final Username username,
+      @NotNull final Pixela pixela,
+      @NotNull final ArrayDeque<Function<? super Pixela, ? extends Mono<? extends T>>> pending) {
+    this.username = username;
+    this.pixela = pixela;
+    this.pending = pending;
+  }
+
+  void add(@NotNull final Function<? super Pixela, ? extends Mono<? extends T>> operation) {
+    pending.add(operation);
+  }
+
+  // a batch can be run more than once, each run consumes its own copy.
+  @NotNull
+  Member<T> copy() {
+    return new Member<>(username, pixela, new ArrayDeque<>(pending));
+  }
+
+  boolean hasNext() {
+    return !pending.isEmpty();
+  }
+
+  @NotNull
+  Mono<Outcome<T>> next() {
+    final Function<? super Pixela, ? extends Mono<? extends T>> operation = pending.poll();
+    if (operation == null) {
+      throw new IllegalStateException("no operation left for " + username);
+    }
+    final int index = next++;
+    return Mono.<T>defer(() -> operation.apply(pixela))
+        .map(value -> Outcome.success(username, index, value))
+        .switchIfEmpty(Mono.fromSupplier(() -> Outcome.<T>success(username, index, null)))
+        .onErrorResume(error -> Mono.just(Outcome.failure(username, index, error)));
+  }
+
+  @NotNull
+  Username username() {
+    return username;
+  }
+
+  @NotNull
+  UserToken token() {
+    return pixela.token();
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.fleet;
+
+import java.util.Optional;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pixela.client.Username;
+
+/**
+ * outcome of an operation of a user.
+ *
+ * @param <T> - result type of the operation.
+ */
+public class Outcome<T> {
+
+  @NotNull private final Username username;
+  private final int index;
+  @Nullable private final T value;
+  @Nullable private final Throwable error;
+
+  private Outcome(
+      @NotNull final Username username,
+      final int index,
+      @Nullable final T value,
+      @Nullable final Throwable error) {
+    this.username = username;
+    this.index = index;
+    this.value = value;
+    this.error = error;
+  }
+
+  @NotNull
+  static <T> Outcome<T> success(
+      @NotNull final Username username, final int index, @Nullable final T value) {
+    return new Outcome<>(username, index, value, null);
+  }
+
+  @NotNull
+  static <T> Outcome<T> failure(
+      @NotNull final Username username, final int index, @NotNull final Throwable error) {
+    return new Outcome<>(username, index, null, error);
+  }
+
+  @NotNull
+  public Username username() {
+    return username;
+  }
+
+  // position of the operation among the operations of the user, starting from 0.
+  public int index() {
+    return index;
+  }
+
+  public boolean isSuccess() {
+    return error == null;
+  }
+
+  @NotNull
+  public Optional<T> value() {
+    return Optional.ofNullable(value);
+  }
+
+  @NotNull
+  public Optional<Throwable> error() {
+    return Optional.ofNullable(error);
+  }
+
+  @NotNull
+  @Override
+  public String toString() {
+    return "Outcome["
+        + username
+        + "#"
+        + index
+        + (error == null ? ",success]" : ",error:" + error + "]");
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.fleet;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.Api;
+import pixela.client.Pixela;
+import pixela.client.UserToken;
+import pixela.client.Username;
+import pixela.client.api.user.PixelaImpl;
+import pixela.client.http.HttpClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * runs operations of many users on one {@link HttpClient}. Operations of a user run one by one in
+ * the order they are added, users take turns, and at most {@code concurrency} operations are in
+ * flight across all users.
+ */
+public class PixelaFleet {
+
+  static final int DEFAULT_CONCURRENCY = 16;
+
+  @NotNull private final HttpClient httpClient;
+  private final int concurrency;
+
+  private PixelaFleet(@NotNull final HttpClient httpClient, final int concurrency) {
+    this.httpClient = httpClient;
+    this.concurrency = concurrency;
+  }
+
+  @Contract("_ -> new")
+  @NotNull
+  public static PixelaFleet of(@NotNull final HttpClient httpClient) {
+    return new PixelaFleet(httpClient, DEFAULT_CONCURRENCY);
+  }
+
+  @Contract("_ -> new")
+  @NotNull
+  public PixelaFleet concurrency(final int concurrency) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("concurrency should be positive: " + concurrency);
+    }
+    return new PixelaFleet(httpClient, concurrency);
+  }
+
+  @Contract(" -> new")
+  @NotNull
+  public <T> Batch<T> batch() {
+    return new Batch<>();
+  }
+
+  /**
+   * operations of users, which is run by {@link #call()} or {@link #outcomes()}.
+   *
+   * @param <T> - result type of the operations.
+   */
+  public class Batch<T> implements Api<Report<T>> {
+
+    // users in the order of their first operation.
+    @NotNull private final Map<String, Member<T>> members = new LinkedHashMap<>();
+
+    private Batch() {}
+
+    /**
+     * adds an operation of the user, which runs after the operations of the user added before.
+     *
+     * @param username - username.
+     * @param token - token of the user.
+     * @param operation - operation with {@link Pixela} of the user.
+     * @return this batch.
+     * @throws IllegalArgumentException - when the user is added before with another token.
+     */
+    @Contract("_, _, _ -> this")
+    @NotNull
+    public Batch<T> add(
+        @NotNull final Username username,
+        @NotNull final UserToken token,
+        @NotNull final Function<? super Pixela, ? extends Mono<? extends T>> operation) {
+      final Member<T> member =
+          members.computeIfAbsent(username.value(), name -> member(username, token));
+      if (!member.token().equals(token)) {
+        throw new IllegalArgumentException(
+            "user is already added with another token: " + username.value());
+      }
+      member.add(operation);
+      return this;
+    }
+
+    // the user is registered to the journal, so that its writes recorded before restart are sent.
+    @NotNull
+    private Member<T> member(@NotNull final Username username, @NotNull final UserToken token) {
+      final Pixela pixela = PixelaImpl.of(httpClient, token, username);
+      httpClient.pixelJournal().register(pixela);
+      return new Member<>(username, pixela);
+    }
+
+    /**
+     * outcomes of operations in completion order. A failed operation is emitted as failed outcome,
+     * and does not stop other operations.
+     *
+     * @return outcomes of all operations.
+     */
+    @NotNull
+    public Flux<Outcome<T>> outcomes() {
+      return Flux.defer(
+          () -> {
+            final List<Member<T>> copies = new ArrayList<>(members.size());
+            for (final Member<T> member : members.values()) {
+              copies.add(member.copy());
+            }
+            return Flux.create(sink -> new FleetRun<>(copies, concurrency, sink).start());
+          });
+    }
+
+    @NotNull
+    @Override
+    public Mono<Report<T>> call() {
+      return Mono.defer(
+          () -> {
+            final long start = System.nanoTime();
+            return outcomes()
+                .collectList()
+                .map(outcomes -> Report.of(outcomes, System.nanoTime() - start));
+          });
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.fleet;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.Username;
+
+/**
+ * outcomes of a {@link PixelaFleet.Batch}, grouped by user.
+ *
+ * @param <T> - result type of the operations.
+ */
+public class Report<T> {
+
+  @NotNull private final Map<String, List<Outcome<T>>> outcomesByUser;
+  private final long succeeded;
+  private final long failed;
+  @NotNull private final Duration elapsed;
+
+  private Report(
+      @NotNull final Map<String, List<Outcome<T>>> outcomesByUser,
+      final long succeeded,
+      final long failed,
+      @NotNull final Duration elapsed) {
+    this.outcomesByUser = outcomesByUser;
+    this.succeeded = succeeded;
+    this.failed = failed;
+    this.elapsed = elapsed;
+  }
+
+  @NotNull
+  static <T> Report<T> of(@NotNull final List<Outcome<T>> outcomes, final long elapsedNanos) {
+    final Map<String, List<Outcome<T>>> outcomesByUser = new LinkedHashMap<>();
+    long succeeded = 0L;
+    for (final Outcome<T> outcome : outcomes) {
+      outcomesByUser
+          .computeIfAbsent(outcome.username().value(), name -> new ArrayList<>())
+          .add(outcome);
+      if (outcome.isSuccess()) {
+        succeeded++;
+      }
+    }
+    outcomesByUser
+        .values()
+        .forEach(list -> list.sort((l, r) -> Integer.compare(l.index(), r.index())));
+    return new Report<>(
+        outcomesByUser, succeeded, outcomes.size() - succeeded, Duration.ofNanos(elapsedNanos));
+  }
+
+  // outcomes of the user in the order the operations were added.
+  @NotNull
+  public List<Outcome<T>> outcomes(@NotNull final Username username) {
+    return Collections.unmodifiableList(
+        outcomesByUser.getOrDefault(username.value(), Collections.emptyList()));
+  }
+
+  // users having at least one failed operation.
+  @NotNull
+  public List<Username> failedUsers() {
+    final List<Username> users = new ArrayList<>();
+    for (final List<Outcome<T>> outcomes : outcomesByUser.values()) {
+      outcomes.stream()
+          .filter(outcome -> !outcome.isSuccess())
+          .findFirst()
+          .ifPresent(outcome -> users.add(outcome.username()));
+    }
+    return users;
+  }
+
+  public long total() {
+    return succeeded + failed;
+  }
+
+  public long succeeded() {
+    return succeeded;
+  }
+
+  public long failed() {
+    return failed;
+  }
+
+  @NotNull
+  public Duration elapsed() {
+    return elapsed;
+  }
+
+  @NotNull
+  @Override
+  public String toString() {
+    return "Report[users:"
+        + outcomesByUser.size()
+        + ",total:"
+        + total()
+        + ",succeeded:"
+        + succeeded
+        + ",failed:"
+        + failed
+        + ",elapsed:"
+        + elapsed
+        + "]";
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.reactivestreams.Publisher;
+import pixela.client.ApiException;
+import pixela.client.ErrorType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+class BackoffRetryPolicy implements RetryPolicy, RetryPolicy.Metrics {
+
+  // budget is held in 1/1000 of a retry.
+  private static final long UNIT = 1000L;
+  private static final long MIN_BUDGET = 10L * UNIT;
+
+  private final int maxRetries;
+  private final long firstBackoffNanos;
+  private final long maxBackoffNanos;
+  private final long budgetPerRequest;
+  private final long maxBudget;
+
+  @NotNull private final Scheduler scheduler;
+
+  @NotNull private final AtomicLong budget;
+
+  @NotNull private final LongAdder requests = new LongAdder();
+  @NotNull private final LongAdder retries = new LongAdder();
+  @NotNull private final LongAdder retriesExhausted = new LongAdder();
+  @NotNull private final LongAdder budgetExhausted = new LongAdder();
+
+  BackoffRetryPolicy(
+      final int maxRetries,
+      @NotNull final Duration firstBackoff,
+      @NotNull final Duration maxBackoff,
+      final double budgetRatio,
+      @NotNull final Scheduler scheduler) {
+    this.maxRetries = maxRetries;
+    this.firstBackoffNanos = firstBackoff.toNanos();
+    this.maxBackoffNanos = maxBackoff.toNanos();
+    this.budgetPerRequest = (long) (budgetRatio * UNIT);
+    this.maxBudget = Math.max(MIN_BUDGET, budgetPerRequest * 100L);
+    this.scheduler = scheduler;
+    this.budget = new AtomicLong(MIN_BUDGET);
+  }
+
+  @NotNull
+  @Override
+  public Function<Flux<Throwable>, ? extends Publisher<?>> retryFor(
+      @NotNull final Request<?> request) {
+    return errors ->
+        Flux.defer(
+            () -> {
+              requests.increment();
+              deposit();
+              final AtomicInteger attempts = new AtomicInteger();
+              return errors.concatMap(error -> retryOrError(request, error, attempts));
+            });
+  }
+
+  @NotNull
+  private Mono<Long> retryOrError(
+      @NotNull final Request<?> request,
+      @NotNull final Throwable error,
+      @NotNull final AtomicInteger attempts) {
+    if (!isRetryable(request, error)) {
+      return Mono.error(error);
+    }
+    final int attempt = attempts.incrementAndGet();
+    if (attempt > maxRetries) {
+      retriesExhausted.increment();
+      return Mono.error(error);
+    }
+    if (!withdraw()) {
+      budgetExhausted.increment();
+      return Mono.error(error);
+    }
+    retries.increment();
+    return Mono.delay(Duration.ofNanos(backoffNanos(attempt)), scheduler);
+  }
+
+  static boolean isRetryable(@NotNull final Request<?> request, @NotNull final Throwable error) {
+    if (error instanceof ApiException) {
+      final ErrorType errorType = ((ApiException) error).errorType();
+      if (errorType == ErrorType.REJECTED) {
+        return true;
+      }
+      return errorType == ErrorType.SERVER_ERROR && request.idempotent();
+    }
+    return error instanceof TransportFailure && request.idempotent();
+  }
+
+  // full jitter: random between 0 and min(max, first * 2 ^ (attempt - 1)).
+  long backoffNanos(final int attempt) {
+    final int shift = Math.min(attempt - 1, 62);
+    final long ceiling =
+        firstBackoffNanos > (maxBackoffNanos >> shift)
+            ? maxBackoffNanos
+            : Math.min(maxBackoffNanos, firstBackoffNanos << shift);
+    if (ceiling <= 0L) {
+      return 0L;
+    }
+    return ThreadLocalRandom.current().nextLong(ceiling + 1L);
+  }
+
+  private void deposit() {
+    budget.accumulateAndGet(budgetPerRequest, (current, add) -> Math.min(maxBudget, current + add));
+  }
+
+  private boolean withdraw() {
+    while (true) {
+      final long current = budget.get();
+      if (current < UNIT) {
+        return false;
+      }
+      if (budget.compareAndSet(current, current - UNIT)) {
+        return true;
+      }
+    }
+  }
+
+  @NotNull
+  @Override
+  public Metrics metrics() {
+    return this;
+  }
+
+  @Override
+  public long requests() {
+    return requests.sum();
+  }
+
+  @Override
+  public long retries() {
+    return retries.sum();
+  }
+
+  @Override
+  public long retriesExhausted() {
+    return retriesExhausted.sum();
+  }
+
+  @Override
+  public long budgetExhausted() {
+    return budgetExhausted.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "BackoffRetryPolicy[requests:"
+        + requests()
+        + ",retries:"
+        + retries()
+        + ",retriesExhausted:"
+        + retriesExhausted()
+        + ",budgetExhausted:"
+        + budgetExhausted()
+        + "]";
+  }
+}
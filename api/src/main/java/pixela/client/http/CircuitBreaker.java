@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+
+public interface CircuitBreaker {
+
+  /**
+   * sends the request when the circuit of its endpoint is closed, and records the result. While the
+   * circuit is open, the request fails with {@link pixela.client.CircuitOpenException} without
+   * being sent.
+   *
+   * @param method - http method of the request.
+   * @param request - the request to be sent.
+   * @param response - {@link Mono} which sends the request.
+   * @return {@link Mono} of the response.
+   */
+  @NotNull
+  Mono<HttpResponse> call(
+      @NotNull final String method,
+      @NotNull final Request<?> request,
+      @NotNull final Mono<HttpResponse> response);
+
+  @NotNull
+  Metrics metrics();
+
+  @Contract(pure = true)
+  @NotNull
+  static CircuitBreaker disabled() {
+    return Disabled.INSTANCE;
+  }
+
+  /**
+   * creates circuit breaker which has a circuit for each http method and endpoint template. A
+   * circuit opens when the rate of failures in the recent {@code windowSize} calls reaches {@code
+   * failureRateThreshold}, where failures are transport errors and server errors other than 503,
+   * which pixela uses to reject requests at random. After {@code openDuration}, one request is sent
+   * as a probe, and the circuit closes when it succeeds.
+   *
+   * @param windowSize - the number of recent calls whose failure rate is measured.
+   * @param failureRateThreshold - failure rate to open circuit, between 0 and 1.
+   * @param openDuration - duration to fail requests without sending them.
+   * @return circuit breaker.
+   */
+  @Contract("_, _, _ -> new")
+  @NotNull
+  static CircuitBreaker perEndpoint(
+      final int windowSize,
+      final double failureRateThreshold,
+      @NotNull final Duration openDuration) {
+    if (windowSize < 1) {
+      throw new IllegalArgumentException("windowSize should be positive: " + windowSize);
+    }
+    if (!(0.0 < failureRateThreshold && failureRateThreshold <= 1.0)) {
+      throw new IllegalArgumentException(
+          "failureRateThreshold should be in (0, 1]: " + failureRateThreshold);
+    }
+    if (openDuration.isNegative()) {
+      throw new IllegalArgumentException("openDuration should not be negative: " + openDuration);
+    }
+    return new SlidingWindowCircuitBreaker(
+        windowSize, failureRateThreshold, openDuration, System::nanoTime);
+  }
+
+  enum State {
+    CLOSED,
+    OPEN,
+    // a probe request is being sent.
+    HALF_OPEN,
+  }
+
+  interface Metrics {
+
+    // requests failed without being sent.
+    long rejectedRequests();
+
+    long openedCircuits();
+
+    // states of circuits keyed by http method and endpoint template.
+    @NotNull
+    Map<String, State> states();
+  }
+
+  enum Disabled implements CircuitBreaker, Metrics {
+    INSTANCE;
+
+    @NotNull
+    @Override
+    public Mono<HttpResponse> call(
+        @NotNull final String method,
+        @NotNull final Request<?> request,
+        @NotNull final Mono<HttpResponse> response) {
+      return response;
+    }
+
+    @NotNull
+    @Override
+    public Metrics metrics() {
+      return this;
+    }
+
+    @Override
+    public long rejectedRequests() {
+      return 0L;
+    }
+
+    @Override
+    public long openedCircuits() {
+      return 0L;
+    }
+
+    @NotNull
+    @Override
+    public Map<String, State> states() {
+      return Collections.emptyMap();
+    }
+  }
+}
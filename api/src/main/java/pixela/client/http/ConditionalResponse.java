@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/** response of a conditional GET, which holds the body as bytes with its validators. */
+public class ConditionalResponse {
+
+  public static final int NOT_MODIFIED = 304;
+
+  public static final String ETAG = "ETag";
+  public static final String LAST_MODIFIED = "Last-Modified";
+  public static final String IF_NONE_MATCH = "If-None-Match";
+  public static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private final boolean notModified;
+  @NotNull private final byte[] body;
+  @Nullable private final String etag;
+  @Nullable private final String lastModified;
+
+  private ConditionalResponse(
+      final boolean notModified,
+      @NotNull final byte[] body,
+      @Nullable final String etag,
+      @Nullable final String lastModified) {
+    this.notModified = notModified;
+    this.body = body;
+    this.etag = etag;
+    this.lastModified = lastModified;
+  }
+
+  @Contract("_ -> new")
+  @NotNull
+  public static ConditionalResponse of(@NotNull final HttpResponse response) {
+    final String etag = response.header(ETAG).orElse(null);
+    final String lastModified = response.header(LAST_MODIFIED).orElse(null);
+    if (response.statusCode() == NOT_MODIFIED) {
+      return new ConditionalResponse(true, EMPTY, etag, lastModified);
+    }
+    return new ConditionalResponse(false, response.bodyBytes(), etag, lastModified);
+  }
+
+  @Contract("_, _, _ -> new")
+  @NotNull
+  public static ConditionalResponse of(
+      @NotNull final byte[] body,
+      @Nullable final String etag,
+      @Nullable final String lastModified) {
+    return new ConditionalResponse(false, body, etag, lastModified);
+  }
+
+  public boolean isNotModified() {
+    return notModified;
+  }
+
+  @NotNull
+  public byte[] body() {
+    return body;
+  }
+
+  @NotNull
+  public String bodyAsString() {
+    return new String(body, StandardCharsets.UTF_8);
+  }
+
+  @NotNull
+  public Optional<String> etag() {
+    return Optional.ofNullable(etag);
+  }
+
+  @NotNull
+  public Optional<String> lastModified() {
+    return Optional.ofNullable(lastModified);
+  }
+
+  public boolean hasValidator() {
+    return etag != null || lastModified != null;
+  }
+
+  /**
+   * request headers to revalidate this response.
+   *
+   * @return If-None-Match and/or If-Modified-Since headers, or empty map if this response has no
+   *     validator.
+   */
+  @NotNull
+  public Map<String, String> conditionalHeaders() {
+    if (!hasValidator()) {
+      return Collections.emptyMap();
+    }
+    final Map<String, String> headers = new HashMap<>(2);
+    if (etag != null) {
+      headers.put(IF_NONE_MATCH, etag);
+    }
+    if (lastModified != null) {
+      headers.put(IF_MODIFIED_SINCE, lastModified);
+    }
+    return Collections.unmodifiableMap(headers);
+  }
+
+  @Override
+  public String toString() {
+    return "ConditionalResponse{"
+        + "notModified="
+        + notModified
+        + ", bodyLength="
+        + body.length
+        + ", etag="
+        + etag
+        + ", lastModified="
+        + lastModified
+        + '}';
+  }
+}
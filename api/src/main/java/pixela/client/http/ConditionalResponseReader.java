@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+
+class ConditionalResponseReader<T> implements HttpResponseReader<T> {
+
+  @NotNull private final Request<T> request;
+
+  ConditionalResponseReader(@NotNull final Request<T> request) {
+    this.request = request;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public @NotNull Class<T> responseType() {
+    return (Class<T>) ConditionalResponse.class;
+  }
+
+  // 304 is not an error for conditional requests.
+  @Override
+  public boolean matchCondition(@NotNull final HttpResponse response) {
+    return ConditionalResponse.class.equals(request.responseType())
+        && (response.statusCode() == ConditionalResponse.NOT_MODIFIED
+            || !response.isErrorResponse());
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public @NotNull Mono<T> read(@NotNull final HttpResponse response) {
+    return Mono.fromSupplier(() -> (T) ConditionalResponse.of(response));
+  }
+}
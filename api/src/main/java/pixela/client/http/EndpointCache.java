@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import java.net.URI;
+import java.util.function.Function;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/** keeps the endpoint built for the last base uri, to build it once per client. */
+public final class EndpointCache {
+
+  @NotNull private final Function<? super URI, String> builder;
+
+  private volatile Endpoint endpoint;
+
+  private EndpointCache(@NotNull final Function<? super URI, String> builder) {
+    this.builder = builder;
+  }
+
+  /**
+   * @param builder - builds the ascii string of the endpoint from base uri.
+   * @return cache of the endpoint.
+   */
+  @Contract("_ -> new")
+  @NotNull
+  public static EndpointCache of(@NotNull final Function<? super URI, String> builder) {
+    return new EndpointCache(builder);
+  }
+
+  @NotNull
+  public URI resolve(@NotNull final URI baseUri) {
+    return endpoint(baseUri).uri;
+  }
+
+  /**
+   * @param baseUri - base uri of the client.
+   * @return the ascii string of {@link #resolve(URI)}, to append sub paths to.
+   */
+  @NotNull
+  public String asString(@NotNull final URI baseUri) {
+    return endpoint(baseUri).string;
+  }
+
+  @NotNull
+  private Endpoint endpoint(@NotNull final URI baseUri) {
+    final Endpoint current = endpoint;
+    if (current != null && current.baseUri.equals(baseUri)) {
+      return current;
+    }
+    // a race only builds the same uri twice.
+    final Endpoint created = new Endpoint(baseUri, builder.apply(baseUri));
+    endpoint = created;
+    return created;
+  }
+
+  private static final class Endpoint {
+    @NotNull private final URI baseUri;
+    @NotNull private final String string;
+    @NotNull private final URI uri;
+
+    private Endpoint(@NotNull final URI baseUri, @NotNull final String string) {
+      this.baseUri = baseUri;
+      this.string = string;
+      this.uri = URI.create(string);
+    }
+  }
+}
@@ -16,7 +16,6 @@
 package pixela.client.http;
 
 import org.jetbrains.annotations.NotNull;
-import pixela.client.ApiException;
 import pixela.client.BasicResponse;
 import pixela.client.http.json.JsonDecoder;
 import reactor.core.publisher.Mono;
@@ -45,9 +44,8 @@ class ErrorResponseReader<T> implements HttpResponseReader<T> {
   @Override
   @NotNull
   public Mono<T> read(@NotNull final HttpResponse response) {
-    final String json = response.body();
-    final Mono<BasicResponse> mono = decoder.decode(json, BasicResponse.class);
-    return mono.map(BasicResponse::getMessage)
-        .flatMap(message -> Mono.error(ApiException.of(message)));
+    final Mono<BasicResponse> mono = response.readBody(decoder, BasicResponse.class);
+    final int statusCode = response.statusCode();
+    return mono.flatMap(res -> Mono.error(res.toException(statusCode)));
   }
 }
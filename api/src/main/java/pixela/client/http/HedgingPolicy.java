@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import java.time.Duration;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+public interface HedgingPolicy {
+
+  /**
+   * sends the request again when the response is slow, and takes the response which comes first.
+   * Only {@link Get} requests are hedged, because sending writes twice may change the result.
+   *
+   * @param request - the request to be hedged.
+   * @param response - cold {@link Mono} which sends the request on each subscription.
+   * @return {@link Mono} of the first response.
+   */
+  @NotNull
+  Mono<HttpResponse> hedge(
+      @NotNull final Get<?> request, @NotNull final Mono<HttpResponse> response);
+
+  @NotNull
+  Metrics metrics();
+
+  @Contract(pure = true)
+  @NotNull
+  static HedgingPolicy none() {
+    return NoHedging.INSTANCE;
+  }
+
+  /**
+   * creates hedging policy which sends a second request when no response has come within the given
+   * percentile of recent response times. Each request adds {@code budgetRatio} to the hedge budget
+   * and each hedge consumes 1 from it, so hedges cannot add more than the ratio of load.
+   *
+   * @param percentile - percentile of response times used as the delay, between 0 and 1.
+   * @param minDelay - the lower bound of the delay.
+   * @param budgetRatio - ratio of hedges to requests.
+   * @return hedging policy.
+   */
+  @Contract("_, _, _ -> new")
+  @NotNull
+  static HedgingPolicy percentile(
+      final double percentile, @NotNull final Duration minDelay, final double budgetRatio) {
+    if (!(0.0 < percentile && percentile < 1.0)) {
+      throw new IllegalArgumentException("percentile should be between 0 and 1: " + percentile);
+    }
+    if (minDelay.isNegative()) {
+      throw new IllegalArgumentException("minDelay should not be negative: " + minDelay);
+    }
+    if (budgetRatio < 0.0) {
+      throw new IllegalArgumentException("budgetRatio should not be negative: " + budgetRatio);
+    }
+    return new PercentileHedgingPolicy(
+        percentile, minDelay, budgetRatio, System::nanoTime, Schedulers.parallel());
+  }
+
+  interface Metrics {
+
+    long requests();
+
+    long hedges();
+
+    // hedged requests whose second response came first.
+    long hedgeWins();
+
+    // requests which were not hedged because of hedge budget.
+    long budgetExhausted();
+  }
+
+  enum NoHedging implements HedgingPolicy, Metrics {
+    INSTANCE;
+
+    @NotNull
+    @Override
+    public Mono<HttpResponse> hedge(
+        @NotNull final Get<?> request, @NotNull final Mono<HttpResponse> response) {
+      return response;
+    }
+
+    @NotNull
+    @Override
+    public Metrics metrics() {
+      return this;
+    }
+
+    @Override
+    public long requests() {
+      return 0L;
+    }
+
+    @Override
+    public long hedges() {
+      return 0L;
+    }
+
+    @Override
+    public long hedgeWins() {
+      return 0L;
+    }
+
+    @Override
+    public long budgetExhausted() {
+      return 0L;
+    }
+  }
+}
@@ -15,12 +15,18 @@
  */
 package pixela.client.http;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.function.Supplier;
 import org.jetbrains.annotations.NotNull;
 import pixela.client.ApiException;
+import pixela.client.cache.GraphDefinitionsCache;
+import pixela.client.cache.PixelCache;
+import pixela.client.cache.SvgCache;
+import pixela.client.coalesce.PixelCoalescer;
 import pixela.client.http.json.JsonDecoder;
 import pixela.client.http.json.JsonEncoder;
+import pixela.client.journal.PixelJournal;
 import reactor.core.publisher.Mono;
 
 public interface HttpClient extends AutoCloseable {
@@ -59,11 +65,54 @@ public interface HttpClient extends AutoCloseable {
   default <T> Mono<T> readResponse(
       @NotNull final Request<T> request, @NotNull final Mono<HttpResponse> response) {
     return response
+        .onErrorMap(IOException.class, TransportFailure::new)
         .flatMap(res -> ResponseReader.create(request, decoder()).read(res))
+        .retryWhen(retryPolicy().retryFor(request))
+        .onErrorMap(TransportFailure.class, Throwable::getCause)
         .onErrorMap(ApiException.class, e -> e.appendDebugInfo(request))
         .cache();
   }
 
+  @NotNull
+  default RetryPolicy retryPolicy() {
+    return RetryPolicy.none();
+  }
+
+  @NotNull
+  default HedgingPolicy hedgingPolicy() {
+    return HedgingPolicy.none();
+  }
+
+  @NotNull
+  default SingleFlight singleFlight() {
+    return SingleFlight.disabled();
+  }
+
+  @NotNull
+  default PixelCache pixelCache() {
+    return PixelCache.disabled();
+  }
+
+  @NotNull
+  default GraphDefinitionsCache graphDefinitionsCache() {
+    return GraphDefinitionsCache.disabled();
+  }
+
+  @NotNull
+  default SvgCache svgCache() {
+    return SvgCache.disabled();
+  }
+
+  @NotNull
+  default PixelCoalescer pixelCoalescer() {
+    return PixelCoalescer.disabled();
+  }
+
+  @NotNull
+  default PixelJournal pixelJournal() {
+    return PixelJournal.disabled();
+  }
+
   @NotNull
   <T> Mono<T> runAsync(@NotNull final Supplier<? extends T> supplier);
 
@@ -72,7 +121,20 @@ public interface HttpClient extends AutoCloseable {
 
   @NotNull
   default <T> Mono<T> get(@NotNull final Get<T> request) {
-    final Mono<HttpResponse> response = runGet(request);
+    return singleFlight().share(baseUri(), request, () -> getLatest(request));
+  }
+
+  /**
+   * sends the get request without sharing a call in flight, so that the response reflects the
+   * writes finished before it.
+   *
+   * @param request - the get request.
+   * @param <T> - the type of response.
+   * @return {@link Mono} of the response.
+   */
+  @NotNull
+  default <T> Mono<T> getLatest(@NotNull final Get<T> request) {
+    final Mono<HttpResponse> response = hedgingPolicy().hedge(request, runGet(request));
     return readResponse(request, response);
   }
 
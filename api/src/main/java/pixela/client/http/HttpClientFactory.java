@@ -21,6 +21,11 @@ public interface HttpClientFactory {
 
   HttpClient newClient(final PixelaClientConfig pixelaClientConfig);
 
+  // whether this factory can create client for the config. The first factory supporting it is used.
+  default boolean supports(final PixelaClientConfig pixelaClientConfig) {
+    return true;
+  }
+
   static IllegalStateException notFoundImplementation() {
     return new IllegalStateException(
         "An implementation class for " + HttpClientFactory.class + " not found.");
@@ -15,7 +15,11 @@
  */
 package pixela.client.http;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 import org.jetbrains.annotations.NotNull;
+import pixela.client.http.json.JsonDecoder;
+import reactor.core.publisher.Mono;
 
 public interface HttpResponse {
 
@@ -23,4 +27,33 @@ public interface HttpResponse {
   String body();
 
   boolean isErrorResponse();
+
+  // 0 if the status code is not available.
+  default int statusCode() {
+    return 0;
+  }
+
+  @NotNull
+  default Optional<String> header(@NotNull final String name) {
+    return Optional.empty();
+  }
+
+  @NotNull
+  default byte[] bodyBytes() {
+    return body().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * decodes body into the given type. Implementations which hold the body in other form than
+   * {@link String} can override this to decode without building the body string.
+   *
+   * @param decoder - decoder used when the body is available only as string.
+   * @param type - the type of object.
+   * @param <T> - the type of object.
+   * @return {@link Mono} instance which may hold decoded object.
+   */
+  @NotNull
+  default <T> Mono<T> readBody(@NotNull final JsonDecoder decoder, @NotNull final Class<T> type) {
+    return decoder.decode(body(), type);
+  }
 }
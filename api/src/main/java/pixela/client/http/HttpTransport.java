@@ -0,0 +1,24 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+public enum HttpTransport {
+  // java.net.http.HttpClient.
+  JDK,
+  // HTTP/1.1 over java.nio channels, with keep-alive connection pool and pipelining. It has no tls,
+  // so it is only for http base uri, such as a local proxy. Creating a client fails with https.
+  NIO,
+}
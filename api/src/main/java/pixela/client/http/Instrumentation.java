@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import java.util.ServiceLoader;
+import java.util.Spliterator;
+import java.util.stream.StreamSupport;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * receives measurements of requests. An implementation is configured with {@link
+ * pixela.client.PixelaClientConfig#setInstrumentation(Instrumentation)}, or found by {@link
+ * ServiceLoader}.
+ */
+public interface Instrumentation {
+
+  /**
+   * whether this instrumentation records anything. The client skips measurement entirely when this
+   * is {@code false}.
+   *
+   * @return {@code true} if the client should measure requests.
+   */
+  default boolean enabled() {
+    return true;
+  }
+
+  /**
+   * called for each attempt of a request, before it waits for the rate limiter.
+   *
+   * @param method - http method of the request.
+   * @param request - the request, whose {@link Request#endpointTemplate()} identifies the endpoint.
+   * @return {@link Exchange} which receives measurements of this attempt.
+   */
+  @NotNull
+  Exchange start(@NotNull final String method, @NotNull final Request<?> request);
+
+  /**
+   * called when json codec encoded or decoded an object.
+   *
+   * @param operation - encode or decode.
+   * @param type - the type of the object.
+   * @param nanos - elapsed time.
+   */
+  default void codec(
+      @NotNull final CodecOperation operation, @NotNull final Class<?> type, final long nanos) {}
+
+  interface Exchange {
+
+    // time from start until the request is sent, including rate limiter wait and encoding.
+    void queued(final long nanos);
+
+    /**
+     * called when the response is received.
+     *
+     * @param statusCode - status code of the response.
+     * @param requestBytes - size of the request body, or -1 if unknown.
+     * @param responseBytes - size of the response body, or -1 if unknown.
+     * @param nanos - time from sending the request until receiving the response.
+     */
+    void completed(
+        final int statusCode, final long requestBytes, final long responseBytes, final long nanos);
+
+    void failed(@NotNull final Throwable error, final long nanos);
+  }
+
+  enum CodecOperation {
+    ENCODE,
+    DECODE,
+  }
+
+  @Contract(pure = true)
+  @NotNull
+  static Instrumentation noop() {
+    return NoOp.INSTANCE;
+  }
+
+  @NotNull
+  static Instrumentation load() {
+    final ServiceLoader<Instrumentation> loader = ServiceLoader.load(Instrumentation.class);
+    final Spliterator<Instrumentation> spliterator = loader.spliterator();
+    return StreamSupport.stream(spliterator, false).findFirst().orElse(NoOp.INSTANCE);
+  }
+
+  enum NoOp implements Instrumentation, Exchange {
+    INSTANCE;
+
+    @Override
+    public boolean enabled() {
+      return false;
+    }
+
+    @NotNull
+    @Override
+    public Exchange start(@NotNull final String method, @NotNull final Request<?> request) {
+      return this;
+    }
+
+    @Override
+    public void queued(final long nanos) {}
+
+    @Override
+    public void completed(
+        final int statusCode,
+        final long requestBytes,
+        final long responseBytes,
+        final long nanos) {}
+
+    @Override
+    public void failed(@NotNull final Throwable error, final long nanos) {}
+  }
+}
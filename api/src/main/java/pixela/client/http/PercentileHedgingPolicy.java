@@ -0,0 +1,203 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+
+class PercentileHedgingPolicy implements HedgingPolicy, HedgingPolicy.Metrics {
+
+  // budget is held in 1/1000 of a hedge.
+  private static final long UNIT = 1000L;
+  private static final long MIN_BUDGET = 10L * UNIT;
+
+  // response times of this number of recent requests are kept.
+  static final int WINDOW = 256;
+  // requests are not hedged until this number of response times are known.
+  static final int MIN_SAMPLES = 32;
+  private static final int RECOMPUTE_INTERVAL = 16;
+
+  private static final long UNKNOWN = -1L;
+
+  private final double percentile;
+  private final long minDelayNanos;
+  private final long budgetPerRequest;
+  private final long maxBudget;
+
+  @NotNull private final LongSupplier clock;
+  @NotNull private final Scheduler scheduler;
+
+  @NotNull private final AtomicLong budget;
+
+  @NotNull private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+  @NotNull private final AtomicLong sampleCount = new AtomicLong();
+  private volatile long delayNanos = UNKNOWN;
+
+  @NotNull private final LongAdder requests = new LongAdder();
+  @NotNull private final LongAdder hedges = new LongAdder();
+  @NotNull private final LongAdder hedgeWins = new LongAdder();
+  @NotNull private final LongAdder budgetExhausted = new LongAdder();
+
+  PercentileHedgingPolicy(
+      final double percentile,
+      @NotNull final Duration minDelay,
+      final double budgetRatio,
+      @NotNull final LongSupplier clock,
+      @NotNull final Scheduler scheduler) {
+    this.percentile = percentile;
+    this.minDelayNanos = minDelay.toNanos();
+    this.budgetPerRequest = (long) (budgetRatio * UNIT);
+    this.maxBudget = Math.max(MIN_BUDGET, budgetPerRequest * 100L);
+    this.clock = clock;
+    this.scheduler = scheduler;
+    this.budget = new AtomicLong(MIN_BUDGET);
+  }
+
+  @NotNull
+  @Override
+  public Mono<HttpResponse> hedge(
+      @NotNull final Get<?> request, @NotNull final Mono<HttpResponse> response) {
+    return Mono.defer(
+        () -> {
+          requests.increment();
+          deposit();
+          final Mono<HttpResponse> first = timed(response, true);
+          final long delay = delayNanos;
+          if (delay == UNKNOWN) {
+            return first;
+          }
+          // an error is passed only when the other response is not expected any more.
+          final AtomicInteger pending = new AtomicInteger(1);
+          final Function<Throwable, Mono<HttpResponse>> lastError =
+              error -> pending.decrementAndGet() == 0 ? Mono.error(error) : Mono.never();
+          final Mono<HttpResponse> second =
+              Mono.delay(Duration.ofNanos(delay), scheduler)
+                  .flatMap(
+                      tick -> {
+                        if (!withdraw()) {
+                          budgetExhausted.increment();
+                          return Mono.never();
+                        }
+                        hedges.increment();
+                        pending.incrementAndGet();
+                        return timed(response, false)
+                            .doOnNext(res -> hedgeWins.increment())
+                            .onErrorResume(lastError);
+                      });
+          return Mono.first(first.onErrorResume(lastError), second);
+        });
+  }
+
+  // a cancelled first request is recorded too, its time is a lower bound of the response time.
+  @NotNull
+  private Mono<HttpResponse> timed(
+      @NotNull final Mono<HttpResponse> response, final boolean recordCancel) {
+    return Mono.defer(
+        () -> {
+          final long start = clock.getAsLong();
+          return response.doFinally(
+              signal -> {
+                if (signal == SignalType.ON_COMPLETE
+                    || (recordCancel && signal == SignalType.CANCEL)) {
+                  record(clock.getAsLong() - start);
+                }
+              });
+        });
+  }
+
+  private void record(final long nanos) {
+    final long count = sampleCount.getAndIncrement() + 1L;
+    samples.set((int) ((count - 1L) % WINDOW), nanos);
+    if (count >= MIN_SAMPLES && count % RECOMPUTE_INTERVAL == 0L) {
+      delayNanos = computeDelay((int) Math.min(count, WINDOW));
+    }
+  }
+
+  private long computeDelay(final int size) {
+    final long[] sorted = new long[size];
+    for (int i = 0; i < size; i++) {
+      sorted[i] = samples.get(i);
+    }
+    Arrays.sort(sorted);
+    final int index = Math.max(0, (int) Math.ceil(percentile * size) - 1);
+    return Math.max(minDelayNanos, sorted[index]);
+  }
+
+  private void deposit() {
+    budget.accumulateAndGet(budgetPerRequest, (current, add) -> Math.min(maxBudget, current + add));
+  }
+
+  private boolean withdraw() {
+    while (true) {
+      final long current = budget.get();
+      if (current < UNIT) {
+        return false;
+      }
+      if (budget.compareAndSet(current, current - UNIT)) {
+        return true;
+      }
+    }
+  }
+
+  @NotNull
+  @Override
+  public Metrics metrics() {
+    return this;
+  }
+
+  @Override
+  public long requests() {
+    return requests.sum();
+  }
+
+  @Override
+  public long hedges() {
+    return hedges.sum();
+  }
+
+  @Override
+  public long hedgeWins() {
+    return hedgeWins.sum();
+  }
+
+  @Override
+  public long budgetExhausted() {
+    return budgetExhausted.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "PercentileHedgingPolicy[requests:"
+        + requests()
+        + ",hedges:"
+        + hedges()
+        + ",hedgeWins:"
+        + hedgeWins()
+        + ",budgetExhausted:"
+        + budgetExhausted()
+        + "]";
+  }
+}
@@ -25,4 +25,9 @@ public interface Post<T> extends Request<T> {
   default Optional<String> contentType() {
     return Optional.of("application/json");
   }
+
+  @Override
+  default boolean idempotent() {
+    return false;
+  }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import java.time.Duration;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+public interface RateLimiter {
+
+  /**
+   * waits until the request is allowed to be sent.
+   *
+   * @param request - the request to be sent.
+   * @return {@link Mono} which completes when the request can be sent.
+   */
+  @NotNull
+  Mono<Void> acquire(@NotNull final Request<?> request);
+
+  @NotNull
+  Metrics metrics();
+
+  @Contract(pure = true)
+  @NotNull
+  static RateLimiter unlimited() {
+    return Unlimited.INSTANCE;
+  }
+
+  /**
+   * creates token-bucket rate limiter. Requests waiting for permits are served in round-robin order
+   * of users, so one user's burst cannot starve requests of other users.
+   *
+   * @param permitsPerSecond - refill rate of the bucket.
+   * @param burst - capacity of the bucket.
+   * @return token-bucket rate limiter.
+   */
+  @Contract("_, _ -> new")
+  @NotNull
+  static RateLimiter tokenBucket(final double permitsPerSecond, final int burst) {
+    if (permitsPerSecond <= 0.0) {
+      throw new IllegalArgumentException(
+          "permitsPerSecond should be positive: " + permitsPerSecond);
+    }
+    if (burst < 1) {
+      throw new IllegalArgumentException("burst should be positive: " + burst);
+    }
+    return new TokenBucketRateLimiter(
+        permitsPerSecond, burst, System::nanoTime, Schedulers.parallel());
+  }
+
+  interface Metrics {
+
+    int queueDepth();
+
+    long waitedRequests();
+
+    @NotNull
+    Duration totalWaitTime();
+
+    @NotNull
+    Duration maxWaitTime();
+
+    @NotNull
+    default Duration averageWaitTime() {
+      final long waitedRequests = waitedRequests();
+      if (waitedRequests == 0L) {
+        return Duration.ZERO;
+      }
+      return totalWaitTime().dividedBy(waitedRequests);
+    }
+  }
+
+  enum Unlimited implements RateLimiter, Metrics {
+    INSTANCE;
+
+    @NotNull
+    @Override
+    public Mono<Void> acquire(@NotNull final Request<?> request) {
+      return Mono.empty();
+    }
+
+    @NotNull
+    @Override
+    public Metrics metrics() {
+      return this;
+    }
+
+    @Override
+    public int queueDepth() {
+      return 0;
+    }
+
+    @Override
+    public long waitedRequests() {
+      return 0L;
+    }
+
+    @NotNull
+    @Override
+    public Duration totalWaitTime() {
+      return Duration.ZERO;
+    }
+
+    @NotNull
+    @Override
+    public Duration maxWaitTime() {
+      return Duration.ZERO;
+    }
+  }
+}
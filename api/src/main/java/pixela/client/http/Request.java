@@ -16,6 +16,8 @@
 package pixela.client.http;
 
 import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import org.jetbrains.annotations.NotNull;
@@ -52,6 +54,24 @@ public interface Request<T> {
   @NotNull
   String errorRequest();
 
+  // endpoint path whose path parameters are replaced with placeholders, e.g.
+  // "/v1/users/{username}/graphs/{graphID}". Used to aggregate measurements per endpoint.
+  @NotNull
+  default String endpointTemplate() {
+    return "unknown";
+  }
+
+  // headers other than user token, content type and content length.
+  @NotNull
+  default Map<String, String> headers() {
+    return Collections.emptyMap();
+  }
+
+  // whether sending this request twice has the same effect as sending it once.
+  default boolean idempotent() {
+    return true;
+  }
+
   enum WithBody {
     FALSE {
       @Override
@@ -41,8 +41,9 @@ class ResponseReader<T> {
   @NotNull
   static <T> ResponseReader<T> create(final Request<T> request, final JsonDecoder decoder) {
     return new ResponseReader<>(
-        response -> decoder.decode(response.body(), request.responseType()),
+        response -> response.readBody(decoder, request.responseType()),
         Arrays.asList(
+            new ConditionalResponseReader<>(request),
             new ErrorResponseReader<>(request, decoder),
             new VoidResponseReader<>(request, decoder),
             new StringResponseReader<>(request)));
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import java.time.Duration;
+import java.util.function.Function;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+public interface RetryPolicy {
+
+  /**
+   * creates the function given to {@link reactor.core.publisher.Mono#retryWhen(Function)} for a
+   * request.
+   *
+   * @param request - the request to be retried.
+   * @return function which decides whether and when the request is sent again.
+   */
+  @NotNull
+  Function<Flux<Throwable>, ? extends Publisher<?>> retryFor(@NotNull final Request<?> request);
+
+  @NotNull
+  Metrics metrics();
+
+  @Contract(pure = true)
+  @NotNull
+  static RetryPolicy none() {
+    return NoRetry.INSTANCE;
+  }
+
+  /**
+   * creates retry policy with exponential backoff and full jitter. Rejected requests are retried
+   * for every request, and transport errors and server errors are retried only for idempotent
+   * requests. Each request adds {@code budgetRatio} to the retry budget and each retry consumes 1
+   * from it, so retries cannot multiply the load on the service under failure.
+   *
+   * @param maxRetries - max number of retries for a request.
+   * @param firstBackoff - the upper bound of the first backoff.
+   * @param maxBackoff - the upper bound of all backoffs.
+   * @param budgetRatio - ratio of retries to requests.
+   * @return retry policy.
+   */
+  @Contract("_, _, _, _ -> new")
+  @NotNull
+  static RetryPolicy exponentialBackoff(
+      final int maxRetries,
+      @NotNull final Duration firstBackoff,
+      @NotNull final Duration maxBackoff,
+      final double budgetRatio) {
+    if (maxRetries < 0) {
+      throw new IllegalArgumentException("maxRetries should not be negative: " + maxRetries);
+    }
+    if (firstBackoff.isNegative() || maxBackoff.compareTo(firstBackoff) < 0) {
+      throw new IllegalArgumentException(
+          "invalid backoff, first: " + firstBackoff + ", max: " + maxBackoff);
+    }
+    if (budgetRatio < 0.0) {
+      throw new IllegalArgumentException("budgetRatio should not be negative: " + budgetRatio);
+    }
+    return new BackoffRetryPolicy(
+        maxRetries, firstBackoff, maxBackoff, budgetRatio, Schedulers.parallel());
+  }
+
+  interface Metrics {
+
+    long requests();
+
+    long retries();
+
+    // requests which failed because they used up max retries.
+    long retriesExhausted();
+
+    // requests which were not retried because of retry budget.
+    long budgetExhausted();
+  }
+
+  enum NoRetry implements RetryPolicy, Metrics {
+    INSTANCE;
+
+    @NotNull
+    @Override
+    public Function<Flux<Throwable>, ? extends Publisher<?>> retryFor(
+        @NotNull final Request<?> request) {
+      return errors -> errors.flatMap(Flux::error);
+    }
+
+    @NotNull
+    @Override
+    public Metrics metrics() {
+      return this;
+    }
+
+    @Override
+    public long requests() {
+      return 0L;
+    }
+
+    @Override
+    public long retries() {
+      return 0L;
+    }
+
+    @Override
+    public long retriesExhausted() {
+      return 0L;
+    }
+
+    @Override
+    public long budgetExhausted() {
+      return 0L;
+    }
+  }
+}
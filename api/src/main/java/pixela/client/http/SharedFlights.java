@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pixela.client.UserToken;
+import reactor.core.publisher.Mono;
+
+class SharedFlights implements SingleFlight, SingleFlight.Metrics {
+
+  @NotNull private final ConcurrentMap<Key, Mono<?>> flights = new ConcurrentHashMap<>();
+
+  @NotNull private final LongAdder sentFlights = new LongAdder();
+  @NotNull private final LongAdder joinedRequests = new LongAdder();
+
+  @SuppressWarnings("unchecked")
+  @NotNull
+  @Override
+  public <T> Mono<T> share(
+      @NotNull final URI baseUri,
+      @NotNull final Get<T> request,
+      @NotNull final Supplier<Mono<T>> call) {
+    return Mono.defer(
+        () -> {
+          final Key key = new Key(baseUri, request);
+          final Mono<?> inFlight = flights.get(key);
+          if (inFlight != null) {
+            joinedRequests.increment();
+            return (Mono<T>) inFlight;
+          }
+          // removed when the call terminates, so that a request after it sends a new call.
+          final AtomicReference<Mono<T>> self = new AtomicReference<>();
+          final Mono<T> flight =
+              call.get().doFinally(signal -> flights.remove(key, self.get())).cache();
+          self.set(flight);
+          final Mono<?> raced = flights.putIfAbsent(key, flight);
+          if (raced != null) {
+            joinedRequests.increment();
+            return (Mono<T>) raced;
+          }
+          sentFlights.increment();
+          return flight;
+        });
+  }
+
+  private static final class Key {
+
+    @NotNull private final String endpoint;
+    @Nullable private final UserToken userToken;
+    @NotNull private final Map<String, String> headers;
+    @NotNull private final Class<?> responseType;
+
+    Key(@NotNull final URI baseUri, @NotNull final Get<?> request) {
+      this.endpoint = request.apiEndpoint(baseUri).toString();
+      this.userToken = request.userToken().orElse(null);
+      this.headers = request.headers();
+      this.responseType = request.responseType();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+      final Key key = (Key) o;
+      return endpoint.equals(key.endpoint)
+          && Objects.equals(userToken, key.userToken)
+          && headers.equals(key.headers)
+          && responseType.equals(key.responseType);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(endpoint, userToken, headers, responseType);
+    }
+  }
+
+  @NotNull
+  @Override
+  public Metrics metrics() {
+    return this;
+  }
+
+  @Override
+  public long flights() {
+    return sentFlights.sum();
+  }
+
+  @Override
+  public long joinedRequests() {
+    return joinedRequests.sum();
+  }
+
+  @Override
+  public int inFlight() {
+    return flights.size();
+  }
+
+  @Override
+  public String toString() {
+    return "SharedFlights[flights:"
+        + flights()
+        + ",joinedRequests:"
+        + joinedRequests()
+        + ",inFlight:"
+        + inFlight()
+        + "]";
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import java.net.URI;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+
+public interface SingleFlight {
+
+  /**
+   * shares a call among identical {@link Get} requests made while it is in flight. Requests are
+   * identical when their endpoint uri, user token, headers and response type are the same. The
+   * result or the error of the call is given to all of them.
+   *
+   * @param baseUri - base uri of the client.
+   * @param request - the request.
+   * @param call - creates {@link Mono} which sends the request, used when no call is in flight.
+   * @param <T> - the type of response.
+   * @return {@link Mono} of the call in flight.
+   */
+  @NotNull
+  <T> Mono<T> share(
+      @NotNull final URI baseUri,
+      @NotNull final Get<T> request,
+      @NotNull final Supplier<Mono<T>> call);
+
+  @NotNull
+  Metrics metrics();
+
+  @Contract(pure = true)
+  @NotNull
+  static SingleFlight disabled() {
+    return Disabled.INSTANCE;
+  }
+
+  /**
+   * creates single flight which keeps a call per identical request until it completes. A response
+   * object is shared by the requests joined to the call, so it should not be modified.
+   *
+   * @return single flight.
+   */
+  @Contract("-> new")
+  @NotNull
+  static SingleFlight perRequest() {
+    return new SharedFlights();
+  }
+
+  interface Metrics {
+
+    // calls actually sent.
+    long flights();
+
+    // requests given the result of a call sent for another request.
+    long joinedRequests();
+
+    int inFlight();
+  }
+
+  enum Disabled implements SingleFlight, Metrics {
+    INSTANCE;
+
+    @NotNull
+    @Override
+    public <T> Mono<T> share(
+        @NotNull final URI baseUri,
+        @NotNull final Get<T> request,
+        @NotNull final Supplier<Mono<T>> call) {
+      return call.get();
+    }
+
+    @NotNull
+    @Override
+    public Metrics metrics() {
+      return this;
+    }
+
+    @Override
+    public long flights() {
+      return 0L;
+    }
+
+    @Override
+    public long joinedRequests() {
+      return 0L;
+    }
+
+    @Override
+    public int inFlight() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pixela.client.CircuitOpenException;
+import reactor.core.publisher.Mono;
+
+class SlidingWindowCircuitBreaker implements CircuitBreaker, CircuitBreaker.Metrics {
+
+  private final int windowSize;
+  // a circuit does not open until this number of calls are recorded.
+  private final int minimumCalls;
+  private final double failureRateThreshold;
+  private final long openNanos;
+
+  @NotNull private final LongSupplier clock;
+
+  @NotNull private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+  @NotNull private final LongAdder rejectedRequests = new LongAdder();
+  @NotNull private final LongAdder openedCircuits = new LongAdder();
+
+  SlidingWindowCircuitBreaker(
+      final int windowSize,
+      final double failureRateThreshold,
+      @NotNull final Duration openDuration,
+      @NotNull final LongSupplier clock) {
+    this.windowSize = windowSize;
+    this.minimumCalls = Math.max(1, windowSize / 2);
+    this.failureRateThreshold = failureRateThreshold;
+    this.openNanos = openDuration.toNanos();
+    this.clock = clock;
+  }
+
+  @NotNull
+  @Override
+  public Mono<HttpResponse> call(
+      @NotNull final String method,
+      @NotNull final Request<?> request,
+      @NotNull final Mono<HttpResponse> response) {
+    return Mono.defer(
+        () -> {
+          final Circuit circuit = circuit(method + ' ' + request.endpointTemplate());
+          final Phase phase = circuit.acquire();
+          if (phase == null) {
+            rejectedRequests.increment();
+            return Mono.error(CircuitOpenException.of(circuit.endpoint));
+          }
+          return response
+              .doOnSuccess(res -> circuit.record(phase, res != null && isFailure(res)))
+              .doOnError(error -> circuit.record(phase, true))
+              .doOnCancel(() -> circuit.cancel(phase));
+        });
+  }
+
+  // 503 is how pixela rejects requests at random, which does not tell it is unhealthy.
+  static boolean isFailure(@NotNull final HttpResponse response) {
+    final int statusCode = response.statusCode();
+    return 500 <= statusCode && statusCode != 503;
+  }
+
+  @NotNull
+  private Circuit circuit(@NotNull final String endpoint) {
+    final Circuit circuit = circuits.get(endpoint);
+    if (circuit != null) {
+      return circuit;
+    }
+    return circuits.computeIfAbsent(endpoint, Circuit::new);
+  }
+
+  @NotNull
+  private Phase closed() {
+    return new Phase(State.CLOSED, 0L, new Window(windowSize));
+  }
+
+  @NotNull
+  private Phase open(final long openedAt) {
+    return new Phase(State.OPEN, openedAt, null);
+  }
+
+  private final class Circuit {
+
+    @NotNull private final String endpoint;
+
+    // replaced as a whole on each transition, so that calls of a former phase cannot change state.
+    @NotNull private final AtomicReference<Phase> phase = new AtomicReference<>(closed());
+
+    Circuit(@NotNull final String endpoint) {
+      this.endpoint = endpoint;
+    }
+
+    // returns the phase in which the request is sent, or null when it should not be sent.
+    @Nullable
+    Phase acquire() {
+      while (true) {
+        final Phase current = phase.get();
+        if (current.state == State.CLOSED) {
+          return current;
+        }
+        if (current.state == State.HALF_OPEN || clock.getAsLong() - current.openedAt < openNanos) {
+          return null;
+        }
+        final Phase probe = new Phase(State.HALF_OPEN, current.openedAt, null);
+        if (phase.compareAndSet(current, probe)) {
+          return probe;
+        }
+      }
+    }
+
+    void record(@NotNull final Phase sentIn, final boolean failure) {
+      if (sentIn.window == null) {
+        if (phase.compareAndSet(sentIn, failure ? open(clock.getAsLong()) : closed()) && failure) {
+          openedCircuits.increment();
+        }
+        return;
+      }
+      if (tooManyFailures(sentIn.window, failure)
+          && phase.compareAndSet(sentIn, open(clock.getAsLong()))) {
+        openedCircuits.increment();
+      }
+    }
+
+    // a cancelled probe lets the next request be a probe.
+    void cancel(@NotNull final Phase sentIn) {
+      if (sentIn.state == State.HALF_OPEN) {
+        phase.compareAndSet(sentIn, open(clock.getAsLong() - openNanos));
+      }
+    }
+  }
+
+  private boolean tooManyFailures(@NotNull final Window window, final boolean failure) {
+    final long calls = window.calls.incrementAndGet();
+    final int outcome = failure ? 1 : 0;
+    final int previous = window.outcomes.getAndSet((int) ((calls - 1L) % windowSize), outcome);
+    final int failures = window.failures.addAndGet(outcome - previous);
+    return failure
+        && calls >= minimumCalls
+        && failures >= failureRateThreshold * Math.min(calls, windowSize);
+  }
+
+  private static final class Phase {
+
+    @NotNull private final State state;
+    private final long openedAt;
+    // only closed phase has window.
+    @Nullable private final Window window;
+
+    Phase(@NotNull final State state, final long openedAt, @Nullable final Window window) {
+      this.state = state;
+      this.openedAt = openedAt;
+      this.window = window;
+    }
+  }
+
+  private static final class Window {
+
+    // outcomes of recent calls, 1 for failure.
+    @NotNull private final AtomicIntegerArray outcomes;
+    @NotNull private final AtomicLong calls = new AtomicLong();
+    @NotNull private final AtomicInteger failures = new AtomicInteger();
+
+    Window(final int windowSize) {
+      this.outcomes = new AtomicIntegerArray(windowSize);
+    }
+  }
+
+  @NotNull
+  @Override
+  public Metrics metrics() {
+    return this;
+  }
+
+  @Override
+  public long rejectedRequests() {
+    return rejectedRequests.sum();
+  }
+
+  @Override
+  public long openedCircuits() {
+    return openedCircuits.sum();
+  }
+
+  @NotNull
+  @Override
+  public Map<String, State> states() {
+    final Map<String, State> states = new HashMap<>();
+    circuits.forEach((endpoint, circuit) -> states.put(endpoint, circuit.phase.get().state));
+    return states;
+  }
+
+  @Override
+  public String toString() {
+    return "SlidingWindowCircuitBreaker[rejectedRequests:"
+        + rejectedRequests()
+        + ",openedCircuits:"
+        + openedCircuits()
+        + "]";
+  }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.UserToken;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+
+class TokenBucketRateLimiter implements RateLimiter, RateLimiter.Metrics {
+
+  private static final String ANONYMOUS = "";
+
+  private final long intervalNanos;
+  private final long burstToleranceNanos;
+
+  @NotNull private final LongSupplier clock;
+  @NotNull private final Scheduler scheduler;
+
+  // the time when the bucket becomes full (generic cell rate algorithm).
+  @NotNull private final AtomicLong theoreticalArrival;
+
+  @NotNull private final ConcurrentMap<String, UserQueue> queues = new ConcurrentHashMap<>();
+  // users who have waiting requests, in the order to be served.
+  @NotNull private final Queue<UserQueue> ready = new ConcurrentLinkedQueue<>();
+
+  @NotNull private final AtomicInteger wip = new AtomicInteger();
+  @NotNull private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+  @NotNull private final AtomicInteger queueDepth = new AtomicInteger();
+  @NotNull private final LongAdder waitedRequests = new LongAdder();
+  @NotNull private final LongAdder totalWaitNanos = new LongAdder();
+  @NotNull private final AtomicLong maxWaitNanos = new AtomicLong();
+
+  TokenBucketRateLimiter(
+      final double permitsPerSecond,
+      final int burst,
+      @NotNull final LongSupplier clock,
+      @NotNull final Scheduler scheduler) {
+    this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1L) / permitsPerSecond));
+    this.burstToleranceNanos = intervalNanos * (burst - 1);
+    this.clock = clock;
+    this.scheduler = scheduler;
+    this.theoreticalArrival = new AtomicLong(clock.getAsLong());
+  }
+
+  @NotNull
+  @Override
+  public Mono<Void> acquire(@NotNull final Request<?> request) {
+    return Mono.defer(
+        () -> {
+          if (queueDepth.get() == 0 && tryAcquire() == 0L) {
+            return Mono.empty();
+          }
+          return Mono.create(sink -> enqueue(key(request), sink));
+        });
+  }
+
+  @NotNull
+  private static String key(@NotNull final Request<?> request) {
+    return request.userToken().map(UserToken::tokenValue).orElse(ANONYMOUS);
+  }
+
+  // returns 0 when a permit is taken, otherwise nanos to wait for the next permit.
+  long tryAcquire() {
+    while (true) {
+      final long now = clock.getAsLong();
+      final long tat = theoreticalArrival.get();
+      final long start = Math.max(tat, now);
+      final long wait = start - now - burstToleranceNanos;
+      if (wait > 0L) {
+        return wait;
+      }
+      if (theoreticalArrival.compareAndSet(tat, start + intervalNanos)) {
+        return 0L;
+      }
+    }
+  }
+
+  private void enqueue(@NotNull final String key, @NotNull final MonoSink<Void> sink) {
+    final Waiter waiter = new Waiter(sink, clock.getAsLong());
+    sink.onCancel(waiter::cancel);
+    queueDepth.incrementAndGet();
+    queues.computeIfAbsent(key, k -> new UserQueue()).offer(waiter, ready);
+    drain();
+  }
+
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      while (true) {
+        final UserQueue queue = ready.peek();
+        if (queue == null) {
+          break;
+        }
+        final Waiter waiter = queue.peek();
+        if (!waiter.isCancelled()) {
+          final long wait = tryAcquire();
+          if (wait > 0L) {
+            scheduleDrain(wait);
+            break;
+          }
+        }
+        ready.poll();
+        queue.poll(ready);
+        queueDepth.decrementAndGet();
+        if (!waiter.isCancelled()) {
+          record(clock.getAsLong() - waiter.enqueuedAt);
+          waiter.sink.success();
+        }
+      }
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void scheduleDrain(final long nanos) {
+    if (drainScheduled.compareAndSet(false, true)) {
+      scheduler.schedule(
+          () -> {
+            drainScheduled.set(false);
+            drain();
+          },
+          nanos,
+          TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void record(final long waitNanos) {
+    waitedRequests.increment();
+    totalWaitNanos.add(waitNanos);
+    maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+  }
+
+  @NotNull
+  @Override
+  public Metrics metrics() {
+    return this;
+  }
+
+  @Override
+  public int queueDepth() {
+    return queueDepth.get();
+  }
+
+  @Override
+  public long waitedRequests() {
+    return waitedRequests.sum();
+  }
+
+  @NotNull
+  @Override
+  public Duration totalWaitTime() {
+    return Duration.ofNanos(totalWaitNanos.sum());
+  }
+
+  @NotNull
+  @Override
+  public Duration maxWaitTime() {
+    return Duration.ofNanos(maxWaitNanos.get());
+  }
+
+  @Override
+  public String toString() {
+    return "TokenBucketRateLimiter[queueDepth:"
+        + queueDepth()
+        + ",waitedRequests:"
+        + waitedRequests()
+        + ",maxWaitTime:"
+        + maxWaitTime()
+        + "]";
+  }
+
+  private static class UserQueue {
+
+    @NotNull private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    @NotNull private final AtomicInteger size = new AtomicInteger();
+
+    void offer(@NotNull final Waiter waiter, @NotNull final Queue<UserQueue> ready) {
+      waiters.offer(waiter);
+      if (size.getAndIncrement() == 0) {
+        ready.offer(this);
+      }
+    }
+
+    @NotNull
+    Waiter peek() {
+      return waiters.peek();
+    }
+
+    // the user goes to the tail of ready queue if it still has waiting requests.
+    void poll(@NotNull final Queue<UserQueue> ready) {
+      waiters.poll();
+      if (size.decrementAndGet() > 0) {
+        ready.offer(this);
+      }
+    }
+  }
+
+  private static class Waiter {
+
+    @NotNull private final MonoSink<Void> sink;
+    private final long enqueuedAt;
+    private volatile boolean cancelled;
+
+    Waiter(@NotNull final MonoSink<Void> sink, final long enqueuedAt) {
+      this.sink = sink;
+      this.enqueuedAt = enqueuedAt;
+    }
+
+    void cancel() {
+      cancelled = true;
+    }
+
+    boolean isCancelled() {
+      return cancelled;
+    }
+  }
+}
@@ -44,8 +44,7 @@ class VoidResponseReader<T> implements HttpResponseReader<T> {
   @SuppressWarnings("unchecked")
   @Override
   public @NotNull Mono<T> read(@NotNull final HttpResponse response) {
-    final String body = response.body();
-    final Mono<BasicResponse> mono = decoder.decode(body, BasicResponse.class);
+    final Mono<BasicResponse> mono = response.readBody(decoder, BasicResponse.class);
     return mono.flatMap(res -> (Mono<T>) res.emptyOrError());
   }
 }
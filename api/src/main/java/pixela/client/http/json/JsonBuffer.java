@@ -0,0 +1,188 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * writes a json object of string and string array fields as utf-8 into a byte array kept per
+ * thread.
+ */
+public final class JsonBuffer {
+
+  private static final int INITIAL_SIZE = 256;
+
+  // buffers grown beyond this are not kept, not to hold a large body per thread.
+  private static final int MAX_POOLED_SIZE = 64 * 1024;
+
+  private static final ThreadLocal<JsonBuffer> POOL = ThreadLocal.withInitial(JsonBuffer::new);
+
+  private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+  @NotNull private byte[] bytes = new byte[INITIAL_SIZE];
+
+  private int size;
+
+  private boolean first;
+
+  private JsonBuffer() {}
+
+  /**
+   * @param writable - the body to write.
+   * @return utf-8 bytes of the json.
+   */
+  @NotNull
+  public static byte[] write(@NotNull final JsonWritable writable) {
+    final JsonBuffer buffer = POOL.get();
+    buffer.size = 0;
+    buffer.first = true;
+    buffer.put((byte) '{');
+    writable.writeJson(buffer);
+    buffer.put((byte) '}');
+    final byte[] json = Arrays.copyOf(buffer.bytes, buffer.size);
+    if (buffer.bytes.length > MAX_POOLED_SIZE) {
+      buffer.bytes = new byte[INITIAL_SIZE];
+    }
+    return json;
+  }
+
+  /**
+   * writes a string field, unless the value is null.
+   *
+   * @param name - the field name, which is written without escape.
+   * @param value - the value.
+   * @return this buffer.
+   */
+  @NotNull
+  public JsonBuffer field(@NotNull final String name, @Nullable final String value) {
+    if (value == null) {
+      return this;
+    }
+    name(name);
+    string(value);
+    return this;
+  }
+
+  /**
+   * writes an array of strings field, unless the values are null.
+   *
+   * @param name - the field name, which is written without escape.
+   * @param values - the values.
+   * @return this buffer.
+   */
+  @NotNull
+  public JsonBuffer arrayField(@NotNull final String name, @Nullable final List<String> values) {
+    if (values == null) {
+      return this;
+    }
+    name(name);
+    put((byte) '[');
+    for (int i = 0; i < values.size(); i++) {
+      if (i > 0) {
+        put((byte) ',');
+      }
+      string(values.get(i));
+    }
+    put((byte) ']');
+    return this;
+  }
+
+  private void name(@NotNull final String name) {
+    if (!first) {
+      put((byte) ',');
+    }
+    first = false;
+    put((byte) '"');
+    for (int i = 0; i < name.length(); i++) {
+      put((byte) name.charAt(i));
+    }
+    put((byte) '"');
+    put((byte) ':');
+  }
+
+  private void string(@NotNull final String value) {
+    put((byte) '"');
+    final int length = value.length();
+    for (int i = 0; i < length; i++) {
+      final char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        put((byte) '\\');
+        put((byte) c);
+      } else if (c < 0x20) {
+        escape(c);
+      } else if (c < 0x80) {
+        put((byte) c);
+      } else if (c < 0x800) {
+        put((byte) (0xc0 | c >> 6));
+        put((byte) (0x80 | c & 0x3f));
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < length
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+        put((byte) (0xf0 | codePoint >> 18));
+        put((byte) (0x80 | codePoint >> 12 & 0x3f));
+        put((byte) (0x80 | codePoint >> 6 & 0x3f));
+        put((byte) (0x80 | codePoint & 0x3f));
+      } else if (Character.isSurrogate(c)) {
+        // lone surrogate, as String#getBytes does.
+        put((byte) '?');
+      } else {
+        put((byte) (0xe0 | c >> 12));
+        put((byte) (0x80 | c >> 6 & 0x3f));
+        put((byte) (0x80 | c & 0x3f));
+      }
+    }
+    put((byte) '"');
+  }
+
+  private void escape(final char c) {
+    put((byte) '\\');
+    switch (c) {
+      case '\n':
+        put((byte) 'n');
+        return;
+      case '\r':
+        put((byte) 'r');
+        return;
+      case '\t':
+        put((byte) 't');
+        return;
+      case '\b':
+        put((byte) 'b');
+        return;
+      case '\f':
+        put((byte) 'f');
+        return;
+      default:
+        put((byte) 'u');
+        put((byte) '0');
+        put((byte) '0');
+        put(HEX[c >> 4]);
+        put(HEX[c & 0xf]);
+    }
+  }
+
+  private void put(final byte b) {
+    if (size == bytes.length) {
+      bytes = Arrays.copyOf(bytes, bytes.length * 2);
+    }
+    bytes[size++] = b;
+  }
+}
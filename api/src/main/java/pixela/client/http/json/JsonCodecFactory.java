@@ -15,16 +15,54 @@
  */
 package pixela.client.http.json;
 
+import java.util.List;
 import java.util.ServiceLoader;
 import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import org.jetbrains.annotations.NotNull;
+import pixela.client.PixelaClientConfig;
 
 public interface JsonCodecFactory {
 
   @NotNull
   JsonCodec create(@NotNull final ExecutorService executorService);
 
+  @NotNull
+  default JsonCodec create(
+      @NotNull final ExecutorService executorService, @NotNull final PixelaClientConfig config) {
+    return create(executorService);
+  }
+
+  // whether this factory is the one the config asks for.
+  default boolean supports(@NotNull final PixelaClientConfig config) {
+    return true;
+  }
+
+  /**
+   * finds the factory supporting the config, or the first one found when none supports it.
+   *
+   * @param config - config of the client.
+   * @return the factory.
+   */
+  @NotNull
+  static JsonCodecFactory getInstance(@NotNull final PixelaClientConfig config) {
+    final ServiceLoader<JsonCodecFactory> loader = ServiceLoader.load(JsonCodecFactory.class);
+    final List<JsonCodecFactory> factories =
+        StreamSupport.stream(loader.spliterator(), false).collect(Collectors.toList());
+    return factories.stream()
+        .filter(factory -> factory.supports(config))
+        .findFirst()
+        .orElseGet(
+            () ->
+                factories.stream()
+                    .findFirst()
+                    .orElseThrow(
+                        () ->
+                            new IllegalStateException(
+                                "No " + JsonCodecFactory.class + " implementation found.")));
+  }
+
   static JsonCodecFactory getInstance() {
     final ServiceLoader<JsonCodecFactory> loader = ServiceLoader.load(JsonCodecFactory.class);
     return StreamSupport.stream(loader.spliterator(), false)
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.journal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Optional;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pixela.client.GraphId;
+import pixela.client.Quantity;
+
+/** a pixel write recorded in {@link PixelJournal}. The user token is not recorded. */
+public class JournalEntry {
+
+  enum Type {
+    POST,
+    UPDATE,
+    STEP,
+  }
+
+  @NotNull private final Type type;
+  @NotNull private final GraphId graphId;
+  @NotNull private final LocalDate date;
+  @Nullable private final String quantity;
+  @Nullable private final String optionalData;
+  private final long steps;
+
+  private JournalEntry(
+      @NotNull final Type type,
+      @NotNull final GraphId graphId,
+      @NotNull final LocalDate date,
+      @Nullable final String quantity,
+      @Nullable final String optionalData,
+      final long steps) {
+    this.type = type;
+    this.graphId = graphId;
+    this.date = date;
+    this.quantity = quantity;
+    this.optionalData = optionalData;
+    this.steps = steps;
+  }
+
+  @Contract("_, _, _, _ -> new")
+  @NotNull
+  public static JournalEntry post(
+      @NotNull final GraphId graphId,
+      @NotNull final LocalDate date,
+      @NotNull final Quantity quantity,
+      @Nullable final String optionalData) {
+    return new JournalEntry(Type.POST, graphId, date, quantity.asString(), optionalData, 0L);
+  }
+
+  @Contract("_, _, _, _ -> new")
+  @NotNull
+  public static JournalEntry update(
+      @NotNull final GraphId graphId,
+      @NotNull final LocalDate date,
+      @NotNull final Quantity quantity,
+      @Nullable final String optionalData) {
+    return new JournalEntry(Type.UPDATE, graphId, date, quantity.asString(), optionalData, 0L);
+  }
+
+  // increments, or decrements if negative, of the pixel.
+  @Contract("_, _, _ -> new")
+  @NotNull
+  public static JournalEntry step(
+      @NotNull final GraphId graphId, @NotNull final LocalDate date, final long steps) {
+    return new JournalEntry(Type.STEP, graphId, date, null, null, steps);
+  }
+
+  @NotNull
+  Type type() {
+    return type;
+  }
+
+  @NotNull
+  GraphId graphId() {
+    return graphId;
+  }
+
+  @NotNull
+  LocalDate date() {
+    return date;
+  }
+
+  @NotNull
+  Quantity quantity() {
+    return Quantity.string(quantity == null ? "0" : quantity);
+  }
+
+  @NotNull
+  Optional<String> optionalData() {
+    return Optional.ofNullable(optionalData);
+  }
+
+  long steps() {
+    return steps;
+  }
+
+  // whether this and the other entry are steps of the same pixel, which can be written at once.
+  boolean isStepOfSamePixel(@NotNull final JournalEntry other) {
+    return type == Type.STEP
+        && other.type == Type.STEP
+        && graphId.equals(other.graphId)
+        && date.equals(other.date);
+  }
+
+  @NotNull
+  JournalEntry plusSteps(final long steps) {
+    return step(graphId, date, this.steps + steps);
+  }
+
+  @NotNull
+  byte[] encode(@NotNull final String usersUri) {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+    try (final DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(type.ordinal());
+      out.writeUTF(usersUri);
+      out.writeUTF(graphId.value());
+      out.writeLong(date.toEpochDay());
+      writeNullable(out, quantity);
+      writeNullable(out, optionalData);
+      out.writeLong(steps);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static void writeNullable(
+      @NotNull final DataOutputStream out, @Nullable final String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  @NotNull
+  static Recorded decode(@NotNull final byte[] payload) {
+    try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+      final Type type = Type.values()[in.readByte()];
+      final String usersUri = in.readUTF();
+      final GraphId graphId = GraphId.of(in.readUTF());
+      final LocalDate date = LocalDate.ofEpochDay(in.readLong());
+      final String quantity = readNullable(in);
+      final String optionalData = readNullable(in);
+      final long steps = in.readLong();
+      return new Recorded(
+          usersUri, new JournalEntry(type, graphId, date, quantity, optionalData, steps));
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Nullable
+  private static String readNullable(@NotNull final DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  @NotNull
+  @Override
+  public String toString() {
+    return "JournalEntry["
+        + type
+        + ","
+        + graphId
+        + ","
+        + date
+        + (type == Type.STEP ? ",steps:" + steps : ",quantity:" + quantity)
+        + "]";
+  }
+
+  // an entry with the user it belongs to.
+  static class Recorded {
+    @NotNull final String usersUri;
+    @NotNull final JournalEntry entry;
+
+    Recorded(@NotNull final String usersUri, @NotNull final JournalEntry entry) {
+      this.usersUri = usersUri;
+      this.entry = entry;
+    }
+  }
+}
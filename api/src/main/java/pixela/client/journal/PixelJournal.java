@@ -0,0 +1,180 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.journal;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.Pixela;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+/**
+ * write-ahead log of pixel writes. An enabled journal makes post/update/increment/decrement of
+ * pixels complete as soon as the write is recorded in a local file, and a background drainer sends
+ * recorded writes in order. Writes recorded before a restart are sent once the user is {@link
+ * #register(Pixela) registered} again, because tokens are not written to the file. Until then, they
+ * are moved behind writes of other users.
+ */
+public interface PixelJournal extends AutoCloseable {
+
+  /**
+   * records a write of the user.
+   *
+   * @param pixela - the user, which is also registered.
+   * @param entry - the write.
+   */
+  void append(@NotNull final Pixela pixela, @NotNull final JournalEntry entry);
+
+  // makes writes of the user recorded before restart available to the drainer.
+  void register(@NotNull final Pixela pixela);
+
+  // makes writes of the user unavailable to the drainer, if the user is registered with the pixela.
+  // called when the client of the pixela is closed, until the user is registered again.
+  void unregister(@NotNull final Pixela pixela);
+
+  /**
+   * sends recorded writes now. A write failed with retryable error is sent again by a later drain,
+   * and writes of the user are handled as not registered until then. A write failed with client
+   * error is dropped. Writes of a user not registered are appended again at the end, keeping their
+   * order, when writes of other users follow them.
+   *
+   * @return {@link Mono} completing when the drain finishes.
+   */
+  @NotNull
+  Mono<Void> drain();
+
+  // date of increments/decrements recorded now.
+  @NotNull
+  LocalDate today();
+
+  long replayed();
+
+  long dropped();
+
+  // number of writes of users not registered, which were appended again behind others.
+  long parked();
+
+  default boolean enabled() {
+    return true;
+  }
+
+  // stops the drainer. Writes not sent yet stay in the file.
+  @Override
+  void close();
+
+  // whether the request is sent by the drainer, which should not be recorded again.
+  static boolean isReplay(@NotNull final Context context) {
+    return context.hasKey(SegmentedJournal.REPLAY);
+  }
+
+  @Contract(pure = true)
+  @NotNull
+  static PixelJournal disabled() {
+    return Disabled.INSTANCE;
+  }
+
+  /**
+   * opens a journal in the directory, which is drained every second.
+   *
+   * @param directory - directory of segment files, which is created if absent.
+   * @return {@link PixelJournal}.
+   */
+  @NotNull
+  static PixelJournal open(@NotNull final Path directory) {
+    return open(directory, Duration.ofSeconds(1L), Clock.systemDefaultZone());
+  }
+
+  /**
+   * opens a journal in the directory.
+   *
+   * @param directory - directory of segment files, which is created if absent.
+   * @param drainInterval - interval of background drain.
+   * @param clock - clock deciding the date of increments/decrements, which should be in the graph's
+   *     timezone.
+   * @return {@link PixelJournal}.
+   */
+  @NotNull
+  static PixelJournal open(
+      @NotNull final Path directory,
+      @NotNull final Duration drainInterval,
+      @NotNull final Clock clock) {
+    if (drainInterval.isNegative() || drainInterval.isZero()) {
+      throw new IllegalArgumentException("drainInterval should be positive: " + drainInterval);
+    }
+    return SegmentedJournal.open(
+        directory,
+        SegmentedJournal.SEGMENT_BYTES,
+        SegmentedJournal.BATCH_SIZE,
+        drainInterval,
+        clock,
+        Schedulers.parallel());
+  }
+
+  enum Disabled implements PixelJournal {
+    INSTANCE;
+
+    @Override
+    public void append(@NotNull final Pixela pixela, @NotNull final JournalEntry entry) {
+      throw new UnsupportedOperationException("journal is disabled.");
+    }
+
+    @Override
+    public void register(@NotNull final Pixela pixela) {}
+
+    @Override
+    public void unregister(@NotNull final Pixela pixela) {}
+
+    @NotNull
+    @Override
+    public Mono<Void> drain() {
+      return Mono.empty();
+    }
+
+    @NotNull
+    @Override
+    public LocalDate today() {
+      return LocalDate.now();
+    }
+
+    @Override
+    public long replayed() {
+      return 0L;
+    }
+
+    @Override
+    public long dropped() {
+      return 0L;
+    }
+
+    @Override
+    public long parked() {
+      return 0L;
+    }
+
+    @Override
+    public boolean enabled() {
+      return false;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
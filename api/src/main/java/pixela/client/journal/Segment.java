@@ -0,0 +1,181 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a memory mapped file of records. A record is {@code [length][crc32][payload]}, and length is
+ * written last so that a record torn by a crash reads as the end of the segment.
+ */
+class Segment implements AutoCloseable {
+
+  static final String PREFIX = "segment-";
+  static final String SUFFIX = ".log";
+
+  private static final int HEADER_BYTES = Integer.BYTES * 2;
+
+  private final long sequence;
+  @NotNull private final Path path;
+  @NotNull private final FileChannel channel;
+  @NotNull private final MappedByteBuffer buffer;
+  private int writePosition;
+
+  private Segment(
+      final long sequence,
+      @NotNull final Path path,
+      @NotNull final FileChannel channel,
+      @NotNull final MappedByteBuffer buffer) {
+    this.sequence = sequence;
+    this.path = path;
+    this.channel = channel;
+    this.buffer = buffer;
+  }
+
+  @NotNull
+  static Segment open(@NotNull final Path directory, final long sequence, final int capacity) {
+    final Path path = directory.resolve(fileName(sequence));
+    try {
+      final FileChannel channel =
+          FileChannel.open(
+              path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      final int size = (int) Math.max(capacity, channel.size());
+      final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0L, size);
+      final Segment segment = new Segment(sequence, path, channel, buffer);
+      segment.writePosition = segment.end();
+      return segment;
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @NotNull
+  static String fileName(final long sequence) {
+    return String.format("%s%020d%s", PREFIX, sequence, SUFFIX);
+  }
+
+  static long sequenceOf(@NotNull final Path file) {
+    final String name = file.getFileName().toString();
+    return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+  }
+
+  static boolean isSegment(@NotNull final Path file) {
+    final String name = file.getFileName().toString();
+    return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+  }
+
+  long sequence() {
+    return sequence;
+  }
+
+  static int maxPayload(final int capacity) {
+    return capacity - HEADER_BYTES;
+  }
+
+  // returns false if this segment has no room for the payload.
+  boolean append(@NotNull final byte[] payload) {
+    if (buffer.capacity() - writePosition < HEADER_BYTES + payload.length) {
+      return false;
+    }
+    final CRC32 crc = new CRC32();
+    crc.update(payload, 0, payload.length);
+    buffer.putInt(writePosition + Integer.BYTES, (int) crc.getValue());
+    final ByteBuffer target = buffer.duplicate();
+    target.position(writePosition + HEADER_BYTES);
+    target.put(payload);
+    buffer.putInt(writePosition, payload.length);
+    writePosition += HEADER_BYTES + payload.length;
+    return true;
+  }
+
+  /**
+   * reads the record at the position.
+   *
+   * @param position - position of the record.
+   * @return payload, or {@code null} if there is no complete record.
+   */
+  @Nullable
+  byte[] read(final int position) {
+    if (buffer.capacity() - position < HEADER_BYTES) {
+      return null;
+    }
+    final int length = buffer.getInt(position);
+    if (length <= 0 || buffer.capacity() - position - HEADER_BYTES < length) {
+      return null;
+    }
+    final byte[] payload = new byte[length];
+    final ByteBuffer source = buffer.duplicate();
+    source.position(position + HEADER_BYTES);
+    source.get(payload);
+    final CRC32 crc = new CRC32();
+    crc.update(payload, 0, length);
+    if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+      return null;
+    }
+    return payload;
+  }
+
+  // position of the next record appended.
+  int writePosition() {
+    return writePosition;
+  }
+
+  static int next(final int position, @NotNull final byte[] payload) {
+    return position + HEADER_BYTES + payload.length;
+  }
+
+  private int end() {
+    int position = 0;
+    byte[] payload;
+    while ((payload = read(position)) != null) {
+      position = next(position, payload);
+    }
+    return position;
+  }
+
+  void force() {
+    buffer.force();
+  }
+
+  void delete() {
+    close();
+    try {
+      Files.deleteIfExists(path);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // the mapping itself is released when the buffer is collected.
+  @Override
+  public void close() {
+    try {
+      channel.close();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
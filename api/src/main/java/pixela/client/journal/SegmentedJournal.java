@@ -0,0 +1,525 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.journal;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.ApiException;
+import pixela.client.ErrorType;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixel;
+import pixela.client.Pixela;
+import pixela.client.api.graph.PostPixel;
+import pixela.client.api.graph.UpdatePixel;
+import pixela.client.coalesce.PixelSteps;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * {@link PixelJournal} on segment files. Writes are appended to the last segment, and the position
+ * of the next write to send is kept in checkpoint file. Segments before the checkpoint are deleted.
+ * Writes of users not registered at the head are appended again at the end, so that they do not
+ * block writes of other users behind them. So are writes of a user whose write failed with
+ * retryable error, until the next drain.
+ */
+class SegmentedJournal implements PixelJournal {
+
+  static final String REPLAY = PixelJournal.class.getName() + ".replay";
+
+  static final int SEGMENT_BYTES = 1 << 20;
+
+  static final int BATCH_SIZE = 64;
+
+  private static final String CHECKPOINT = "checkpoint";
+
+  private static final Pending STOP =
+      new Pending("", JournalEntry.step(GraphId.of("stop"), LocalDate.MIN, 0L), -1L, -1);
+
+  @NotNull private final Path directory;
+  private final int segmentBytes;
+  private final int batchSize;
+  @NotNull private final Clock clock;
+
+  @NotNull private final TreeMap<Long, Segment> segments = new TreeMap<>();
+  @NotNull private Segment active;
+  // position of the next write to send.
+  private long readSequence;
+  private int readPosition;
+  private boolean closed;
+  // number of appends and registrations, to skip reading when nothing has changed since the
+  // journal was found to have only writes of users not registered.
+  private long changes;
+  private long idle = -1L;
+
+  @NotNull private final Map<String, Pixela> users = new ConcurrentHashMap<>();
+  // users whose write failed with retryable error in the current drain, handled as not registered.
+  @NotNull private final Set<String> stalled = ConcurrentHashMap.newKeySet();
+  @NotNull private final AtomicBoolean draining = new AtomicBoolean();
+  @NotNull private final LongAdder replayed = new LongAdder();
+  @NotNull private final LongAdder dropped = new LongAdder();
+  @NotNull private final LongAdder parked = new LongAdder();
+  @NotNull private final Disposable timer;
+
+  private SegmentedJournal(
+      @NotNull final Path directory,
+      final int segmentBytes,
+      final int batchSize,
+      @NotNull final Duration drainInterval,
+      @NotNull final Clock clock,
+      @NotNull final Scheduler scheduler) {
+    this.directory = directory;
+    this.segmentBytes = segmentBytes;
+    this.batchSize = batchSize;
+    this.clock = clock;
+    this.active = recover();
+    final long interval = drainInterval.toNanos();
+    this.timer =
+        scheduler.schedulePeriodically(
+            () -> drain().subscribe(v -> {}, error -> {}),
+            interval,
+            interval,
+            TimeUnit.NANOSECONDS);
+  }
+
+  @NotNull
+  static SegmentedJournal open(
+      @NotNull final Path directory,
+      final int segmentBytes,
+      final int batchSize,
+      @NotNull final Duration drainInterval,
+      @NotNull final Clock clock,
+      @NotNull final Scheduler scheduler) {
+    return new SegmentedJournal(
+        directory, segmentBytes, batchSize, drainInterval, clock, scheduler);
+  }
+
+  @NotNull
+  private Segment recover() {
+    try {
+      Files.createDirectories(directory);
+      final List<Long> sequences;
+      try (final Stream<Path> files = Files.list(directory)) {
+        sequences =
+            files
+                .filter(Segment::isSegment)
+                .map(Segment::sequenceOf)
+                .sorted()
+                .collect(Collectors.toList());
+      }
+      final Path checkpoint = directory.resolve(CHECKPOINT);
+      if (Files.exists(checkpoint)) {
+        try (final DataInputStream in = new DataInputStream(Files.newInputStream(checkpoint))) {
+          readSequence = in.readLong();
+          readPosition = in.readInt();
+        }
+      } else {
+        readSequence = sequences.isEmpty() ? 0L : sequences.get(0);
+        readPosition = 0;
+      }
+      for (final Long sequence : sequences) {
+        if (sequence < readSequence) {
+          Files.deleteIfExists(directory.resolve(Segment.fileName(sequence)));
+        } else {
+          segments.put(sequence, Segment.open(directory, sequence, segmentBytes));
+        }
+      }
+      if (!segments.containsKey(readSequence)) {
+        readPosition = 0;
+        segments.put(readSequence, Segment.open(directory, readSequence, segmentBytes));
+      }
+      return segments.lastEntry().getValue();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void append(@NotNull final Pixela pixela, @NotNull final JournalEntry entry) {
+    final String usersUri = pixela.usersUri();
+    final byte[] payload = entry.encode(usersUri);
+    if (payload.length > Segment.maxPayload(segmentBytes)) {
+      throw new IllegalArgumentException("entry is too large for journal: " + entry);
+    }
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("PixelJournal is already closed.");
+      }
+      // registered with the lock, so that a write is never appended before older parked ones.
+      users.put(usersUri, pixela);
+      write(payload);
+      changes++;
+    }
+  }
+
+  private void write(@NotNull final byte[] payload) {
+    if (!active.append(payload)) {
+      active.force();
+      active = Segment.open(directory, active.sequence() + 1, segmentBytes);
+      segments.put(active.sequence(), active);
+      active.append(payload);
+    }
+  }
+
+  @Override
+  public synchronized void register(@NotNull final Pixela pixela) {
+    users.put(pixela.usersUri(), pixela);
+    changes++;
+  }
+
+  @Override
+  public void unregister(@NotNull final Pixela pixela) {
+    users.remove(pixela.usersUri(), pixela);
+  }
+
+  @NotNull
+  @Override
+  public Mono<Void> drain() {
+    return Mono.defer(
+        () -> {
+          if (!draining.compareAndSet(false, true)) {
+            return Mono.empty();
+          }
+          retryStalled();
+          return drainBatches().doFinally(signal -> draining.set(false));
+        });
+  }
+
+  private synchronized void retryStalled() {
+    if (!stalled.isEmpty()) {
+      stalled.clear();
+      changes++;
+    }
+  }
+
+  @NotNull
+  private Mono<Void> drainBatches() {
+    return drainBatch().flatMap(more -> more ? drainBatches() : Mono.<Void>empty());
+  }
+
+  // returns whether there may be more writes to send.
+  @NotNull
+  private Mono<Boolean> drainBatch() {
+    return Mono.defer(
+        () -> {
+          final List<Pending> batch = readBatch();
+          if (batch.isEmpty()) {
+            return Mono.just(false);
+          }
+          // a write not sent stalls its user, whose writes are parked by the next read.
+          return Flux.fromIterable(merge(batch))
+              .concatMap(pending -> replay(pending).map(sent -> sent ? pending : STOP))
+              .takeWhile(pending -> pending != STOP)
+              .reduce((previous, pending) -> pending)
+              .doOnNext(sent -> commit(sent.sequence, sent.position))
+              .thenReturn(true);
+        });
+  }
+
+  @NotNull
+  private synchronized List<Pending> readBatch() {
+    final List<Pending> batch = new ArrayList<>();
+    if (idle == changes) {
+      return batch;
+    }
+    // whether writes of users not registered are at the head.
+    boolean parking = false;
+    long sequence = readSequence;
+    int position = readPosition;
+    while (!closed && batch.size() < batchSize) {
+      final Segment segment = segments.get(sequence);
+      if (segment == null) {
+        break;
+      }
+      final byte[] payload = segment.read(position);
+      if (payload == null) {
+        final Long next = segments.higherKey(sequence);
+        if (next == null) {
+          break;
+        }
+        sequence = next;
+        position = 0;
+        continue;
+      }
+      final JournalEntry.Recorded recorded = JournalEntry.decode(payload);
+      final boolean registered = isRegistered(recorded.usersUri);
+      if (!registered && !batch.isEmpty()) {
+        break;
+      }
+      if (registered && parking) {
+        park();
+        parking = false;
+        sequence = readSequence;
+        position = readPosition;
+        continue;
+      }
+      position = Segment.next(position, payload);
+      if (registered) {
+        batch.add(new Pending(recorded.usersUri, recorded.entry, sequence, position));
+      } else {
+        parking = true;
+      }
+    }
+    if (batch.isEmpty() && parking) {
+      idle = changes;
+    }
+    return batch;
+  }
+
+  private boolean isRegistered(@NotNull final String usersUri) {
+    return users.containsKey(usersUri) && !stalled.contains(usersUri);
+  }
+
+  // appends the writes from the checkpoint to the end again, those of registered users before the
+  // others, and moves the checkpoint to the copies. Writes of each user keep their order, as they
+  // are all copied in the same pass.
+  private void park() {
+    final long endSequence = active.sequence();
+    final int endPosition = active.writePosition();
+    copy(endSequence, endPosition, true);
+    copy(endSequence, endPosition, false);
+    active.force();
+    commit(endSequence, endPosition);
+  }
+
+  private void copy(final long endSequence, final int endPosition, final boolean registered) {
+    long sequence = readSequence;
+    int position = readPosition;
+    while (sequence < endSequence || (sequence == endSequence && position < endPosition)) {
+      final byte[] payload = segments.get(sequence).read(position);
+      if (payload == null) {
+        if (sequence == endSequence) {
+          break;
+        }
+        sequence = segments.higherKey(sequence);
+        position = 0;
+        continue;
+      }
+      if (isRegistered(JournalEntry.decode(payload).usersUri) == registered) {
+        write(payload);
+        if (!registered) {
+          parked.increment();
+        }
+      }
+      position = Segment.next(position, payload);
+    }
+  }
+
+  // adjacent steps of the same pixel are sent as one write.
+  @NotNull
+  private static List<Pending> merge(@NotNull final List<Pending> batch) {
+    final List<Pending> merged = new ArrayList<>(batch.size());
+    for (final Pending pending : batch) {
+      final Pending previous = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+      if (previous != null
+          && previous.usersUri.equals(pending.usersUri)
+          && previous.entry.isStepOfSamePixel(pending.entry)) {
+        merged.set(
+            merged.size() - 1,
+            new Pending(
+                pending.usersUri,
+                previous.entry.plusSteps(pending.entry.steps()),
+                pending.sequence,
+                pending.position));
+      } else {
+        merged.add(pending);
+      }
+    }
+    return merged;
+  }
+
+  // returns whether the drain can go on to the next write.
+  @NotNull
+  private Mono<Boolean> replay(@NotNull final Pending pending) {
+    final Pixela pixela = users.get(pending.usersUri);
+    if (pixela == null) {
+      return Mono.fromCallable(() -> stall(pending));
+    }
+    return send(pixela.graph(pending.entry.graphId()), pending.entry)
+        .subscriberContext(context -> context.put(REPLAY, true))
+        .then(Mono.fromCallable(this::sent))
+        .onErrorResume(
+            error -> {
+              if (!isClientError(error)) {
+                return Mono.fromCallable(() -> stall(pending));
+              }
+              dropped.increment();
+              return Mono.just(true);
+            });
+  }
+
+  private boolean stall(@NotNull final Pending pending) {
+    stalled.add(pending.usersUri);
+    return false;
+  }
+
+  private boolean sent() {
+    replayed.increment();
+    return true;
+  }
+
+  private static boolean isClientError(@NotNull final Throwable error) {
+    if (!(error instanceof ApiException)) {
+      return false;
+    }
+    final ErrorType errorType = ((ApiException) error).errorType();
+    return errorType == ErrorType.CLIENT_ERROR || errorType == ErrorType.NOT_FOUND;
+  }
+
+  @NotNull
+  private static Mono<Void> send(@NotNull final Graph graph, @NotNull final JournalEntry entry) {
+    switch (entry.type()) {
+      case POST:
+        return post(graph, entry);
+      case UPDATE:
+        // a pixel deleted meanwhile is created again, as PUT of pixela does.
+        return graph
+            .getPixel(entry.date())
+            .call()
+            .flatMap(pixel -> update(pixel, entry))
+            .onErrorResume(
+                error ->
+                    error instanceof ApiException
+                        && ((ApiException) error).errorType() == ErrorType.NOT_FOUND,
+                error -> post(graph, entry));
+      case STEP:
+        return PixelSteps.apply(graph, entry.date(), entry.steps());
+      default:
+        throw new IllegalStateException("unknown entry: " + entry);
+    }
+  }
+
+  @NotNull
+  private static Mono<Void> post(@NotNull final Graph graph, @NotNull final JournalEntry entry) {
+    final PostPixel.OptionData request =
+        graph.postPixel().date(entry.date()).quantity(entry.quantity());
+    return entry
+        .optionalData()
+        .map(request::optionDataJson)
+        .orElseGet(request::noOptionData)
+        .call()
+        .then();
+  }
+
+  @NotNull
+  private static Mono<Void> update(@NotNull final Pixel pixel, @NotNull final JournalEntry entry) {
+    final UpdatePixel.OptionalData request = pixel.update().quantity(entry.quantity());
+    return entry
+        .optionalData()
+        .<UpdatePixel>map(request::optionalDataString)
+        .orElse(request)
+        .call()
+        .then();
+  }
+
+  private synchronized void commit(final long sequence, final int position) {
+    readSequence = sequence;
+    readPosition = position;
+    final Path checkpoint = directory.resolve(CHECKPOINT);
+    final Path temporary = directory.resolve(CHECKPOINT + ".tmp");
+    try {
+      try (final DataOutputStream out = new DataOutputStream(Files.newOutputStream(temporary))) {
+        out.writeLong(readSequence);
+        out.writeInt(readPosition);
+      }
+      Files.move(
+          temporary,
+          checkpoint,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    final Map<Long, Segment> sentSegments = segments.headMap(readSequence);
+    sentSegments.values().forEach(Segment::delete);
+    sentSegments.clear();
+  }
+
+  @NotNull
+  @Override
+  public LocalDate today() {
+    return LocalDate.now(clock);
+  }
+
+  @Override
+  public long replayed() {
+    return replayed.sum();
+  }
+
+  @Override
+  public long dropped() {
+    return dropped.sum();
+  }
+
+  @Override
+  public long parked() {
+    return parked.sum();
+  }
+
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    timer.dispose();
+    for (final Segment segment : segments.values()) {
+      segment.force();
+      segment.close();
+    }
+  }
+
+  private static class Pending {
+    @NotNull final String usersUri;
+    @NotNull final JournalEntry entry;
+    // position after this write, which becomes the checkpoint when it is sent.
+    final long sequence;
+    final int position;
+
+    Pending(
+        @NotNull final String usersUri,
+        @NotNull final JournalEntry entry,
+        final long sequence,
+        final int position) {
+      this.usersUri = usersUri;
+      this.entry = entry;
+      this.sequence = sequence;
+      this.position = position;
+    }
+  }
+}
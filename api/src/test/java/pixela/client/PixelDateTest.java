@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class PixelDateTest {
+
+  @Nested
+  class FormatTest {
+
+    @Test
+    void sameAsPixelDateFormat() {
+      LocalDate date = LocalDate.of(1999, 12, 25);
+      while (date.getYear() < 2002) {
+        assertThat(PixelDate.format(date)).isEqualTo(date.format(Graph.PIXEL_DATE_FORMAT));
+        date = date.plusDays(1L);
+      }
+    }
+
+    @Test
+    void yearsOfShortDigits() {
+      assertThat(PixelDate.format(LocalDate.of(7, 1, 2))).isEqualTo("00070102");
+      assertThat(PixelDate.format(LocalDate.of(9999, 12, 31))).isEqualTo("99991231");
+    }
+
+    @Test
+    void yearsOutOfFourDigitsFallBackToFormat() {
+      final LocalDate date = LocalDate.of(10000, 1, 1);
+
+      assertThat(PixelDate.format(date)).isEqualTo(date.format(Graph.PIXEL_DATE_FORMAT));
+    }
+  }
+
+  @Nested
+  class ParseTest {
+
+    @Test
+    void pixelDateFormat() {
+      assertThat(PixelDate.parse("20190901").toLocalDate()).isEqualTo(LocalDate.of(2019, 9, 1));
+    }
+
+    @Test
+    void roundTrip() {
+      final LocalDate date = LocalDate.of(2000, 2, 29);
+
+      assertThat(PixelDate.parse(PixelDate.format(date))).isEqualTo(PixelDate.of(date));
+    }
+
+    @Test
+    void invalidDate() {
+      assertThatThrownBy(() -> PixelDate.parse("20190230")).isInstanceOf(DateTimeException.class);
+    }
+
+    @Test
+    void notDigits() {
+      assertThatThrownBy(() -> PixelDate.parse("2019-9-1")).isInstanceOf(DateTimeException.class);
+    }
+
+    @Test
+    void notDigitsInCentury() {
+      assertThatThrownBy(() -> PixelDate.parse("20a00101")).isInstanceOf(DateTimeException.class);
+    }
+
+    @Test
+    void notDigitsInYearOfCentury() {
+      assertThatThrownBy(() -> PixelDate.parse("01xx0101")).isInstanceOf(DateTimeException.class);
+    }
+  }
+
+  @Test
+  void recentDatesAreInterned() {
+    final LocalDate today = LocalDate.now();
+
+    assertThat(PixelDate.of(today)).isSameAs(PixelDate.of(LocalDate.from(today)));
+    assertThat(PixelDate.of(today).asString()).isSameAs(PixelDate.format(today));
+  }
+
+  @Test
+  void oldDatesAreEqualButNotInterned() {
+    final LocalDate date = LocalDate.of(1999, 1, 1);
+
+    assertThat(PixelDate.of(date)).isEqualTo(PixelDate.of(date)).isNotSameAs(PixelDate.of(date));
+  }
+
+  @Test
+  void plusDays() {
+    final PixelDate date = PixelDate.of(LocalDate.of(2019, 12, 31));
+
+    assertThat(date.plusDays(1L).asString()).isEqualTo("20200101");
+    assertThat(date.plusDays(1L)).isGreaterThan(date);
+  }
+}
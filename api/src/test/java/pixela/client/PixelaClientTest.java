@@ -18,13 +18,25 @@ package pixela.client;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 import org.mockito.stubbing.Answer;
+import pixela.client.api.graph.GetPixel;
+import pixela.client.api.graph.PostPixel;
+import pixela.client.coalesce.PixelCoalescer;
 import pixela.client.http.HttpClient;
+import pixela.client.journal.PixelJournal;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -33,6 +45,9 @@ class PixelaClientTest {
   @Test
   void loadTest() {
     final HttpClient httpClient = mock(HttpClient.class);
+    final PixelJournal journal = mock(PixelJournal.class);
+    when(httpClient.pixelJournal()).thenReturn(journal);
+    when(httpClient.pixelCoalescer()).thenReturn(PixelCoalescer.disabled());
     when(httpClient.<Pixela>runAsync(any()))
         .then(
             (Answer<Mono<Pixela>>)
@@ -49,7 +64,126 @@ class PixelaClientTest {
             pixela ->
                 assertAll(
                     () -> assertThat(pixela.token()).isEqualTo(UserToken.of("TestToken")),
-                    () -> assertThat(pixela.usersUri()).isEqualTo("/v1/users/TestUser")))
+                    () -> assertThat(pixela.usersUri()).isEqualTo("/v1/users/TestUser"),
+                    () -> verify(journal).register(pixela)))
         .verifyComplete();
   }
+
+  @Test
+  void sharedJournalAndCoalescerAreClosedWithLastClient() throws Exception {
+    final PixelJournal journal = mock(PixelJournal.class);
+    final PixelCoalescer coalescer = mock(PixelCoalescer.class);
+    final HttpClient first = mock(HttpClient.class);
+    final HttpClient second = mock(HttpClient.class);
+    for (final HttpClient httpClient : Arrays.asList(first, second)) {
+      when(httpClient.pixelJournal()).thenReturn(journal);
+      when(httpClient.pixelCoalescer()).thenReturn(coalescer);
+    }
+    final PixelaClient firstClient = PixelaClient.using(first);
+    final PixelaClient secondClient = PixelaClient.using(second);
+
+    firstClient.close();
+    firstClient.close();
+
+    verify(first).close();
+    verify(journal, never()).close();
+    verify(coalescer, never()).close();
+    assertThat(SharedResources.references(journal)).isEqualTo(1);
+
+    secondClient.close();
+
+    verify(second).close();
+    verify(journal).close();
+    verify(coalescer).close();
+    assertThat(SharedResources.references(journal)).isEqualTo(0);
+  }
+
+  @Test
+  void usersOfClosedClientAreUnregisteredFromSharedJournal() throws Exception {
+    final HttpClient httpClient = mock(HttpClient.class);
+    final PixelJournal journal = mock(PixelJournal.class);
+    when(httpClient.pixelJournal()).thenReturn(journal);
+    when(httpClient.pixelCoalescer()).thenReturn(PixelCoalescer.disabled());
+    final PixelaClient pixelaClient = PixelaClient.using(httpClient);
+    final Pixela pixela = pixelaClient.username("alice").token("alice-token");
+
+    pixelaClient.close();
+
+    verify(journal).register(pixela);
+    verify(journal).unregister(pixela);
+  }
+
+  @Test
+  void stepsOfClosedClientAreWrittenBeforeItsHttpClientIsClosed() throws Exception {
+    final PixelCoalescer coalescer = PixelCoalescer.of(Duration.ofMinutes(1L), 100);
+    final AtomicBoolean firstClosed = new AtomicBoolean();
+    final HttpClient first = mock(HttpClient.class);
+    final HttpClient second = mock(HttpClient.class);
+    for (final HttpClient httpClient : Arrays.asList(first, second)) {
+      when(httpClient.pixelJournal()).thenReturn(PixelJournal.disabled());
+      when(httpClient.pixelCoalescer()).thenReturn(coalescer);
+    }
+    doAnswer(
+            invocation -> {
+              firstClosed.set(true);
+              return null;
+            })
+        .when(first)
+        .close();
+    final AtomicInteger posts = new AtomicInteger();
+    final Graph firstGraph = graph("/graphs/first", firstClosed, posts);
+    final Graph secondGraph = graph("/graphs/second", new AtomicBoolean(), posts);
+    final PixelaClient firstClient = PixelaClient.using(first);
+    final PixelaClient secondClient = PixelaClient.using(second);
+
+    coalescer.record(firstGraph, 1L);
+    firstClient.close();
+    coalescer.record(secondGraph, 1L);
+    secondClient.close();
+
+    assertThat(posts).hasValue(2);
+    assertThat(coalescer.pendingSteps()).isEqualTo(0L);
+  }
+
+  // a graph whose requests fail once its http client is closed.
+  @NotNull
+  private static Graph graph(
+      @NotNull final String subPath,
+      @NotNull final AtomicBoolean httpClientClosed,
+      @NotNull final AtomicInteger posts) {
+    final Graph graph = mock(Graph.class);
+    final Pixela pixela = mock(Pixela.class);
+    final GetPixel getPixel = mock(GetPixel.class);
+    final PostPixel.PixelDate pixelDate = mock(PostPixel.PixelDate.class);
+    final PostPixel.PixelQuantity pixelQuantity = mock(PostPixel.PixelQuantity.class);
+    final PostPixel.OptionData postPixel = mock(PostPixel.OptionData.class);
+    final Pixel pixel = mock(Pixel.class);
+    when(pixela.usersUri()).thenReturn("/v1/users/test");
+    when(graph.pixela()).thenReturn(pixela);
+    when(graph.subPath()).thenReturn(subPath);
+    when(graph.getPixel(any())).thenReturn(getPixel);
+    when(getPixel.callLatest())
+        .thenReturn(
+            Mono.defer(
+                () ->
+                    httpClientClosed.get()
+                        ? Mono.error(new IllegalStateException("closed"))
+                        : Mono.error(ApiException.of("not found", ErrorType.NOT_FOUND))));
+    when(graph.postPixel()).thenReturn(pixelDate);
+    when(pixelDate.date(any())).thenReturn(pixelQuantity);
+    when(pixelQuantity.quantity(any(Quantity.class))).thenReturn(postPixel);
+    when(postPixel.noOptionData()).thenReturn(postPixel);
+    when(postPixel.call())
+        .thenReturn(
+            Mono.defer(
+                () ->
+                    httpClientClosed.get()
+                        ? Mono.error(new IllegalStateException("closed"))
+                        : Mono.fromSupplier(
+                            () -> {
+                              posts.incrementAndGet();
+                              return pixel;
+                            })));
+    return graph;
+  }
 }
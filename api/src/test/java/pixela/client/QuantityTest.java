@@ -36,6 +36,12 @@ class QuantityTest {
       final Quantity quantity = Quantity.integer(220);
       assertThat(quantity.decrement()).isEqualTo(Quantity.integer(219));
     }
+
+    @Test
+    void plusReturnsValueAfterSteps() {
+      final Quantity quantity = Quantity.integer(10);
+      assertThat(quantity.plus(-12L)).isEqualTo(Quantity.integer(-2));
+    }
   }
 
   @Nested
@@ -52,6 +58,12 @@ class QuantityTest {
       final Quantity quantity = Quantity.floating(0.4017);
       assertThat(quantity.decrement().asString()).isEqualTo(Quantity.floating(0.3917).asString());
     }
+
+    @Test
+    void plusReturnsValueAfterSteps() {
+      final Quantity quantity = Quantity.floating(1.5);
+      assertThat(quantity.plus(3L).asString()).isEqualTo("1.53");
+    }
   }
 
   @Nested
@@ -80,5 +92,11 @@ class QuantityTest {
       final Quantity quantity = Quantity.string("-39.393");
       assertThat(quantity.decrement().asString()).isEqualTo(Quantity.floating(-39.403).asString());
     }
+
+    @Test
+    void plusIntReturnsValueAfterSteps() {
+      final Quantity quantity = Quantity.string("7");
+      assertThat(quantity.plus(5L)).isEqualTo(Quantity.integer(12));
+    }
   }
 }
@@ -23,6 +23,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import pixela.client.*;
+import pixela.client.cache.GraphDefinitionsCache;
 import pixela.client.http.HttpClient;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -80,6 +81,7 @@ class CreateGraphTest {
       @BeforeEach
       void given() {
         when(httpClient.post(createGraph)).thenReturn(Mono.empty());
+        when(httpClient.graphDefinitionsCache()).thenReturn(GraphDefinitionsCache.disabled());
       }
 
       @Test
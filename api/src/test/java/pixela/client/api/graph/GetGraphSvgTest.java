@@ -2,10 +2,15 @@ package pixela.client.api.graph;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -14,6 +19,8 @@ import pixela.client.ApiException;
 import pixela.client.Graph;
 import pixela.client.GraphId;
 import pixela.client.Pixela;
+import pixela.client.cache.SvgCache;
+import pixela.client.http.ConditionalResponse;
 import pixela.client.http.HttpClient;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -98,6 +105,11 @@ class GetGraphSvgTest {
   @Nested
   class CallTest {
 
+    @BeforeEach
+    void setup() {
+      when(httpClient.svgCache()).thenReturn(SvgCache.disabled());
+    }
+
     @Test
     void success() {
       final GetGraphSvg.NoOption getGraphSvg = GetGraphSvg.noOption(httpClient, pixela, graph);
@@ -124,4 +136,33 @@ class GetGraphSvgTest {
           .verify();
     }
   }
+
+  @Nested
+  class CachedCallTest {
+
+    @BeforeEach
+    void setup() {
+      when(pixela.usersUri()).thenReturn("/v1/users/1122");
+      when(httpClient.svgCache()).thenReturn(SvgCache.of(1024L, Duration.ofMinutes(1L)));
+    }
+
+    @Test
+    void secondCallIsServedFromCache() {
+      when(httpClient.get(any(ConditionalGetGraphSvg.class)))
+          .thenReturn(
+              Mono.just(
+                  ConditionalResponse.of(
+                      "svg-data".getBytes(StandardCharsets.UTF_8), "\"v1\"", null)));
+      final GetGraphSvg.NoOption getGraphSvg = GetGraphSvg.noOption(httpClient, pixela, graph);
+
+      StepVerifier.create(getGraphSvg.call())
+          .assertNext(tuple -> assertThat(tuple.getT2()).isEqualTo("svg-data"))
+          .verifyComplete();
+      StepVerifier.create(getGraphSvg.call())
+          .assertNext(tuple -> assertThat(tuple.getT2()).isEqualTo("svg-data"))
+          .verifyComplete();
+
+      verify(httpClient, times(1)).get(any(ConditionalGetGraphSvg.class));
+    }
+  }
 }
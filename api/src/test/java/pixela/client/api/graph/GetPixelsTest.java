@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.api.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pixela.client.ApiException;
+import pixela.client.ErrorType;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixel;
+import pixela.client.Pixela;
+import pixela.client.Quantity;
+import pixela.client.cache.PixelCache;
+import pixela.client.http.HttpClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class GetPixelsTest {
+
+  private final HttpClient httpClient = mock(HttpClient.class);
+
+  private final Pixela pixela = mock(Pixela.class);
+
+  private final Graph graph = SimpleGraph.of(httpClient, pixela, GraphId.of("test"));
+
+  private final LocalDate from = LocalDate.of(2019, 9, 1);
+
+  private final AtomicInteger requests = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    when(pixela.usersUri()).thenReturn("/v1/users/test");
+    when(httpClient.pixelCache()).thenReturn(PixelCache.disabled());
+    // later dates respond earlier, and dates of multiple of 3 have no pixel.
+    when(httpClient.get(any()))
+        .thenAnswer(
+            invocation -> {
+              requests.incrementAndGet();
+              final String request = invocation.<GetPixel>getArgument(0).errorRequest();
+              final int day = Integer.parseInt(request.substring(request.length() - 2));
+              if (day % 3 == 0) {
+                return Mono.error(ApiException.of("not found", ErrorType.NOT_FOUND));
+              }
+              return Mono.just(new PixelRaw(Quantity.integer(day), null))
+                  .delayElement(Duration.ofMillis(50L - day));
+            });
+  }
+
+  @NotNull
+  private static String date(@NotNull final Pixel pixel) {
+    return pixel.date().toString();
+  }
+
+  @Test
+  void pixelsAreInOrderOfDate() {
+    final List<Pixel> pixels = graph.pixels(from, from.plusDays(6L)).concurrency(7).call().block();
+
+    assertThat(pixels)
+        .extracting(GetPixelsTest::date)
+        .containsExactly("2019-09-01", "2019-09-02", "2019-09-04", "2019-09-05", "2019-09-07");
+    assertThat(pixels).extracting(Pixel::quantity).containsExactly("1", "2", "4", "5", "7");
+  }
+
+  @Test
+  void singleDate() {
+    StepVerifier.create(graph.pixels(from, from).pixels())
+        .assertNext(pixel -> assertThat(pixel.date()).isEqualTo(from))
+        .verifyComplete();
+  }
+
+  @Test
+  void otherErrorsAreRaised() {
+    doReturn(Mono.error(ApiException.of("unavailable", ErrorType.SERVER_ERROR)))
+        .when(httpClient)
+        .get(any());
+
+    StepVerifier.create(graph.pixels(from, from.plusDays(1L)).pixels())
+        .expectError(ApiException.class)
+        .verify();
+  }
+
+  @Test
+  void cachedPixelsAreNotRequestedAgain() {
+    when(httpClient.pixelCache()).thenReturn(PixelCache.of(16, Duration.ofMinutes(1L)));
+
+    StepVerifier.create(graph.pixels(from, from.plusDays(4L)).pixels())
+        .expectNextCount(4L)
+        .verifyComplete();
+    StepVerifier.create(graph.pixels(from, from.plusDays(4L)).pixels())
+        .expectNextCount(4L)
+        .verifyComplete();
+
+    // pixels not found are not cached.
+    assertThat(requests).hasValue(6);
+  }
+
+  @Test
+  void toBeforeFrom() {
+    assertThatThrownBy(() -> graph.pixels(from, from.minusDays(1L)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void concurrencyShouldBePositive() {
+    assertThatThrownBy(() -> graph.pixels(from, from).concurrency(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
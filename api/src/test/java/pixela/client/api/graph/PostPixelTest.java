@@ -16,6 +16,7 @@
 package pixela.client.api.graph;
 
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -26,6 +27,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Map;
 import org.eclipse.collections.impl.factory.Maps;
@@ -34,6 +36,8 @@ import pixela.client.GraphId;
 import pixela.client.Pixela;
 import pixela.client.Quantity;
 import pixela.client.http.HttpClient;
+import pixela.client.http.json.JsonBuffer;
+import pixela.client.http.json.JsonWritable;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -59,6 +63,22 @@ class PostPixelTest {
   private final PostPixel.PixelDate pixelDate =
       new SimpleGraph(httpClient, pixela, GraphId.of("test"));
 
+  @Test
+  void writtenJsonIsSameAsEncoded() throws JsonProcessingException {
+    final PostPixel withOptionalData =
+        pixelDate.date(LocalDate.of(2006, 1, 22)).quantity(10).optionDataJson("{\"k\":\"v\"}");
+    final PostPixel withoutOptionalData = pixelDate.date(LocalDate.of(2006, 1, 22)).quantity(2.5);
+
+    assertThat(written(withOptionalData))
+        .isEqualTo(objectMapper.writeValueAsString(withOptionalData));
+    assertThat(written(withoutOptionalData))
+        .isEqualTo(objectMapper.writeValueAsString(withoutOptionalData));
+  }
+
+  private static String written(final PostPixel postPixel) {
+    return new String(JsonBuffer.write((JsonWritable) postPixel), StandardCharsets.UTF_8);
+  }
+
   @Test
   void floatJsonWithoutOptionalData() throws IOException {
     final PostPixel postPixel = pixelDate.date(LocalDate.of(2006, 1, 22)).quantity(20.12);
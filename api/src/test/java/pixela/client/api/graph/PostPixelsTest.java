@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.api.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pixela.client.ApiException;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.PixelEntry;
+import pixela.client.Pixela;
+import pixela.client.Quantity;
+import pixela.client.cache.PixelCache;
+import pixela.client.cache.SvgCache;
+import pixela.client.http.HttpClient;
+import pixela.client.journal.PixelJournal;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class PostPixelsTest {
+
+  private final HttpClient httpClient = mock(HttpClient.class);
+
+  private final Pixela pixela = mock(Pixela.class);
+
+  private final Graph graph = SimpleGraph.of(httpClient, pixela, GraphId.of("test"));
+
+  private final LocalDate date = LocalDate.of(2019, 9, 1);
+
+  private Flux<PixelEntry> entries(final int size) {
+    return Flux.range(0, size).map(i -> PixelEntry.of(date.plusDays(i), Quantity.integer(i)));
+  }
+
+  @BeforeEach
+  void setUp() {
+    when(httpClient.pixelCache()).thenReturn(PixelCache.disabled());
+    when(httpClient.svgCache()).thenReturn(SvgCache.disabled());
+    when(httpClient.pixelJournal()).thenReturn(PixelJournal.disabled());
+  }
+
+  @Test
+  void allEntriesArePosted() {
+    when(httpClient.post(any())).thenReturn(Mono.empty());
+
+    final Flux<PostPixels.Result> results = graph.postPixels(entries(10)).results();
+
+    StepVerifier.create(results.filter(PostPixels.Result::isSuccess))
+        .expectNextCount(10)
+        .verifyComplete();
+  }
+
+  @Test
+  void resultHoldsPixel() {
+    when(httpClient.post(any())).thenReturn(Mono.empty());
+
+    final Flux<PostPixels.Result> results =
+        graph
+            .postPixels(Flux.just(PixelEntry.of(date, Quantity.integer(3), "{\"key\":\"value\"}")))
+            .results();
+
+    StepVerifier.create(results)
+        .assertNext(
+            result -> {
+              assertThat(result.error()).isEmpty();
+              assertThat(result.pixel())
+                  .hasValueSatisfying(
+                      pixel -> {
+                        assertThat(pixel.date()).isEqualTo(date);
+                        assertThat(pixel.quantity()).isEqualTo("3");
+                        assertThat(pixel.optionalData()).hasValue("{\"key\":\"value\"}");
+                      });
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void failureDoesNotStopOtherEntries() {
+    when(httpClient.post(any()))
+        .thenAnswer(
+            invocation -> {
+              final PostPixel post = invocation.getArgument(0);
+              return post.getQuantity().equals("2")
+                  ? Mono.error(ApiException.of("failure"))
+                  : Mono.empty();
+            });
+
+    final Mono<PostPixels.Stats> stats = graph.postPixels(entries(5)).call();
+
+    StepVerifier.create(stats)
+        .assertNext(
+            s -> {
+              assertThat(s.total()).isEqualTo(5L);
+              assertThat(s.succeeded()).isEqualTo(4L);
+              assertThat(s.failed()).isEqualTo(1L);
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void concurrencyIsBounded() {
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger max = new AtomicInteger();
+    when(httpClient.post(any()))
+        .thenAnswer(
+            invocation ->
+                Mono.delay(Duration.ofMillis(10))
+                    .doOnSubscribe(s -> max.accumulateAndGet(running.incrementAndGet(), Math::max))
+                    .doOnTerminate(running::decrementAndGet)
+                    .then());
+
+    final Mono<PostPixels.Stats> stats = graph.postPixels(entries(20)).concurrency(3).call();
+
+    StepVerifier.create(stats)
+        .assertNext(s -> assertThat(s.succeeded()).isEqualTo(20L))
+        .verifyComplete();
+    assertThat(max.get()).isLessThanOrEqualTo(3);
+  }
+
+  @Test
+  void concurrencyShouldBePositive() {
+    final PostPixels postPixels = graph.postPixels(entries(1));
+
+    assertThatThrownBy(() -> postPixels.concurrency(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -12,6 +12,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.Collections;
@@ -20,7 +21,10 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.stubbing.Answer;
 import pixela.client.*;
+import pixela.client.cache.GraphDefinitionsCache;
+import pixela.client.cache.SvgCache;
 import pixela.client.http.HttpClient;
+import pixela.client.http.json.JsonBuffer;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -103,6 +107,34 @@ class UpdateGraphImplTest {
           () -> assertThatJson(json).node("purgeCacheURLs").isArray().isEmpty(),
           () -> assertThatJson(json).node("selfSufficient").isString().isEqualTo("decrement"));
     }
+
+    @Test
+    void jsonBufferWritesSameJsonAsJackson() throws JsonProcessingException {
+      final UpdateGraphImpl[] updateGraphs = {
+        new UpdateGraphImpl(
+            httpClient, pixela, graph, null, null, null, null, PurgeCacheURLs.NOT_UPDATE, null),
+        new UpdateGraphImpl(
+            httpClient,
+            pixela,
+            graph,
+            "グラフ \"名\"",
+            "test-unit",
+            Graph.Color.PURPLE,
+            ZoneId.of("Asia/Tokyo"),
+            PurgeCacheURLs.update(
+                Arrays.asList(
+                    URI.create("https://example.com/a"), URI.create("https://example.com/b"))),
+            GraphSelfSufficient.DECREMENT),
+        new UpdateGraphImpl(
+            httpClient, pixela, graph, null, null, null, null, PurgeCacheURLs.remove(), null)
+      };
+
+      for (final UpdateGraphImpl updateGraph : updateGraphs) {
+        final String json = new String(JsonBuffer.write(updateGraph), StandardCharsets.UTF_8);
+
+        assertThatJson(json).isEqualTo(objectMapper.writeValueAsString(updateGraph));
+      }
+    }
   }
 
   @Nested
@@ -192,6 +224,8 @@ class UpdateGraphImplTest {
                     return uri.resolve("/v1/users/112233");
                   });
       when(graph.subPath()).thenReturn("/graphs/445566");
+      when(graph.pixela()).thenReturn(pixela);
+      when(graph.graphUri(any())).thenCallRealMethod();
     }
 
     @Test
@@ -217,6 +251,8 @@ class UpdateGraphImplTest {
       void given() {
         when(graph.id()).thenReturn(GraphId.of("test-graph"));
         when(httpClient.put(any())).thenReturn(Mono.empty());
+        when(httpClient.graphDefinitionsCache()).thenReturn(GraphDefinitionsCache.disabled());
+        when(httpClient.svgCache()).thenReturn(SvgCache.disabled());
       }
 
       @Test
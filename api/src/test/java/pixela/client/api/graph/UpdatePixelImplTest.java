@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.api.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixela;
+import pixela.client.Quantity;
+import pixela.client.http.HttpClient;
+import pixela.client.http.json.JsonBuffer;
+
+class UpdatePixelImplTest {
+
+  private final HttpClient httpClient = mock(HttpClient.class);
+
+  private final Pixela pixela = mock(Pixela.class);
+
+  private final Graph graph = SimpleGraph.of(httpClient, pixela, GraphId.of("test"));
+
+  private final ObjectMapper objectMapper =
+      new ObjectMapper()
+          .setPropertyNamingStrategy(PropertyNamingStrategy.LOWER_CAMEL_CASE)
+          .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+  @Test
+  void writtenJsonIsSameAsEncoded() throws JsonProcessingException {
+    final UpdatePixelImpl withoutOptionalData =
+        new UpdatePixelImpl(
+            httpClient, pixela, graph, LocalDate.of(2019, 9, 1), Quantity.integer(3));
+    final UpdatePixel withOptionalData =
+        withoutOptionalData.optionalDataString("{\"note\":\"\\\"quoted\\\"\"}");
+
+    assertThat(new String(JsonBuffer.write(withoutOptionalData), StandardCharsets.UTF_8))
+        .isEqualTo(objectMapper.writeValueAsString(withoutOptionalData));
+    assertThat(
+            new String(
+                JsonBuffer.write((UpdatePixelImpl) withOptionalData), StandardCharsets.UTF_8))
+        .isEqualTo(objectMapper.writeValueAsString(withOptionalData));
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+class CacheTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @NotNull
+  private Cache<String, String> cache(final long maxSize) {
+    return new Cache<>(maxSize, Duration.ofSeconds(10L), (k, v) -> 1, clock::get);
+  }
+
+  @Test
+  void invalidArguments() {
+    assertThatThrownBy(() -> Cache.of(0L, Duration.ofSeconds(1L)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Cache.of(1L, Duration.ZERO))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void hitAndMiss() {
+    final Cache<String, String> cache = cache(2L);
+    cache.put("a", "A");
+
+    assertThat(cache.getIfPresent("a")).hasValue("A");
+    assertThat(cache.getIfPresent("b")).isEmpty();
+    assertThat(cache.stats())
+        .satisfies(
+            stats -> {
+              assertThat(stats.hits()).isEqualTo(1L);
+              assertThat(stats.misses()).isEqualTo(1L);
+              assertThat(stats.hitRate()).isEqualTo(0.5);
+            });
+  }
+
+  @Test
+  void leastRecentlyUsedIsEvicted() {
+    final Cache<String, String> cache = cache(2L);
+    cache.put("a", "A");
+    cache.put("b", "B");
+    cache.getIfPresent("a");
+
+    cache.put("c", "C");
+
+    assertThat(cache.getIfPresent("b")).isEmpty();
+    assertThat(cache.getIfPresent("a")).hasValue("A");
+    assertThat(cache.getIfPresent("c")).hasValue("C");
+    assertThat(cache.stats().evictions()).isEqualTo(1L);
+  }
+
+  @Test
+  void entryExpiresAfterTtl() {
+    final Cache<String, String> cache = cache(2L);
+    cache.put("a", "A");
+
+    clock.addAndGet(Duration.ofSeconds(10L).toNanos());
+
+    assertThat(cache.getIfPresent("a")).isEmpty();
+    assertThat(cache.size()).isZero();
+    assertThat(cache.stats().expirations()).isEqualTo(1L);
+  }
+
+  @Test
+  void weightedEviction() {
+    final Cache<String, String> cache =
+        new Cache<>(5L, Duration.ofSeconds(10L), (k, v) -> v.length(), clock::get);
+    cache.put("a", "aaa");
+    cache.put("b", "bb");
+    cache.put("c", "cc");
+
+    assertThat(cache.getIfPresent("a")).isEmpty();
+    assertThat(cache.weight()).isEqualTo(4L);
+
+    cache.put("d", "dddddd");
+    assertThat(cache.getIfPresent("d")).isEmpty();
+    assertThat(cache.weight()).isEqualTo(4L);
+  }
+
+  @Test
+  void getLoadsOnlyOnMiss() {
+    final Cache<String, String> cache = cache(2L);
+    final AtomicInteger loads = new AtomicInteger();
+
+    final Mono<String> mono =
+        cache.get("a", () -> Mono.fromSupplier(() -> "A" + loads.incrementAndGet()));
+
+    StepVerifier.create(mono).expectNext("A1").verifyComplete();
+    StepVerifier.create(mono).expectNext("A1").verifyComplete();
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  void loadStartedBeforeInvalidationIsNotCached() {
+    final Cache<String, String> cache = cache(2L);
+    final MonoProcessor<String> response = MonoProcessor.create();
+
+    final Mono<String> loading = cache.get("a", () -> response);
+    StepVerifier.create(loading)
+        .then(() -> cache.invalidate("a"))
+        .then(() -> response.onNext("stale"))
+        .expectNext("stale")
+        .verifyComplete();
+
+    assertThat(cache.getIfPresent("a")).isEmpty();
+  }
+
+  @Test
+  void loadIsCachedAfterWriteToOtherKey() {
+    final Cache<String, String> cache = cache(2L);
+    final MonoProcessor<String> response = MonoProcessor.create();
+
+    final Mono<String> loading = cache.get("a", () -> response);
+    StepVerifier.create(loading)
+        .then(() -> cache.put("b", "B"))
+        .then(() -> cache.invalidate("c"))
+        .then(() -> response.onNext("A"))
+        .expectNext("A")
+        .verifyComplete();
+
+    assertThat(cache.getIfPresent("a")).hasValue("A");
+  }
+
+  @Test
+  void loadsRunningAtOnceAreAllCached() {
+    final Cache<String, String> cache = cache(2L);
+    final MonoProcessor<String> a = MonoProcessor.create();
+    final MonoProcessor<String> b = MonoProcessor.create();
+
+    final Mono<String> loadingA = cache.get("a", () -> a);
+    final Mono<String> loadingB = cache.get("b", () -> b);
+    StepVerifier.create(Mono.zip(loadingA, loadingB))
+        .then(() -> a.onNext("A"))
+        .then(() -> b.onNext("B"))
+        .expectNextCount(1L)
+        .verifyComplete();
+
+    assertThat(cache.getIfPresent("a")).hasValue("A");
+    assertThat(cache.getIfPresent("b")).hasValue("B");
+  }
+
+  @Test
+  void invalidateIf() {
+    final Cache<String, String> cache = cache(3L);
+    cache.put("a1", "A");
+    cache.put("a2", "A");
+    cache.put("b1", "B");
+
+    cache.invalidateIf(key -> key.startsWith("a"));
+
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.getIfPresent("b1")).hasValue("B");
+  }
+
+  @Test
+  void invalidateGroup() {
+    final Cache<String, String> cache =
+        new Cache<>(4L, Duration.ofSeconds(10L), (k, v) -> 1, clock::get, k -> k.charAt(0));
+    cache.put("a1", "A");
+    cache.put("a2", "A");
+    cache.put("b1", "B");
+
+    cache.invalidateGroup('a');
+
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.getIfPresent("b1")).hasValue("B");
+
+    cache.put("a1", "A");
+
+    assertThat(cache.getIfPresent("a1")).hasValue("A");
+  }
+
+  @Test
+  void loadStartedBeforeGroupInvalidationIsNotCached() {
+    final Cache<String, String> cache =
+        new Cache<>(4L, Duration.ofSeconds(10L), (k, v) -> 1, clock::get, k -> k.charAt(0));
+    final MonoProcessor<String> response = MonoProcessor.create();
+
+    final Mono<String> loading = cache.get("a1", () -> response);
+    StepVerifier.create(loading)
+        .then(() -> cache.invalidateGroup('a'))
+        .then(() -> response.onNext("stale"))
+        .expectNext("stale")
+        .verifyComplete();
+
+    assertThat(cache.getIfPresent("a1")).isEmpty();
+  }
+
+  @Test
+  void notGroupedCacheCannotInvalidateGroup() {
+    assertThatThrownBy(() -> cache(2L).invalidateGroup('a'))
+        .isInstanceOf(IllegalStateException.class);
+  }
+}
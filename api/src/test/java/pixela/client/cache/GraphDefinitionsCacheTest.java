@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pixela.client.Graph;
+import pixela.client.Pixela;
+import pixela.client.UserToken;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class GraphDefinitionsCacheTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private final Pixela pixela = mock(Pixela.class);
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private VirtualTimeScheduler scheduler;
+
+  private GraphDefinitionsCache cache;
+
+  @BeforeEach
+  void setup() {
+    when(pixela.usersUri()).thenReturn("/v1/users/test");
+    when(pixela.token()).thenReturn(UserToken.of("test-token"));
+    scheduler = VirtualTimeScheduler.create();
+    cache =
+        new CachedGraphDefinitions(
+            4, Duration.ofSeconds(10L), Duration.ofSeconds(60L), clock::get, scheduler);
+  }
+
+  @AfterEach
+  void tearDown() {
+    scheduler.dispose();
+  }
+
+  @NotNull
+  private Mono<List<Graph>> load() {
+    return Mono.fromSupplier(() -> Collections.nCopies(loads.incrementAndGet(), mock(Graph.class)));
+  }
+
+  private void elapse(final long seconds) {
+    clock.addAndGet(Duration.ofSeconds(seconds).toNanos());
+  }
+
+  @Test
+  void invalidDurations() {
+    assertThatThrownBy(
+            () -> GraphDefinitionsCache.of(1, Duration.ofSeconds(2L), Duration.ofSeconds(1L)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void freshDefinitionsAreNotReloaded() {
+    StepVerifier.create(cache.get(pixela, this::load)).expectNextCount(1L).verifyComplete();
+    elapse(5L);
+    StepVerifier.create(cache.get(pixela, this::load)).expectNextCount(1L).verifyComplete();
+    scheduler.advanceTime();
+
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  void staleDefinitionsAreServedWhileRefreshing() {
+    final MonoProcessor<List<Graph>> refreshing = MonoProcessor.create();
+    StepVerifier.create(cache.get(pixela, this::load))
+        .assertNext(graphs -> assertThat(graphs).hasSize(1))
+        .verifyComplete();
+    elapse(15L);
+
+    StepVerifier.create(cache.get(pixela, () -> refreshing))
+        .assertNext(graphs -> assertThat(graphs).hasSize(1))
+        .verifyComplete();
+
+    refreshing.onNext(Collections.nCopies(3, mock(Graph.class)));
+    scheduler.advanceTime();
+
+    StepVerifier.create(cache.get(pixela, this::load))
+        .assertNext(graphs -> assertThat(graphs).hasSize(3))
+        .verifyComplete();
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  void onlyOneRefreshRunsAtATime() {
+    final MonoProcessor<List<Graph>> refreshing = MonoProcessor.create();
+    StepVerifier.create(cache.get(pixela, this::load)).expectNextCount(1L).verifyComplete();
+    elapse(15L);
+
+    final AtomicInteger refreshes = new AtomicInteger();
+    for (int i = 0; i < 3; i++) {
+      cache
+          .get(
+              pixela,
+              () -> {
+                refreshes.incrementAndGet();
+                return refreshing;
+              })
+          .subscribe();
+    }
+    scheduler.advanceTime();
+
+    assertThat(refreshes).hasValue(1);
+  }
+
+  @Test
+  void expiredDefinitionsAreLoaded() {
+    StepVerifier.create(cache.get(pixela, this::load)).expectNextCount(1L).verifyComplete();
+    elapse(60L);
+
+    StepVerifier.create(cache.get(pixela, this::load))
+        .assertNext(graphs -> assertThat(graphs).hasSize(2))
+        .verifyComplete();
+  }
+
+  @Test
+  void invalidatedDefinitionsAreLoaded() {
+    StepVerifier.create(cache.get(pixela, this::load)).expectNextCount(1L).verifyComplete();
+    cache.invalidate(pixela);
+
+    StepVerifier.create(cache.get(pixela, this::load))
+        .assertNext(graphs -> assertThat(graphs).hasSize(2))
+        .verifyComplete();
+  }
+}
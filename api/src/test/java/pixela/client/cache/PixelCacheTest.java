@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixel;
+import pixela.client.Pixela;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class PixelCacheTest {
+
+  private static final LocalDate DATE = LocalDate.of(2019, 9, 1);
+
+  private final Pixela pixela = mock(Pixela.class);
+
+  private final Graph graph = mock(Graph.class);
+
+  private final Graph otherGraph = mock(Graph.class);
+
+  private final Pixel pixel = mock(Pixel.class);
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  PixelCacheTest() {
+    when(pixela.usersUri()).thenReturn("/v1/users/test");
+    when(graph.id()).thenReturn(GraphId.of("graph"));
+    when(otherGraph.id()).thenReturn(GraphId.of("other"));
+    when(pixel.pixela()).thenReturn(pixela);
+    when(pixel.graph()).thenReturn(graph);
+    when(pixel.date()).thenReturn(DATE);
+  }
+
+  @NotNull
+  private Mono<Pixel> load() {
+    return Mono.fromSupplier(
+        () -> {
+          loads.incrementAndGet();
+          return pixel;
+        });
+  }
+
+  @Nested
+  class Enabled {
+
+    private final PixelCache pixelCache = PixelCache.of(16, Duration.ofMinutes(1L));
+
+    @Test
+    void secondGetIsServedFromCache() {
+      StepVerifier.create(pixelCache.get(pixela, graph, DATE, PixelCacheTest.this::load))
+          .expectNext(pixel)
+          .verifyComplete();
+      StepVerifier.create(pixelCache.get(pixela, graph, DATE, PixelCacheTest.this::load))
+          .expectNext(pixel)
+          .verifyComplete();
+
+      assertThat(loads).hasValue(1);
+      assertThat(pixelCache.stats().hits()).isEqualTo(1L);
+    }
+
+    @Test
+    void putPixelIsServedFromCache() {
+      pixelCache.put(pixel);
+
+      StepVerifier.create(pixelCache.get(pixela, graph, DATE, PixelCacheTest.this::load))
+          .expectNext(pixel)
+          .verifyComplete();
+      assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    void invalidatedPixelIsLoadedAgain() {
+      pixelCache.put(pixel);
+      pixelCache.invalidate(pixela, graph, DATE);
+
+      StepVerifier.create(pixelCache.get(pixela, graph, DATE, PixelCacheTest.this::load))
+          .expectNext(pixel)
+          .verifyComplete();
+      assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidateGraphKeepsPixelsOfOtherGraphs() {
+      pixelCache.put(pixel);
+      pixelCache.invalidateGraph(pixela, otherGraph.id());
+
+      StepVerifier.create(pixelCache.get(pixela, graph, DATE, PixelCacheTest.this::load))
+          .expectNext(pixel)
+          .verifyComplete();
+      assertThat(loads).hasValue(0);
+
+      pixelCache.invalidateGraph(pixela, graph.id());
+
+      StepVerifier.create(pixelCache.get(pixela, graph, DATE, PixelCacheTest.this::load))
+          .expectNext(pixel)
+          .verifyComplete();
+      assertThat(loads).hasValue(1);
+    }
+  }
+
+  @Nested
+  class Disabled {
+
+    private final PixelCache pixelCache = PixelCache.disabled();
+
+    @Test
+    void alwaysLoads() {
+      pixelCache.put(pixel);
+
+      StepVerifier.create(pixelCache.get(pixela, graph, DATE, PixelCacheTest.this::load))
+          .expectNext(pixel)
+          .verifyComplete();
+      StepVerifier.create(pixelCache.get(pixela, graph, DATE, PixelCacheTest.this::load))
+          .expectNext(pixel)
+          .verifyComplete();
+      assertThat(loads).hasValue(2);
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixela;
+import pixela.client.api.graph.GetGraphSvg;
+import pixela.client.http.ConditionalResponse;
+import pixela.client.http.HttpResponse;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class SvgCacheTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private final Pixela pixela = mock(Pixela.class);
+
+  private final Graph graph = mock(Graph.class);
+
+  private final List<Map<String, String>> requests = new CopyOnWriteArrayList<>();
+
+  private final SvgCache svgCache = new CachedSvgs(16L, Duration.ofSeconds(10L), clock::get);
+
+  SvgCacheTest() {
+    when(pixela.usersUri()).thenReturn("/v1/users/test");
+    when(graph.id()).thenReturn(GraphId.of("graph"));
+  }
+
+  @NotNull
+  private static byte[] bytes(@NotNull final String svg) {
+    return svg.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @NotNull
+  private Function<Map<String, String>, Mono<ConditionalResponse>> server(
+      @NotNull final Function<Map<String, String>, ConditionalResponse> handler) {
+    return headers ->
+        Mono.fromSupplier(
+            () -> {
+              requests.add(headers);
+              return handler.apply(headers);
+            });
+  }
+
+  @NotNull
+  private Mono<String> get(
+      @NotNull final GetGraphSvg.ModeOption mode,
+      @NotNull final Function<Map<String, String>, Mono<ConditionalResponse>> fetch) {
+    return svgCache
+        .get(pixela, graph, GetGraphSvg.DateOption.empty(), mode, fetch)
+        .map(svg -> new String(svg, StandardCharsets.UTF_8));
+  }
+
+  @NotNull
+  private static ConditionalResponse notModified() {
+    final HttpResponse response = mock(HttpResponse.class);
+    when(response.statusCode()).thenReturn(ConditionalResponse.NOT_MODIFIED);
+    when(response.header(anyString())).thenReturn(Optional.empty());
+    return ConditionalResponse.of(response);
+  }
+
+  private void elapse(final long seconds) {
+    clock.addAndGet(Duration.ofSeconds(seconds).toNanos());
+  }
+
+  @Test
+  void freshSvgIsServedWithoutRequest() {
+    final Function<Map<String, String>, Mono<ConditionalResponse>> fetch =
+        server(headers -> ConditionalResponse.of(bytes("<svg/>"), null, null));
+
+    StepVerifier.create(get(GetGraphSvg.ModeOption.NONE, fetch))
+        .expectNext("<svg/>")
+        .verifyComplete();
+    elapse(5L);
+    StepVerifier.create(get(GetGraphSvg.ModeOption.NONE, fetch))
+        .expectNext("<svg/>")
+        .verifyComplete();
+
+    assertThat(requests).hasSize(1);
+  }
+
+  @Test
+  void modeIsPartOfKey() {
+    final Function<Map<String, String>, Mono<ConditionalResponse>> fetch =
+        server(headers -> ConditionalResponse.of(bytes("<svg/>"), null, null));
+
+    get(GetGraphSvg.ModeOption.NONE, fetch).block();
+    get(GetGraphSvg.ModeOption.SHORT, fetch).block();
+
+    assertThat(requests).hasSize(2);
+  }
+
+  @Test
+  void staleSvgWithEtagIsRevalidated() {
+    final Function<Map<String, String>, Mono<ConditionalResponse>> fetch =
+        server(
+            headers ->
+                headers.isEmpty()
+                    ? ConditionalResponse.of(bytes("<svg/>"), "\"v1\"", null)
+                    : notModified());
+
+    get(GetGraphSvg.ModeOption.NONE, fetch).block();
+    elapse(15L);
+
+    StepVerifier.create(get(GetGraphSvg.ModeOption.NONE, fetch))
+        .expectNext("<svg/>")
+        .verifyComplete();
+    assertThat(requests)
+        .hasSize(2)
+        .last()
+        .satisfies(
+            headers ->
+                assertThat(headers).containsEntry(ConditionalResponse.IF_NONE_MATCH, "\"v1\""));
+  }
+
+  @Test
+  void staleSvgWithoutValidatorIsDownloadedAgain() {
+    final Function<Map<String, String>, Mono<ConditionalResponse>> fetch =
+        server(headers -> ConditionalResponse.of(bytes("<svg/>"), null, null));
+
+    get(GetGraphSvg.ModeOption.NONE, fetch).block();
+    elapse(15L);
+    get(GetGraphSvg.ModeOption.NONE, fetch).block();
+
+    assertThat(requests).hasSize(2).allSatisfy(headers -> assertThat(headers).isEmpty());
+  }
+
+  @Test
+  void svgLargerThanMaxBytesIsNotCached() {
+    final Function<Map<String, String>, Mono<ConditionalResponse>> fetch =
+        server(headers -> ConditionalResponse.of(bytes("<svg>too large</svg>"), null, null));
+
+    get(GetGraphSvg.ModeOption.NONE, fetch).block();
+    get(GetGraphSvg.ModeOption.NONE, fetch).block();
+
+    assertThat(requests).hasSize(2);
+  }
+
+  @Test
+  void invalidateGraph() {
+    final Function<Map<String, String>, Mono<ConditionalResponse>> fetch =
+        server(headers -> ConditionalResponse.of(bytes("<svg/>"), null, null));
+
+    get(GetGraphSvg.ModeOption.NONE, fetch).block();
+    svgCache.invalidateGraph(pixela, GraphId.of("graph"));
+    get(GetGraphSvg.ModeOption.NONE, fetch).block();
+
+    assertThat(requests).hasSize(2);
+  }
+}
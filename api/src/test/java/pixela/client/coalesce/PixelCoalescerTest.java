@@ -0,0 +1,210 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.coalesce;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import pixela.client.ApiException;
+import pixela.client.ErrorType;
+import pixela.client.Graph;
+import pixela.client.Pixel;
+import pixela.client.Pixela;
+import pixela.client.Quantity;
+import pixela.client.api.graph.GetPixel;
+import pixela.client.api.graph.PostPixel;
+import pixela.client.api.graph.UpdatePixel;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class PixelCoalescerTest {
+
+  private static final LocalDate DATE = LocalDate.of(2019, 9, 1);
+
+  private final Clock clock =
+      Clock.fixed(DATE.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
+  private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+
+  private final Graph graph = mock(Graph.class);
+  private final GetPixel getPixel = mock(GetPixel.class);
+  private final PostPixel.PixelDate pixelDate = mock(PostPixel.PixelDate.class);
+  private final PostPixel.PixelQuantity pixelQuantity = mock(PostPixel.PixelQuantity.class);
+  private final PostPixel.OptionData postPixel = mock(PostPixel.OptionData.class);
+  private final Pixel pixel = mock(Pixel.class);
+
+  private final CoalescedPixels coalescer =
+      new CoalescedPixels(Duration.ofSeconds(10L), 100, clock, scheduler);
+
+  PixelCoalescerTest() {
+    final Pixela pixela = mock(Pixela.class);
+    when(pixela.usersUri()).thenReturn("/v1/users/test");
+    when(graph.pixela()).thenReturn(pixela);
+    when(graph.subPath()).thenReturn("/graphs/test");
+    when(graph.getPixel(DATE)).thenReturn(getPixel);
+    when(getPixel.callLatest())
+        .thenReturn(Mono.error(ApiException.of("not found", ErrorType.NOT_FOUND)));
+    when(graph.postPixel()).thenReturn(pixelDate);
+    when(pixelDate.date(DATE)).thenReturn(pixelQuantity);
+    when(pixelQuantity.quantity(any(Quantity.class))).thenReturn(postPixel);
+    when(postPixel.noOptionData()).thenReturn(postPixel);
+    when(postPixel.call()).thenReturn(Mono.just(pixel));
+  }
+
+  @AfterEach
+  void tearDown() {
+    scheduler.dispose();
+  }
+
+  @Test
+  void stepsArePostedAsOneRequest() {
+    coalescer.record(graph, 1L);
+    coalescer.record(graph, 1L);
+    coalescer.record(graph, 1L);
+    coalescer.record(graph, -1L);
+
+    StepVerifier.create(coalescer.flush()).verifyComplete();
+
+    verify(pixelQuantity).quantity(Quantity.integer(2));
+    verify(postPixel, times(1)).call();
+    assertThat(coalescer.pendingSteps()).isEqualTo(0L);
+  }
+
+  @Test
+  void existingPixelIsUpdatedWithSum() {
+    final UpdatePixel.Quantity updateQuantity = mock(UpdatePixel.Quantity.class);
+    final UpdatePixel.OptionalData updatePixel = mock(UpdatePixel.OptionalData.class);
+    when(getPixel.callLatest()).thenReturn(Mono.just(pixel));
+    when(pixel.quantity()).thenReturn("5");
+    when(pixel.optionalData()).thenReturn(Optional.empty());
+    when(pixel.update()).thenReturn(updateQuantity);
+    when(updateQuantity.quantity(any(Quantity.class))).thenReturn(updatePixel);
+    when(updatePixel.call()).thenReturn(Mono.just(pixel));
+    coalescer.record(graph, 1L);
+    coalescer.record(graph, 1L);
+    coalescer.record(graph, 1L);
+
+    StepVerifier.create(coalescer.flush()).verifyComplete();
+
+    verify(updateQuantity).quantity(Quantity.integer(8));
+    verify(postPixel, never()).call();
+  }
+
+  @Test
+  void stepsRecordedDuringWriteAreKeptAndPixelIsReadUncached() {
+    when(getPixel.callLatest())
+        .thenAnswer(
+            invocation -> {
+              coalescer.record(graph, 1L);
+              return Mono.error(ApiException.of("not found", ErrorType.NOT_FOUND));
+            });
+    coalescer.record(graph, 1L);
+    coalescer.record(graph, 1L);
+
+    StepVerifier.create(coalescer.flush()).verifyComplete();
+
+    verify(pixelQuantity).quantity(Quantity.integer(2));
+    verify(getPixel, never()).call();
+    assertThat(coalescer.pendingSteps()).isEqualTo(1L);
+  }
+
+  @Test
+  void failedStepsAreKeptForNextFlush() {
+    when(postPixel.call())
+        .thenReturn(Mono.error(ApiException.of("server error", ErrorType.SERVER_ERROR)))
+        .thenReturn(Mono.just(pixel));
+    coalescer.record(graph, 1L);
+    coalescer.record(graph, 1L);
+
+    StepVerifier.create(coalescer.flush()).verifyError(ApiException.class);
+    assertThat(coalescer.pendingSteps()).isEqualTo(2L);
+
+    StepVerifier.create(coalescer.flush()).verifyComplete();
+    verify(pixelQuantity, times(2)).quantity(Quantity.integer(2));
+    assertThat(coalescer.pendingSteps()).isEqualTo(0L);
+  }
+
+  @Test
+  void pixelIsWrittenWithGraphOfLatestRecord() {
+    final Graph closedGraph = mock(Graph.class);
+    final Pixela pixela = graph.pixela();
+    when(closedGraph.pixela()).thenReturn(pixela);
+    when(closedGraph.subPath()).thenReturn("/graphs/test");
+    coalescer.record(closedGraph, 1L);
+    coalescer.record(graph, 1L);
+
+    StepVerifier.create(coalescer.flush()).verifyComplete();
+
+    verify(closedGraph, never()).getPixel(any());
+    verify(pixelQuantity).quantity(Quantity.integer(2));
+    assertThat(coalescer.pendingSteps()).isEqualTo(0L);
+  }
+
+  @Test
+  void pixelIsWrittenWhenStepsReachMax() {
+    final CoalescedPixels small = new CoalescedPixels(Duration.ofSeconds(10L), 3, clock, scheduler);
+
+    small.record(graph, 1L);
+    small.record(graph, 1L);
+    verify(postPixel, never()).call();
+
+    small.record(graph, 1L);
+    verify(pixelQuantity).quantity(Quantity.integer(3));
+  }
+
+  @Test
+  void pixelIsWrittenPeriodically() {
+    coalescer.record(graph, 1L);
+
+    scheduler.advanceTimeBy(Duration.ofSeconds(9L));
+    verify(postPixel, never()).call();
+
+    scheduler.advanceTimeBy(Duration.ofSeconds(1L));
+    verify(pixelQuantity).quantity(Quantity.integer(1));
+  }
+
+  @Test
+  void closeWritesStepsAndRejectsMore() {
+    coalescer.record(graph, 1L);
+
+    coalescer.close();
+
+    verify(pixelQuantity).quantity(Quantity.integer(1));
+    assertThatThrownBy(() -> coalescer.record(graph, 1L)).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void invalidArguments() {
+    assertThatThrownBy(() -> PixelCoalescer.of(Duration.ZERO, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> PixelCoalescer.of(Duration.ofSeconds(1L), 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
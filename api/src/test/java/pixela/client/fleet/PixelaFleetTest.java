@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.fleet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import pixela.client.UserToken;
+import pixela.client.Username;
+import pixela.client.http.HttpClient;
+import pixela.client.journal.PixelJournal;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class PixelaFleetTest {
+
+  private static final UserToken TOKEN = UserToken.of("test-token");
+
+  private static final Username ALICE = Username.of("alice");
+  private static final Username BOB = Username.of("bob");
+
+  private final PixelaFleet fleet;
+
+  PixelaFleetTest() {
+    final HttpClient httpClient = mock(HttpClient.class);
+    when(httpClient.pixelJournal()).thenReturn(PixelJournal.disabled());
+    fleet = PixelaFleet.of(httpClient);
+  }
+
+  private final List<String> started = new CopyOnWriteArrayList<>();
+
+  @NotNull
+  private Mono<String> operation(@NotNull final String name) {
+    return Mono.fromSupplier(
+        () -> {
+          started.add(name);
+          return name;
+        });
+  }
+
+  @Test
+  void usersTakeTurns() {
+    final PixelaFleet.Batch<String> batch =
+        fleet
+            .concurrency(1)
+            .<String>batch()
+            .add(ALICE, TOKEN, pixela -> operation("a1"))
+            .add(ALICE, TOKEN, pixela -> operation("a2"))
+            .add(ALICE, TOKEN, pixela -> operation("a3"))
+            .add(BOB, TOKEN, pixela -> operation("b1"));
+
+    StepVerifier.create(batch.outcomes()).expectNextCount(4L).verifyComplete();
+
+    assertThat(started).containsExactly("a1", "b1", "a2", "a3");
+  }
+
+  @Test
+  void operationsOfUserRunInOrder() {
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    final PixelaFleet.Batch<String> batch = fleet.concurrency(2).batch();
+    for (int i = 0; i < 5; i++) {
+      final String name = "a" + i;
+      batch.add(ALICE, TOKEN, pixela -> delayed(name, running, maxRunning));
+      batch.add(BOB, TOKEN, pixela -> delayed("b" + name, running, maxRunning));
+    }
+
+    StepVerifier.create(batch.call())
+        .assertNext(
+            report -> {
+              assertThat(report.succeeded()).isEqualTo(10L);
+              assertThat(report.outcomes(ALICE).stream().map(Outcome::index))
+                  .containsExactly(0, 1, 2, 3, 4);
+            })
+        .verifyComplete();
+
+    assertThat(started.stream().filter(name -> name.startsWith("a")).collect(Collectors.toList()))
+        .containsExactly("a0", "a1", "a2", "a3", "a4");
+    assertThat(maxRunning).hasValue(2);
+  }
+
+  @NotNull
+  private Mono<String> delayed(
+      @NotNull final String name,
+      @NotNull final AtomicInteger running,
+      @NotNull final AtomicInteger maxRunning) {
+    return Mono.defer(
+        () -> {
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          return operation(name)
+              .delayElement(Duration.ofMillis(5L))
+              .doOnNext(value -> running.decrementAndGet());
+        });
+  }
+
+  @Test
+  void failureOfUserDoesNotFailBatch() {
+    final PixelaFleet.Batch<String> batch =
+        fleet
+            .<String>batch()
+            .add(ALICE, TOKEN, pixela -> Mono.error(new IllegalStateException("alice")))
+            .add(ALICE, TOKEN, pixela -> operation("a2"))
+            .add(BOB, TOKEN, pixela -> operation("b1"));
+
+    StepVerifier.create(batch.call())
+        .assertNext(
+            report -> {
+              assertThat(report.total()).isEqualTo(3L);
+              assertThat(report.failed()).isEqualTo(1L);
+              assertThat(report.failedUsers()).extracting(Username::value).containsExactly("alice");
+              assertThat(report.outcomes(ALICE).get(0).error())
+                  .hasValueSatisfying(
+                      error -> assertThat(error).isInstanceOf(IllegalStateException.class));
+              assertThat(report.outcomes(ALICE).get(1).value()).hasValue("a2");
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void emptyResultIsSuccess() {
+    final PixelaFleet.Batch<Void> batch =
+        fleet.<Void>batch().add(ALICE, TOKEN, pixela -> Mono.empty());
+
+    StepVerifier.create(batch.outcomes())
+        .assertNext(outcome -> assertThat(outcome.isSuccess()).isTrue())
+        .verifyComplete();
+  }
+
+  @Test
+  void concurrencyShouldBePositive() {
+    assertThatThrownBy(() -> fleet.concurrency(0)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void sameUserWithAnotherTokenIsRejected() {
+    final PixelaFleet.Batch<String> batch =
+        fleet.<String>batch().add(ALICE, TOKEN, pixela -> operation("a1"));
+
+    assertThatThrownBy(
+            () -> batch.add(ALICE, UserToken.of("other-token"), pixela -> operation("a2")))
+        .isInstanceOf(IllegalArgumentException.class);
+    StepVerifier.create(batch.outcomes()).expectNextCount(1L).verifyComplete();
+  }
+}
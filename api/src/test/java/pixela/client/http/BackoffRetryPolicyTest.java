@@ -0,0 +1,186 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import pixela.client.ApiException;
+import pixela.client.ErrorType;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class BackoffRetryPolicyTest {
+
+  private VirtualTimeScheduler scheduler;
+
+  private BackoffRetryPolicy retryPolicy;
+
+  private final AtomicInteger attempts = new AtomicInteger();
+
+  @BeforeEach
+  void setup() {
+    scheduler = VirtualTimeScheduler.create();
+    retryPolicy =
+        new BackoffRetryPolicy(3, Duration.ofMillis(100), Duration.ofSeconds(1), 0.1, scheduler);
+  }
+
+  @AfterEach
+  void tearDown() {
+    scheduler.dispose();
+  }
+
+  @NotNull
+  private static Request<?> request(final boolean idempotent) {
+    final Request<?> request = mock(Request.class);
+    when(request.idempotent()).thenReturn(idempotent);
+    return request;
+  }
+
+  // fails with the given error [failures] times, then succeeds.
+  @NotNull
+  private Mono<String> call(
+      @NotNull final Request<?> request, final int failures, @NotNull final Throwable error) {
+    return Mono.defer(
+            () ->
+                attempts.incrementAndGet() <= failures
+                    ? Mono.<String>error(error)
+                    : Mono.just("success"))
+        .retryWhen(retryPolicy.retryFor(request));
+  }
+
+  @Nested
+  class NonIdempotentRequest {
+
+    private final Request<?> request = request(false);
+
+    @Test
+    void rejectedIsRetried() {
+      StepVerifier.withVirtualTime(
+              () -> call(request, 2, ApiException.of("rejected", ErrorType.REJECTED)),
+              () -> scheduler,
+              Long.MAX_VALUE)
+          .thenAwait(Duration.ofSeconds(2))
+          .expectNext("success")
+          .verifyComplete();
+      assertThat(attempts).hasValue(3);
+      assertThat(retryPolicy.metrics().retries()).isEqualTo(2L);
+    }
+
+    @Test
+    void serverErrorIsNotRetried() {
+      StepVerifier.create(call(request, 1, ApiException.of("error", ErrorType.SERVER_ERROR)))
+          .expectError(ApiException.class)
+          .verify();
+      assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void transportFailureIsNotRetried() {
+      StepVerifier.create(call(request, 1, new TransportFailure(new IOException("test"))))
+          .expectError(TransportFailure.class)
+          .verify();
+      assertThat(attempts).hasValue(1);
+    }
+  }
+
+  @Nested
+  class IdempotentRequest {
+
+    private final Request<?> request = request(true);
+
+    @Test
+    void transportFailureIsRetried() {
+      StepVerifier.withVirtualTime(
+              () -> call(request, 1, new TransportFailure(new IOException("test"))),
+              () -> scheduler,
+              Long.MAX_VALUE)
+          .thenAwait(Duration.ofSeconds(1))
+          .expectNext("success")
+          .verifyComplete();
+      assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    void notFoundIsNotRetried() {
+      StepVerifier.create(call(request, 1, ApiException.of("not found", ErrorType.NOT_FOUND)))
+          .expectError(ApiException.class)
+          .verify();
+      assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void giveUpAfterMaxRetries() {
+      StepVerifier.withVirtualTime(
+              () -> call(request, 10, ApiException.of("error", ErrorType.SERVER_ERROR)),
+              () -> scheduler,
+              Long.MAX_VALUE)
+          .thenAwait(Duration.ofSeconds(5))
+          .expectError(ApiException.class)
+          .verify();
+      assertThat(attempts).hasValue(4);
+      assertThat(retryPolicy.metrics().retriesExhausted()).isEqualTo(1L);
+    }
+  }
+
+  @Test
+  void retriesAreLimitedByBudget() {
+    final BackoffRetryPolicy noBudget =
+        new BackoffRetryPolicy(100, Duration.ZERO, Duration.ZERO, 0.0, scheduler);
+    final Mono<String> mono =
+        Mono.<String>error(ApiException.of("rejected", ErrorType.REJECTED))
+            .doOnSubscribe(s -> attempts.incrementAndGet())
+            .retryWhen(noBudget.retryFor(request(true)));
+
+    StepVerifier.withVirtualTime(() -> mono, () -> scheduler, Long.MAX_VALUE)
+        .thenAwait(Duration.ofSeconds(1))
+        .expectError(ApiException.class)
+        .verify();
+
+    // initial budget allows 10 retries.
+    assertThat(attempts).hasValue(11);
+    assertThat(noBudget.metrics().budgetExhausted()).isEqualTo(1L);
+  }
+
+  @Test
+  void backoffIsBoundedByMax() {
+    for (int attempt = 1; attempt < 100; attempt++) {
+      assertThat(retryPolicy.backoffNanos(attempt)).isBetween(0L, Duration.ofSeconds(1).toNanos());
+    }
+    assertThat(retryPolicy.backoffNanos(1)).isBetween(0L, Duration.ofMillis(100).toNanos());
+  }
+
+  @Test
+  void noRetry() {
+    final Mono<String> mono =
+        Mono.<String>error(ApiException.of("rejected", ErrorType.REJECTED))
+            .doOnSubscribe(s -> attempts.incrementAndGet())
+            .retryWhen(RetryPolicy.none().retryFor(request(true)));
+
+    StepVerifier.create(mono).expectError(ApiException.class).verify();
+    assertThat(attempts).hasValue(1);
+  }
+}
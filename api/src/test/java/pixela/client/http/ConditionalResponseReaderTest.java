@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static pixela.client.http.Req.newReq;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ConditionalResponseReaderTest {
+
+  @NotNull
+  private static Request<ConditionalResponse> conditionalRequest() {
+    @SuppressWarnings("unchecked")
+    final Request<ConditionalResponse> request = mock(Request.class);
+    when(request.responseType()).thenReturn(ConditionalResponse.class);
+    return request;
+  }
+
+  @NotNull
+  private static HttpResponse response(final int statusCode) {
+    final HttpResponse response = mock(HttpResponse.class);
+    when(response.statusCode()).thenReturn(statusCode);
+    when(response.isErrorResponse()).thenReturn(statusCode / 100 != 2);
+    when(response.header(ConditionalResponse.ETAG)).thenReturn(Optional.of("\"v1\""));
+    when(response.header(ConditionalResponse.LAST_MODIFIED)).thenReturn(Optional.empty());
+    when(response.bodyBytes()).thenReturn("<svg/>".getBytes(StandardCharsets.UTF_8));
+    return response;
+  }
+
+  @Test
+  void otherTypeResponse() {
+    final ConditionalResponseReader<Obj> reader = new ConditionalResponseReader<>(newReq());
+
+    assertThat(reader.readResponse(response(200))).isEmpty();
+  }
+
+  @Test
+  void okResponse() {
+    final ConditionalResponseReader<ConditionalResponse> reader =
+        new ConditionalResponseReader<>(conditionalRequest());
+
+    final Optional<Mono<ConditionalResponse>> mono = reader.readResponse(response(200));
+
+    assertThat(mono)
+        .hasValueSatisfying(
+            m ->
+                StepVerifier.create(m)
+                    .assertNext(
+                        res -> {
+                          assertThat(res.isNotModified()).isFalse();
+                          assertThat(res.bodyAsString()).isEqualTo("<svg/>");
+                          assertThat(res.conditionalHeaders())
+                              .containsEntry(ConditionalResponse.IF_NONE_MATCH, "\"v1\"")
+                              .hasSize(1);
+                        })
+                    .verifyComplete());
+  }
+
+  @Test
+  void notModifiedResponse() {
+    final ConditionalResponseReader<ConditionalResponse> reader =
+        new ConditionalResponseReader<>(conditionalRequest());
+
+    final Optional<Mono<ConditionalResponse>> mono = reader.readResponse(response(304));
+
+    assertThat(mono)
+        .hasValueSatisfying(
+            m ->
+                StepVerifier.create(m)
+                    .assertNext(res -> assertThat(res.isNotModified()).isTrue())
+                    .verifyComplete());
+  }
+
+  @Test
+  void errorResponseIsLeftToErrorReader() {
+    final ConditionalResponseReader<ConditionalResponse> reader =
+        new ConditionalResponseReader<>(conditionalRequest());
+
+    assertThat(reader.readResponse(response(404))).isEmpty();
+  }
+}
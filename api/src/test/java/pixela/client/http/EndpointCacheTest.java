@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class EndpointCacheTest {
+
+  private final AtomicInteger builds = new AtomicInteger();
+
+  private final EndpointCache cache =
+      EndpointCache.of(
+          baseUri -> {
+            builds.incrementAndGet();
+            return baseUri.toASCIIString() + "/v1/users/test";
+          });
+
+  @Test
+  void endpointIsBuiltOncePerBaseUri() {
+    final URI baseUri = URI.create("https://pixe.la");
+
+    final URI first = cache.resolve(baseUri);
+    final URI second = cache.resolve(URI.create("https://pixe.la"));
+
+    assertThat(first).isSameAs(second).hasHost("pixe.la").hasPath("/v1/users/test");
+    assertThat(cache.asString(baseUri)).isEqualTo("https://pixe.la/v1/users/test");
+    assertThat(builds).hasValue(1);
+  }
+
+  @Test
+  void otherBaseUriIsBuiltAgain() {
+    cache.resolve(URI.create("https://pixe.la"));
+
+    final URI uri = cache.resolve(URI.create("http://localhost:8000"));
+
+    assertThat(uri).hasHost("localhost").hasPort(8000).hasPath("/v1/users/test");
+    assertThat(builds).hasValue(2);
+  }
+}
@@ -1,6 +1,7 @@
 package pixela.client.http;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static pixela.client.http.JsonDec.decoder;
@@ -10,6 +11,7 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import pixela.client.ApiException;
+import pixela.client.ErrorType;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -30,7 +32,7 @@ class ErrorResponseReaderTest {
 
   @Test
   void normalResponse() {
-    final HttpResponse httpResponse = mock(HttpResponse.class);
+    final HttpResponse httpResponse = mock(HttpResponse.class, CALLS_REAL_METHODS);
     when(httpResponse.isErrorResponse()).thenReturn(false);
 
     final Optional<Mono<Obj>> mono = responseReader.readResponse(httpResponse);
@@ -40,7 +42,7 @@ class ErrorResponseReaderTest {
 
   @Test
   void errorResponse() {
-    final HttpResponse httpResponse = mock(HttpResponse.class);
+    final HttpResponse httpResponse = mock(HttpResponse.class, CALLS_REAL_METHODS);
     when(httpResponse.isErrorResponse()).thenReturn(true);
     when(httpResponse.body()).thenReturn("{\"message\":\"test\", \"isSuccess\":false}");
 
@@ -57,4 +59,51 @@ class ErrorResponseReaderTest {
                                 .isInstanceOf(ApiException.class)
                                 .hasMessageContaining("test")));
   }
+
+  @Test
+  void rejectedResponse() {
+    final HttpResponse httpResponse = mock(HttpResponse.class, CALLS_REAL_METHODS);
+    when(httpResponse.isErrorResponse()).thenReturn(true);
+    when(httpResponse.statusCode()).thenReturn(503);
+    when(httpResponse.body())
+        .thenReturn("{\"message\":\"retry\", \"isSuccess\":false, \"isRejected\":true}");
+
+    final Optional<Mono<Obj>> mono = responseReader.readResponse(httpResponse);
+
+    assertThat(mono)
+        .isPresent()
+        .hasValueSatisfying(
+            m ->
+                StepVerifier.create(m)
+                    .expectErrorSatisfies(
+                        throwable ->
+                            assertThat(throwable)
+                                .isInstanceOfSatisfying(
+                                    ApiException.class,
+                                    e -> assertThat(e.errorType()).isEqualTo(ErrorType.REJECTED)))
+                    .verify());
+  }
+
+  @Test
+  void notFoundResponse() {
+    final HttpResponse httpResponse = mock(HttpResponse.class, CALLS_REAL_METHODS);
+    when(httpResponse.isErrorResponse()).thenReturn(true);
+    when(httpResponse.statusCode()).thenReturn(404);
+    when(httpResponse.body()).thenReturn("{\"message\":\"not found\", \"isSuccess\":false}");
+
+    final Optional<Mono<Obj>> mono = responseReader.readResponse(httpResponse);
+
+    assertThat(mono)
+        .isPresent()
+        .hasValueSatisfying(
+            m ->
+                StepVerifier.create(m)
+                    .expectErrorSatisfies(
+                        throwable ->
+                            assertThat(throwable)
+                                .isInstanceOfSatisfying(
+                                    ApiException.class,
+                                    e -> assertThat(e.errorType()).isEqualTo(ErrorType.NOT_FOUND)))
+                    .verify());
+  }
 }
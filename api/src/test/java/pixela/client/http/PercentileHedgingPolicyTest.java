@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class PercentileHedgingPolicyTest {
+
+  private static final Duration FAST = Duration.ofMillis(10L);
+  private static final Duration SLOW = Duration.ofSeconds(1L);
+
+  private VirtualTimeScheduler scheduler;
+
+  private PercentileHedgingPolicy hedgingPolicy;
+
+  private final Get<?> request = mock(Get.class);
+
+  private final AtomicInteger sent = new AtomicInteger();
+
+  @BeforeEach
+  void setup() {
+    scheduler = VirtualTimeScheduler.create();
+    hedgingPolicy =
+        new PercentileHedgingPolicy(
+            0.9, Duration.ofMillis(5L), 0.0, () -> scheduler.now(TimeUnit.NANOSECONDS), scheduler);
+  }
+
+  @AfterEach
+  void tearDown() {
+    scheduler.dispose();
+  }
+
+  // each subscription sends a request, which takes the time given for its turn.
+  @NotNull
+  private Mono<HttpResponse> response(
+      @NotNull final List<HttpResponse> responses, @NotNull final Duration... times) {
+    return Mono.defer(
+        () -> {
+          final int turn = sent.getAndIncrement();
+          final HttpResponse response = mock(HttpResponse.class);
+          responses.add(response);
+          return Mono.delay(times[Math.min(turn, times.length - 1)], scheduler)
+              .map(tick -> response);
+        });
+  }
+
+  private void warmUp() {
+    for (int i = 0; i < PercentileHedgingPolicy.MIN_SAMPLES; i++) {
+      final List<HttpResponse> responses = new ArrayList<>();
+      final Mono<HttpResponse> mono = hedgingPolicy.hedge(request, response(responses, FAST));
+      StepVerifier.create(mono)
+          .then(() -> scheduler.advanceTimeBy(FAST))
+          .expectNextCount(1L)
+          .verifyComplete();
+    }
+    sent.set(0);
+  }
+
+  @Test
+  void requestIsNotHedgedBeforeResponseTimesAreKnown() {
+    final List<HttpResponse> responses = new ArrayList<>();
+    final Mono<HttpResponse> mono = hedgingPolicy.hedge(request, response(responses, SLOW));
+
+    StepVerifier.create(mono)
+        .then(() -> scheduler.advanceTimeBy(SLOW))
+        .expectNextCount(1L)
+        .verifyComplete();
+
+    assertThat(sent).hasValue(1);
+    assertThat(hedgingPolicy.metrics().hedges()).isEqualTo(0L);
+  }
+
+  @Test
+  void fastResponseIsNotHedged() {
+    warmUp();
+    final List<HttpResponse> responses = new ArrayList<>();
+    final Mono<HttpResponse> mono =
+        hedgingPolicy.hedge(request, response(responses, FAST.dividedBy(2L)));
+
+    StepVerifier.create(mono)
+        .then(() -> scheduler.advanceTimeBy(SLOW))
+        .expectNextCount(1L)
+        .verifyComplete();
+
+    assertThat(sent).hasValue(1);
+    assertThat(hedgingPolicy.metrics().hedges()).isEqualTo(0L);
+  }
+
+  @Test
+  void slowResponseIsHedgedAndSecondResponseIsTaken() {
+    warmUp();
+    final List<HttpResponse> responses = new ArrayList<>();
+    final Mono<HttpResponse> mono = hedgingPolicy.hedge(request, response(responses, SLOW, FAST));
+
+    StepVerifier.create(mono)
+        .then(() -> scheduler.advanceTimeBy(FAST.multipliedBy(2L)))
+        .assertNext(response -> assertThat(response).isSameAs(responses.get(1)))
+        .verifyComplete();
+
+    assertThat(sent).hasValue(2);
+    assertThat(hedgingPolicy.metrics().hedges()).isEqualTo(1L);
+    assertThat(hedgingPolicy.metrics().hedgeWins()).isEqualTo(1L);
+  }
+
+  @Test
+  void firstFailureWaitsForHedgedResponse() {
+    warmUp();
+    final List<HttpResponse> responses = new ArrayList<>();
+    final Mono<HttpResponse> mono =
+        hedgingPolicy.hedge(
+            request,
+            Mono.defer(
+                () ->
+                    sent.getAndIncrement() == 0
+                        ? Mono.delay(FAST.multipliedBy(2L), scheduler)
+                            .then(Mono.error(new IOException("reset")))
+                        : response(responses, SLOW)));
+
+    StepVerifier.create(mono)
+        .then(() -> scheduler.advanceTimeBy(FAST.multipliedBy(2L)))
+        .then(() -> scheduler.advanceTimeBy(SLOW))
+        .expectNextCount(1L)
+        .verifyComplete();
+
+    assertThat(sent).hasValue(3);
+  }
+
+  @Test
+  void bothFailuresAreError() {
+    warmUp();
+    final Mono<HttpResponse> mono =
+        hedgingPolicy.hedge(
+            request,
+            Mono.delay(FAST.multipliedBy(2L), scheduler)
+                .then(Mono.error(new IOException("reset"))));
+
+    StepVerifier.create(mono)
+        .then(() -> scheduler.advanceTimeBy(SLOW))
+        .verifyError(IOException.class);
+
+    assertThat(hedgingPolicy.metrics().hedges()).isEqualTo(1L);
+  }
+
+  @Test
+  void hedgesAreLimitedByBudget() {
+    warmUp();
+    for (int i = 0; i < 11; i++) {
+      sent.set(0);
+      final List<HttpResponse> responses = new ArrayList<>();
+      final Mono<HttpResponse> mono =
+          hedgingPolicy.hedge(request, response(responses, FAST.multipliedBy(3L)));
+      StepVerifier.create(mono)
+          .then(() -> scheduler.advanceTimeBy(SLOW))
+          .expectNextCount(1L)
+          .verifyComplete();
+    }
+
+    assertThat(hedgingPolicy.metrics().hedges()).isEqualTo(10L);
+    assertThat(hedgingPolicy.metrics().budgetExhausted()).isEqualTo(1L);
+  }
+}
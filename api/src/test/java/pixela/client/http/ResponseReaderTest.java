@@ -1,5 +1,6 @@
 package pixela.client.http;
 
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static pixela.client.http.JsonDec.decoder;
@@ -22,7 +23,7 @@ class ResponseReaderTest {
   @BeforeEach
   void setup() {
     this.request = newReq();
-    this.response = mock(HttpResponse.class);
+    this.response = mock(HttpResponse.class, CALLS_REAL_METHODS);
   }
 
   @Test
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import pixela.client.UserToken;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+class SharedFlightsTest {
+
+  private static final URI BASE_URI = URI.create("https://pixe.la");
+
+  private final SharedFlights singleFlight = new SharedFlights();
+
+  private final AtomicInteger sent = new AtomicInteger();
+
+  @SuppressWarnings("unchecked")
+  @NotNull
+  private static Get<String> request(@NotNull final String path, @Nullable final String token) {
+    final Get<String> request = mock(Get.class);
+    when(request.apiEndpoint(BASE_URI)).thenReturn(BASE_URI.resolve(path));
+    when(request.userToken()).thenReturn(Optional.ofNullable(token).map(UserToken::of));
+    when(request.headers()).thenReturn(Collections.emptyMap());
+    when(request.responseType()).thenReturn(String.class);
+    return request;
+  }
+
+  @NotNull
+  private Mono<String> share(@NotNull final Get<String> request, @NotNull final Mono<String> call) {
+    return singleFlight.share(
+        BASE_URI,
+        request,
+        () -> {
+          sent.incrementAndGet();
+          return call;
+        });
+  }
+
+  @Test
+  void identicalRequestsInFlightShareCall() {
+    final MonoProcessor<String> response = MonoProcessor.create();
+    final Mono<String> first = share(request("/v1/users/a/graphs", "token"), response);
+    final Mono<String> second = share(request("/v1/users/a/graphs", "token"), response);
+
+    StepVerifier.create(first)
+        .then(
+            () ->
+                StepVerifier.create(second)
+                    .then(() -> response.onNext("graphs"))
+                    .expectNext("graphs")
+                    .verifyComplete())
+        .expectNext("graphs")
+        .verifyComplete();
+
+    assertThat(sent).hasValue(1);
+    assertThat(singleFlight.metrics().flights()).isEqualTo(1L);
+    assertThat(singleFlight.metrics().joinedRequests()).isEqualTo(1L);
+    assertThat(singleFlight.metrics().inFlight()).isEqualTo(0);
+  }
+
+  @Test
+  void requestsOfDifferentTokenDoNotShareCall() {
+    final MonoProcessor<String> response = MonoProcessor.create();
+
+    StepVerifier.create(share(request("/v1/users/a/graphs", "token"), response))
+        .then(
+            () ->
+                StepVerifier.create(share(request("/v1/users/a/graphs", "other"), Mono.just("b")))
+                    .expectNext("b")
+                    .verifyComplete())
+        .then(() -> response.onNext("a"))
+        .expectNext("a")
+        .verifyComplete();
+
+    assertThat(sent).hasValue(2);
+    assertThat(singleFlight.metrics().joinedRequests()).isEqualTo(0L);
+  }
+
+  @Test
+  void requestAfterCompletionSendsNewCall() {
+    StepVerifier.create(share(request("/v1/users/a/graphs", "token"), Mono.just("first")))
+        .expectNext("first")
+        .verifyComplete();
+    StepVerifier.create(share(request("/v1/users/a/graphs", "token"), Mono.just("second")))
+        .expectNext("second")
+        .verifyComplete();
+
+    assertThat(sent).hasValue(2);
+    assertThat(singleFlight.metrics().inFlight()).isEqualTo(0);
+  }
+
+  @Test
+  void errorIsGivenToAllJoinedRequests() {
+    final MonoProcessor<String> response = MonoProcessor.create();
+    final Mono<String> first = share(request("/v1/users/a/graphs", null), response);
+    final Mono<String> second = share(request("/v1/users/a/graphs", null), response);
+
+    StepVerifier.create(first)
+        .then(
+            () ->
+                StepVerifier.create(second)
+                    .then(() -> response.onError(new IOException("timeout")))
+                    .verifyError(IOException.class))
+        .verifyError(IOException.class);
+
+    assertThat(sent).hasValue(1);
+    assertThat(singleFlight.metrics().inFlight()).isEqualTo(0);
+  }
+}
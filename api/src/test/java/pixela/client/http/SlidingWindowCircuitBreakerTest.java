@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pixela.client.CircuitOpenException;
+import pixela.client.ErrorType;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class SlidingWindowCircuitBreakerTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private final AtomicInteger sent = new AtomicInteger();
+
+  private SlidingWindowCircuitBreaker circuitBreaker;
+
+  @BeforeEach
+  void setup() {
+    circuitBreaker = new SlidingWindowCircuitBreaker(4, 0.5, Duration.ofSeconds(10L), clock::get);
+  }
+
+  @NotNull
+  private static Request<?> request(@NotNull final String endpointTemplate) {
+    final Request<?> request = mock(Request.class);
+    when(request.endpointTemplate()).thenReturn(endpointTemplate);
+    return request;
+  }
+
+  @NotNull
+  private Mono<HttpResponse> response(final int statusCode) {
+    return Mono.fromSupplier(
+        () -> {
+          sent.incrementAndGet();
+          final HttpResponse response = mock(HttpResponse.class);
+          when(response.statusCode()).thenReturn(statusCode);
+          return response;
+        });
+  }
+
+  @NotNull
+  private Mono<HttpResponse> call(@NotNull final Request<?> request, final int statusCode) {
+    return circuitBreaker.call("GET", request, response(statusCode));
+  }
+
+  private void fail(@NotNull final Request<?> request, final int times) {
+    for (int i = 0; i < times; i++) {
+      StepVerifier.create(call(request, 500)).expectNextCount(1L).verifyComplete();
+    }
+  }
+
+  @Test
+  void circuitOpensWhenFailureRateReachesThreshold() {
+    final Request<?> request = request("/v1/users/{username}/graphs");
+    StepVerifier.create(call(request, 200)).expectNextCount(1L).verifyComplete();
+    fail(request, 1);
+    sent.set(0);
+
+    StepVerifier.create(call(request, 200))
+        .expectErrorSatisfies(
+            error ->
+                assertThat(error)
+                    .isInstanceOfSatisfying(
+                        CircuitOpenException.class,
+                        e -> {
+                          assertThat(e.errorType()).isEqualTo(ErrorType.CIRCUIT_OPEN);
+                          assertThat(e.endpoint()).isEqualTo("GET /v1/users/{username}/graphs");
+                        }))
+        .verify();
+    assertThat(sent).hasValue(0);
+    assertThat(circuitBreaker.metrics().rejectedRequests()).isEqualTo(1L);
+    assertThat(circuitBreaker.metrics().states())
+        .containsEntry("GET /v1/users/{username}/graphs", CircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  void rejectionIsNotFailureButTransportErrorIs() {
+    final Request<?> request = request("/v1/users/{username}/graphs");
+    StepVerifier.create(call(request, 503)).expectNextCount(1L).verifyComplete();
+    StepVerifier.create(call(request, 503)).expectNextCount(1L).verifyComplete();
+    StepVerifier.create(call(request, 503)).expectNextCount(1L).verifyComplete();
+    assertThat(circuitBreaker.metrics().openedCircuits()).isEqualTo(0L);
+
+    StepVerifier.create(circuitBreaker.call("GET", request, Mono.error(new IOException("timeout"))))
+        .verifyError(IOException.class);
+    StepVerifier.create(circuitBreaker.call("GET", request, Mono.error(new IOException("timeout"))))
+        .verifyError(IOException.class);
+
+    assertThat(circuitBreaker.metrics().openedCircuits()).isEqualTo(1L);
+  }
+
+  @Test
+  void circuitsAreSeparatedByEndpoint() {
+    fail(request("/v1/users/{username}/graphs/{graphID}/{yyyyMMdd}"), 2);
+
+    StepVerifier.create(call(request("/v1/users/{username}/graphs"), 200))
+        .expectNextCount(1L)
+        .verifyComplete();
+    StepVerifier.create(
+            circuitBreaker.call(
+                "PUT", request("/v1/users/{username}/graphs/{graphID}/{yyyyMMdd}"), response(200)))
+        .expectNextCount(1L)
+        .verifyComplete();
+  }
+
+  @Test
+  void successfulProbeClosesCircuit() {
+    final Request<?> request = request("/v1/users/{username}/webhooks");
+    fail(request, 2);
+    clock.addAndGet(Duration.ofSeconds(10L).toNanos());
+
+    StepVerifier.create(call(request, 200)).expectNextCount(1L).verifyComplete();
+
+    assertThat(circuitBreaker.metrics().states())
+        .containsEntry("GET /v1/users/{username}/webhooks", CircuitBreaker.State.CLOSED);
+    fail(request, 1);
+    StepVerifier.create(call(request, 200)).expectNextCount(1L).verifyComplete();
+  }
+
+  @Test
+  void failedProbeOpensCircuitAgain() {
+    final Request<?> request = request("/v1/users/{username}/webhooks");
+    fail(request, 2);
+    clock.addAndGet(Duration.ofSeconds(10L).toNanos());
+
+    fail(request, 1);
+
+    StepVerifier.create(call(request, 200)).verifyError(CircuitOpenException.class);
+    assertThat(circuitBreaker.metrics().openedCircuits()).isEqualTo(2L);
+  }
+
+  @Test
+  void onlyOneProbeIsSent() {
+    final Request<?> request = request("/v1/users/{username}/webhooks");
+    fail(request, 2);
+    clock.addAndGet(Duration.ofSeconds(10L).toNanos());
+
+    StepVerifier.create(circuitBreaker.call("GET", request, Mono.never()))
+        .expectSubscription()
+        .then(() -> StepVerifier.create(call(request, 200)).verifyError(CircuitOpenException.class))
+        .thenCancel()
+        .verify();
+
+    StepVerifier.create(call(request, 200)).expectNextCount(1L).verifyComplete();
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pixela.client.UserToken;
+import reactor.core.Disposable;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class TokenBucketRateLimiterTest {
+
+  private VirtualTimeScheduler scheduler;
+
+  private TokenBucketRateLimiter rateLimiter;
+
+  private final List<String> granted = new CopyOnWriteArrayList<>();
+
+  @BeforeEach
+  void setup() {
+    scheduler = VirtualTimeScheduler.create();
+    // 10 permits per second, burst 2
+    rateLimiter =
+        new TokenBucketRateLimiter(10.0, 2, () -> scheduler.now(TimeUnit.NANOSECONDS), scheduler);
+  }
+
+  @AfterEach
+  void tearDown() {
+    scheduler.dispose();
+  }
+
+  @NotNull
+  private static Request<?> request(@NotNull final String token) {
+    final Request<?> request = mock(Request.class);
+    when(request.userToken()).thenReturn(Optional.of(UserToken.of(token)));
+    return request;
+  }
+
+  private Disposable acquire(@NotNull final String user, @NotNull final String label) {
+    return rateLimiter.acquire(request(user)).subscribe(null, null, () -> granted.add(label));
+  }
+
+  @Test
+  void burstIsGrantedImmediately() {
+    acquire("user-a", "a1");
+    acquire("user-a", "a2");
+    acquire("user-a", "a3");
+
+    assertThat(granted).containsExactly("a1", "a2");
+    assertThat(rateLimiter.metrics().queueDepth()).isEqualTo(1);
+  }
+
+  @Test
+  void waitingRequestIsGrantedAfterRefill() {
+    acquire("user-a", "a1");
+    acquire("user-a", "a2");
+    acquire("user-a", "a3");
+
+    scheduler.advanceTimeBy(Duration.ofMillis(100));
+
+    assertThat(granted).containsExactly("a1", "a2", "a3");
+    assertThat(rateLimiter.metrics().queueDepth()).isEqualTo(0);
+    assertThat(rateLimiter.metrics().waitedRequests()).isEqualTo(1L);
+    assertThat(rateLimiter.metrics().maxWaitTime()).isEqualTo(Duration.ofMillis(100));
+  }
+
+  @Test
+  void waitingUsersAreServedInRoundRobin() {
+    acquire("user-a", "a1");
+    acquire("user-a", "a2");
+    acquire("user-a", "a3");
+    acquire("user-a", "a4");
+    acquire("user-a", "a5");
+    acquire("user-b", "b1");
+    acquire("user-b", "b2");
+
+    scheduler.advanceTimeBy(Duration.ofMillis(500));
+
+    assertThat(granted).containsExactly("a1", "a2", "a3", "b1", "a4", "b2", "a5");
+  }
+
+  @Test
+  void cancelledRequestDoesNotConsumePermit() {
+    acquire("user-a", "a1");
+    acquire("user-a", "a2");
+    final Disposable cancelled = acquire("user-a", "a3");
+    acquire("user-b", "b1");
+    cancelled.dispose();
+
+    scheduler.advanceTimeBy(Duration.ofMillis(100));
+
+    assertThat(granted).containsExactly("a1", "a2", "b1");
+    assertThat(rateLimiter.metrics().queueDepth()).isEqualTo(0);
+  }
+
+  @Test
+  void unlimitedNeverWaits() {
+    final RateLimiter unlimited = RateLimiter.unlimited();
+    for (int i = 0; i < 100; i++) {
+      unlimited.acquire(request("user-a")).subscribe(null, null, () -> granted.add("granted"));
+    }
+    assertThat(granted).hasSize(100);
+    assertThat(unlimited.metrics().queueDepth()).isEqualTo(0);
+  }
+
+  @Test
+  void invalidParameters() {
+    assertThatThrownBy(() -> RateLimiter.tokenBucket(0.0, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> RateLimiter.tokenBucket(1.0, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
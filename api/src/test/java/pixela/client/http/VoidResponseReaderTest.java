@@ -1,6 +1,7 @@
 package pixela.client.http;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static pixela.client.http.JsonDec.decoder;
@@ -31,7 +32,7 @@ class VoidResponseReaderTest {
   @Test
   void readNonVoidTypeRequest() {
     final VoidResponseReader<Obj> responseReader = new VoidResponseReader<>(newReq(), decoder());
-    final HttpResponse httpResponse = mock(HttpResponse.class);
+    final HttpResponse httpResponse = mock(HttpResponse.class, CALLS_REAL_METHODS);
 
     final Optional<Mono<Obj>> mono = responseReader.readResponse(httpResponse);
 
@@ -41,7 +42,7 @@ class VoidResponseReaderTest {
   @Test
   void readVoidTypeSuccessRequest() {
     final VoidResponseReader<Void> responseReader = new VoidResponseReader<>(request, decoder());
-    final HttpResponse httpResponse = mock(HttpResponse.class);
+    final HttpResponse httpResponse = mock(HttpResponse.class, CALLS_REAL_METHODS);
     when(httpResponse.body()).thenReturn("{\"message\":\"test\", \"isSuccess\":true}");
 
     final Optional<Mono<Void>> mono = responseReader.readResponse(httpResponse);
@@ -52,7 +53,7 @@ class VoidResponseReaderTest {
   @Test
   void readVoidTypeFailureRequest() {
     final VoidResponseReader<Void> responseReader = new VoidResponseReader<>(request, decoder());
-    final HttpResponse httpResponse = mock(HttpResponse.class);
+    final HttpResponse httpResponse = mock(HttpResponse.class, CALLS_REAL_METHODS);
     when(httpResponse.body()).thenReturn("{\"message\":\"test\", \"isSuccess\":false}");
 
     final Optional<Mono<Void>> mono = responseReader.readResponse(httpResponse);
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class JsonBufferTest {
+
+  private final ObjectMapper objectMapper =
+      new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+  @NotNull
+  private static String write(@NotNull final JsonWritable writable) {
+    return new String(JsonBuffer.write(writable), StandardCharsets.UTF_8);
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "plain",
+        "",
+        "{\"key\":\"value\"}",
+        "back\\slash",
+        "new\nline\ttab\rreturn\bback\fform",
+        "control\u0001\u001f",
+        "日本語",
+        "é",
+        "emoji😀",
+      })
+  void sameAsJackson(@NotNull final String value) throws JsonProcessingException {
+    final Map<String, String> map = new LinkedHashMap<>();
+    map.put("name", value);
+    map.put("other", "x");
+
+    final String json = write(buffer -> buffer.field("name", value).field("other", "x"));
+
+    assertThat(json).isEqualTo(objectMapper.writeValueAsString(map));
+  }
+
+  @Test
+  void nullFieldIsSkipped() {
+    assertThat(write(buffer -> buffer.field("a", null).field("b", "1").field("c", null)))
+        .isEqualTo("{\"b\":\"1\"}");
+  }
+
+  @Test
+  void arrayFieldIsSameAsJackson() throws JsonProcessingException {
+    final Map<String, Object> map = new LinkedHashMap<>();
+    map.put("first", "x");
+    map.put("values", Arrays.asList("a", "日本\"語\"", ""));
+    map.put("empty", Collections.emptyList());
+
+    final String json =
+        write(
+            buffer ->
+                buffer
+                    .field("first", "x")
+                    .arrayField("values", Arrays.asList("a", "日本\"語\"", ""))
+                    .arrayField("empty", Collections.emptyList())
+                    .arrayField("none", null));
+
+    assertThat(json).isEqualTo(objectMapper.writeValueAsString(map));
+  }
+
+  @Test
+  void bufferGrowsForLargeValue() {
+    final StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 100_000; i++) {
+      value.append((char) ('a' + i % 26));
+    }
+
+    assertThat(write(buffer -> buffer.field("large", value.toString())))
+        .isEqualTo("{\"large\":\"" + value + "\"}");
+    assertThat(write(buffer -> buffer.field("small", "s"))).isEqualTo("{\"small\":\"s\"}");
+  }
+}
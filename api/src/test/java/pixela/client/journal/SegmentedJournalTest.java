@@ -0,0 +1,348 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import pixela.client.ApiException;
+import pixela.client.ErrorType;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixel;
+import pixela.client.Pixela;
+import pixela.client.Quantity;
+import pixela.client.api.graph.GetPixel;
+import pixela.client.api.graph.PostPixel;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class SegmentedJournalTest {
+
+  private static final LocalDate DATE = LocalDate.of(2019, 9, 1);
+
+  private static final GraphId GRAPH_ID = GraphId.of("test-graph");
+
+  private final Clock clock =
+      Clock.fixed(DATE.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
+  private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+
+  private final Pixela pixela = mock(Pixela.class);
+  private final Graph graph = mock(Graph.class);
+  private final PostPixel.PixelDate pixelDate = mock(PostPixel.PixelDate.class);
+  private final PostPixel.PixelQuantity pixelQuantity = mock(PostPixel.PixelQuantity.class);
+  private final PostPixel.OptionData postPixel = mock(PostPixel.OptionData.class);
+  private final Pixel pixel = mock(Pixel.class);
+
+  // whether each request was sent in replay context.
+  private final List<Boolean> replays = new CopyOnWriteArrayList<>();
+
+  @TempDir Path directory;
+
+  private SegmentedJournal journal;
+
+  SegmentedJournalTest() {
+    when(pixela.usersUri()).thenReturn("/v1/users/test");
+    when(pixela.graph(GRAPH_ID)).thenReturn(graph);
+    when(graph.postPixel()).thenReturn(pixelDate);
+    when(pixelDate.date(DATE)).thenReturn(pixelQuantity);
+    when(pixelQuantity.quantity(any(Quantity.class))).thenReturn(postPixel);
+    when(postPixel.noOptionData()).thenReturn(postPixel);
+    when(postPixel.call()).thenReturn(sent());
+  }
+
+  @NotNull
+  private Mono<Pixel> sent() {
+    return Mono.subscriberContext()
+        .map(
+            context -> {
+              replays.add(PixelJournal.isReplay(context));
+              return pixel;
+            });
+  }
+
+  @NotNull
+  private SegmentedJournal open(final int segmentBytes) {
+    return SegmentedJournal.open(
+        directory, segmentBytes, 4, Duration.ofSeconds(1L), clock, scheduler);
+  }
+
+  @AfterEach
+  void tearDown() {
+    journal.close();
+    scheduler.dispose();
+  }
+
+  @Test
+  void recordedWriteIsSentByDrain() {
+    journal = open(SegmentedJournal.SEGMENT_BYTES);
+    journal.append(pixela, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(3), null));
+
+    StepVerifier.create(journal.drain()).verifyComplete();
+
+    verify(pixelQuantity).quantity(argThat(quantity -> quantity.asString().equals("3")));
+    assertThat(replays).containsExactly(true);
+    assertThat(journal.replayed()).isEqualTo(1L);
+  }
+
+  @Test
+  void drainIsRunPeriodically() {
+    journal = open(SegmentedJournal.SEGMENT_BYTES);
+    journal.append(pixela, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(3), null));
+
+    scheduler.advanceTimeBy(Duration.ofSeconds(1L));
+
+    assertThat(journal.replayed()).isEqualTo(1L);
+  }
+
+  @Test
+  void retryableFailureIsSentAgain() {
+    when(postPixel.call())
+        .thenReturn(Mono.error(ApiException.of("unavailable", ErrorType.SERVER_ERROR)))
+        .thenReturn(sent());
+    journal = open(SegmentedJournal.SEGMENT_BYTES);
+    journal.append(pixela, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(3), null));
+
+    StepVerifier.create(journal.drain()).verifyComplete();
+    assertThat(journal.replayed()).isEqualTo(0L);
+
+    StepVerifier.create(journal.drain()).verifyComplete();
+    assertThat(journal.replayed()).isEqualTo(1L);
+    verify(postPixel, times(2)).call();
+  }
+
+  @Test
+  void clientErrorIsDropped() {
+    when(postPixel.call())
+        .thenReturn(Mono.error(ApiException.of("bad request", ErrorType.CLIENT_ERROR)))
+        .thenReturn(sent());
+    journal = open(SegmentedJournal.SEGMENT_BYTES);
+    journal.append(pixela, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(3), null));
+    journal.append(pixela, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(4), null));
+
+    StepVerifier.create(journal.drain()).verifyComplete();
+
+    assertThat(journal.dropped()).isEqualTo(1L);
+    assertThat(journal.replayed()).isEqualTo(1L);
+  }
+
+  @Test
+  void adjacentStepsAreSentAsOneWrite() {
+    final GetPixel getPixel = mock(GetPixel.class);
+    when(graph.getPixel(DATE)).thenReturn(getPixel);
+    when(getPixel.callLatest())
+        .thenReturn(Mono.error(ApiException.of("none", ErrorType.NOT_FOUND)));
+    journal = open(SegmentedJournal.SEGMENT_BYTES);
+    journal.append(pixela, JournalEntry.step(GRAPH_ID, journal.today(), 1L));
+    journal.append(pixela, JournalEntry.step(GRAPH_ID, journal.today(), 1L));
+    journal.append(pixela, JournalEntry.step(GRAPH_ID, journal.today(), 1L));
+
+    StepVerifier.create(journal.drain()).verifyComplete();
+
+    verify(pixelQuantity).quantity(Quantity.integer(3));
+    verify(postPixel, times(1)).call();
+  }
+
+  @Test
+  void writesSurviveRestartAndAreSentAfterRegister() {
+    journal = open(SegmentedJournal.SEGMENT_BYTES);
+    journal.append(pixela, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(3), null));
+    journal.close();
+
+    journal = open(SegmentedJournal.SEGMENT_BYTES);
+    StepVerifier.create(journal.drain()).verifyComplete();
+    verify(postPixel, never()).call();
+
+    journal.register(pixela);
+    StepVerifier.create(journal.drain()).verifyComplete();
+    verify(postPixel, times(1)).call();
+    journal.close();
+
+    journal = open(SegmentedJournal.SEGMENT_BYTES);
+    journal.register(pixela);
+    StepVerifier.create(journal.drain()).verifyComplete();
+    verify(postPixel, times(1)).call();
+  }
+
+  @Test
+  void writesOfUserNotRegisteredDoNotBlockOthersAfterRestart() {
+    final Pixela other = mock(Pixela.class);
+    final Graph otherGraph = mock(Graph.class);
+    final PostPixel.PixelDate otherDate = mock(PostPixel.PixelDate.class);
+    final PostPixel.PixelQuantity otherQuantity = mock(PostPixel.PixelQuantity.class);
+    final PostPixel.OptionData otherPost = mock(PostPixel.OptionData.class);
+    when(other.usersUri()).thenReturn("/v1/users/other");
+    when(other.graph(GRAPH_ID)).thenReturn(otherGraph);
+    when(otherGraph.postPixel()).thenReturn(otherDate);
+    when(otherDate.date(DATE)).thenReturn(otherQuantity);
+    when(otherQuantity.quantity(any(Quantity.class))).thenReturn(otherPost);
+    when(otherPost.noOptionData()).thenReturn(otherPost);
+    when(otherPost.call()).thenReturn(Mono.just(pixel));
+    journal = open(SegmentedJournal.SEGMENT_BYTES);
+    journal.append(other, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(1), null));
+    journal.append(other, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(2), null));
+    journal.append(pixela, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(3), null));
+    journal.close();
+
+    journal = open(SegmentedJournal.SEGMENT_BYTES);
+    journal.register(pixela);
+    StepVerifier.create(journal.drain()).verifyComplete();
+
+    verify(pixelQuantity).quantity(quantity("3"));
+    verify(otherPost, never()).call();
+    assertThat(journal.parked()).isEqualTo(2L);
+
+    journal.append(pixela, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(4), null));
+    StepVerifier.create(journal.drain()).verifyComplete();
+
+    verify(pixelQuantity).quantity(quantity("4"));
+    assertThat(journal.replayed()).isEqualTo(2L);
+    journal.close();
+
+    journal = open(SegmentedJournal.SEGMENT_BYTES);
+    journal.register(other);
+    StepVerifier.create(journal.drain()).verifyComplete();
+
+    final InOrder inOrder = inOrder(otherQuantity);
+    inOrder.verify(otherQuantity).quantity(quantity("1"));
+    inOrder.verify(otherQuantity).quantity(quantity("2"));
+    verify(postPixel, times(2)).call();
+    assertThat(journal.replayed()).isEqualTo(2L);
+  }
+
+  @Test
+  void writesOfUserOfClosedClientDoNotBlockOthers() {
+    final PostPixel.OptionData bobPost = mock(PostPixel.OptionData.class);
+    when(bobPost.call()).thenReturn(Mono.just(pixel));
+    final Pixela bob = user("/v1/users/bob", bobPost);
+    final PostPixel.OptionData reopenedPost = mock(PostPixel.OptionData.class);
+    when(reopenedPost.call()).thenReturn(Mono.just(pixel));
+    final Pixela reopened = user("/v1/users/test", reopenedPost);
+    journal = open(SegmentedJournal.SEGMENT_BYTES);
+    journal.register(pixela);
+    journal.append(pixela, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(3), null));
+    journal.unregister(pixela);
+    journal.append(bob, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(1), null));
+
+    StepVerifier.create(journal.drain()).verifyComplete();
+
+    verify(bobPost).call();
+    verify(postPixel, never()).call();
+    assertThat(journal.parked()).isEqualTo(1L);
+
+    journal.register(reopened);
+    StepVerifier.create(journal.drain()).verifyComplete();
+
+    verify(reopenedPost).call();
+    verify(postPixel, never()).call();
+    assertThat(journal.replayed()).isEqualTo(2L);
+  }
+
+  @Test
+  void retryableFailureOfUserDoesNotBlockOthers() {
+    when(postPixel.call())
+        .thenReturn(Mono.error(new RejectedExecutionException("client is closed")))
+        .thenReturn(sent());
+    final PostPixel.OptionData bobPost = mock(PostPixel.OptionData.class);
+    when(bobPost.call()).thenReturn(Mono.just(pixel));
+    final Pixela bob = user("/v1/users/bob", bobPost);
+    journal = open(SegmentedJournal.SEGMENT_BYTES);
+    journal.append(pixela, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(3), null));
+    journal.append(bob, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(1), null));
+    journal.append(pixela, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(4), null));
+
+    StepVerifier.create(journal.drain()).verifyComplete();
+
+    verify(bobPost).call();
+    assertThat(journal.replayed()).isEqualTo(1L);
+
+    StepVerifier.create(journal.drain()).verifyComplete();
+
+    final InOrder inOrder = inOrder(pixelQuantity);
+    inOrder.verify(pixelQuantity, times(2)).quantity(quantity("3"));
+    inOrder.verify(pixelQuantity).quantity(quantity("4"));
+    assertThat(journal.replayed()).isEqualTo(3L);
+  }
+
+  @Test
+  void sentSegmentsAreDeleted() throws IOException {
+    journal = open(128);
+    for (int i = 0; i < 10; i++) {
+      journal.append(pixela, JournalEntry.post(GRAPH_ID, DATE, Quantity.integer(i), null));
+    }
+    assertThat(segments()).hasSizeGreaterThan(2);
+
+    StepVerifier.create(journal.drain()).verifyComplete();
+
+    assertThat(journal.replayed()).isEqualTo(10L);
+    assertThat(segments()).hasSize(1);
+  }
+
+  // a user whose pixels are posted by the request.
+  @NotNull
+  private static Pixela user(
+      @NotNull final String usersUri, @NotNull final PostPixel.OptionData post) {
+    final Pixela user = mock(Pixela.class);
+    final Graph graph = mock(Graph.class);
+    final PostPixel.PixelDate pixelDate = mock(PostPixel.PixelDate.class);
+    final PostPixel.PixelQuantity pixelQuantity = mock(PostPixel.PixelQuantity.class);
+    when(user.usersUri()).thenReturn(usersUri);
+    when(user.graph(GRAPH_ID)).thenReturn(graph);
+    when(graph.postPixel()).thenReturn(pixelDate);
+    when(pixelDate.date(DATE)).thenReturn(pixelQuantity);
+    when(pixelQuantity.quantity(any(Quantity.class))).thenReturn(post);
+    when(post.noOptionData()).thenReturn(post);
+    return user;
+  }
+
+  // matcher of the quantity decoded from the journal.
+  private static Quantity quantity(@NotNull final String value) {
+    return argThat(quantity -> quantity.asString().equals(value));
+  }
+
+  @NotNull
+  private List<Path> segments() throws IOException {
+    try (final Stream<Path> files = Files.list(directory)) {
+      return files.filter(Segment::isSegment).collect(Collectors.toList());
+    }
+  }
+}
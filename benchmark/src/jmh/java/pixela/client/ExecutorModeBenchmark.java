@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Flux;
+
+// a burst of concurrent PostPixel, with the http-client executor on a fixed pool or virtual
+// threads.
+// "virtual" falls back to a fixed pool of threadsNum threads on jdks without virtual threads.
+@Fork(jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExecutorModeBenchmark {
+
+  private static final byte[] SUCCESS =
+      "{\"message\":\"Success.\",\"isSuccess\":true}".getBytes(StandardCharsets.UTF_8);
+
+  @Param({"fixed-1", "fixed-8", "fixed-64", "virtual"})
+  public String executor;
+
+  @Param({"64"})
+  public int concurrency;
+
+  private ExecutorService serverExecutor;
+
+  private HttpServer server;
+
+  private ExecutorService workers;
+
+  private PixelaClient pixelaClient;
+
+  private Graph graph;
+
+  private LocalDate date;
+
+  @Setup
+  public void setup() throws IOException {
+    serverExecutor = Executors.newCachedThreadPool();
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/", ExecutorModeBenchmark::success);
+    server.setExecutor(serverExecutor);
+    server.start();
+    workers = Executors.newFixedThreadPool(concurrency);
+
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setBaseUri("http://localhost:" + server.getAddress().getPort());
+    config.setTimeout(5_000);
+    if (executor.equals("virtual")) {
+      config.setThreadsNum(1);
+      config.setUseVirtualThreads(true);
+    } else {
+      config.setThreadsNum(Integer.parseInt(executor.substring("fixed-".length())));
+    }
+    pixelaClient = Pixela.withDefaultJavaClient(config);
+    graph = pixelaClient.username("bench-user").token("bench-token").graph(GraphId.of("bench"));
+    date = LocalDate.of(2019, 9, 1);
+  }
+
+  private static void success(final HttpExchange exchange) throws IOException {
+    try (final InputStream request = exchange.getRequestBody()) {
+      request.readAllBytes();
+    }
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, SUCCESS.length);
+    try (final OutputStream response = exchange.getResponseBody()) {
+      response.write(SUCCESS);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    pixelaClient.close();
+    workers.shutdown();
+    server.stop(0);
+    serverExecutor.shutdown();
+  }
+
+  // ops/s is bursts/s, each burst being `concurrency` posts.
+  @Benchmark
+  public Pixel reactiveBurst() {
+    return Flux.range(0, concurrency)
+        .flatMap(i -> graph.postPixel().date(date).quantity(1).noOptionData().call(), concurrency)
+        .blockLast();
+  }
+
+  // job workers each blocking on their own post.
+  @Benchmark
+  public Pixel blockingBurst() throws Exception {
+    final List<Future<Pixel>> futures = new ArrayList<>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      futures.add(
+          workers.submit(
+              () -> graph.postPixel().date(date).quantity(1).noOptionData().callBlocking()));
+    }
+    Pixel last = null;
+    for (final Future<Pixel> future : futures) {
+      last = future.get();
+    }
+    return last;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+// yyyyMMdd of pixel dates, for a recent (interned) date and an old one.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PixelDateBenchmark {
+
+  private final LocalDate recent = LocalDate.now().minusDays(3L);
+
+  private final LocalDate old = LocalDate.of(2001, 9, 1);
+
+  private final String text = "20190901";
+
+  @Benchmark
+  public String formatRecent() {
+    return PixelDate.format(recent);
+  }
+
+  @Benchmark
+  public String formatOld() {
+    return PixelDate.format(old);
+  }
+
+  @Benchmark
+  public String formatter() {
+    return recent.format(Graph.PIXEL_DATE_FORMAT);
+  }
+
+  @Benchmark
+  public LocalDate parse() {
+    return PixelDate.parse(text).toLocalDate();
+  }
+
+  @Benchmark
+  public LocalDate formatterParse() {
+    return LocalDate.parse(text, Graph.PIXEL_DATE_FORMAT);
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+// end to end PostPixel against an in-process stub server, including the jdk http client.
+// without nodelay, the stub server's responses wait for delayed ack of the client.
+@Fork(jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PostPixelBenchmark {
+
+  private static final byte[] SUCCESS =
+      "{\"message\":\"Success.\",\"isSuccess\":true}".getBytes(StandardCharsets.UTF_8);
+
+  @Param({"false", "true"})
+  public boolean inlineJsonCodec;
+
+  private ExecutorService serverExecutor;
+
+  private HttpServer server;
+
+  private PixelaClient pixelaClient;
+
+  private Graph graph;
+
+  private LocalDate date;
+
+  @Setup
+  public void setup() throws IOException {
+    serverExecutor = Executors.newFixedThreadPool(4);
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/", PostPixelBenchmark::success);
+    server.setExecutor(serverExecutor);
+    server.start();
+
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setBaseUri("http://localhost:" + server.getAddress().getPort());
+    config.setTimeout(5_000);
+    config.setThreadsNum(4);
+    config.setInlineJsonCodec(inlineJsonCodec);
+    pixelaClient = Pixela.withDefaultJavaClient(config);
+    graph = pixelaClient.username("bench-user").token("bench-token").graph(GraphId.of("bench"));
+    date = LocalDate.of(2019, 9, 1);
+  }
+
+  private static void success(final HttpExchange exchange) throws IOException {
+    try (final InputStream request = exchange.getRequestBody()) {
+      request.readAllBytes();
+    }
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, SUCCESS.length);
+    try (final OutputStream response = exchange.getResponseBody()) {
+      response.write(SUCCESS);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    pixelaClient.close();
+    server.stop(0);
+    serverExecutor.shutdown();
+  }
+
+  @Benchmark
+  public Pixel postPixel() {
+    return graph.postPixel().date(date).quantity(1).noOptionData().call().block();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Pixel postPixelConcurrently() {
+    return graph.postPixel().date(date).quantity(1).noOptionData().call().block();
+  }
+}
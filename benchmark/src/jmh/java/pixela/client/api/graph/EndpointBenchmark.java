@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.api.graph;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixela;
+import pixela.client.PixelaClient;
+import pixela.client.PixelaClientConfig;
+
+// apiEndpoint is built for every request, and again for every retry.
+// the legacy* benchmarks are the string concatenation and uri parses done before endpoint caching.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EndpointBenchmark {
+
+  private PixelaClient pixelaClient;
+
+  private URI baseUri;
+
+  private Pixela pixela;
+
+  private Graph graph;
+
+  private LocalDate date;
+
+  private PostPixel postPixel;
+
+  private GetPixel getPixel;
+
+  @Setup
+  public void setup() {
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setTimeout(5_000);
+    config.setThreadsNum(1);
+    pixelaClient = Pixela.withDefaultJavaClient(config);
+    baseUri = URI.create(config.getBaseUri());
+    pixela = pixelaClient.username("bench-user").token("bench-token");
+    graph = pixela.graph(GraphId.of("bench-graph"));
+    date = LocalDate.of(2019, 9, 1);
+    postPixel = graph.postPixel().date(date).quantity(5).noOptionData();
+    getPixel = graph.getPixel(date);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    pixelaClient.close();
+  }
+
+  @Benchmark
+  public URI postPixel() {
+    return postPixel.apiEndpoint(baseUri);
+  }
+
+  @Benchmark
+  public URI getPixel() {
+    return getPixel.apiEndpoint(baseUri);
+  }
+
+  @Benchmark
+  public URI legacyPostPixel() {
+    final String users = baseUri.toASCIIString() + "/v1/users/bench-user";
+    final String uri = URI.create(users).toASCIIString() + graph.subPath();
+    return URI.create(uri);
+  }
+
+  @Benchmark
+  public URI legacyGetPixel() {
+    final String users = baseUri.toASCIIString() + "/v1/users/bench-user";
+    final String uri =
+        URI.create(users).toASCIIString()
+            + graph.subPath()
+            + '/'
+            + date.format(Graph.PIXEL_DATE_FORMAT);
+    return URI.create(uri);
+  }
+}
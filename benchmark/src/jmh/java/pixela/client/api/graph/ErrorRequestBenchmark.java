@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.api.graph;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixela;
+import pixela.client.PixelaClient;
+import pixela.client.PixelaClientConfig;
+
+// errorRequest() is built for every failed request, and with the retry policy for every retry.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ErrorRequestBenchmark {
+
+  private PixelaClient pixelaClient;
+
+  private PostPixel postPixel;
+
+  private GetPixel getPixel;
+
+  private IncrementPixel incrementPixel;
+
+  private GetGraphSvg getGraphSvg;
+
+  @Setup
+  public void setup() {
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setTimeout(5_000);
+    config.setThreadsNum(1);
+    pixelaClient = Pixela.withDefaultJavaClient(config);
+    final Pixela pixela = pixelaClient.username("bench-user").token("bench-token");
+    final Graph graph = pixela.graph(GraphId.of("bench-graph"));
+    final LocalDate date = LocalDate.of(2019, 9, 1);
+    postPixel = graph.postPixel().date(date).quantity(5).optionDataJson("{\"key\":\"value\"}");
+    getPixel = graph.getPixel(date);
+    incrementPixel = graph.incrementPixel();
+    getGraphSvg = graph.getGraphSvg().date(date).shortMode();
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    pixelaClient.close();
+  }
+
+  @Benchmark
+  public String postPixel() {
+    return postPixel.errorRequest();
+  }
+
+  @Benchmark
+  public String getPixel() {
+    return getPixel.errorRequest();
+  }
+
+  @Benchmark
+  public String incrementPixel() {
+    return incrementPixel.errorRequest();
+  }
+
+  @Benchmark
+  public String getGraphSvg() {
+    return getGraphSvg.errorRequest();
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.codec;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import pixela.client.PixelaClientConfig;
+import pixela.client.api.graph.GraphDefinitions;
+import pixela.client.api.graph.PixelRaw;
+import pixela.client.api.user.CreateUser;
+import pixela.client.http.HttpClient;
+import pixela.client.http.Instrumentation;
+import pixela.client.http.json.JsonCodec;
+import pixela.client.impl.HttpClientFactoryImpl;
+import pixela.client.impl.JsonCodecFactoryImpl;
+
+// the hand-written codec against the jackson one, both on the calling thread.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LightJsonCodecBenchmark {
+
+  private static final String PIXEL_JSON =
+      "{\"quantity\":\"5\",\"optionalData\":\"{\\\"key\\\":\\\"value\\\"}\"}";
+
+  private static final String GRAPHS_JSON =
+      "{\"graphs\":["
+          + "{\"id\":\"test-graph\",\"name\":\"graph-name\",\"unit\":\"commit\",\"type\":\"int\","
+          + "\"color\":\"shibafu\",\"timezone\":\"Asia/Tokyo\",\"purgeCacheURLs\":[]},"
+          + "{\"id\":\"run-graph\",\"name\":\"running\",\"unit\":\"km\",\"type\":\"float\","
+          + "\"color\":\"sora\",\"timezone\":\"UTC\","
+          + "\"purgeCacheURLs\":[\"https://camo.githubusercontent.com/xxx/xxxx\"]}"
+          + "]}";
+
+  @Param({"jackson", "light"})
+  public String codecType;
+
+  private ExecutorService executorService;
+
+  private JsonCodec codec;
+
+  private HttpClient httpClient;
+
+  private CreateUser createUser;
+
+  @Setup
+  public void setup() {
+    executorService = Executors.newSingleThreadExecutor();
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setTimeout(5_000);
+    config.setThreadsNum(1);
+    config.setInlineJsonCodec(true);
+    final JsonCodec jackson = new JsonCodecFactoryImpl().create(executorService, config);
+    codec =
+        "light".equals(codecType)
+            ? new LightJsonCodec(() -> jackson, Instrumentation.noop())
+            : jackson;
+    // only for building the request, no request is sent.
+    httpClient = new HttpClientFactoryImpl().newClient(config);
+    createUser =
+        CreateUser.builder(httpClient)
+            .withToken("bench-token")
+            .username("bench-user")
+            .agreeTermsOfService()
+            .notMinor();
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    httpClient.close();
+    executorService.shutdown();
+  }
+
+  @Benchmark
+  public PixelRaw decodePixel() {
+    return codec.decode(PIXEL_JSON, PixelRaw.class).block();
+  }
+
+  @Benchmark
+  public GraphDefinitions decodeGraphDefinitions() {
+    return codec.decode(GRAPHS_JSON, GraphDefinitions.class).block();
+  }
+
+  @Benchmark
+  public String encodeCreateUser() {
+    return codec.encodeObject(createUser).block();
+  }
+}
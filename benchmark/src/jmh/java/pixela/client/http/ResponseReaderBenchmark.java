@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.http;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import pixela.client.PixelaClientConfig;
+import pixela.client.UserToken;
+import pixela.client.api.graph.PixelRaw;
+import pixela.client.http.json.JsonCodecFactory;
+import pixela.client.http.json.JsonDecoder;
+import reactor.core.publisher.Signal;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResponseReaderBenchmark {
+
+  private static final String PIXEL_JSON =
+      "{\"quantity\":\"5\",\"optionalData\":\"{\\\"key\\\":\\\"value\\\"}\"}";
+
+  private static final String SUCCESS_JSON = "{\"message\":\"Success.\",\"isSuccess\":true}";
+
+  private static final String ERROR_JSON =
+      "{\"message\":\"Specified pixel not found.\",\"isSuccess\":false}";
+
+  private ExecutorService executorService;
+
+  private ResponseReader<PixelRaw> pixelReader;
+
+  private ResponseReader<Void> voidReader;
+
+  private HttpResponse pixelResponse;
+
+  private HttpResponse successResponse;
+
+  private HttpResponse errorResponse;
+
+  @Setup
+  public void setup() {
+    executorService = Executors.newSingleThreadExecutor();
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setInlineJsonCodec(true);
+    final JsonDecoder decoder = JsonCodecFactory.getInstance().create(executorService, config);
+    pixelReader = ResponseReader.create(new BenchRequest<>(PixelRaw.class), decoder);
+    voidReader = ResponseReader.create(new BenchRequest<>(Void.class), decoder);
+    pixelResponse = new BenchResponse(200, PIXEL_JSON);
+    successResponse = new BenchResponse(200, SUCCESS_JSON);
+    errorResponse = new BenchResponse(404, ERROR_JSON);
+  }
+
+  @TearDown
+  public void tearDown() {
+    executorService.shutdown();
+  }
+
+  @Benchmark
+  public PixelRaw readPixel() {
+    return pixelReader.read(pixelResponse).block();
+  }
+
+  @Benchmark
+  public Signal<Void> readSuccess() {
+    return voidReader.read(successResponse).materialize().block();
+  }
+
+  @Benchmark
+  public Signal<PixelRaw> readError() {
+    return pixelReader.read(errorResponse).materialize().block();
+  }
+
+  private static class BenchRequest<T> implements Get<T> {
+
+    @NotNull private final Class<T> responseType;
+
+    BenchRequest(@NotNull final Class<T> responseType) {
+      this.responseType = responseType;
+    }
+
+    @NotNull
+    @Override
+    public URI apiEndpoint(@NotNull final URI baseUrl) {
+      return baseUrl;
+    }
+
+    @NotNull
+    @Override
+    public Optional<UserToken> userToken() {
+      return Optional.empty();
+    }
+
+    @NotNull
+    @Override
+    public Class<T> responseType() {
+      return responseType;
+    }
+
+    @NotNull
+    @Override
+    public String errorRequest() {
+      return "GET /bench";
+    }
+  }
+
+  private static class BenchResponse implements HttpResponse {
+
+    private final int statusCode;
+    @NotNull private final String body;
+
+    BenchResponse(final int statusCode, @NotNull final String body) {
+      this.statusCode = statusCode;
+      this.body = body;
+    }
+
+    @NotNull
+    @Override
+    public String body() {
+      return body;
+    }
+
+    @Override
+    public boolean isErrorResponse() {
+      return statusCode / 100 != 2;
+    }
+
+    @Override
+    public int statusCode() {
+      return statusCode;
+    }
+  }
+}
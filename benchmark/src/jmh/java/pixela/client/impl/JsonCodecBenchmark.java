@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import pixela.client.api.graph.GraphDefinitions;
+import pixela.client.api.graph.PixelRaw;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonCodecBenchmark {
+
+  private static final String PIXEL_JSON =
+      "{\"quantity\":\"5\",\"optionalData\":\"{\\\"key\\\":\\\"value\\\"}\"}";
+
+  private static final String GRAPHS_JSON =
+      "{\"graphs\":["
+          + "{\"id\":\"test-graph\",\"name\":\"graph-name\",\"unit\":\"commit\",\"type\":\"int\","
+          + "\"color\":\"shibafu\",\"timezone\":\"Asia/Tokyo\",\"purgeCacheURLs\":[]},"
+          + "{\"id\":\"run-graph\",\"name\":\"running\",\"unit\":\"km\",\"type\":\"float\","
+          + "\"color\":\"sora\",\"timezone\":\"UTC\","
+          + "\"purgeCacheURLs\":[\"https://camo.githubusercontent.com/xxx/xxxx\"]}"
+          + "]}";
+
+  @Param({"executor", "inline"})
+  public String mode;
+
+  private ExecutorService executorService;
+
+  private JsonCodecImpl codec;
+
+  @Setup
+  public void setup() {
+    executorService = Executors.newSingleThreadExecutor();
+    codec =
+        "inline".equals(mode)
+            ? new JsonCodecImpl(
+                executorService, JsonCodecFactoryImpl.objectMapper, Integer.MAX_VALUE)
+            : new JsonCodecImpl(executorService, JsonCodecFactoryImpl.objectMapper);
+  }
+
+  @TearDown
+  public void tearDown() {
+    executorService.shutdown();
+  }
+
+  @Benchmark
+  public PixelRaw decodePixel() {
+    return codec.decode(PIXEL_JSON, PixelRaw.class).block();
+  }
+
+  @Benchmark
+  public GraphDefinitions decodeGraphDefinitions() {
+    return codec.decode(GRAPHS_JSON, GraphDefinitions.class).block();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public PixelRaw decodePixelContended() {
+    return codec.decode(PIXEL_JSON, PixelRaw.class).block();
+  }
+}
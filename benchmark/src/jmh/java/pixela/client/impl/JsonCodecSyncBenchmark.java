@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import pixela.client.api.graph.GraphDefinitions;
+import pixela.client.api.graph.PixelRaw;
+import pixela.client.api.webhook.Webhooks;
+
+// measures jackson binding only, without the codec executor hop.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonCodecSyncBenchmark {
+
+  private static final String PIXEL_JSON =
+      "{\"quantity\":\"5\",\"optionalData\":\"{\\\"key\\\":\\\"value\\\"}\"}";
+
+  private static final String GRAPHS_JSON =
+      "{\"graphs\":["
+          + "{\"id\":\"test-graph\",\"name\":\"graph-name\",\"unit\":\"commit\",\"type\":\"int\","
+          + "\"color\":\"shibafu\",\"timezone\":\"Asia/Tokyo\",\"purgeCacheURLs\":[]},"
+          + "{\"id\":\"run-graph\",\"name\":\"running\",\"unit\":\"km\",\"type\":\"float\","
+          + "\"color\":\"sora\",\"timezone\":\"UTC\","
+          + "\"purgeCacheURLs\":[\"https://camo.githubusercontent.com/xxx/xxxx\"]}"
+          + "]}";
+
+  private static final String WEBHOOKS_JSON =
+      "{\"webhooks\":["
+          + "{\"webhookHash\":\"0123456789abcdef\",\"graphID\":\"test-graph\",\"type\":\"increment\"},"
+          + "{\"webhookHash\":\"fedcba9876543210\",\"graphID\":\"run-graph\",\"type\":\"decrement\"}"
+          + "]}";
+
+  private ExecutorService executorService;
+
+  private JsonCodecImpl codec;
+
+  private PixelRaw pixel;
+
+  private GraphDefinitions graphDefinitions;
+
+  @Setup
+  public void setup() {
+    executorService = Executors.newSingleThreadExecutor();
+    codec =
+        new JsonCodecImpl(executorService, JsonCodecFactoryImpl.objectMapper)
+            .prepare(JsonCodecFactoryImpl.RESPONSE_TYPES, JsonCodecFactoryImpl.REQUEST_TYPES);
+    pixel = codec.decodeSync(PIXEL_JSON, PixelRaw.class);
+    graphDefinitions = codec.decodeSync(GRAPHS_JSON, GraphDefinitions.class);
+  }
+
+  @TearDown
+  public void tearDown() {
+    executorService.shutdown();
+  }
+
+  @Benchmark
+  public PixelRaw decodePixel() {
+    return codec.decodeSync(PIXEL_JSON, PixelRaw.class);
+  }
+
+  @Benchmark
+  public GraphDefinitions decodeGraphDefinitions() {
+    return codec.decodeSync(GRAPHS_JSON, GraphDefinitions.class);
+  }
+
+  @Benchmark
+  public Webhooks decodeWebhooks() {
+    return codec.decodeSync(WEBHOOKS_JSON, Webhooks.class);
+  }
+
+  @Benchmark
+  public String encodePixel() {
+    return codec.encodeSync(pixel);
+  }
+
+  @Benchmark
+  public String encodeGraphDefinitions() {
+    return codec.encodeSync(graphDefinitions);
+  }
+
+  // binding through the object mapper, which looks up the root (de)serializer on every call.
+  @Benchmark
+  public PixelRaw mapperDecodePixel() throws IOException {
+    return JsonCodecFactoryImpl.objectMapper.readValue(PIXEL_JSON, PixelRaw.class);
+  }
+
+  @Benchmark
+  public GraphDefinitions mapperDecodeGraphDefinitions() throws IOException {
+    return JsonCodecFactoryImpl.objectMapper.readValue(GRAPHS_JSON, GraphDefinitions.class);
+  }
+
+  @Benchmark
+  public String mapperEncodePixel() throws IOException {
+    return JsonCodecFactoryImpl.objectMapper.writeValueAsString(pixel);
+  }
+}
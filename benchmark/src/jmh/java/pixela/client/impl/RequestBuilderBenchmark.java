@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixela;
+import pixela.client.PixelaClient;
+import pixela.client.PixelaClientConfig;
+import pixela.client.api.graph.GetPixel;
+import pixela.client.api.graph.PostPixel;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RequestBuilderBenchmark {
+
+  private static final URI BASE_URI = URI.create("https://pixe.la");
+
+  private ExecutorService executorService;
+
+  private PixelaClient pixelaClient;
+
+  private JdkRequestBuilder requestBuilder;
+
+  private JdkPostRequestBuilder postRequestBuilder;
+
+  private JsonCodecImpl codec;
+
+  private RequestConfigurer postConfigurer;
+
+  private PostPixel postPixel;
+
+  private GetPixel getPixel;
+
+  @Setup
+  public void setup() {
+    executorService = Executors.newSingleThreadExecutor();
+    // encodes on the calling thread, so that only request building is measured.
+    codec =
+        new JsonCodecImpl(executorService, JsonCodecFactoryImpl.objectMapper, Integer.MAX_VALUE);
+    requestBuilder = JdkRequestBuilder.create(BASE_URI, codec);
+    postRequestBuilder = JdkPostRequestBuilder.of(BASE_URI, codec);
+    postConfigurer = new JdkPostRequestBuilder.ReqConfigurer(BASE_URI);
+
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setTimeout(5_000);
+    config.setThreadsNum(1);
+    pixelaClient = Pixela.usingHttpClient(new HttpClientImpl(config));
+    final Pixela pixela = pixelaClient.username("bench-user").token("bench-token");
+    final Graph graph = pixela.graph(GraphId.of("bench-graph"));
+    final LocalDate date = LocalDate.of(2019, 9, 1);
+    postPixel = graph.postPixel().date(date).quantity(5).optionDataJson("{\"key\":\"value\"}");
+    getPixel = graph.getPixel(date);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    pixelaClient.close();
+    executorService.shutdown();
+  }
+
+  @Benchmark
+  public HttpRequest buildPostPixel() {
+    return postRequestBuilder.apply(postPixel).block();
+  }
+
+  // the body through jackson and BodyPublishers.ofString, as PostPixel was built before it wrote
+  // its own json.
+  @Benchmark
+  public HttpRequest buildEncodedPostPixel() {
+    return codec
+        .encode(postPixel)
+        .map(payload -> HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8))
+        .map(publisher -> postConfigurer.configureRequest(postPixel, publisher))
+        .block();
+  }
+
+  @Benchmark
+  public HttpRequest buildGetPixel() {
+    return requestBuilder.get(getPixel).block();
+  }
+}
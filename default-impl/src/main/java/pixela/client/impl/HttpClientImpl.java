@@ -17,40 +17,85 @@ package pixela.client.impl;
 
 import java.net.URI;
 import java.net.http.HttpRequest;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.TestOnly;
-import pixela.client.AutoCloseables;
 import pixela.client.PixelaClientConfig;
+import pixela.client.cache.GraphDefinitionsCache;
+import pixela.client.cache.PixelCache;
+import pixela.client.cache.SvgCache;
+import pixela.client.coalesce.PixelCoalescer;
 import pixela.client.http.*;
 import pixela.client.http.json.JsonCodec;
 import pixela.client.http.json.JsonCodecFactory;
 import pixela.client.http.json.JsonDecoder;
 import pixela.client.http.json.JsonEncoder;
+import pixela.client.journal.PixelJournal;
 import reactor.core.publisher.Mono;
 
 class HttpClientImpl implements pixela.client.http.HttpClient {
 
   @NotNull private final AutoCloseable executors;
 
-  @NotNull private final JdkHttpClient httpClient;
+  @NotNull private final RequestSender httpClient;
   @NotNull private final JdkRequestBuilder jdkRequestBuilder;
 
   @NotNull private final SupplierExecutor executor;
 
+  @NotNull private final RateLimiter rateLimiter;
+
+  @NotNull private final RetryPolicy retryPolicy;
+
+  @NotNull private final HedgingPolicy hedgingPolicy;
+
+  @NotNull private final SingleFlight singleFlight;
+
+  @NotNull private final CircuitBreaker circuitBreaker;
+
+  @NotNull private final PixelCache pixelCache;
+
+  @NotNull private final GraphDefinitionsCache graphDefinitionsCache;
+
+  @NotNull private final SvgCache svgCache;
+
+  @NotNull private final PixelCoalescer pixelCoalescer;
+
+  @NotNull private final PixelJournal pixelJournal;
+
+  @NotNull private final Instrumentation instrumentation;
+
   HttpClientImpl(@NotNull final PixelaClientConfig config) {
-    final ExecutorService executorServiceForJackson = Executors.newSingleThreadExecutor();
-    final ExecutorService executorServiceForHttpClient =
-        Executors.newFixedThreadPool(config.getThreadsNum());
-    this.executors =
-        AutoCloseables.of(
-            executorServiceForHttpClient::shutdown, executorServiceForJackson::shutdown);
-    final JsonCodec codec = JsonCodecFactory.getInstance().create(executorServiceForJackson);
-    this.httpClient = JdkHttpClient.create(executorServiceForHttpClient, codec, config);
+    this(config, HttpTransport.JDK);
+  }
+
+  HttpClientImpl(
+      @NotNull final PixelaClientConfig config, @NotNull final HttpTransport httpTransport) {
+    this(
+        config,
+        config.isShareTransport()
+            ? SharedTransports.acquire(config, httpTransport)
+            : Transport.create(config, httpTransport));
+  }
+
+  private HttpClientImpl(
+      @NotNull final PixelaClientConfig config, @NotNull final Transport transport) {
+    this.executors = transport;
+    final JsonCodec codec =
+        JsonCodecFactory.getInstance(config).create(transport.codecExecutor(), config);
+    this.httpClient = transport.sender(codec);
     this.jdkRequestBuilder = JdkRequestBuilder.create(config.baseUri(), codec);
-    this.executor = SupplierExecutor.fromExecutorService(executorServiceForHttpClient);
+    this.executor = SupplierExecutor.fromExecutorService(transport.httpExecutor());
+    this.rateLimiter = config.getRateLimiter();
+    this.retryPolicy = config.getRetryPolicy();
+    this.hedgingPolicy = config.getHedgingPolicy();
+    this.singleFlight = config.getSingleFlight();
+    this.circuitBreaker = config.getCircuitBreaker();
+    this.pixelCache = config.getPixelCache();
+    this.graphDefinitionsCache = config.getGraphDefinitionsCache();
+    this.svgCache = config.getSvgCache();
+    this.pixelCoalescer = config.getPixelCoalescer();
+    this.pixelJournal = config.getPixelJournal();
+    this.instrumentation = config.getInstrumentation();
   }
 
   @TestOnly
@@ -62,6 +107,17 @@ class HttpClientImpl implements pixela.client.http.HttpClient {
     this.httpClient = httpClient;
     this.jdkRequestBuilder = jdkRequestBuilder;
     this.executor = SupplierExecutor.noExecutor();
+    this.rateLimiter = RateLimiter.unlimited();
+    this.retryPolicy = RetryPolicy.none();
+    this.hedgingPolicy = HedgingPolicy.none();
+    this.singleFlight = SingleFlight.disabled();
+    this.circuitBreaker = CircuitBreaker.disabled();
+    this.pixelCache = PixelCache.disabled();
+    this.graphDefinitionsCache = GraphDefinitionsCache.disabled();
+    this.svgCache = SvgCache.disabled();
+    this.pixelCoalescer = PixelCoalescer.disabled();
+    this.pixelJournal = PixelJournal.disabled();
+    this.instrumentation = Instrumentation.noop();
   }
 
   @Override
@@ -88,6 +144,54 @@ class HttpClientImpl implements pixela.client.http.HttpClient {
     return httpClient::decodeJson;
   }
 
+  @NotNull
+  @Override
+  public RetryPolicy retryPolicy() {
+    return retryPolicy;
+  }
+
+  @NotNull
+  @Override
+  public HedgingPolicy hedgingPolicy() {
+    return hedgingPolicy;
+  }
+
+  @NotNull
+  @Override
+  public SingleFlight singleFlight() {
+    return singleFlight;
+  }
+
+  @NotNull
+  @Override
+  public PixelCache pixelCache() {
+    return pixelCache;
+  }
+
+  @NotNull
+  @Override
+  public GraphDefinitionsCache graphDefinitionsCache() {
+    return graphDefinitionsCache;
+  }
+
+  @NotNull
+  @Override
+  public SvgCache svgCache() {
+    return svgCache;
+  }
+
+  @NotNull
+  @Override
+  public PixelCoalescer pixelCoalescer() {
+    return pixelCoalescer;
+  }
+
+  @NotNull
+  @Override
+  public PixelJournal pixelJournal() {
+    return pixelJournal;
+  }
+
   @NotNull
   @Override
   public <T> Mono<T> runAsync(@NotNull final Supplier<? extends T> supplier) {
@@ -104,28 +208,69 @@ class HttpClientImpl implements pixela.client.http.HttpClient {
   @Override
   public <T> Mono<HttpResponse> runGet(@NotNull final Get<T> getRequest) {
     final Mono<HttpRequest> httpRequest = jdkRequestBuilder.get(getRequest);
-    return httpRequest.flatMap(httpClient::sendRequest);
+    return send("GET", getRequest, rateLimiter.acquire(getRequest).then(httpRequest));
   }
 
   @NotNull
   @Override
   public <T> Mono<HttpResponse> runPost(@NotNull final Post<T> postRequest) {
     final Mono<HttpRequest> httpRequest = jdkRequestBuilder.post(postRequest);
-    return httpRequest.flatMap(httpClient::sendRequest);
+    return send("POST", postRequest, rateLimiter.acquire(postRequest).then(httpRequest));
   }
 
   @NotNull
   @Override
   public <T> Mono<HttpResponse> runPut(@NotNull final Put<T> putRequest) {
     final Mono<HttpRequest> httpRequest = jdkRequestBuilder.put(putRequest);
-    return httpRequest.flatMap(httpClient::sendRequest);
+    return send("PUT", putRequest, rateLimiter.acquire(putRequest).then(httpRequest));
   }
 
   @NotNull
   @Override
   public <T> Mono<HttpResponse> runDelete(@NotNull final Delete<T> deleteRequest) {
     final Mono<HttpRequest> delete = jdkRequestBuilder.delete(deleteRequest);
-    return delete.flatMap(httpClient::sendRequest);
+    return send("DELETE", deleteRequest, rateLimiter.acquire(deleteRequest).then(delete));
+  }
+
+  @NotNull
+  private Mono<HttpResponse> send(
+      @NotNull final String method,
+      @NotNull final Request<?> request,
+      @NotNull final Mono<HttpRequest> httpRequest) {
+    // an open circuit fails the request before waiting for rate limiter.
+    return circuitBreaker.call(method, request, exchange(method, request, httpRequest));
+  }
+
+  @NotNull
+  private Mono<HttpResponse> exchange(
+      @NotNull final String method,
+      @NotNull final Request<?> request,
+      @NotNull final Mono<HttpRequest> httpRequest) {
+    if (!instrumentation.enabled()) {
+      return httpRequest.flatMap(req -> httpClient.sendRequest(req, request.idempotent()));
+    }
+    return Mono.defer(
+        () -> {
+          final Instrumentation.Exchange exchange = instrumentation.start(method, request);
+          final long start = System.nanoTime();
+          return httpRequest.flatMap(
+              req -> {
+                final long sent = System.nanoTime();
+                exchange.queued(sent - start);
+                final long requestBytes =
+                    req.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(0L);
+                return httpClient
+                    .sendRequest(req, request.idempotent())
+                    .doOnSuccess(
+                        res ->
+                            exchange.completed(
+                                res.statusCode(),
+                                requestBytes,
+                                res.bodySize(),
+                                System.nanoTime() - sent))
+                    .doOnError(error -> exchange.failed(error, System.nanoTime() - sent));
+              });
+        });
   }
 
   @Override
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.PixelaClientConfig;
+
+final class HttpExecutors {
+
+  // Executors#newVirtualThreadPerTaskExecutor, which is absent before jdk 21.
+  @NotNull private static final Optional<MethodHandle> VIRTUAL_THREAD_PER_TASK = virtualThreads();
+
+  private HttpExecutors() {}
+
+  @NotNull
+  static ExecutorService create(@NotNull final PixelaClientConfig config) {
+    if (config.isUseVirtualThreads() && VIRTUAL_THREAD_PER_TASK.isPresent()) {
+      return newVirtualThreadPerTaskExecutor(VIRTUAL_THREAD_PER_TASK.get());
+    }
+    return Executors.newFixedThreadPool(config.getThreadsNum());
+  }
+
+  static boolean virtualThreadsAvailable() {
+    return VIRTUAL_THREAD_PER_TASK.isPresent();
+  }
+
+  @NotNull
+  private static ExecutorService newVirtualThreadPerTaskExecutor(
+      @NotNull final MethodHandle factory) {
+    try {
+      return (ExecutorService) factory.invokeExact();
+    } catch (final Throwable e) {
+      throw new IllegalStateException("failed to create virtual thread executor", e);
+    }
+  }
+
+  @NotNull
+  private static Optional<MethodHandle> virtualThreads() {
+    try {
+      return Optional.of(
+          MethodHandles.publicLookup()
+              .findStatic(
+                  Executors.class,
+                  "newVirtualThreadPerTaskExecutor",
+                  MethodType.methodType(ExecutorService.class)));
+    } catch (final NoSuchMethodException | IllegalAccessException e) {
+      return Optional.empty();
+    }
+  }
+}
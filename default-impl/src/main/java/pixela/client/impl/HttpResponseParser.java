@@ -0,0 +1,325 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/** incremental parser of HTTP/1.1 responses, fed with bytes as they are read from a connection. */
+final class HttpResponseParser {
+
+  private static final int MAX_LINE_LENGTH = 8 * 1024;
+  private static final int INITIAL_BODY_SIZE = 1024;
+
+  private enum State {
+    STATUS_LINE,
+    HEADERS,
+    BODY,
+    CHUNK_SIZE,
+    CHUNK_DATA,
+    CHUNK_END,
+    TRAILERS,
+    BODY_UNTIL_CLOSE,
+  }
+
+  @NotNull private State state = State.STATUS_LINE;
+
+  @NotNull private byte[] line = new byte[256];
+  private int lineLength;
+
+  private boolean http11;
+  private int statusCode;
+  @NotNull private Map<String, List<String>> headers = newHeaders();
+
+  @NotNull private byte[] body = new byte[0];
+  private int bodyLength;
+  // bytes left in the body or in the current chunk.
+  private long remaining;
+
+  /**
+   * parses bytes in the buffer.
+   *
+   * @param buffer - bytes read from connection. Bytes after a complete response are left in it.
+   * @return the response completed by the bytes, or null if more bytes are needed.
+   * @throws IOException - when the bytes are not a http response.
+   */
+  @Nullable
+  Response parse(@NotNull final ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      switch (state) {
+        case STATUS_LINE:
+          if (readLine(buffer) && lineLength > 0) {
+            statusLine(lineString());
+            state = State.HEADERS;
+          }
+          break;
+        case HEADERS:
+          if (readLine(buffer)) {
+            if (lineLength == 0) {
+              final Response response = startBody();
+              if (response != null) {
+                return response;
+              }
+            } else {
+              header(lineString());
+            }
+          }
+          break;
+        case BODY:
+          readBody(buffer);
+          if (remaining == 0L) {
+            return complete(true);
+          }
+          break;
+        case CHUNK_SIZE:
+          if (readLine(buffer)) {
+            remaining = chunkSize(lineString());
+            state = remaining == 0L ? State.TRAILERS : State.CHUNK_DATA;
+          }
+          break;
+        case CHUNK_DATA:
+          readBody(buffer);
+          if (remaining == 0L) {
+            state = State.CHUNK_END;
+          }
+          break;
+        case CHUNK_END:
+          if (readLine(buffer)) {
+            lineLength = 0;
+            state = State.CHUNK_SIZE;
+          }
+          break;
+        case TRAILERS:
+          if (readLine(buffer)) {
+            if (lineLength == 0) {
+              return complete(true);
+            }
+            lineLength = 0;
+          }
+          break;
+        case BODY_UNTIL_CLOSE:
+          remaining = buffer.remaining();
+          readBody(buffer);
+          break;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * tells that the server closed the connection.
+   *
+   * @return the response whose body ends with the connection, or null if no response is being read.
+   * @throws IOException - when the connection is closed in the middle of a response.
+   */
+  @Nullable
+  Response endOfStream() throws IOException {
+    if (state == State.BODY_UNTIL_CLOSE) {
+      return complete(false);
+    }
+    if (started()) {
+      throw new IOException("connection closed in the middle of response");
+    }
+    return null;
+  }
+
+  // whether any byte of the next response has been read.
+  boolean started() {
+    return state != State.STATUS_LINE || lineLength > 0;
+  }
+
+  private boolean readLine(@NotNull final ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      final byte b = buffer.get();
+      if (b == '\n') {
+        if (lineLength > 0 && line[lineLength - 1] == '\r') {
+          lineLength--;
+        }
+        return true;
+      }
+      if (lineLength == MAX_LINE_LENGTH) {
+        throw new IOException("too long line in response header");
+      }
+      if (lineLength == line.length) {
+        line = Arrays.copyOf(line, Math.min(MAX_LINE_LENGTH, line.length * 2));
+      }
+      line[lineLength++] = b;
+    }
+    return false;
+  }
+
+  @NotNull
+  private String lineString() {
+    final String string = new String(line, 0, lineLength, StandardCharsets.ISO_8859_1);
+    lineLength = 0;
+    return string;
+  }
+
+  // "HTTP/1.1 200 OK"
+  private void statusLine(@NotNull final String statusLine) throws IOException {
+    if (!statusLine.startsWith("HTTP/1.") || statusLine.length() < 12) {
+      throw new IOException("invalid status line: " + statusLine);
+    }
+    http11 = statusLine.charAt(7) == '1';
+    try {
+      statusCode = Integer.parseInt(statusLine.substring(9, 12));
+    } catch (final NumberFormatException e) {
+      throw new IOException("invalid status line: " + statusLine, e);
+    }
+  }
+
+  private void header(@NotNull final String header) throws IOException {
+    final int colon = header.indexOf(':');
+    if (colon <= 0) {
+      throw new IOException("invalid header: " + header);
+    }
+    final String name = header.substring(0, colon).trim();
+    final String value = header.substring(colon + 1).trim();
+    headers.computeIfAbsent(name, key -> new ArrayList<>(1)).add(value);
+  }
+
+  @Nullable
+  private Response startBody() throws IOException {
+    if (statusCode / 100 == 1) {
+      // interim response, the final one follows.
+      headers = newHeaders();
+      state = State.STATUS_LINE;
+      return null;
+    }
+    if (statusCode == 204 || statusCode == 304) {
+      return complete(true);
+    }
+    final String transferEncoding = firstHeader("Transfer-Encoding");
+    if (transferEncoding != null && transferEncoding.toLowerCase(Locale.ROOT).contains("chunked")) {
+      state = State.CHUNK_SIZE;
+      return null;
+    }
+    final String contentLength = firstHeader("Content-Length");
+    if (contentLength == null) {
+      state = State.BODY_UNTIL_CLOSE;
+      return null;
+    }
+    try {
+      remaining = Long.parseLong(contentLength);
+    } catch (final NumberFormatException e) {
+      throw new IOException("invalid content length: " + contentLength, e);
+    }
+    if (remaining < 0L || Integer.MAX_VALUE < remaining) {
+      throw new IOException("invalid content length: " + contentLength);
+    }
+    if (remaining == 0L) {
+      return complete(true);
+    }
+    body = new byte[(int) remaining];
+    state = State.BODY;
+    return null;
+  }
+
+  private static long chunkSize(@NotNull final String line) throws IOException {
+    final int extension = line.indexOf(';');
+    final String size = (extension < 0 ? line : line.substring(0, extension)).trim();
+    try {
+      return Long.parseLong(size, 16);
+    } catch (final NumberFormatException e) {
+      throw new IOException("invalid chunk size: " + line, e);
+    }
+  }
+
+  private void readBody(@NotNull final ByteBuffer buffer) {
+    final int length = (int) Math.min(remaining, buffer.remaining());
+    if (body.length < bodyLength + length) {
+      body =
+          Arrays.copyOf(
+              body, Math.max(INITIAL_BODY_SIZE, Math.max(bodyLength + length, body.length * 2)));
+    }
+    buffer.get(body, bodyLength, length);
+    bodyLength += length;
+    remaining -= length;
+  }
+
+  @NotNull
+  private Response complete(final boolean canKeepAlive) {
+    final String connection = firstHeader("Connection");
+    final boolean keepAlive =
+        canKeepAlive && (connection == null ? http11 : !"close".equalsIgnoreCase(connection));
+    final byte[] bytes = bodyLength == body.length ? body : Arrays.copyOf(body, bodyLength);
+    final Response response = new Response(statusCode, headers, bytes, keepAlive);
+    state = State.STATUS_LINE;
+    headers = newHeaders();
+    body = new byte[0];
+    bodyLength = 0;
+    remaining = 0L;
+    return response;
+  }
+
+  @Nullable
+  private String firstHeader(@NotNull final String name) {
+    final List<String> values = headers.get(name);
+    return values == null || values.isEmpty() ? null : values.get(0);
+  }
+
+  @NotNull
+  private static Map<String, List<String>> newHeaders() {
+    return new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+  }
+
+  static final class Response {
+
+    private final int statusCode;
+    @NotNull private final Map<String, List<String>> headers;
+    @NotNull private final byte[] body;
+    private final boolean keepAlive;
+
+    private Response(
+        final int statusCode,
+        @NotNull final Map<String, List<String>> headers,
+        @NotNull final byte[] body,
+        final boolean keepAlive) {
+      this.statusCode = statusCode;
+      this.headers = headers;
+      this.body = body;
+      this.keepAlive = keepAlive;
+    }
+
+    int statusCode() {
+      return statusCode;
+    }
+
+    @NotNull
+    Map<String, List<String>> headers() {
+      return headers;
+    }
+
+    @NotNull
+    byte[] body() {
+      return body;
+    }
+
+    // whether the connection can be used for the next response.
+    boolean keepAlive() {
+      return keepAlive;
+    }
+  }
+}
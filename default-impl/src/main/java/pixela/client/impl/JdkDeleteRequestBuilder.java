@@ -39,7 +39,8 @@ class JdkDeleteRequestBuilder implements RequestBuilder<Delete<?>> {
   public Mono<HttpRequest> apply(@NotNull final Delete<?> delete) {
     final URI uri = delete.apiEndpoint(baseUri);
     final HttpRequest.Builder builder = HttpRequest.newBuilder(uri).DELETE();
-    final HttpRequest request = UserTokenHeader.of(delete).configure(builder).build();
+    final HttpRequest request =
+        RequestHeaders.of(delete).configure(UserTokenHeader.of(delete).configure(builder)).build();
     return Mono.just(request);
   }
 }
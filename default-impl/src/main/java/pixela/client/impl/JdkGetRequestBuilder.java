@@ -38,7 +38,8 @@ class JdkGetRequestBuilder implements RequestBuilder<Get<?>> {
   public Mono<HttpRequest> apply(@NotNull final Get<?> get) {
     final URI uri = get.apiEndpoint(baseUri);
     final HttpRequest.Builder builder = HttpRequest.newBuilder(uri).GET();
-    final HttpRequest request = UserTokenHeader.of(get).configure(builder).build();
+    final HttpRequest request =
+        RequestHeaders.of(get).configure(UserTokenHeader.of(get).configure(builder)).build();
     return Mono.just(request);
   }
 }
@@ -18,41 +18,26 @@ package pixela.client.impl;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
-import java.time.Duration;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CompletionException;
 import org.jetbrains.annotations.NotNull;
-import pixela.client.PixelaClientConfig;
 import pixela.client.http.json.JsonDecoder;
 import reactor.core.publisher.Mono;
 
-class JdkHttpClient {
+class JdkHttpClient implements RequestSender {
 
   @NotNull private final HttpClient httpClient;
   @NotNull private final JsonDecoder decoder;
+  @NotNull private final ResponseBodyHandler bodyHandler;
 
   private JdkHttpClient(@NotNull final HttpClient httpClient, @NotNull final JsonDecoder decoder) {
     this.httpClient = httpClient;
     this.decoder = decoder;
+    this.bodyHandler = ResponseBodyHandler.create(decoder);
   }
 
   @NotNull
-  static JdkHttpClient create(
-      @NotNull final ExecutorService executorService,
-      @NotNull final JsonDecoder decoder,
-      @NotNull final PixelaClientConfig config) {
-    final HttpClient httpClient =
-        HttpClient.newBuilder()
-            .executor(executorService)
-            .connectTimeout(Duration.ofMillis(config.getTimeout()))
-            .followRedirects(HttpClient.Redirect.ALWAYS)
-            .version(HttpClient.Version.HTTP_2)
-            .build();
-    return create(httpClient, decoder);
-  }
-
-  @NotNull
-  <T> Mono<T> decodeJson(@NotNull final String json, @NotNull final Class<T> type) {
+  @Override
+  public <T> Mono<T> decodeJson(@NotNull final String json, @NotNull final Class<T> type) {
     return decoder.decode(json, type);
   }
 
@@ -63,11 +48,14 @@ class JdkHttpClient {
   }
 
   @NotNull
-  Mono<JdkHttpResponse> sendRequest(@NotNull final HttpRequest request) {
-    final Mono<HttpResponse<String>> response =
-        Mono.fromFuture(
-            httpClient.sendAsync(
-                request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8)));
-    return response.map(res -> JdkHttpResponse.create(res, decoder));
+  @Override
+  public Mono<JdkHttpResponse> sendRequest(
+      @NotNull final HttpRequest request, final boolean idempotent) {
+    final Mono<HttpResponse<ResponseBody>> response =
+        Mono.fromFuture(httpClient.sendAsync(request, bodyHandler));
+    // unwrapped, so that an IOException from the transport is told from a decoding error.
+    return response
+        .onErrorMap(CompletionException.class, Throwable::getCause)
+        .map(res -> JdkHttpResponse.fromResponseBody(res, decoder));
   }
 }
@@ -15,11 +15,13 @@
  */
 package pixela.client.impl;
 
+import java.net.http.HttpHeaders;
 import java.net.http.HttpResponse;
+import java.util.Optional;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.TestOnly;
-import pixela.client.ApiException;
 import pixela.client.BasicResponse;
 import pixela.client.http.Request;
 import pixela.client.http.json.JsonDecoder;
@@ -27,12 +29,19 @@ import reactor.core.publisher.Mono;
 
 class JdkHttpResponse implements pixela.client.http.HttpResponse {
 
-  @NotNull private final HttpResponse<String> response;
+  @NotNull private final IntSupplier statusCode;
+  @NotNull private final Supplier<ResponseBody> body;
+  @NotNull private final Supplier<HttpHeaders> headers;
   @NotNull private final JsonDecoder decoder;
 
   private JdkHttpResponse(
-      @NotNull final HttpResponse<String> response, @NotNull final JsonDecoder decoder) {
-    this.response = response;
+      @NotNull final IntSupplier statusCode,
+      @NotNull final Supplier<ResponseBody> body,
+      @NotNull final Supplier<HttpHeaders> headers,
+      @NotNull final JsonDecoder decoder) {
+    this.statusCode = statusCode;
+    this.body = body;
+    this.headers = headers;
     this.decoder = decoder;
   }
 
@@ -40,13 +49,53 @@ class JdkHttpResponse implements pixela.client.http.HttpResponse {
   @Contract("_, _ -> new")
   static JdkHttpResponse create(
       @NotNull final HttpResponse<String> response, @NotNull final JsonDecoder decoder) {
-    return new JdkHttpResponse(response, decoder);
+    return new JdkHttpResponse(
+        response::statusCode, () -> ResponseBody.text(response.body()), response::headers, decoder);
+  }
+
+  @NotNull
+  @Contract("_, _ -> new")
+  static JdkHttpResponse fromResponseBody(
+      @NotNull final HttpResponse<ResponseBody> response, @NotNull final JsonDecoder decoder) {
+    return new JdkHttpResponse(response::statusCode, response::body, response::headers, decoder);
+  }
+
+  @NotNull
+  @Contract("_, _, _, _ -> new")
+  static JdkHttpResponse of(
+      final int statusCode,
+      @NotNull final HttpHeaders headers,
+      @NotNull final ResponseBody body,
+      @NotNull final JsonDecoder decoder) {
+    return new JdkHttpResponse(() -> statusCode, () -> body, () -> headers, decoder);
   }
 
   @NotNull
   @Override
   public String body() {
-    return response.body();
+    return body.get().asString();
+  }
+
+  @NotNull
+  @Override
+  public byte[] bodyBytes() {
+    return body.get().asBytes();
+  }
+
+  long bodySize() {
+    return body.get().size();
+  }
+
+  @NotNull
+  @Override
+  public Optional<String> header(@NotNull final String name) {
+    return headers.get().firstValue(name);
+  }
+
+  @NotNull
+  @Override
+  public <T> Mono<T> readBody(@NotNull final JsonDecoder decoder, @NotNull final Class<T> type) {
+    return body.get().decode(decoder, type);
   }
 
   @Override
@@ -56,26 +105,23 @@ class JdkHttpResponse implements pixela.client.http.HttpResponse {
 
   @SuppressWarnings("unchecked")
   <T> Mono<T> readObject(final Request<T> request) {
-    final String json = body();
     final Class<T> responseType = request.responseType();
     if (isErrorResponse()) {
-      final Mono<BasicResponse> response = decoder.decode(json, BasicResponse.class);
-      return response
-          .map(BasicResponse::getMessage)
-          .flatMap(message -> Mono.error(ApiException.of(message)));
+      final Mono<BasicResponse> response = readBody(decoder, BasicResponse.class);
+      final int statusCode = statusCode();
+      return response.flatMap(res -> Mono.error(res.toException(statusCode)));
     } else if (responseType.equals(Void.class)) {
-      final Mono<BasicResponse> response = decoder.decode(json, BasicResponse.class);
+      final Mono<BasicResponse> response = readBody(decoder, BasicResponse.class);
       return response.flatMap(res -> (Mono<T>) res.emptyOrError());
     } else if (responseType.equals(String.class)) {
-      return Mono.just((T) json);
+      return Mono.just((T) body());
     } else {
-      return decoder.decode(json, responseType);
+      return readBody(decoder, responseType);
     }
   }
 
-  @SuppressWarnings("WeakerAccess")
-  @TestOnly
-  int statusCode() {
-    return response.statusCode();
+  @Override
+  public int statusCode() {
+    return statusCode.getAsInt();
   }
 }
@@ -24,6 +24,7 @@ import org.jetbrains.annotations.NotNull;
 import pixela.client.http.Post;
 import pixela.client.http.Request;
 import pixela.client.http.json.JsonEncoder;
+import pixela.client.http.json.JsonWritable;
 import reactor.core.publisher.Mono;
 
 class JdkPostRequestBuilder implements RequestBuilder<Post<?>> {
@@ -50,6 +51,10 @@ class JdkPostRequestBuilder implements RequestBuilder<Post<?>> {
   @Override
   @NotNull
   public Mono<HttpRequest> apply(@NotNull final Post<?> post) {
+    if (post.hasBody() && post instanceof JsonWritable) {
+      return Mono.fromCallable(
+          () -> configurer.configureRequest(post, RequestBuilder.bodyOf((JsonWritable) post)));
+    }
     return encoder
         .encode(post)
         .map(payload -> HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8))
@@ -71,7 +76,10 @@ class JdkPostRequestBuilder implements RequestBuilder<Post<?>> {
         @NotNull final Request<?> request, @NotNull final HttpRequest.BodyPublisher bodyPublisher) {
       final URI endpoint = request.apiEndpoint(baseUri);
       final HttpRequest.Builder builder = HttpRequest.newBuilder(endpoint).POST(bodyPublisher);
-      return Stream.of(UserTokenHeader.of(request), ContentTypeHeader.of(request))
+      return Stream.of(
+              UserTokenHeader.of(request),
+              ContentTypeHeader.of(request),
+              RequestHeaders.of(request))
           .reduce(builder, (b, h) -> h.configure(b), (l, r) -> l)
           .build();
     }
@@ -23,6 +23,7 @@ import org.jetbrains.annotations.NotNull;
 import pixela.client.http.Put;
 import pixela.client.http.Request;
 import pixela.client.http.json.JsonEncoder;
+import pixela.client.http.json.JsonWritable;
 import reactor.core.publisher.Mono;
 
 class JdkPutRequestBuilder implements RequestBuilder<Put<?>> {
@@ -45,6 +46,11 @@ class JdkPutRequestBuilder implements RequestBuilder<Put<?>> {
   @NotNull
   @Override
   public Mono<HttpRequest> apply(@NotNull final Put<?> request) {
+    if (request.hasBody() && request instanceof JsonWritable) {
+      return Mono.fromCallable(
+          () ->
+              configurer.configureRequest(request, RequestBuilder.bodyOf((JsonWritable) request)));
+    }
     return encoder
         .encode(request)
         .map(payload -> HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8))
@@ -66,7 +72,10 @@ class JdkPutRequestBuilder implements RequestBuilder<Put<?>> {
         @NotNull final Request<?> request, @NotNull final HttpRequest.BodyPublisher bodyPublisher) {
       final URI endpoint = request.apiEndpoint(baseUri);
       final HttpRequest.Builder builder = HttpRequest.newBuilder(endpoint).PUT(bodyPublisher);
-      return Stream.of(UserTokenHeader.of(request), ContentTypeHeader.of(request))
+      return Stream.of(
+              UserTokenHeader.of(request),
+              ContentTypeHeader.of(request),
+              RequestHeaders.of(request))
           .reduce(builder, (b, h) -> h.configure(b), (l, r) -> l)
           .build();
     }
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import org.jetbrains.annotations.NotNull;
+
+class JsonBodySubscriber implements HttpResponse.BodySubscriber<ResponseBody> {
+
+  @NotNull private final CompletableFuture<ResponseBody> result = new CompletableFuture<>();
+
+  @NotNull private final JsonCodecImpl codec;
+  @NotNull private final JsonParser parser;
+  @NotNull private final TokenBuffer tokens;
+
+  // chunks from jdk http client are read-only, so they are copied into this array to be fed.
+  @NotNull private byte[] chunk = new byte[0];
+
+  private long size;
+
+  private Flow.Subscription subscription;
+
+  JsonBodySubscriber(@NotNull final JsonCodecImpl codec) {
+    this.codec = codec;
+    try {
+      this.parser = codec.createNonBlockingParser();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    this.tokens = new TokenBuffer(parser);
+  }
+
+  @NotNull
+  @Override
+  public CompletionStage<ResponseBody> getBody() {
+    return result;
+  }
+
+  @Override
+  public void onSubscribe(@NotNull final Flow.Subscription subscription) {
+    this.subscription = subscription;
+    subscription.request(Long.MAX_VALUE);
+  }
+
+  @Override
+  public void onNext(@NotNull final List<ByteBuffer> items) {
+    if (result.isDone()) {
+      return;
+    }
+    try {
+      for (final ByteBuffer item : items) {
+        feed(item);
+      }
+    } catch (final IOException e) {
+      subscription.cancel();
+      result.completeExceptionally(decodeError(e));
+    }
+  }
+
+  private void feed(@NotNull final ByteBuffer item) throws IOException {
+    final int length = item.remaining();
+    if (length == 0) {
+      return;
+    }
+    if (chunk.length < length) {
+      chunk = new byte[length];
+    }
+    item.get(chunk, 0, length);
+    size += length;
+    ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(chunk, 0, length);
+    drain();
+  }
+
+  private void drain() throws IOException {
+    JsonToken token;
+    while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+      tokens.copyCurrentEvent(parser);
+    }
+  }
+
+  @Override
+  public void onError(@NotNull final Throwable throwable) {
+    result.completeExceptionally(throwable);
+  }
+
+  @Override
+  public void onComplete() {
+    if (result.isDone()) {
+      return;
+    }
+    try {
+      parser.getNonBlockingInputFeeder().endOfInput();
+      drain();
+      parser.close();
+      result.complete(ResponseBody.json(codec, tokens, size));
+    } catch (final IOException e) {
+      result.completeExceptionally(decodeError(e));
+    }
+  }
+
+  // a malformed body is not a failure of the transport, so that it should not be retried.
+  @NotNull
+  private static UncheckedIOException decodeError(@NotNull final IOException e) {
+    return new UncheckedIOException(e);
+  }
+}
@@ -16,23 +16,93 @@
 package pixela.client.impl;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import org.jetbrains.annotations.NotNull;
+import pixela.client.BasicResponse;
+import pixela.client.PixelaClientConfig;
+import pixela.client.api.graph.CreateGraph;
+import pixela.client.api.graph.GraphDefinitions;
+import pixela.client.api.graph.PixelRaw;
+import pixela.client.api.graph.PostPixelImpl;
+import pixela.client.api.graph.UpdatePixelImpl;
+import pixela.client.api.user.CreateUser;
+import pixela.client.api.user.UpdateUser;
+import pixela.client.api.webhook.CreateWebhook;
+import pixela.client.api.webhook.CreateWebhookResult;
+import pixela.client.api.webhook.Webhooks;
 import pixela.client.http.json.JsonCodec;
 import pixela.client.http.json.JsonCodecFactory;
 
 public class JsonCodecFactoryImpl implements JsonCodecFactory {
 
+  // modules generating bytecode accessors instead of reflection, used when one is on classpath.
+  private static final List<String> ACCESSOR_MODULES =
+      List.of(
+          "com.fasterxml.jackson.module.blackbird.BlackbirdModule",
+          "com.fasterxml.jackson.module.afterburner.AfterburnerModule");
+
   static final ObjectMapper objectMapper =
-      new ObjectMapper()
-          .setPropertyNamingStrategy(PropertyNamingStrategy.LOWER_CAMEL_CASE)
-          .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+      registerAccessorModule(
+          new ObjectMapper()
+              .setPropertyNamingStrategy(PropertyNamingStrategy.LOWER_CAMEL_CASE)
+              .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+              .registerModule(new PixelDateModule()));
+
+  static final List<Class<?>> RESPONSE_TYPES =
+      List.of(
+          PixelRaw.class,
+          GraphDefinitions.class,
+          Webhooks.class,
+          BasicResponse.class,
+          CreateWebhookResult.class);
+
+  static final List<Class<?>> REQUEST_TYPES =
+      List.of(
+          PostPixelImpl.class,
+          UpdatePixelImpl.class,
+          CreateGraph.class,
+          CreateUser.class,
+          UpdateUser.class,
+          CreateWebhook.class);
+
+  @NotNull
+  static ObjectMapper registerAccessorModule(@NotNull final ObjectMapper objectMapper) {
+    for (final String name : ACCESSOR_MODULES) {
+      try {
+        final Class<?> module = Class.forName(name);
+        return objectMapper.registerModule((Module) module.getConstructor().newInstance());
+      } catch (final ReflectiveOperationException | LinkageError ignore) {
+        // not on classpath, or built for another version of jackson.
+      }
+    }
+    return objectMapper;
+  }
+
+  @Override
+  public boolean supports(@NotNull final PixelaClientConfig config) {
+    return !config.isLightJsonCodec();
+  }
 
   @NotNull
   @Override
   public JsonCodec create(@NotNull final ExecutorService executorService) {
-    return new JsonCodecImpl(executorService, objectMapper);
+    return new JsonCodecImpl(executorService, objectMapper).prepare(RESPONSE_TYPES, REQUEST_TYPES);
+  }
+
+  @NotNull
+  @Override
+  public JsonCodec create(
+      @NotNull final ExecutorService executorService, @NotNull final PixelaClientConfig config) {
+    final int inlineMaxLength =
+        config.isInlineJsonCodec()
+            ? Math.max(0, config.getInlineJsonMaxLength())
+            : JsonCodecImpl.NEVER_INLINE;
+    return new JsonCodecImpl(
+            executorService, objectMapper, inlineMaxLength, config.getInstrumentation())
+        .prepare(RESPONSE_TYPES, REQUEST_TYPES);
   }
 }
@@ -17,37 +17,122 @@ package pixela.client.impl;
 
 import static pixela.client.impl.Exceptions.asFunction;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 import org.jetbrains.annotations.NotNull;
+import pixela.client.http.Instrumentation;
+import pixela.client.http.Instrumentation.CodecOperation;
 import pixela.client.http.json.JsonCodec;
 import reactor.core.publisher.Mono;
 
 public class JsonCodecImpl implements JsonCodec {
+
+  static final int NEVER_INLINE = -1;
+
   @NotNull private final ExecutorService executorService;
   @NotNull private final ObjectMapper objectMapper;
 
+  // json whose length is up to this value is processed on the calling thread.
+  private final int inlineMaxLength;
+
+  @NotNull private final Instrumentation instrumentation;
+
+  // readers and writers resolve their root (de)serializer once, instead of on every call.
+  @NotNull private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+  @NotNull private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
   JsonCodecImpl(
       @NotNull final ExecutorService executorService, @NotNull final ObjectMapper objectMapper) {
+    this(executorService, objectMapper, NEVER_INLINE);
+  }
+
+  JsonCodecImpl(
+      @NotNull final ExecutorService executorService,
+      @NotNull final ObjectMapper objectMapper,
+      final int inlineMaxLength) {
+    this(executorService, objectMapper, inlineMaxLength, Instrumentation.noop());
+  }
+
+  JsonCodecImpl(
+      @NotNull final ExecutorService executorService,
+      @NotNull final ObjectMapper objectMapper,
+      final int inlineMaxLength,
+      @NotNull final Instrumentation instrumentation) {
     this.executorService = executorService;
     this.objectMapper = objectMapper;
+    this.inlineMaxLength = inlineMaxLength;
+    this.instrumentation = instrumentation;
+  }
+
+  /**
+   * builds readers and writers of the types before the first request.
+   *
+   * @param readTypes - types to decode.
+   * @param writeTypes - types to encode.
+   * @return this codec.
+   */
+  @NotNull
+  JsonCodecImpl prepare(
+      @NotNull final Iterable<Class<?>> readTypes, @NotNull final Iterable<Class<?>> writeTypes) {
+    readTypes.forEach(this::reader);
+    writeTypes.forEach(this::writer);
+    return this;
+  }
+
+  @NotNull
+  private ObjectReader reader(@NotNull final Class<?> type) {
+    return readers.computeIfAbsent(type, objectMapper::readerFor);
+  }
+
+  @NotNull
+  private ObjectWriter writer(@NotNull final Class<?> type) {
+    return writers.computeIfAbsent(type, objectMapper::writerFor);
   }
 
   @NotNull
   @Override
   public <T> Mono<T> decode(@NotNull final String json, @NotNull final Class<T> type) {
-    final CompletableFuture<T> future =
-        CompletableFuture.supplyAsync(() -> decodeSync(json, type), executorService);
-    return Mono.create(
-        sink -> future.thenAccept(sink::success).exceptionally(asFunction(sink::error)));
+    if (json.length() <= inlineMaxLength) {
+      return Mono.fromCallable(() -> read(json, type));
+    }
+    return offload(() -> decodeSync(json, type));
+  }
+
+  @NotNull
+  <T> Mono<T> decode(
+      @NotNull final TokenBuffer tokens, final long size, @NotNull final Class<T> type) {
+    if (size <= inlineMaxLength) {
+      return Mono.fromCallable(() -> read(tokens, type));
+    }
+    return offload(() -> decodeSync(tokens, type));
+  }
+
+  <T> T decodeSync(@NotNull final TokenBuffer tokens, @NotNull final Class<T> type) {
+    try {
+      return read(tokens, type);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @NotNull
+  JsonParser createNonBlockingParser() throws IOException {
+    return objectMapper.getFactory().createNonBlockingByteArrayParser();
   }
 
   <T> T decodeSync(@NotNull final String json, @NotNull final Class<T> type) {
     try {
-      return objectMapper.readValue(json, type);
+      return read(json, type);
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
     }
@@ -56,17 +141,61 @@ public class JsonCodecImpl implements JsonCodec {
   @NotNull
   @Override
   public Mono<String> encodeObject(@NotNull final Object object) {
-    final CompletableFuture<String> future =
-        CompletableFuture.supplyAsync(() -> encodeSync(object), executorService);
-    return Mono.create(
-        sink -> future.thenAccept(sink::success).exceptionally(asFunction(sink::error)));
+    if (inlineMaxLength != NEVER_INLINE) {
+      return Mono.fromCallable(() -> write(object));
+    }
+    return offload(() -> encodeSync(object));
   }
 
   String encodeSync(@NotNull final Object object) {
     try {
-      return objectMapper.writeValueAsString(object);
+      return write(object);
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
     }
   }
+
+  private <T> T read(@NotNull final String json, @NotNull final Class<T> type) throws IOException {
+    if (!instrumentation.enabled()) {
+      return reader(type).readValue(json);
+    }
+    final long start = System.nanoTime();
+    try {
+      return reader(type).readValue(json);
+    } finally {
+      instrumentation.codec(CodecOperation.DECODE, type, System.nanoTime() - start);
+    }
+  }
+
+  private <T> T read(@NotNull final TokenBuffer tokens, @NotNull final Class<T> type)
+      throws IOException {
+    if (!instrumentation.enabled()) {
+      return reader(type).readValue(tokens.asParser());
+    }
+    final long start = System.nanoTime();
+    try {
+      return reader(type).readValue(tokens.asParser());
+    } finally {
+      instrumentation.codec(CodecOperation.DECODE, type, System.nanoTime() - start);
+    }
+  }
+
+  private String write(@NotNull final Object object) throws IOException {
+    if (!instrumentation.enabled()) {
+      return writer(object.getClass()).writeValueAsString(object);
+    }
+    final long start = System.nanoTime();
+    try {
+      return writer(object.getClass()).writeValueAsString(object);
+    } finally {
+      instrumentation.codec(CodecOperation.ENCODE, object.getClass(), System.nanoTime() - start);
+    }
+  }
+
+  @NotNull
+  private <T> Mono<T> offload(@NotNull final Supplier<T> supplier) {
+    final CompletableFuture<T> future = CompletableFuture.supplyAsync(supplier, executorService);
+    return Mono.create(
+        sink -> future.thenAccept(sink::success).exceptionally(asFunction(sink::error)));
+  }
 }
@@ -0,0 +1,508 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * keep-alive HTTP/1.1 connections to one server, driven by one selector thread. A request is
+ * written to an idle connection or a new one, and idempotent requests are pipelined on busy
+ * connections when no more connection can be opened. Responses are completed on the executor
+ * instead of the selector thread.
+ */
+final class NioConnectionPool implements AutoCloseable {
+
+  private static final int BUFFER_SIZE = 16 * 1024;
+  // how often waiting requests are checked for timeout.
+  private static final long TICK_MILLIS = 50L;
+
+  @NotNull private final String host;
+  private final int port;
+  private final int maxConnections;
+  private final int maxPipelinedRequests;
+  private final long timeoutNanos;
+  @NotNull private final Executor executor;
+
+  @NotNull private final Selector selector;
+  @NotNull private final Queue<Exchange> submitted = new ConcurrentLinkedQueue<>();
+  @NotNull private final AtomicBoolean wakeup = new AtomicBoolean();
+  private volatile boolean closed;
+
+  // accessed only by the selector thread.
+  @NotNull private final ArrayDeque<Exchange> waiting = new ArrayDeque<>();
+  @NotNull private final List<Connection> connections = new ArrayList<>();
+
+  private NioConnectionPool(
+      @NotNull final String host,
+      final int port,
+      final int maxConnections,
+      final int maxPipelinedRequests,
+      @NotNull final Duration timeout,
+      @NotNull final Executor executor,
+      @NotNull final Selector selector) {
+    this.host = host;
+    this.port = port;
+    this.maxConnections = maxConnections;
+    this.maxPipelinedRequests = maxPipelinedRequests;
+    this.timeoutNanos = timeout.toNanos();
+    this.executor = executor;
+    this.selector = selector;
+  }
+
+  @NotNull
+  static NioConnectionPool open(
+      @NotNull final URI baseUri,
+      final int maxConnections,
+      final int maxPipelinedRequests,
+      @NotNull final Duration timeout,
+      @NotNull final Executor executor) {
+    final int port = baseUri.getPort() < 0 ? 80 : baseUri.getPort();
+    final Selector selector;
+    try {
+      selector = Selector.open();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    final NioConnectionPool pool =
+        new NioConnectionPool(
+            baseUri.getHost(),
+            port,
+            maxConnections,
+            maxPipelinedRequests,
+            timeout,
+            executor,
+            selector);
+    final Thread thread = new Thread(pool::run, "pixela-nio-" + baseUri.getHost() + ":" + port);
+    thread.setDaemon(true);
+    thread.start();
+    return pool;
+  }
+
+  /**
+   * sends the request bytes.
+   *
+   * @param request - whole request, including the request line, headers and body.
+   * @param idempotent - whether the request can be pipelined and sent again on a stale connection.
+   * @return {@link Mono} of the response.
+   */
+  @NotNull
+  Mono<HttpResponseParser.Response> send(@NotNull final byte[] request, final boolean idempotent) {
+    return Mono.create(
+        sink -> {
+          final Exchange exchange =
+              new Exchange(request, idempotent, sink, System.nanoTime() + timeoutNanos);
+          sink.onCancel(exchange::cancel);
+          if (closed) {
+            sink.error(new IOException("connection pool is closed"));
+            return;
+          }
+          submitted.offer(exchange);
+          if (wakeup.compareAndSet(false, true)) {
+            selector.wakeup();
+          }
+        });
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    selector.wakeup();
+  }
+
+  private void run() {
+    try {
+      while (!closed) {
+        selector.select(hasExchanges() ? TICK_MILLIS : 0L);
+        wakeup.set(false);
+        for (Exchange exchange = submitted.poll(); exchange != null; exchange = submitted.poll()) {
+          waiting.add(exchange);
+        }
+        final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          final SelectionKey key = keys.next();
+          keys.remove();
+          ((Connection) key.attachment()).handle(key);
+        }
+        dispatch();
+        expire(System.nanoTime());
+      }
+    } catch (final IOException | RuntimeException e) {
+      closed = true;
+    } finally {
+      shutdown();
+    }
+  }
+
+  private boolean hasExchanges() {
+    if (!waiting.isEmpty()) {
+      return true;
+    }
+    for (final Connection connection : connections) {
+      if (!connection.inFlight.isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // waiting requests are sent in order, the first one which has no connection stops the others.
+  private void dispatch() {
+    while (!waiting.isEmpty()) {
+      final Exchange exchange = waiting.peek();
+      if (exchange.cancelled) {
+        waiting.poll();
+        continue;
+      }
+      final Connection connection;
+      try {
+        connection = connectionFor(exchange);
+      } catch (final IOException e) {
+        waiting.poll();
+        fail(exchange, e);
+        continue;
+      }
+      if (connection == null) {
+        return;
+      }
+      waiting.poll();
+      connection.enqueue(exchange);
+    }
+  }
+
+  @Nullable
+  private Connection connectionFor(@NotNull final Exchange exchange) throws IOException {
+    for (final Connection connection : connections) {
+      if (connection.inFlight.isEmpty()) {
+        return connection;
+      }
+    }
+    if (connections.size() < maxConnections) {
+      return connect();
+    }
+    if (!exchange.idempotent) {
+      return null;
+    }
+    Connection least = null;
+    for (final Connection connection : connections) {
+      if (connection.pipelinable()
+          && (least == null || connection.inFlight.size() < least.inFlight.size())) {
+        least = connection;
+      }
+    }
+    return least;
+  }
+
+  @NotNull
+  private Connection connect() throws IOException {
+    final SocketChannel channel = SocketChannel.open();
+    try {
+      channel.configureBlocking(false);
+      channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      final boolean connected = channel.connect(new InetSocketAddress(host, port));
+      final Connection connection = new Connection(channel, connected);
+      connection.key =
+          channel.register(
+              selector, connected ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT, connection);
+      connections.add(connection);
+      return connection;
+    } catch (final IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private void expire(final long now) {
+    final Iterator<Exchange> iterator = waiting.iterator();
+    while (iterator.hasNext()) {
+      final Exchange exchange = iterator.next();
+      if (exchange.deadline - now < 0L) {
+        iterator.remove();
+        fail(exchange, new HttpTimeoutException("request timed out"));
+      }
+    }
+    for (final Connection connection : new ArrayList<>(connections)) {
+      final Exchange oldest = connection.inFlight.peek();
+      if (oldest != null && oldest.deadline - now < 0L) {
+        connection.inFlight.poll();
+        fail(oldest, new HttpTimeoutException("request timed out"));
+        // responses of the requests after it would be read as its response.
+        connection.close(new IOException("connection closed by timeout"), true);
+      }
+    }
+  }
+
+  private void shutdown() {
+    final IOException closed = new IOException("connection pool is closed");
+    for (final Connection connection : new ArrayList<>(connections)) {
+      connection.close(closed, false);
+    }
+    for (Exchange exchange = waiting.poll(); exchange != null; exchange = waiting.poll()) {
+      fail(exchange, closed);
+    }
+    for (Exchange exchange = submitted.poll(); exchange != null; exchange = submitted.poll()) {
+      fail(exchange, closed);
+    }
+    try {
+      selector.close();
+    } catch (final IOException ignore) {
+      // nothing to do with it.
+    }
+  }
+
+  private void complete(
+      @NotNull final Exchange exchange, @NotNull final HttpResponseParser.Response response) {
+    if (!exchange.cancelled) {
+      execute(() -> exchange.sink.success(response));
+    }
+  }
+
+  private void fail(@NotNull final Exchange exchange, @NotNull final Throwable error) {
+    if (!exchange.cancelled) {
+      execute(() -> exchange.sink.error(error));
+    }
+  }
+
+  private void execute(@NotNull final Runnable runnable) {
+    try {
+      executor.execute(runnable);
+    } catch (final RejectedExecutionException e) {
+      runnable.run();
+    }
+  }
+
+  private static final class Exchange {
+
+    @NotNull private final byte[] request;
+    private final boolean idempotent;
+    @NotNull private final MonoSink<HttpResponseParser.Response> sink;
+    private final long deadline;
+
+    private volatile boolean cancelled;
+    // accessed only by the selector thread.
+    private int written;
+    private boolean resent;
+
+    private Exchange(
+        @NotNull final byte[] request,
+        final boolean idempotent,
+        @NotNull final MonoSink<HttpResponseParser.Response> sink,
+        final long deadline) {
+      this.request = request;
+      this.idempotent = idempotent;
+      this.sink = sink;
+      this.deadline = deadline;
+    }
+
+    private void cancel() {
+      cancelled = true;
+    }
+  }
+
+  private final class Connection {
+
+    @NotNull private final SocketChannel channel;
+    @Nullable private SelectionKey key;
+    private boolean connected;
+
+    // requests whose responses are not read yet, in the order they are written.
+    @NotNull private final ArrayDeque<Exchange> inFlight = new ArrayDeque<>();
+    // requests not written entirely yet.
+    @NotNull private final ArrayDeque<Exchange> writing = new ArrayDeque<>();
+    private int nonIdempotentRequests;
+    private long responses;
+
+    @NotNull private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    @NotNull private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    @NotNull private final HttpResponseParser parser = new HttpResponseParser();
+
+    private Connection(@NotNull final SocketChannel channel, final boolean connected) {
+      this.channel = channel;
+      this.connected = connected;
+    }
+
+    private boolean pipelinable() {
+      return connected && nonIdempotentRequests == 0 && inFlight.size() < maxPipelinedRequests;
+    }
+
+    private void enqueue(@NotNull final Exchange exchange) {
+      inFlight.add(exchange);
+      writing.add(exchange);
+      if (!exchange.idempotent) {
+        nonIdempotentRequests++;
+      }
+      if (connected) {
+        try {
+          write();
+        } catch (final IOException e) {
+          close(e, responses > 0L);
+        }
+      }
+    }
+
+    private void handle(@NotNull final SelectionKey key) {
+      try {
+        if (key.isConnectable()) {
+          channel.finishConnect();
+          connected = true;
+          key.interestOps(SelectionKey.OP_READ);
+          write();
+        }
+        if (key.isValid() && key.isWritable()) {
+          write();
+        }
+        if (key.isValid() && key.isReadable()) {
+          read();
+        }
+      } catch (final IOException e) {
+        close(e, responses > 0L);
+      }
+    }
+
+    private void write() throws IOException {
+      while (true) {
+        while (writeBuffer.hasRemaining() && !writing.isEmpty()) {
+          final Exchange exchange = writing.peek();
+          final int length =
+              Math.min(writeBuffer.remaining(), exchange.request.length - exchange.written);
+          writeBuffer.put(exchange.request, exchange.written, length);
+          exchange.written += length;
+          if (exchange.written == exchange.request.length) {
+            writing.poll();
+          }
+        }
+        writeBuffer.flip();
+        final int written = channel.write(writeBuffer);
+        writeBuffer.compact();
+        if (writeBuffer.position() == 0 && writing.isEmpty()) {
+          interest(SelectionKey.OP_READ);
+          return;
+        }
+        if (written == 0) {
+          interest(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+          return;
+        }
+      }
+    }
+
+    private void interest(final int ops) {
+      if (key != null && key.interestOps() != ops) {
+        key.interestOps(ops);
+      }
+    }
+
+    private void read() throws IOException {
+      final int read = channel.read(readBuffer);
+      if (read < 0) {
+        final HttpResponseParser.Response response = parser.endOfStream();
+        if (response != null) {
+          received(response);
+        }
+        close(new IOException("connection closed by server"), responses > 0L);
+        return;
+      }
+      readBuffer.flip();
+      try {
+        while (readBuffer.hasRemaining()) {
+          final HttpResponseParser.Response response = parser.parse(readBuffer);
+          if (response == null) {
+            return;
+          }
+          received(response);
+          if (!response.keepAlive()) {
+            close(new IOException("connection closed by server"), true);
+            return;
+          }
+        }
+      } finally {
+        readBuffer.compact();
+      }
+    }
+
+    private void received(@NotNull final HttpResponseParser.Response response) throws IOException {
+      final Exchange exchange = inFlight.poll();
+      if (exchange == null) {
+        throw new IOException("response without request");
+      }
+      responses++;
+      if (!exchange.idempotent) {
+        nonIdempotentRequests--;
+      }
+      complete(exchange, response);
+    }
+
+    /**
+     * closes this connection, and fails requests waiting for their responses.
+     *
+     * @param cause - the error given to the requests.
+     * @param resend - whether idempotent requests whose responses are not started are sent again on
+     *     another connection. Each request is sent again at most once.
+     */
+    private void close(@NotNull final IOException cause, final boolean resend) {
+      if (!connections.remove(this)) {
+        return;
+      }
+      if (key != null) {
+        key.cancel();
+      }
+      try {
+        channel.close();
+      } catch (final IOException ignore) {
+        // already closed.
+      }
+      final boolean started = parser.started();
+      boolean first = true;
+      final ArrayDeque<Exchange> resending = new ArrayDeque<>();
+      for (final Exchange exchange : inFlight) {
+        if (resend && exchange.idempotent && !exchange.resent && !(first && started)) {
+          exchange.resent = true;
+          exchange.written = 0;
+          resending.add(exchange);
+        } else {
+          fail(exchange, cause);
+        }
+        first = false;
+      }
+      inFlight.clear();
+      writing.clear();
+      while (!resending.isEmpty()) {
+        waiting.addFirst(resending.pollLast());
+      }
+    }
+  }
+}
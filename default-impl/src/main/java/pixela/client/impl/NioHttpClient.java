@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Flow;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.http.json.JsonDecoder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/** sends {@link HttpRequest} as HTTP/1.1 over {@link NioConnectionPool}. */
+class NioHttpClient implements RequestSender {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  @NotNull private final NioConnectionPool connectionPool;
+  @NotNull private final JsonDecoder decoder;
+
+  private NioHttpClient(
+      @NotNull final NioConnectionPool connectionPool, @NotNull final JsonDecoder decoder) {
+    this.connectionPool = connectionPool;
+    this.decoder = decoder;
+  }
+
+  @NotNull
+  static NioHttpClient create(
+      @NotNull final NioConnectionPool connectionPool, @NotNull final JsonDecoder decoder) {
+    return new NioHttpClient(connectionPool, decoder);
+  }
+
+  @NotNull
+  @Override
+  public <T> Mono<T> decodeJson(@NotNull final String json, @NotNull final Class<T> type) {
+    return decoder.decode(json, type);
+  }
+
+  @NotNull
+  @Override
+  public Mono<JdkHttpResponse> sendRequest(
+      @NotNull final HttpRequest request, final boolean idempotent) {
+    return body(request)
+        .flatMap(body -> connectionPool.send(encode(request, body), idempotent))
+        .map(this::toResponse);
+  }
+
+  @NotNull
+  private JdkHttpResponse toResponse(@NotNull final HttpResponseParser.Response response) {
+    final HttpHeaders headers = HttpHeaders.of(response.headers(), (name, value) -> true);
+    return JdkHttpResponse.of(
+        response.statusCode(), headers, ResponseBody.bytes(response.body()), decoder);
+  }
+
+  @NotNull
+  static byte[] encode(@NotNull final HttpRequest request, @NotNull final byte[] body) {
+    final URI uri = request.uri();
+    final StringBuilder head = new StringBuilder(256);
+    head.append(request.method()).append(' ').append(uri.getRawPath());
+    if (uri.getRawQuery() != null) {
+      head.append('?').append(uri.getRawQuery());
+    }
+    head.append(" HTTP/1.1\r\nHost: ").append(uri.getRawAuthority()).append("\r\n");
+    for (final Map.Entry<String, List<String>> header : request.headers().map().entrySet()) {
+      for (final String value : header.getValue()) {
+        head.append(header.getKey()).append(": ").append(value).append("\r\n");
+      }
+    }
+    final String method = request.method();
+    if (body.length > 0 || !("GET".equals(method) || "DELETE".equals(method))) {
+      head.append("Content-Length: ").append(body.length).append("\r\n");
+    }
+    head.append("\r\n");
+    final byte[] headBytes = head.toString().getBytes(StandardCharsets.ISO_8859_1);
+    if (body.length == 0) {
+      return headBytes;
+    }
+    final byte[] bytes = new byte[headBytes.length + body.length];
+    System.arraycopy(headBytes, 0, bytes, 0, headBytes.length);
+    System.arraycopy(body, 0, bytes, headBytes.length, body.length);
+    return bytes;
+  }
+
+  @NotNull
+  private static Mono<byte[]> body(@NotNull final HttpRequest request) {
+    final Optional<HttpRequest.BodyPublisher> publisher = request.bodyPublisher();
+    if (publisher.isEmpty() || publisher.get().contentLength() == 0L) {
+      return Mono.just(EMPTY);
+    }
+    return Mono.create(sink -> publisher.get().subscribe(new BodyCollector(sink)));
+  }
+
+  private static final class BodyCollector implements Flow.Subscriber<ByteBuffer> {
+
+    @NotNull private final MonoSink<byte[]> sink;
+    @NotNull private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    private BodyCollector(@NotNull final MonoSink<byte[]> sink) {
+      this.sink = sink;
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(final ByteBuffer item) {
+      if (item.hasArray()) {
+        bytes.write(item.array(), item.arrayOffset() + item.position(), item.remaining());
+      } else {
+        final byte[] array = new byte[item.remaining()];
+        item.get(array);
+        bytes.write(array, 0, array.length);
+      }
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+      sink.error(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      sink.success(bytes.toByteArray());
+    }
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import java.net.URI;
+import pixela.client.PixelaClientConfig;
+import pixela.client.http.HttpClient;
+import pixela.client.http.HttpClientFactory;
+import pixela.client.http.HttpTransport;
+
+public class NioHttpClientFactory implements HttpClientFactory {
+
+  @Override
+  public boolean supports(final PixelaClientConfig pixelaClientConfig) {
+    return pixelaClientConfig.getHttpTransport() == HttpTransport.NIO;
+  }
+
+  // nio transport has no tls, so that https base uri fails instead of using another transport.
+  @Override
+  public HttpClient newClient(final PixelaClientConfig pixelaClientConfig) {
+    final URI baseUri = pixelaClientConfig.baseUri();
+    if (!"http".equalsIgnoreCase(baseUri.getScheme())) {
+      throw new IllegalArgumentException(
+          "HttpTransport.NIO supports only http base uri, use HttpTransport.JDK for " + baseUri);
+    }
+    return new HttpClientImpl(pixelaClientConfig, HttpTransport.NIO);
+  }
+}
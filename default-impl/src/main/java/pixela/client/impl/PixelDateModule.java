@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.FromStringDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.PixelDate;
+
+// PixelDate as yyyyMMdd string, in option data pojos.
+class PixelDateModule extends SimpleModule {
+
+  PixelDateModule() {
+    super("PixelDateModule");
+    addSerializer(PixelDate.class, ToStringSerializer.instance);
+    addDeserializer(PixelDate.class, new Deserializer());
+  }
+
+  private static class Deserializer extends FromStringDeserializer<PixelDate> {
+
+    private Deserializer() {
+      super(PixelDate.class);
+    }
+
+    @NotNull
+    @Override
+    protected PixelDate _deserialize(
+        @NotNull final String value, @NotNull final DeserializationContext context) {
+      return PixelDate.parse(value);
+    }
+  }
+}
@@ -18,10 +18,18 @@ package pixela.client.impl;
 import java.net.http.HttpRequest;
 import org.jetbrains.annotations.NotNull;
 import pixela.client.http.Request;
+import pixela.client.http.json.JsonBuffer;
+import pixela.client.http.json.JsonWritable;
 import reactor.core.publisher.Mono;
 
 interface RequestBuilder<R extends Request<?>> {
 
   @NotNull
   Mono<HttpRequest> apply(@NotNull final R request);
+
+  // the body written by the request itself, on the calling thread instead of the codec executor.
+  @NotNull
+  static HttpRequest.BodyPublisher bodyOf(@NotNull final JsonWritable body) {
+    return HttpRequest.BodyPublishers.ofByteArray(JsonBuffer.write(body));
+  }
 }
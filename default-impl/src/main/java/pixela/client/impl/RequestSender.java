@@ -0,0 +1,38 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import java.net.http.HttpRequest;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+
+/** sends {@link HttpRequest} with one of {@link pixela.client.http.HttpTransport}s. */
+interface RequestSender {
+
+  @NotNull
+  <T> Mono<T> decodeJson(@NotNull final String json, @NotNull final Class<T> type);
+
+  /**
+   * sends the request.
+   *
+   * @param request - the request.
+   * @param idempotent - whether the request can be pipelined or sent twice, given by {@link
+   *     pixela.client.http.Request#idempotent()}.
+   * @return {@link Mono} of the response.
+   */
+  @NotNull
+  Mono<JdkHttpResponse> sendRequest(@NotNull final HttpRequest request, final boolean idempotent);
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import pixela.client.http.json.JsonDecoder;
+import reactor.core.publisher.Mono;
+
+abstract class ResponseBody {
+
+  private ResponseBody() {}
+
+  @NotNull
+  abstract String asString();
+
+  @NotNull
+  abstract byte[] asBytes();
+
+  // size of the body in bytes, or -1 if unknown.
+  abstract long size();
+
+  @NotNull
+  abstract <T> Mono<T> decode(@NotNull JsonDecoder decoder, @NotNull Class<T> type);
+
+  @NotNull
+  @Contract("_ -> new")
+  static ResponseBody text(@NotNull final String text) {
+    return new Text(text);
+  }
+
+  @NotNull
+  @Contract("_ -> new")
+  static ResponseBody bytes(@NotNull final byte[] bytes) {
+    return new Bytes(bytes);
+  }
+
+  @NotNull
+  @Contract("_, _, _ -> new")
+  static ResponseBody json(
+      @NotNull final JsonCodecImpl codec, @NotNull final TokenBuffer tokens, final long size) {
+    return new Json(codec, tokens, size);
+  }
+
+  private static class Text extends ResponseBody {
+
+    @NotNull private final String text;
+
+    private Text(@NotNull final String text) {
+      this.text = text;
+    }
+
+    @NotNull
+    @Override
+    String asString() {
+      return text;
+    }
+
+    @NotNull
+    @Override
+    byte[] asBytes() {
+      return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    long size() {
+      return -1L;
+    }
+
+    @NotNull
+    @Override
+    <T> Mono<T> decode(@NotNull final JsonDecoder decoder, @NotNull final Class<T> type) {
+      return decoder.decode(text, type);
+    }
+  }
+
+  private static class Bytes extends ResponseBody {
+
+    @NotNull private final byte[] bytes;
+
+    private Bytes(@NotNull final byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    @NotNull
+    @Override
+    String asString() {
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @NotNull
+    @Override
+    byte[] asBytes() {
+      return bytes;
+    }
+
+    @Override
+    long size() {
+      return bytes.length;
+    }
+
+    @NotNull
+    @Override
+    <T> Mono<T> decode(@NotNull final JsonDecoder decoder, @NotNull final Class<T> type) {
+      return decoder.decode(asString(), type);
+    }
+  }
+
+  // tokens parsed from the response bytes while they were received.
+  private static class Json extends ResponseBody {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @NotNull private final JsonCodecImpl codec;
+    @NotNull private final TokenBuffer tokens;
+    private final long size;
+
+    private Json(
+        @NotNull final JsonCodecImpl codec, @NotNull final TokenBuffer tokens, final long size) {
+      this.codec = codec;
+      this.tokens = tokens;
+      this.size = size;
+    }
+
+    @NotNull
+    @Override
+    String asString() {
+      final StringWriter writer = new StringWriter();
+      try (final JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+        tokens.serialize(generator);
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return writer.toString();
+    }
+
+    @NotNull
+    @Override
+    byte[] asBytes() {
+      return asString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    long size() {
+      return size;
+    }
+
+    @NotNull
+    @Override
+    <T> Mono<T> decode(@NotNull final JsonDecoder decoder, @NotNull final Class<T> type) {
+      return codec.decode(tokens, size, type);
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import java.net.http.HttpResponse;
+import java.util.Locale;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pixela.client.http.json.JsonDecoder;
+
+class ResponseBodyHandler implements HttpResponse.BodyHandler<ResponseBody> {
+
+  @Nullable private final JsonCodecImpl codec;
+
+  private ResponseBodyHandler(@Nullable final JsonCodecImpl codec) {
+    this.codec = codec;
+  }
+
+  @NotNull
+  @Contract("_ -> new")
+  static ResponseBodyHandler create(@NotNull final JsonDecoder decoder) {
+    if (decoder instanceof JsonCodecImpl) {
+      return new ResponseBodyHandler((JsonCodecImpl) decoder);
+    }
+    return new ResponseBodyHandler(null);
+  }
+
+  @NotNull
+  @Override
+  public HttpResponse.BodySubscriber<ResponseBody> apply(
+      @NotNull final HttpResponse.ResponseInfo responseInfo) {
+    if (codec != null && isJson(responseInfo)) {
+      return new JsonBodySubscriber(codec);
+    }
+    return HttpResponse.BodySubscribers.mapping(
+        HttpResponse.BodySubscribers.ofByteArray(), ResponseBody::bytes);
+  }
+
+  private static boolean isJson(@NotNull final HttpResponse.ResponseInfo responseInfo) {
+    return responseInfo
+        .headers()
+        .firstValue("Content-Type")
+        .map(contentType -> contentType.toLowerCase(Locale.ROOT).contains("json"))
+        .orElse(false);
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.TestOnly;
+import pixela.client.PixelaClientConfig;
+import pixela.client.http.HttpTransport;
+
+/**
+ * reference counted {@link Transport}s shared among clients of the same base uri, timeout, http
+ * transport, http version and executor settings. A transport is closed when the last client using
+ * it is closed.
+ */
+final class SharedTransports {
+
+  private static final SharedTransports INSTANCE = new SharedTransports();
+
+  @NotNull private final Map<Key, Entry> transports = new HashMap<>();
+
+  @NotNull
+  static Transport acquire(
+      @NotNull final PixelaClientConfig config, @NotNull final HttpTransport httpTransport) {
+    return INSTANCE.lease(config, httpTransport);
+  }
+
+  @NotNull
+  synchronized Transport lease(
+      @NotNull final PixelaClientConfig config, @NotNull final HttpTransport httpTransport) {
+    final Key key = Key.of(config, httpTransport);
+    final Entry entry =
+        transports.computeIfAbsent(key, k -> new Entry(Transport.create(config, httpTransport)));
+    entry.references++;
+    final AtomicBoolean released = new AtomicBoolean();
+    return entry.transport.lease(
+        () -> {
+          if (released.compareAndSet(false, true)) {
+            release(key);
+          }
+        });
+  }
+
+  private synchronized void release(@NotNull final Key key) {
+    final Entry entry = transports.get(key);
+    if (entry == null || --entry.references > 0) {
+      return;
+    }
+    transports.remove(key);
+    entry.transport.close();
+  }
+
+  @TestOnly
+  synchronized int size() {
+    return transports.size();
+  }
+
+  private static final class Entry {
+    @NotNull private final Transport transport;
+    private int references;
+
+    private Entry(@NotNull final Transport transport) {
+      this.transport = transport;
+    }
+  }
+
+  private static final class Key {
+    @NotNull private final URI baseUri;
+    private final int timeout;
+    @NotNull private final HttpTransport httpTransport;
+    @NotNull private final HttpClient.Version version;
+    private final int threadsNum;
+    private final boolean useVirtualThreads;
+    private final int jsonCodecThreadsNum;
+
+    private Key(
+        @NotNull final PixelaClientConfig config, @NotNull final HttpTransport httpTransport) {
+      this.baseUri = config.baseUri();
+      this.timeout = config.getTimeout();
+      this.httpTransport = httpTransport;
+      this.version = Transport.VERSION;
+      this.threadsNum = config.getThreadsNum();
+      this.useVirtualThreads = config.isUseVirtualThreads();
+      this.jsonCodecThreadsNum = config.getJsonCodecThreadsNum();
+    }
+
+    @NotNull
+    static Key of(
+        @NotNull final PixelaClientConfig config, @NotNull final HttpTransport httpTransport) {
+      return new Key(config, httpTransport);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+      final Key key = (Key) o;
+      return timeout == key.timeout
+          && threadsNum == key.threadsNum
+          && useVirtualThreads == key.useVirtualThreads
+          && jsonCodecThreadsNum == key.jsonCodecThreadsNum
+          && baseUri.equals(key.baseUri)
+          && httpTransport == key.httpTransport
+          && version == key.version;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          baseUri,
+          timeout,
+          httpTransport,
+          version,
+          threadsNum,
+          useVirtualThreads,
+          jsonCodecThreadsNum);
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pixela.client.PixelaClientConfig;
+import pixela.client.http.HttpTransport;
+import pixela.client.http.json.JsonDecoder;
+
+/**
+ * jdk http client or nio connection pool, and executors, which a {@link HttpClientImpl} sends
+ * requests with.
+ */
+final class Transport implements AutoCloseable {
+
+  static final HttpClient.Version VERSION = HttpClient.Version.HTTP_2;
+
+  // connections and pipelined requests per connection of nio transport.
+  static final int NIO_MAX_CONNECTIONS = 8;
+  static final int NIO_MAX_PIPELINED_REQUESTS = 4;
+
+  // either of them is present.
+  @Nullable private final HttpClient httpClient;
+  @Nullable private final NioConnectionPool connectionPool;
+
+  @NotNull private final ExecutorService httpExecutor;
+  @NotNull private final ExecutorService codecExecutor;
+  @NotNull private final Runnable onClose;
+
+  private Transport(
+      @Nullable final HttpClient httpClient,
+      @Nullable final NioConnectionPool connectionPool,
+      @NotNull final ExecutorService httpExecutor,
+      @NotNull final ExecutorService codecExecutor,
+      @NotNull final Runnable onClose) {
+    this.httpClient = httpClient;
+    this.connectionPool = connectionPool;
+    this.httpExecutor = httpExecutor;
+    this.codecExecutor = codecExecutor;
+    this.onClose = onClose;
+  }
+
+  // a transport owned by one client, whose executors are shut down on close.
+  @NotNull
+  static Transport create(@NotNull final PixelaClientConfig config) {
+    return create(config, HttpTransport.JDK);
+  }
+
+  @NotNull
+  static Transport create(
+      @NotNull final PixelaClientConfig config, @NotNull final HttpTransport httpTransport) {
+    final ExecutorService codecExecutor =
+        Executors.newFixedThreadPool(Math.max(1, config.getJsonCodecThreadsNum()));
+    final ExecutorService httpExecutor = HttpExecutors.create(config);
+    if (httpTransport == HttpTransport.NIO) {
+      final NioConnectionPool connectionPool =
+          NioConnectionPool.open(
+              config.baseUri(),
+              NIO_MAX_CONNECTIONS,
+              NIO_MAX_PIPELINED_REQUESTS,
+              Duration.ofMillis(config.getTimeout()),
+              httpExecutor);
+      return new Transport(
+          null,
+          connectionPool,
+          httpExecutor,
+          codecExecutor,
+          () -> {
+            connectionPool.close();
+            httpExecutor.shutdown();
+            codecExecutor.shutdown();
+          });
+    }
+    final HttpClient httpClient =
+        HttpClient.newBuilder()
+            .executor(httpExecutor)
+            .connectTimeout(Duration.ofMillis(config.getTimeout()))
+            .followRedirects(HttpClient.Redirect.ALWAYS)
+            .version(VERSION)
+            .build();
+    return new Transport(
+        httpClient,
+        null,
+        httpExecutor,
+        codecExecutor,
+        () -> {
+          httpExecutor.shutdown();
+          codecExecutor.shutdown();
+        });
+  }
+
+  // a view of this transport, which runs the given action on close instead.
+  @NotNull
+  Transport lease(@NotNull final Runnable release) {
+    return new Transport(httpClient, connectionPool, httpExecutor, codecExecutor, release);
+  }
+
+  @NotNull
+  RequestSender sender(@NotNull final JsonDecoder decoder) {
+    if (connectionPool != null) {
+      return NioHttpClient.create(connectionPool, decoder);
+    }
+    assert httpClient != null;
+    return JdkHttpClient.create(httpClient, decoder);
+  }
+
+  @Nullable
+  HttpClient httpClient() {
+    return httpClient;
+  }
+
+  @Nullable
+  NioConnectionPool connectionPool() {
+    return connectionPool;
+  }
+
+  @NotNull
+  ExecutorService httpExecutor() {
+    return httpExecutor;
+  }
+
+  @NotNull
+  ExecutorService codecExecutor() {
+    return codecExecutor;
+  }
+
+  @Override
+  public void close() {
+    onClose.run();
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.junit.jupiter.api.Test;
+import pixela.client.PixelaClientConfig;
+
+class HttpExecutorsTest {
+
+  @Test
+  void fixedThreadPoolByDefault() {
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setThreadsNum(3);
+
+    final ExecutorService executorService = HttpExecutors.create(config);
+
+    try {
+      assertThat(executorService)
+          .isInstanceOfSatisfying(
+              ThreadPoolExecutor.class, pool -> assertThat(pool.getCorePoolSize()).isEqualTo(3));
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  @Test
+  void virtualThreadsWhenSupported() throws Exception {
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setThreadsNum(3);
+    config.setUseVirtualThreads(true);
+
+    final ExecutorService executorService = HttpExecutors.create(config);
+
+    try {
+      if (HttpExecutors.virtualThreadsAvailable()) {
+        assertThat(executorService).isNotInstanceOf(ThreadPoolExecutor.class);
+      } else {
+        assertThat(executorService).isInstanceOf(ThreadPoolExecutor.class);
+      }
+      assertThat(executorService.submit(() -> "run").get()).isEqualTo("run");
+    } finally {
+      executorService.shutdown();
+    }
+  }
+}
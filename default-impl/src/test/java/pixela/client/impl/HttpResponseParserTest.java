@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+class HttpResponseParserTest {
+
+  private final HttpResponseParser parser = new HttpResponseParser();
+
+  @NotNull
+  private static ByteBuffer bytes(@NotNull final String text) {
+    return ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1));
+  }
+
+  @NotNull
+  private static String body(@NotNull final HttpResponseParser.Response response) {
+    return new String(response.body(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void contentLengthBody() throws IOException {
+    final HttpResponseParser.Response response =
+        parser.parse(
+            bytes(
+                "HTTP/1.1 200 OK\r\n"
+                    + "Content-Type: application/json\r\n"
+                    + "content-length: 11\r\n\r\n"
+                    + "{\"a\":\"bc\"}\n"));
+
+    assertThat(response).isNotNull();
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(response.headers()).containsKey("Content-Length");
+    assertThat(body(response)).isEqualTo("{\"a\":\"bc\"}\n");
+    assertThat(response.keepAlive()).isTrue();
+    assertThat(parser.started()).isFalse();
+  }
+
+  @Test
+  void responseSplitIntoBuffers() throws IOException {
+    final String text = "HTTP/1.1 404 Not Found\r\nContent-Length: 5\r\n\r\nerror";
+    for (int index = 0; index < text.length() - 1; index++) {
+      assertThat(parser.parse(bytes(text.substring(index, index + 1)))).isNull();
+    }
+
+    final HttpResponseParser.Response response =
+        parser.parse(bytes(text.substring(text.length() - 1)));
+
+    assertThat(response).isNotNull();
+    assertThat(response.statusCode()).isEqualTo(404);
+    assertThat(body(response)).isEqualTo("error");
+  }
+
+  @Test
+  void chunkedBody() throws IOException {
+    final HttpResponseParser.Response response =
+        parser.parse(
+            bytes(
+                "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                    + "4;ext=1\r\n{\"a\"\r\n6\r\n:\"bc\"}\r\n0\r\nTrailer: x\r\n\r\n"));
+
+    assertThat(response).isNotNull();
+    assertThat(body(response)).isEqualTo("{\"a\":\"bc\"}");
+    assertThat(parser.started()).isFalse();
+  }
+
+  @Test
+  void notModifiedHasNoBody() throws IOException {
+    final HttpResponseParser.Response response =
+        parser.parse(bytes("HTTP/1.1 304 Not Modified\r\nContent-Length: 100\r\n\r\n"));
+
+    assertThat(response).isNotNull();
+    assertThat(response.statusCode()).isEqualTo(304);
+    assertThat(response.body()).isEmpty();
+  }
+
+  @Test
+  void pipelinedResponsesAreLeftInBuffer() throws IOException {
+    final ByteBuffer buffer =
+        bytes(
+            "HTTP/1.1 100 Continue\r\n\r\n"
+                + "HTTP/1.1 200 OK\r\n"
+                + "Content-Length: 3\r\n\r\n"
+                + "fooHTTP/1.1 503 Service Unavailable\r\n"
+                + "Content-Length: 3\r\n"
+                + "Connection: close\r\n\r\n"
+                + "bar");
+
+    final HttpResponseParser.Response first = parser.parse(buffer);
+    final HttpResponseParser.Response second = parser.parse(buffer);
+
+    assertThat(first).isNotNull();
+    assertThat(first.statusCode()).isEqualTo(200);
+    assertThat(body(first)).isEqualTo("foo");
+    assertThat(second).isNotNull();
+    assertThat(second.statusCode()).isEqualTo(503);
+    assertThat(body(second)).isEqualTo("bar");
+    assertThat(second.keepAlive()).isFalse();
+    assertThat(buffer.hasRemaining()).isFalse();
+  }
+
+  @Test
+  void bodyUntilConnectionIsClosed() throws IOException {
+    assertThat(parser.parse(bytes("HTTP/1.0 200 OK\r\n\r\nfoo"))).isNull();
+    assertThat(parser.parse(bytes("bar"))).isNull();
+
+    final HttpResponseParser.Response response = parser.endOfStream();
+
+    assertThat(response).isNotNull();
+    assertThat(body(response)).isEqualTo("foobar");
+    assertThat(response.keepAlive()).isFalse();
+  }
+
+  @Test
+  void connectionClosedInMiddleOfResponse() throws IOException {
+    assertThat(parser.endOfStream()).isNull();
+    assertThat(parser.parse(bytes("HTTP/1.1 200 OK\r\nContent-Length: 6\r\n\r\nfoo"))).isNull();
+
+    assertThatThrownBy(parser::endOfStream).isInstanceOf(IOException.class);
+  }
+}
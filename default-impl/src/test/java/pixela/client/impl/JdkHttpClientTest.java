@@ -9,6 +9,7 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import org.junit.jupiter.api.AfterAll;
@@ -52,7 +53,25 @@ class JdkHttpClientTest {
 
     @Test
     void responseIsError() {
-      final Mono<JdkHttpResponse> response = client.sendRequest(mock(HttpRequest.class));
+      final Mono<JdkHttpResponse> response = client.sendRequest(mock(HttpRequest.class), true);
+
+      StepVerifier.create(response).expectError(IOException.class).verify();
+    }
+  }
+
+  @Nested
+  class HttpClientFinishedInCompletionException {
+
+    @BeforeEach
+    void given() {
+      when(httpClient.sendAsync(any(), any()))
+          .thenReturn(
+              CompletableFuture.failedFuture(new CompletionException(new IOException("test"))));
+    }
+
+    @Test
+    void responseIsErrorOfCause() {
+      final Mono<JdkHttpResponse> response = client.sendRequest(mock(HttpRequest.class), true);
 
       StepVerifier.create(response).expectError(IOException.class).verify();
     }
@@ -72,7 +91,7 @@ class JdkHttpClientTest {
 
     @Test
     void responseIsEvent() {
-      final Mono<JdkHttpResponse> response = client.sendRequest(mock(HttpRequest.class));
+      final Mono<JdkHttpResponse> response = client.sendRequest(mock(HttpRequest.class), true);
 
       StepVerifier.create(response).expectNextCount(1).verifyComplete();
     }
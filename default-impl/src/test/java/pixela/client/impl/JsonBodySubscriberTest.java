@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pixela.client.http.json.JsonDecoder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class JsonBodySubscriberTest {
+
+  private static final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+  @AfterAll
+  static void closeTest() {
+    executorService.shutdown();
+  }
+
+  private final JsonCodecImpl codec =
+      new JsonCodecImpl(executorService, JsonCodecFactoryImpl.objectMapper);
+
+  private JsonBodySubscriber subscriber;
+
+  @BeforeEach
+  void setup() {
+    subscriber = new JsonBodySubscriber(codec);
+    subscriber.onSubscribe(mock(Flow.Subscription.class));
+  }
+
+  @Test
+  void decodeJsonSplitIntoChunks() {
+    final byte[] json = "{\"key\":\"日本語の値\"}".getBytes(StandardCharsets.UTF_8);
+    for (int index = 0; index < json.length; index += 3) {
+      final int length = Math.min(3, json.length - index);
+      subscriber.onNext(
+          Collections.singletonList(ByteBuffer.wrap(json, index, length).asReadOnlyBuffer()));
+    }
+    subscriber.onComplete();
+
+    final ResponseBody body = subscriber.getBody().toCompletableFuture().join();
+    final Mono<JsonCodecTest.Value> mono =
+        body.decode(mock(JsonDecoder.class), JsonCodecTest.Value.class);
+
+    StepVerifier.create(mono).expectNext(new JsonCodecTest.Value("日本語の値")).verifyComplete();
+  }
+
+  @Test
+  void bodyCanBeReadAsString() {
+    subscriber.onNext(
+        Arrays.asList(
+            buffer("{\"message\":\"error\","), buffer("\"isSuccess\":"), buffer("false}")));
+    subscriber.onComplete();
+
+    final ResponseBody body = subscriber.getBody().toCompletableFuture().join();
+
+    assertThat(body.asString()).isEqualTo("{\"message\":\"error\",\"isSuccess\":false}");
+  }
+
+  @Test
+  void invalidJsonFails() {
+    subscriber.onNext(Collections.singletonList(buffer("{\"invalid json]")));
+    subscriber.onComplete();
+
+    assertThat(subscriber.getBody().toCompletableFuture())
+        .hasFailedWithThrowableThat()
+        .isInstanceOf(UncheckedIOException.class)
+        .hasCauseInstanceOf(JsonParseException.class);
+  }
+
+  @Test
+  void errorFromHttpClientFails() {
+    subscriber.onNext(Collections.singletonList(buffer("{\"key\":")));
+    subscriber.onError(new IllegalStateException("test"));
+
+    assertThat(subscriber.getBody().toCompletableFuture())
+        .hasFailedWithThrowableThat()
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @NotNull
+  private static ByteBuffer buffer(@NotNull final String text) {
+    return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+  }
+}
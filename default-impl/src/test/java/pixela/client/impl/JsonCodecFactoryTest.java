@@ -17,8 +17,18 @@ package pixela.client.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
+import pixela.client.PixelaClientConfig;
+import pixela.client.api.graph.PixelRaw;
+import pixela.client.http.json.JsonCodec;
 import pixela.client.http.json.JsonCodecFactory;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 class JsonCodecFactoryTest {
 
@@ -27,4 +37,95 @@ class JsonCodecFactoryTest {
     final JsonCodecFactory factory = JsonCodecFactory.getInstance();
     assertThat(factory).isNotNull().isInstanceOf(JsonCodecFactoryImpl.class);
   }
+
+  @Test
+  void onlyFactoryIsUsedEvenIfLightCodecIsAsked() {
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setLightJsonCodec(true);
+
+    final JsonCodecFactory factory = JsonCodecFactory.getInstance(config);
+
+    assertThat(factory.supports(config)).isFalse();
+    assertThat(factory).isInstanceOf(JsonCodecFactoryImpl.class);
+  }
+
+  @Test
+  void smallJsonIsNotOffloaded() {
+    final AtomicInteger threads = new AtomicInteger();
+    final ExecutorService executorService = countingExecutor(threads);
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setInlineJsonCodec(true);
+    config.setInlineJsonMaxLength(64);
+    final JsonCodec codec = new JsonCodecFactoryImpl().create(executorService, config);
+
+    final Mono<String> mono = codec.decode("\"value\"", String.class);
+
+    StepVerifier.create(mono).expectNext("value").verifyComplete();
+    executorService.shutdown();
+    assertThat(threads).hasValue(0);
+  }
+
+  @Test
+  void largeJsonIsOffloaded() {
+    final AtomicInteger threads = new AtomicInteger();
+    final ExecutorService executorService = countingExecutor(threads);
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setInlineJsonCodec(true);
+    config.setInlineJsonMaxLength(4);
+    final JsonCodec codec = new JsonCodecFactoryImpl().create(executorService, config);
+
+    final Mono<String> mono = codec.decode("\"value\"", String.class);
+
+    StepVerifier.create(mono).expectNext("value").verifyComplete();
+    executorService.shutdown();
+    assertThat(threads).hasValue(1);
+  }
+
+  @Test
+  void defaultConfigAlwaysOffloads() {
+    final AtomicInteger threads = new AtomicInteger();
+    final ExecutorService executorService = countingExecutor(threads);
+    final JsonCodec codec =
+        new JsonCodecFactoryImpl().create(executorService, new PixelaClientConfig());
+
+    final Mono<String> mono = codec.decode("\"value\"", String.class);
+
+    StepVerifier.create(mono).expectNext("value").verifyComplete();
+    executorService.shutdown();
+    assertThat(threads).hasValue(1);
+  }
+
+  @Test
+  void accessorModuleIsNotRegisteredWhenAbsent() {
+    final ObjectMapper objectMapper = JsonCodecFactoryImpl.objectMapper;
+
+    assertThat(objectMapper.getRegisteredModuleIds()).hasSize(1);
+  }
+
+  @Test
+  void preparedTypeIsDecodedByCachedReader() {
+    final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    final JsonCodec codec = new JsonCodecFactoryImpl().create(executorService);
+
+    final Mono<PixelRaw> mono =
+        codec.decode("{\"quantity\":\"5\",\"optionalData\":null}", PixelRaw.class);
+
+    StepVerifier.create(mono)
+        .assertNext(
+            pixel ->
+                assertThat(pixel)
+                    .returns("5", PixelRaw::getQuantity)
+                    .returns(null, PixelRaw::getOptionalData))
+        .verifyComplete();
+    executorService.shutdown();
+  }
+
+  @NotNull
+  private static ExecutorService countingExecutor(@NotNull final AtomicInteger threads) {
+    return Executors.newSingleThreadExecutor(
+        runnable -> {
+          threads.incrementAndGet();
+          return new Thread(runnable);
+        });
+  }
 }
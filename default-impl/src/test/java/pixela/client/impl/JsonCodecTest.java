@@ -18,10 +18,16 @@ package pixela.client.impl;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.*;
+import pixela.client.PixelDate;
+import pixela.client.http.Instrumentation;
+import pixela.client.http.Request;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -75,6 +81,74 @@ class JsonCodecTest {
     assertThat(value).isEqualTo(new Value("value"));
   }
 
+  @Test
+  void successToEncodeInline(final ExecutorService service) {
+    final JsonCodecImpl codec =
+        new JsonCodecImpl(service, JsonCodecFactoryImpl.objectMapper, Integer.MAX_VALUE);
+    final Mono<String> mono = codec.encodeObject(new Value("value"));
+    StepVerifier.create(mono).expectNext("{\"key\":\"value\"}").verifyComplete();
+  }
+
+  @Test
+  void successToDecodeInline(final ExecutorService service) {
+    final JsonCodecImpl codec =
+        new JsonCodecImpl(service, JsonCodecFactoryImpl.objectMapper, Integer.MAX_VALUE);
+    final Mono<Value> mono = codec.decode("{\"key\":\"value\"}", Value.class);
+    StepVerifier.create(mono).expectNext(new Value("value")).verifyComplete();
+  }
+
+  @Test
+  void failToDecodeInline(final ExecutorService service) {
+    final JsonCodecImpl codec =
+        new JsonCodecImpl(service, JsonCodecFactoryImpl.objectMapper, Integer.MAX_VALUE);
+    final Mono<String> mono = codec.decode("foo-bar", String.class);
+    StepVerifier.create(mono).expectError(IOException.class).verify();
+  }
+
+  @Test
+  void pixelDateIsCodedAsPixelDateFormat(final ExecutorService service) {
+    final JsonCodecImpl codec = new JsonCodecImpl(service, JsonCodecFactoryImpl.objectMapper);
+    final PixelDate date = PixelDate.of(LocalDate.of(2019, 9, 1));
+
+    StepVerifier.create(codec.encodeObject(date)).expectNext("\"20190901\"").verifyComplete();
+    StepVerifier.create(codec.decode("\"20190901\"", PixelDate.class))
+        .expectNext(date)
+        .verifyComplete();
+  }
+
+  @Test
+  void instrumentationReceivesCodecTime(final ExecutorService service) {
+    final List<String> records = new ArrayList<>();
+    final Instrumentation instrumentation =
+        new Instrumentation() {
+          @NotNull
+          @Override
+          public Exchange start(@NotNull final String method, @NotNull final Request<?> request) {
+            return Instrumentation.noop().start(method, request);
+          }
+
+          @Override
+          public void codec(
+              @NotNull final CodecOperation operation,
+              @NotNull final Class<?> type,
+              final long nanos) {
+            records.add(operation + ":" + type.getSimpleName());
+          }
+        };
+    final JsonCodecImpl codec =
+        new JsonCodecImpl(
+            service, JsonCodecFactoryImpl.objectMapper, Integer.MAX_VALUE, instrumentation);
+
+    StepVerifier.create(codec.encodeObject(new Value("value")))
+        .expectNextCount(1L)
+        .verifyComplete();
+    StepVerifier.create(codec.decode("{\"key\":\"value\"}", Value.class))
+        .expectNextCount(1L)
+        .verifyComplete();
+
+    assertThat(records).containsExactly("ENCODE:Value", "DECODE:Value");
+  }
+
   @SuppressWarnings("WeakerAccess")
   public static class Value {
     public String key;
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import pixela.client.http.json.JsonDecoder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class NioHttpClientTest {
+
+  private static final ExecutorService executorService = Executors.newCachedThreadPool();
+
+  @AfterAll
+  static void closeTest() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  void encodeGetRequest() {
+    final HttpRequest request =
+        HttpRequest.newBuilder(
+                URI.create("http://localhost:8000/v1/users/a/graphs/b?from=20190901"))
+            .header("X-USER-TOKEN", "token")
+            .GET()
+            .build();
+
+    final byte[] bytes = NioHttpClient.encode(request, new byte[0]);
+
+    assertThat(new String(bytes, StandardCharsets.ISO_8859_1))
+        .isEqualTo(
+            "GET /v1/users/a/graphs/b?from=20190901 HTTP/1.1\r\n"
+                + "Host: localhost:8000\r\n"
+                + "X-USER-TOKEN: token\r\n"
+                + "\r\n");
+  }
+
+  @Test
+  void encodePutRequestWithoutBody() {
+    final HttpRequest request =
+        HttpRequest.newBuilder(URI.create("http://localhost/v1/users/a/graphs/b/increment"))
+            .PUT(HttpRequest.BodyPublishers.noBody())
+            .build();
+
+    final byte[] bytes = NioHttpClient.encode(request, new byte[0]);
+
+    assertThat(new String(bytes, StandardCharsets.ISO_8859_1))
+        .isEqualTo(
+            "PUT /v1/users/a/graphs/b/increment HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Content-Length: 0\r\n"
+                + "\r\n");
+  }
+
+  @Test
+  void encodePostRequestWithBody() {
+    final HttpRequest request =
+        HttpRequest.newBuilder(URI.create("http://localhost/v1/users"))
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build();
+
+    final byte[] bytes = NioHttpClient.encode(request, "{}".getBytes(StandardCharsets.UTF_8));
+
+    assertThat(new String(bytes, StandardCharsets.ISO_8859_1))
+        .endsWith("Content-Length: 2\r\n\r\n{}");
+  }
+
+  @Test
+  void nonIdempotentRequestIsNotPipelinedNorSentAgainAfterTimeout() throws Exception {
+    final List<String> received = new CopyOnWriteArrayList<>();
+    try (final ServerSocket server = new ServerSocket(0)) {
+      executorService.execute(() -> accept(server, received));
+      final URI baseUri = URI.create("http://localhost:" + server.getLocalPort());
+      final JsonDecoder decoder = new JsonCodecFactoryImpl().create(executorService);
+      try (final NioConnectionPool pool =
+          NioConnectionPool.open(baseUri, 1, 4, Duration.ofMillis(500L), executorService)) {
+        final NioHttpClient client = NioHttpClient.create(pool, decoder);
+        final HttpRequest hang = HttpRequest.newBuilder(baseUri.resolve("/hang")).GET().build();
+        final HttpRequest increment =
+            HttpRequest.newBuilder(baseUri.resolve("/v1/users/a/graphs/b/increment"))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        final Mono<JdkHttpResponse> hanging = client.sendRequest(hang, true).cache();
+        hanging.subscribe(res -> {}, error -> {});
+        Thread.sleep(200L);
+        final Mono<Integer> incremented =
+            client.sendRequest(increment, false).map(JdkHttpResponse::statusCode);
+
+        StepVerifier.create(incremented).expectNext(200).verifyComplete();
+        StepVerifier.create(hanging).verifyError(HttpTimeoutException.class);
+      }
+    }
+    assertThat(received).filteredOn(line -> line.startsWith("PUT")).hasSize(1);
+  }
+
+  private static void accept(
+      @NotNull final ServerSocket server, @NotNull final List<String> received) {
+    try {
+      while (!server.isClosed()) {
+        final Socket socket = server.accept();
+        executorService.execute(() -> serve(socket, received));
+      }
+    } catch (final IOException ignore) {
+      // the server is closed.
+    }
+  }
+
+  // answers requests with empty 200 responses, except that "/hang" and ones after it are not.
+  private static void serve(@NotNull final Socket socket, @NotNull final List<String> received) {
+    try (final Socket client = socket;
+        final BufferedReader reader =
+            new BufferedReader(
+                new InputStreamReader(client.getInputStream(), StandardCharsets.ISO_8859_1))) {
+      final OutputStream out = client.getOutputStream();
+      final byte[] response =
+          "HTTP/1.1 200 OK\r\nContent-Length: 0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+      boolean hanging = false;
+      String requestLine;
+      while ((requestLine = reader.readLine()) != null) {
+        String header;
+        while ((header = reader.readLine()) != null && !header.isEmpty()) {
+          // no body is sent in this test.
+        }
+        received.add(requestLine);
+        hanging = hanging || requestLine.startsWith("GET /hang ");
+        if (!hanging) {
+          out.write(response);
+          out.flush();
+        }
+      }
+    } catch (final IOException ignore) {
+      // the connection is closed by the client.
+    }
+  }
+}
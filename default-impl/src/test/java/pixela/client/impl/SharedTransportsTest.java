@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import pixela.client.PixelaClientConfig;
+import pixela.client.http.HttpTransport;
+
+class SharedTransportsTest {
+
+  private final SharedTransports sharedTransports = new SharedTransports();
+
+  @NotNull
+  private static PixelaClientConfig config(final int timeout) {
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setBaseUri("http://localhost:8000");
+    config.setTimeout(timeout);
+    config.setThreadsNum(1);
+    return config;
+  }
+
+  @Test
+  void sameConfigSharesTransport() {
+    final Transport first = sharedTransports.lease(config(1_000), HttpTransport.JDK);
+    final Transport second = sharedTransports.lease(config(1_000), HttpTransport.JDK);
+
+    assertThat(second.httpClient()).isSameAs(first.httpClient());
+    assertThat(second.httpExecutor()).isSameAs(first.httpExecutor());
+    assertThat(sharedTransports.size()).isEqualTo(1);
+
+    first.close();
+    second.close();
+  }
+
+  @Test
+  void differentTimeoutUsesAnotherTransport() {
+    final Transport first = sharedTransports.lease(config(1_000), HttpTransport.JDK);
+    final Transport second = sharedTransports.lease(config(2_000), HttpTransport.JDK);
+
+    assertThat(second.httpClient()).isNotSameAs(first.httpClient());
+    assertThat(sharedTransports.size()).isEqualTo(2);
+
+    first.close();
+    second.close();
+  }
+
+  @Test
+  void differentHttpTransportUsesAnotherTransport() {
+    final Transport first = sharedTransports.lease(config(1_000), HttpTransport.JDK);
+    final Transport second = sharedTransports.lease(config(1_000), HttpTransport.NIO);
+
+    assertThat(second.httpClient()).isNull();
+    assertThat(second.connectionPool()).isNotNull();
+    assertThat(sharedTransports.size()).isEqualTo(2);
+
+    first.close();
+    second.close();
+  }
+
+  @Test
+  void transportIsClosedWithLastLease() {
+    final Transport first = sharedTransports.lease(config(1_000), HttpTransport.JDK);
+    final Transport second = sharedTransports.lease(config(1_000), HttpTransport.JDK);
+
+    first.close();
+    first.close();
+    assertThat(first.httpExecutor().isShutdown()).isFalse();
+    assertThat(sharedTransports.size()).isEqualTo(1);
+
+    second.close();
+    assertThat(second.httpExecutor().isShutdown()).isTrue();
+    assertThat(second.codecExecutor().isShutdown()).isTrue();
+    assertThat(sharedTransports.size()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package integration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import pixela.client.*;
+import pixela.client.http.CircuitBreaker;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith({MockPixelaServer.class})
+class CircuitBreakerTest {
+
+  private CircuitBreaker circuitBreaker;
+
+  private PixelaClient pixelaClient;
+
+  @BeforeEach
+  void prepare() {
+    stubFor(
+        get("/v1/users/test-user/webhooks")
+            .willReturn(
+                aResponse()
+                    .withStatus(500)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"message\":\"Internal server error.\",\"isSuccess\":false}")));
+
+    circuitBreaker = CircuitBreaker.perEndpoint(4, 0.5, Duration.ofMinutes(1L));
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setBaseUri("http://localhost:8000");
+    config.setTimeout(5_000);
+    config.setThreadsNum(1);
+    config.setCircuitBreaker(circuitBreaker);
+    pixelaClient = Pixela.withDefaultJavaClient(config);
+  }
+
+  @AfterEach
+  void close() throws Exception {
+    pixelaClient.close();
+  }
+
+  @Test
+  void openCircuitFailsWithoutSendingRequest() {
+    final Pixela pixela = pixelaClient.username("test-user").token("test-token");
+    for (int i = 0; i < 2; i++) {
+      StepVerifier.create(pixela.getWebhooks().call()).verifyError(ApiException.class);
+    }
+
+    final Mono<List<Webhook>> webhooks = pixela.getWebhooks().call();
+
+    StepVerifier.create(webhooks)
+        .expectErrorSatisfies(
+            error ->
+                assertThat(error)
+                    .isInstanceOfSatisfying(
+                        CircuitOpenException.class,
+                        e ->
+                            assertThat(e.endpoint())
+                                .isEqualTo("GET /v1/users/{username}/webhooks")))
+        .verify();
+    verify(2, getRequestedFor(urlEqualTo("/v1/users/test-user/webhooks")));
+    assertThat(circuitBreaker.metrics().rejectedRequests()).isEqualTo(1L);
+  }
+}
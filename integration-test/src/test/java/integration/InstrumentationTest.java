@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package integration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import pixela.client.MockPixelaServer;
+import pixela.client.Pixela;
+import pixela.client.PixelaClient;
+import pixela.client.PixelaClientConfig;
+import pixela.client.http.Instrumentation;
+import pixela.client.http.Request;
+import reactor.test.StepVerifier;
+
+@ExtendWith({MockPixelaServer.class})
+class InstrumentationTest {
+
+  private final List<String> records = new CopyOnWriteArrayList<>();
+
+  private PixelaClient pixelaClient;
+
+  @BeforeEach
+  void prepare() {
+    stubFor(
+        get("/v1/users/test-user/webhooks")
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"webhooks\":[]}")));
+
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setBaseUri("http://localhost:8000");
+    config.setTimeout(5_000);
+    config.setThreadsNum(1);
+    config.setInstrumentation(new Recording());
+    pixelaClient = Pixela.withDefaultJavaClient(config);
+  }
+
+  @AfterEach
+  void close() throws Exception {
+    pixelaClient.close();
+  }
+
+  @Test
+  void exchangeIsRecordedWithEndpointTemplate() {
+    final Pixela pixela = pixelaClient.username("test-user").token("test-token");
+
+    StepVerifier.create(pixela.getWebhooks().call())
+        .expectNext(Collections.emptyList())
+        .verifyComplete();
+
+    assertThat(records)
+        .containsExactly(
+            "start:GET /v1/users/{username}/webhooks", "queued", "completed:200", "DECODE");
+  }
+
+  private class Recording implements Instrumentation {
+
+    @NotNull
+    @Override
+    public Exchange start(@NotNull final String method, @NotNull final Request<?> request) {
+      records.add("start:" + method + " " + request.endpointTemplate());
+      return new Exchange() {
+        @Override
+        public void queued(final long nanos) {
+          records.add("queued");
+        }
+
+        @Override
+        public void completed(
+            final int statusCode,
+            final long requestBytes,
+            final long responseBytes,
+            final long nanos) {
+          records.add("completed:" + statusCode);
+        }
+
+        @Override
+        public void failed(@NotNull final Throwable error, final long nanos) {
+          records.add("failed");
+        }
+      };
+    }
+
+    @Override
+    public void codec(
+        @NotNull final CodecOperation operation, @NotNull final Class<?> type, final long nanos) {
+      records.add(operation.name());
+    }
+  }
+}
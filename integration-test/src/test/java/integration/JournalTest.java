@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package integration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import pixela.client.GraphId;
+import pixela.client.MockPixelaServer;
+import pixela.client.Pixela;
+import pixela.client.PixelaClient;
+import pixela.client.PixelaClientConfig;
+import pixela.client.journal.PixelJournal;
+import reactor.test.StepVerifier;
+
+@ExtendWith({MockPixelaServer.class})
+class JournalTest {
+
+  private static final String GRAPH_URL = "/v1/users/test-user/graphs/test-graph";
+
+  private PixelJournal journal;
+
+  private PixelaClient pixelaClient;
+
+  @BeforeEach
+  void prepare(@TempDir final Path directory) {
+    stubFor(
+        post(GRAPH_URL)
+            .inScenario("unavailable")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(
+                aResponse()
+                    .withStatus(503)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"message\":\"Service unavailable.\",\"isSuccess\":false}"))
+            .willSetStateTo("available"));
+    stubFor(
+        post(GRAPH_URL)
+            .inScenario("unavailable")
+            .whenScenarioStateIs("available")
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"message\":\"Success.\",\"isSuccess\":true}")));
+
+    journal = PixelJournal.open(directory, Duration.ofHours(1L), Clock.systemUTC());
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setBaseUri("http://localhost:8000");
+    config.setTimeout(5_000);
+    config.setThreadsNum(1);
+    config.setPixelJournal(journal);
+    pixelaClient = Pixela.withDefaultJavaClient(config);
+  }
+
+  @AfterEach
+  void close() throws Exception {
+    pixelaClient.close();
+  }
+
+  @Test
+  void postIsSentLaterWhenServerIsUnavailable() {
+    final Pixela pixela = pixelaClient.username("test-user").token("test-token");
+    final LocalDate date = LocalDate.of(2019, 9, 1);
+
+    StepVerifier.create(
+            pixela.graph(GraphId.of("test-graph")).postPixel().date(date).quantity(3).call())
+        .assertNext(pixel -> assertThat(pixel.date()).isEqualTo(date))
+        .verifyComplete();
+    verify(0, postRequestedFor(urlEqualTo(GRAPH_URL)));
+
+    StepVerifier.create(journal.drain()).verifyComplete();
+    assertThat(journal.replayed()).isEqualTo(0L);
+
+    StepVerifier.create(journal.drain()).verifyComplete();
+    assertThat(journal.replayed()).isEqualTo(1L);
+    verify(
+        2,
+        postRequestedFor(urlEqualTo(GRAPH_URL))
+            .withHeader("X-USER-TOKEN", equalTo("test-token"))
+            .withRequestBody(matchingJsonPath("$.quantity", equalTo("3"))));
+  }
+}
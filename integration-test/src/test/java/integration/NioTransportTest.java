@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package integration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import pixela.client.*;
+import pixela.client.http.HttpTransport;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith({MockPixelaServer.class})
+class NioTransportTest {
+
+  private PixelaClient pixelaClient;
+
+  @BeforeEach
+  void prepare() {
+    stubFor(
+        get("/v1/users/test-user/webhooks")
+            .withHeader("X-USER-TOKEN", equalTo("test-token"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"webhooks\":[]}")));
+    stubFor(
+        post("/v1/users/test-user/graphs/test-graph")
+            .withHeader("X-USER-TOKEN", equalTo("test-token"))
+            .withRequestBody(matchingJsonPath("$.date", equalTo("20190901")))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"message\":\"Success.\",\"isSuccess\":true}")));
+
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setBaseUri("http://localhost:8000");
+    config.setTimeout(5_000);
+    config.setThreadsNum(1);
+    config.setHttpTransport(HttpTransport.NIO);
+    pixelaClient = Pixela.withDefaultJavaClient(config);
+  }
+
+  @AfterEach
+  void close() throws Exception {
+    pixelaClient.close();
+  }
+
+  @Test
+  void concurrentGetRequestsAreSentOverConnectionPool() {
+    final Pixela pixela = pixelaClient.username("test-user").token("test-token");
+
+    final Flux<List<Webhook>> webhooks =
+        Flux.range(0, 32).flatMap(i -> pixela.getWebhooks().call(), 32);
+
+    StepVerifier.create(webhooks)
+        .expectNextSequence(Collections.nCopies(32, Collections.emptyList()))
+        .verifyComplete();
+    verify(32, getRequestedFor(urlEqualTo("/v1/users/test-user/webhooks")));
+  }
+
+  @Test
+  void postRequestSendsBody() {
+    final Pixela pixela = pixelaClient.username("test-user").token("test-token");
+
+    final Mono<Pixel> pixel =
+        pixela
+            .graph(GraphId.of("test-graph"))
+            .postPixel()
+            .date(LocalDate.of(2019, 9, 1))
+            .quantity(1)
+            .call();
+
+    StepVerifier.create(pixel)
+        .assertNext(p -> assertThat(p.date()).isEqualTo(LocalDate.of(2019, 9, 1)))
+        .verifyComplete();
+    verify(1, postRequestedFor(urlEqualTo("/v1/users/test-user/graphs/test-graph")));
+  }
+
+  @Test
+  void httpsBaseUriFails() {
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setHttpTransport(HttpTransport.NIO);
+
+    assertThatThrownBy(() -> Pixela.withDefaultJavaClient(config))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("https://pixe.la");
+  }
+}
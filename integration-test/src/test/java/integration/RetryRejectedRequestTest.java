@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package integration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import pixela.client.*;
+import pixela.client.http.RetryPolicy;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith({MockPixelaServer.class})
+class RetryRejectedRequestTest {
+
+  private static final String REJECTED =
+      "{\"message\":\"Please retry this request.\",\"isSuccess\":false,\"isRejected\":true}";
+
+  private RetryPolicy retryPolicy;
+
+  private PixelaClient pixelaClient;
+
+  @BeforeEach
+  void prepare() {
+    stubFor(
+        get("/v1/users/test-user/webhooks")
+            .inScenario("rejected")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(
+                aResponse()
+                    .withStatus(503)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(REJECTED))
+            .willSetStateTo("retried"));
+    stubFor(
+        get("/v1/users/test-user/webhooks")
+            .inScenario("rejected")
+            .whenScenarioStateIs("retried")
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"webhooks\":[]}")));
+    stubFor(
+        post("/v1/users/test-user/graphs/test-graph")
+            .willReturn(
+                aResponse()
+                    .withStatus(503)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"message\":\"Service unavailable.\",\"isSuccess\":false}")));
+    stubFor(
+        get("/v1/users/test-user/graphs")
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"graphs\":[")));
+
+    retryPolicy =
+        RetryPolicy.exponentialBackoff(3, Duration.ofMillis(10), Duration.ofMillis(50), 0.1);
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setBaseUri("http://localhost:8000");
+    config.setTimeout(5_000);
+    config.setThreadsNum(1);
+    config.setRetryPolicy(retryPolicy);
+    pixelaClient = Pixela.withDefaultJavaClient(config);
+  }
+
+  @AfterEach
+  void close() throws Exception {
+    pixelaClient.close();
+  }
+
+  @Test
+  void rejectedRequestIsRetried() {
+    final Pixela pixela = pixelaClient.username("test-user").token("test-token");
+
+    final Mono<List<Webhook>> webhooks = pixela.getWebhooks().call();
+
+    StepVerifier.create(webhooks).expectNext(Collections.emptyList()).verifyComplete();
+    assertThat(retryPolicy.metrics().retries()).isEqualTo(1L);
+  }
+
+  @Test
+  void serverErrorOfPostIsNotRetried() {
+    final Pixela pixela = pixelaClient.username("test-user").token("test-token");
+
+    final Mono<Pixel> pixel =
+        pixela
+            .graph(GraphId.of("test-graph"))
+            .postPixel()
+            .date(LocalDate.of(2019, 9, 1))
+            .quantity(1)
+            .call();
+
+    StepVerifier.create(pixel)
+        .expectErrorSatisfies(
+            error ->
+                assertThat(error)
+                    .isInstanceOfSatisfying(
+                        ApiException.class,
+                        e -> assertThat(e.errorType()).isEqualTo(ErrorType.SERVER_ERROR)))
+        .verify();
+    assertThat(retryPolicy.metrics().retries()).isEqualTo(0L);
+    verify(1, postRequestedFor(urlEqualTo("/v1/users/test-user/graphs/test-graph")));
+  }
+
+  @Test
+  void malformedBodyIsNotRetried() {
+    final Pixela pixela = pixelaClient.username("test-user").token("test-token");
+
+    final Mono<List<Graph>> graphs = pixela.getGraphDefinitions().call();
+
+    StepVerifier.create(graphs)
+        .expectErrorSatisfies(error -> assertThat(error).isInstanceOf(UncheckedIOException.class))
+        .verify();
+    assertThat(retryPolicy.metrics().retries()).isEqualTo(0L);
+    verify(1, getRequestedFor(urlEqualTo("/v1/users/test-user/graphs")));
+  }
+}
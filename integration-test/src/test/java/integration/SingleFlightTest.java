@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package integration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import pixela.client.*;
+import pixela.client.http.SingleFlight;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@ExtendWith({MockPixelaServer.class})
+class SingleFlightTest {
+
+  private SingleFlight singleFlight;
+
+  private PixelaClient pixelaClient;
+
+  @BeforeEach
+  void prepare() {
+    stubFor(
+        get("/v1/users/test-user/webhooks")
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withFixedDelay(500)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"webhooks\":[]}")));
+
+    singleFlight = SingleFlight.perRequest();
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setBaseUri("http://localhost:8000");
+    config.setTimeout(5_000);
+    config.setThreadsNum(1);
+    config.setSingleFlight(singleFlight);
+    pixelaClient = Pixela.withDefaultJavaClient(config);
+  }
+
+  @AfterEach
+  void close() throws Exception {
+    pixelaClient.close();
+  }
+
+  @Test
+  void concurrentIdenticalRequestsAreSentOnce() {
+    final Pixela pixela = pixelaClient.username("test-user").token("test-token");
+
+    final Flux<List<Webhook>> webhooks = Flux.range(0, 8).flatMap(i -> pixela.getWebhooks().call());
+
+    StepVerifier.create(webhooks)
+        .expectNextSequence(Collections.nCopies(8, Collections.emptyList()))
+        .verifyComplete();
+    verify(1, getRequestedFor(urlEqualTo("/v1/users/test-user/webhooks")));
+    assertThat(singleFlight.metrics().joinedRequests()).isEqualTo(7L);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package integration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import pixela.client.*;
+import pixela.client.cache.SvgCache;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.function.Tuple2;
+
+@ExtendWith({MockPixelaServer.class})
+class SvgRevalidationTest {
+
+  private static final String SVG = "<svg xmlns=\"http://www.w3.org/2000/svg\"></svg>";
+
+  private static final String GRAPH_URL = "/v1/users/test-user/graphs/test-graph";
+
+  private PixelaClient pixelaClient;
+
+  @BeforeEach
+  void prepare() {
+    stubFor(
+        get(urlEqualTo(GRAPH_URL))
+            .atPriority(2)
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "image/svg+xml")
+                    .withHeader("ETag", "\"v1\"")
+                    .withBody(SVG)));
+    stubFor(
+        get(urlEqualTo(GRAPH_URL))
+            .atPriority(1)
+            .withHeader("If-None-Match", equalTo("\"v1\""))
+            .willReturn(aResponse().withStatus(304).withHeader("ETag", "\"v1\"")));
+
+    final PixelaClientConfig config = new PixelaClientConfig();
+    config.setBaseUri("http://localhost:8000");
+    config.setTimeout(5_000);
+    config.setThreadsNum(1);
+    config.setSvgCache(SvgCache.of(64 * 1024, Duration.ofMillis(50)));
+    pixelaClient = Pixela.withDefaultJavaClient(config);
+  }
+
+  @AfterEach
+  void close() throws Exception {
+    pixelaClient.close();
+  }
+
+  private Mono<Tuple2<Graph, String>> getSvg() {
+    final Pixela pixela = pixelaClient.username("test-user").token("test-token");
+    return pixela.graph(GraphId.of("test-graph")).getGraphSvg().call();
+  }
+
+  @Test
+  void staleSvgIsRevalidatedWithEtag() throws InterruptedException {
+    StepVerifier.create(getSvg())
+        .assertNext(t -> assertThat(t.getT2()).isEqualTo(SVG))
+        .verifyComplete();
+    StepVerifier.create(getSvg())
+        .assertNext(t -> assertThat(t.getT2()).isEqualTo(SVG))
+        .verifyComplete();
+    verify(1, getRequestedFor(urlEqualTo(GRAPH_URL)));
+
+    Thread.sleep(100L);
+
+    StepVerifier.create(getSvg())
+        .assertNext(t -> assertThat(t.getT2()).isEqualTo(SVG))
+        .verifyComplete();
+    verify(2, getRequestedFor(urlEqualTo(GRAPH_URL)));
+    verify(
+        1, getRequestedFor(urlEqualTo(GRAPH_URL)).withHeader("If-None-Match", equalTo("\"v1\"")));
+  }
+}
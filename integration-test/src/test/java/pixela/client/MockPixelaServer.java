@@ -60,6 +60,9 @@ public class MockPixelaServer implements BeforeEachCallback, AfterEachCallback,
             () -> {
               final PixelaClient pixelaClient =
                   store.remove(PixelaClient.class, PixelaClient.class);
+              if (pixelaClient == null) {
+                return;
+              }
               pixelaClient.close();
             })
         .add(() -> store.remove(PixelaClientConfig.class))
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.codec;
+
+import java.io.IOException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/** pull reader of json text, enough for the flat objects and arrays pixela responds with. */
+final class JsonReader {
+
+  @NotNull private final String json;
+  private int position;
+
+  // whether the next element of the current object or array is the first one.
+  private boolean first;
+
+  JsonReader(@NotNull final String json) {
+    this.json = json;
+  }
+
+  void beginObject() throws IOException {
+    expect('{');
+    first = true;
+  }
+
+  /**
+   * @return name of the next field, or null when the object ends.
+   * @throws IOException - when the json is broken.
+   */
+  @Nullable
+  String nextName() throws IOException {
+    if (!hasNext('}')) {
+      return null;
+    }
+    final String name = string();
+    expect(':');
+    return name;
+  }
+
+  void beginArray() throws IOException {
+    expect('[');
+    first = true;
+  }
+
+  // whether the array has the next element.
+  boolean hasNextElement() throws IOException {
+    return hasNext(']');
+  }
+
+  /**
+   * reads string value. As well as jackson, number and boolean are read as their text.
+   *
+   * @return the value, or null for json null.
+   * @throws IOException - when the value is object or array.
+   */
+  @Nullable
+  String nextString() throws IOException {
+    final char c = peek();
+    if (c == '"') {
+      return string();
+    }
+    if (c == '{' || c == '[') {
+      throw error("string expected");
+    }
+    final String literal = literal();
+    return "null".equals(literal) ? null : literal;
+  }
+
+  boolean nextBoolean() throws IOException {
+    final String value = nextString();
+    if (value == null || "false".equals(value)) {
+      return false;
+    }
+    if ("true".equals(value)) {
+      return true;
+    }
+    throw error("boolean expected");
+  }
+
+  void skipValue() throws IOException {
+    final char c = peek();
+    if (c == '{') {
+      beginObject();
+      while (nextName() != null) {
+        skipValue();
+      }
+    } else if (c == '[') {
+      beginArray();
+      while (hasNextElement()) {
+        skipValue();
+      }
+    } else {
+      nextString();
+    }
+    first = false;
+  }
+
+  // checks nothing but white spaces follows.
+  void end() throws IOException {
+    skipWhitespace();
+    if (position < json.length()) {
+      throw error("end of json expected");
+    }
+  }
+
+  private boolean hasNext(final char close) throws IOException {
+    if (peek() == close) {
+      position++;
+      first = false;
+      return false;
+    }
+    if (!first) {
+      expect(',');
+    }
+    first = false;
+    return true;
+  }
+
+  @NotNull
+  private String string() throws IOException {
+    expect('"');
+    final int start = position;
+    while (position < json.length()) {
+      final char c = json.charAt(position);
+      if (c == '"') {
+        return json.substring(start, position++);
+      }
+      if (c == '\\') {
+        return escapedString(start);
+      }
+      position++;
+    }
+    throw error("unterminated string");
+  }
+
+  @NotNull
+  private String escapedString(final int start) throws IOException {
+    final StringBuilder builder = new StringBuilder(json.length() - start);
+    builder.append(json, start, position);
+    while (position < json.length()) {
+      final char c = json.charAt(position++);
+      if (c == '"') {
+        return builder.toString();
+      }
+      if (c != '\\') {
+        builder.append(c);
+        continue;
+      }
+      if (position == json.length()) {
+        break;
+      }
+      final char escaped = json.charAt(position++);
+      switch (escaped) {
+        case '"':
+        case '\\':
+        case '/':
+          builder.append(escaped);
+          break;
+        case 'b':
+          builder.append('\b');
+          break;
+        case 'f':
+          builder.append('\f');
+          break;
+        case 'n':
+          builder.append('\n');
+          break;
+        case 'r':
+          builder.append('\r');
+          break;
+        case 't':
+          builder.append('\t');
+          break;
+        case 'u':
+          if (json.length() < position + 4) {
+            throw error("broken unicode escape");
+          }
+          try {
+            builder.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+          } catch (final NumberFormatException e) {
+            throw error("broken unicode escape");
+          }
+          position += 4;
+          break;
+        default:
+          throw error("unknown escape \\" + escaped);
+      }
+    }
+    throw error("unterminated string");
+  }
+
+  // number, true, false or null.
+  @NotNull
+  private String literal() throws IOException {
+    final int start = position;
+    while (position < json.length()) {
+      final char c = json.charAt(position);
+      if (c == ',' || c == '}' || c == ']' || isWhitespace(c)) {
+        break;
+      }
+      position++;
+    }
+    if (start == position) {
+      throw error("value expected");
+    }
+    return json.substring(start, position);
+  }
+
+  private void expect(final char expected) throws IOException {
+    if (peek() != expected) {
+      throw error("'" + expected + "' expected");
+    }
+    position++;
+  }
+
+  private char peek() throws IOException {
+    skipWhitespace();
+    if (position == json.length()) {
+      throw error("unexpected end of json");
+    }
+    return json.charAt(position);
+  }
+
+  private void skipWhitespace() {
+    while (position < json.length() && isWhitespace(json.charAt(position))) {
+      position++;
+    }
+  }
+
+  private static boolean isWhitespace(final char c) {
+    return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+  }
+
+  @NotNull
+  private IOException error(@NotNull final String message) {
+    return new IOException(message + " at " + position);
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.codec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pixela.client.http.Instrumentation;
+import pixela.client.http.Instrumentation.CodecOperation;
+import pixela.client.http.json.JsonBuffer;
+import pixela.client.http.json.JsonCodec;
+import pixela.client.http.json.JsonWritable;
+import reactor.core.publisher.Mono;
+
+/**
+ * json codec of the fixed types of pixela, without reflection. Other types, such as optional data
+ * of pixels, are handed to the fallback codec. The types are small enough to be processed on the
+ * calling thread.
+ */
+final class LightJsonCodec implements JsonCodec {
+
+  // the fallback is created on the first type this codec does not know, as most clients never
+  // meet one. It may supply null when there is no other codec.
+  @NotNull private final Supplier<? extends JsonCodec> fallbackFactory;
+
+  @Nullable private volatile JsonCodec fallback;
+
+  private volatile boolean fallbackResolved;
+
+  @NotNull private final Instrumentation instrumentation;
+
+  LightJsonCodec(
+      @NotNull final Supplier<? extends JsonCodec> fallbackFactory,
+      @NotNull final Instrumentation instrumentation) {
+    this.fallbackFactory = fallbackFactory;
+    this.instrumentation = instrumentation;
+  }
+
+  @Nullable
+  private JsonCodec fallback() {
+    if (!fallbackResolved) {
+      synchronized (this) {
+        if (!fallbackResolved) {
+          fallback = fallbackFactory.get();
+          fallbackResolved = true;
+        }
+      }
+    }
+    return fallback;
+  }
+
+  @NotNull
+  @Override
+  public <T> Mono<T> decode(@NotNull final String json, @NotNull final Class<T> type) {
+    final ResponseReaders.Reader<T> reader = ResponseReaders.of(type);
+    if (reader != null) {
+      return Mono.fromCallable(() -> read(json, type, reader));
+    }
+    final JsonCodec fallback = fallback();
+    if (fallback != null) {
+      return fallback.decode(json, type);
+    }
+    return Mono.error(new IllegalArgumentException("no json codec for " + type.getName()));
+  }
+
+  @NotNull
+  @Override
+  public Mono<String> encodeObject(@NotNull final Object object) {
+    final JsonWritable writable = RequestWriters.of(object);
+    if (writable != null) {
+      return Mono.fromCallable(() -> write(object.getClass(), writable));
+    }
+    final JsonCodec fallback = fallback();
+    if (fallback != null) {
+      return fallback.encodeObject(object);
+    }
+    return Mono.error(
+        new IllegalArgumentException("no json codec for " + object.getClass().getName()));
+  }
+
+  @NotNull
+  private <T> T read(
+      @NotNull final String json,
+      @NotNull final Class<T> type,
+      @NotNull final ResponseReaders.Reader<T> reader)
+      throws IOException {
+    final long start = instrumentation.enabled() ? System.nanoTime() : 0L;
+    final JsonReader jsonReader = new JsonReader(json);
+    final T value = reader.read(jsonReader);
+    jsonReader.end();
+    if (instrumentation.enabled()) {
+      instrumentation.codec(CodecOperation.DECODE, type, System.nanoTime() - start);
+    }
+    return value;
+  }
+
+  @NotNull
+  private String write(@NotNull final Class<?> type, @NotNull final JsonWritable writable) {
+    final long start = instrumentation.enabled() ? System.nanoTime() : 0L;
+    final String json = new String(JsonBuffer.write(writable), StandardCharsets.UTF_8);
+    if (instrumentation.enabled()) {
+      instrumentation.codec(CodecOperation.ENCODE, type, System.nanoTime() - start);
+    }
+    return json;
+  }
+}
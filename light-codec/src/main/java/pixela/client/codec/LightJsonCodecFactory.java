@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.codec;
+
+import java.util.ServiceLoader;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.StreamSupport;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pixela.client.PixelaClientConfig;
+import pixela.client.http.Instrumentation;
+import pixela.client.http.json.JsonCodec;
+import pixela.client.http.json.JsonCodecFactory;
+
+/**
+ * factory of the hand-written json codec, used when {@link PixelaClientConfig#isLightJsonCodec()}
+ * or when no other codec is on class path. Types it does not know are handed to another {@link
+ * JsonCodecFactory} found on class path, if any.
+ */
+public class LightJsonCodecFactory implements JsonCodecFactory {
+
+  @Override
+  public boolean supports(@NotNull final PixelaClientConfig config) {
+    return config.isLightJsonCodec();
+  }
+
+  @NotNull
+  @Override
+  public JsonCodec create(@NotNull final ExecutorService executorService) {
+    return new LightJsonCodec(
+        () -> {
+          final JsonCodecFactory fallback = Fallback.FACTORY;
+          return fallback == null ? null : fallback.create(executorService);
+        },
+        Instrumentation.noop());
+  }
+
+  @NotNull
+  @Override
+  public JsonCodec create(
+      @NotNull final ExecutorService executorService, @NotNull final PixelaClientConfig config) {
+    return new LightJsonCodec(
+        () -> {
+          final JsonCodecFactory fallback = Fallback.FACTORY;
+          return fallback == null ? null : fallback.create(executorService, config);
+        },
+        config.getInstrumentation());
+  }
+
+  // looked up once, when a codec first meets a type it does not know.
+  private static final class Fallback {
+
+    @Nullable static final JsonCodecFactory FACTORY = lookup();
+
+    @Nullable
+    private static JsonCodecFactory lookup() {
+      final ServiceLoader<JsonCodecFactory> loader = ServiceLoader.load(JsonCodecFactory.class);
+      return StreamSupport.stream(loader.spliterator(), false)
+          .filter(factory -> !(factory instanceof LightJsonCodecFactory))
+          .findFirst()
+          .orElse(null);
+    }
+  }
+}
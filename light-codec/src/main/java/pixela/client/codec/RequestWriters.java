@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.codec;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pixela.client.api.graph.CreateGraph;
+import pixela.client.api.user.CreateUser;
+import pixela.client.api.user.UpdateUser;
+import pixela.client.api.webhook.CreateWebhook;
+import pixela.client.http.json.JsonWritable;
+
+/**
+ * hand-written writers of the request bodies which are not {@link JsonWritable} themselves, in the
+ * same form as the jackson codec writes them from their getters.
+ */
+final class RequestWriters {
+
+  private static final Map<Class<?>, Function<Object, JsonWritable>> WRITERS = writers();
+
+  private RequestWriters() {}
+
+  @NotNull
+  private static Map<Class<?>, Function<Object, JsonWritable>> writers() {
+    final Map<Class<?>, Function<Object, JsonWritable>> writers = new HashMap<>();
+    writers.put(CreateGraph.class, object -> createGraph((CreateGraph) object));
+    writers.put(CreateUser.class, object -> createUser((CreateUser) object));
+    writers.put(UpdateUser.class, object -> updateUser((UpdateUser) object));
+    writers.put(CreateWebhook.class, object -> createWebhook((CreateWebhook) object));
+    return Collections.unmodifiableMap(writers);
+  }
+
+  // writer of the body, or null if it is not a request of pixela.
+  @Nullable
+  static JsonWritable of(@NotNull final Object body) {
+    if (body instanceof JsonWritable) {
+      return (JsonWritable) body;
+    }
+    final Function<Object, JsonWritable> writer = WRITERS.get(body.getClass());
+    return writer == null ? null : writer.apply(body);
+  }
+
+  @NotNull
+  private static JsonWritable createGraph(@NotNull final CreateGraph graph) {
+    return buffer ->
+        buffer
+            .field("id", graph.getId())
+            .field("name", graph.getName())
+            .field("unit", graph.getUnit())
+            .field("type", graph.getType())
+            .field("color", graph.getColor())
+            .field("timezone", graph.getTimezone())
+            .field("selfSufficient", graph.getSelfSufficient());
+  }
+
+  @NotNull
+  private static JsonWritable createUser(@NotNull final CreateUser user) {
+    return buffer ->
+        buffer
+            .field("token", user.getToken())
+            .field("username", user.getUsername())
+            .field("agreeTermsOfService", user.getAgreeTermsOfService())
+            .field("notMinor", user.getNotMinor());
+  }
+
+  @NotNull
+  private static JsonWritable updateUser(@NotNull final UpdateUser user) {
+    return buffer -> buffer.field("newToken", user.getNewToken());
+  }
+
+  @NotNull
+  private static JsonWritable createWebhook(@NotNull final CreateWebhook webhook) {
+    return buffer -> buffer.field("graphID", webhook.getGraphID()).field("type", webhook.getType());
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.codec;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import pixela.client.BasicResponse;
+import pixela.client.api.graph.GraphDefinition;
+import pixela.client.api.graph.GraphDefinitions;
+import pixela.client.api.graph.PixelRaw;
+import pixela.client.api.webhook.CreateWebhookResult;
+import pixela.client.api.webhook.WebhookRaw;
+import pixela.client.api.webhook.Webhooks;
+
+/** hand-written readers of the responses of pixela, filling them through their setters. */
+final class ResponseReaders {
+
+  @FunctionalInterface
+  interface Reader<T> {
+    @NotNull
+    T read(@NotNull final JsonReader reader) throws IOException;
+  }
+
+  private static final Map<Class<?>, Reader<?>> READERS = readers();
+
+  private ResponseReaders() {}
+
+  @NotNull
+  private static Map<Class<?>, Reader<?>> readers() {
+    final Map<Class<?>, Reader<?>> readers = new HashMap<>();
+    readers.put(PixelRaw.class, ResponseReaders::pixelRaw);
+    readers.put(BasicResponse.class, ResponseReaders::basicResponse);
+    readers.put(GraphDefinitions.class, ResponseReaders::graphDefinitions);
+    readers.put(Webhooks.class, ResponseReaders::webhooks);
+    readers.put(CreateWebhookResult.class, ResponseReaders::createWebhookResult);
+    return Collections.unmodifiableMap(readers);
+  }
+
+  // reader of the type, or null if the type is not a response of pixela.
+  @SuppressWarnings("unchecked")
+  @Nullable
+  static <T> Reader<T> of(@NotNull final Class<T> type) {
+    return (Reader<T>) READERS.get(type);
+  }
+
+  @NotNull
+  private static PixelRaw pixelRaw(@NotNull final JsonReader reader) throws IOException {
+    final PixelRaw pixel = new PixelRaw();
+    reader.beginObject();
+    for (String name = reader.nextName(); name != null; name = reader.nextName()) {
+      switch (name) {
+        case "quantity":
+          final String quantity = reader.nextString();
+          if (quantity != null) {
+            pixel.setQuantity(quantity);
+          }
+          break;
+        case "optionalData":
+          pixel.setOptionalData(reader.nextString());
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    return pixel;
+  }
+
+  @NotNull
+  private static BasicResponse basicResponse(@NotNull final JsonReader reader) throws IOException {
+    final BasicResponse response = new BasicResponse();
+    reader.beginObject();
+    for (String name = reader.nextName(); name != null; name = reader.nextName()) {
+      switch (name) {
+        case "message":
+          final String message = reader.nextString();
+          if (message != null) {
+            response.setMessage(message);
+          }
+          break;
+        case "isSuccess":
+          response.setIsSuccess(reader.nextBoolean());
+          break;
+        case "isRejected":
+          response.setIsRejected(reader.nextBoolean());
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    return response;
+  }
+
+  @NotNull
+  private static GraphDefinitions graphDefinitions(@NotNull final JsonReader reader)
+      throws IOException {
+    final GraphDefinitions definitions = new GraphDefinitions();
+    reader.beginObject();
+    for (String name = reader.nextName(); name != null; name = reader.nextName()) {
+      if ("graphs".equals(name)) {
+        final List<GraphDefinition> graphs = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+          graphs.add(graphDefinition(reader));
+        }
+        definitions.setGraphs(graphs);
+      } else {
+        reader.skipValue();
+      }
+    }
+    return definitions;
+  }
+
+  @NotNull
+  private static GraphDefinition graphDefinition(@NotNull final JsonReader reader)
+      throws IOException {
+    final GraphDefinition graph = new GraphDefinition();
+    reader.beginObject();
+    for (String name = reader.nextName(); name != null; name = reader.nextName()) {
+      switch (name) {
+        case "id":
+          graph.setId(reader.nextString());
+          break;
+        case "name":
+          graph.setName(reader.nextString());
+          break;
+        case "unit":
+          graph.setUnit(reader.nextString());
+          break;
+        case "type":
+          graph.setType(reader.nextString());
+          break;
+        case "color":
+          graph.setColor(reader.nextString());
+          break;
+        case "timezone":
+          graph.setTimezone(reader.nextString());
+          break;
+        case "purgeCacheURLs":
+          final List<String> urls = new ArrayList<>();
+          reader.beginArray();
+          while (reader.hasNextElement()) {
+            urls.add(reader.nextString());
+          }
+          graph.setPurgeCacheURLs(urls);
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    return graph;
+  }
+
+  @NotNull
+  private static Webhooks webhooks(@NotNull final JsonReader reader) throws IOException {
+    final Webhooks webhooks = new Webhooks();
+    reader.beginObject();
+    for (String name = reader.nextName(); name != null; name = reader.nextName()) {
+      if ("webhooks".equals(name)) {
+        final List<WebhookRaw> list = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+          list.add(webhook(reader));
+        }
+        webhooks.setWebhooks(list);
+      } else {
+        reader.skipValue();
+      }
+    }
+    return webhooks;
+  }
+
+  @NotNull
+  private static WebhookRaw webhook(@NotNull final JsonReader reader) throws IOException {
+    final WebhookRaw webhook = new WebhookRaw();
+    reader.beginObject();
+    for (String name = reader.nextName(); name != null; name = reader.nextName()) {
+      switch (name) {
+        case "webhookHash":
+          webhook.setWebhookHash(reader.nextString());
+          break;
+        case "graphID":
+          webhook.setGraphID(reader.nextString());
+          break;
+        case "type":
+          webhook.setType(reader.nextString());
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    return webhook;
+  }
+
+  @NotNull
+  private static CreateWebhookResult createWebhookResult(@NotNull final JsonReader reader)
+      throws IOException {
+    final CreateWebhookResult result = new CreateWebhookResult();
+    reader.beginObject();
+    for (String name = reader.nextName(); name != null; name = reader.nextName()) {
+      switch (name) {
+        case "webhookHash":
+          result.setWebhookHash(reader.nextString());
+          break;
+        case "message":
+          result.setMessage(reader.nextString());
+          break;
+        case "isSuccess":
+          result.setIsSuccess(reader.nextBoolean());
+          break;
+        default:
+          reader.skipValue();
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2018 Shinya Mochida
+ *
+ * Licensed under the Apache License,Version2.0(the"License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software
+ * Distributed under the License is distributed on an"AS IS"BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package pixela.client.codec;
+
+import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import pixela.client.BasicResponse;
+import pixela.client.Graph;
+import pixela.client.GraphId;
+import pixela.client.Pixela;
+import pixela.client.WebhookType;
+import pixela.client.api.graph.CreateGraph;
+import pixela.client.api.graph.GraphDefinition;
+import pixela.client.api.graph.GraphDefinitions;
+import pixela.client.api.graph.PixelRaw;
+import pixela.client.api.graph.SimpleGraph;
+import pixela.client.api.graph.UpdateGraph;
+import pixela.client.api.user.CreateUser;
+import pixela.client.api.webhook.CreateWebhook;
+import pixela.client.api.webhook.CreateWebhookResult;
+import pixela.client.api.webhook.WebhookRaw;
+import pixela.client.api.webhook.Webhooks;
+import pixela.client.http.HttpClient;
+import pixela.client.http.Instrumentation;
+import pixela.client.http.json.JsonCodec;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class LightJsonCodecTest {
+
+  private final LightJsonCodec codec = new LightJsonCodec(() -> null, Instrumentation.noop());
+
+  @Test
+  void decodePixel() {
+    final Mono<PixelRaw> pixel =
+        codec.decode(
+            "{\"quantity\":\"5\",\"optionalData\":\"{\\\"key\\\":\\\"\\u65e5\\u672c\\\"}\"}",
+            PixelRaw.class);
+
+    StepVerifier.create(pixel)
+        .assertNext(
+            p -> {
+              assertThat(p.quantity()).isEqualTo("5");
+              assertThat(p.optionalDataString()).isEqualTo("{\"key\":\"日本\"}");
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void decodeNumberAsString() {
+    StepVerifier.create(codec.decode("{ \"quantity\" : 1.5 }", PixelRaw.class))
+        .assertNext(p -> assertThat(p.quantity()).isEqualTo("1.5"))
+        .verifyComplete();
+  }
+
+  @Test
+  void decodeBasicResponse() {
+    final Mono<BasicResponse> response =
+        codec.decode(
+            "{\"message\":\"Please retry this request.\",\"isSuccess\":false,\"isRejected\":true}",
+            BasicResponse.class);
+
+    StepVerifier.create(response)
+        .assertNext(
+            res -> {
+              assertThat(res.getMessage()).isEqualTo("Please retry this request.");
+              assertThat(res.isIsSuccess()).isFalse();
+              assertThat(res.isIsRejected()).isTrue();
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void decodeGraphDefinitionsSkippingUnknownFields() {
+    final Mono<GraphDefinitions> definitions =
+        codec.decode(
+            "{\"graphs\":["
+                + "{\"id\":\"test-graph\",\"name\":\"graph-name\",\"unit\":\"commit\",\"type\":\"int\","
+                + "\"color\":\"shibafu\",\"timezone\":\"Asia/Tokyo\",\"purgeCacheURLs\":[],"
+                + "\"selfSufficient\":\"none\",\"isSecret\":false,\"extra\":{\"a\":[1,{}]}},"
+                + "{\"id\":\"run-graph\",\"name\":\"running\",\"unit\":\"km\",\"type\":\"float\","
+                + "\"color\":\"sora\",\"timezone\":\"UTC\","
+                + "\"purgeCacheURLs\":[\"https://camo.githubusercontent.com/xxx/xxxx\"]}]}",
+            GraphDefinitions.class);
+
+    StepVerifier.create(definitions)
+        .assertNext(
+            defs -> {
+              final List<GraphDefinition> graphs = defs.getGraphs();
+              assertThat(graphs).hasSize(2);
+              assertThat(graphs.get(0).getTimezone()).isEqualTo("Asia/Tokyo");
+              assertThat(graphs.get(0).getPurgeCacheURLs()).isEmpty();
+              assertThat(graphs.get(1).getType()).isEqualTo("float");
+              assertThat(graphs.get(1).getPurgeCacheURLs())
+                  .containsExactly("https://camo.githubusercontent.com/xxx/xxxx");
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void decodeWebhooks() {
+    final Mono<Webhooks> webhooks =
+        codec.decode(
+            "{\"webhooks\":[{\"webhookHash\":\"hash\",\"graphID\":\"graph\",\"type\":\"increment\"}]}",
+            Webhooks.class);
+
+    StepVerifier.create(webhooks)
+        .expectNext(Webhooks.of(WebhookRaw.of("hash", "graph", "increment")))
+        .verifyComplete();
+  }
+
+  @Test
+  void decodeCreateWebhookResult() {
+    final Mono<CreateWebhookResult> result =
+        codec.decode(
+            "{\"webhookHash\":\"hash\",\"message\":\"Success.\",\"isSuccess\":true}",
+            CreateWebhookResult.class);
+
+    StepVerifier.create(result)
+        .assertNext(
+            res -> {
+              assertThat(res.getWebhookHash()).isEqualTo("hash");
+              assertThat(res.getIsSuccess()).isTrue();
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void brokenJsonIsError() {
+    StepVerifier.create(codec.decode("{\"quantity\":\"5\"", PixelRaw.class))
+        .verifyError(IOException.class);
+    StepVerifier.create(codec.decode("{\"quantity\":\"5\"} {}", PixelRaw.class))
+        .verifyError(IOException.class);
+  }
+
+  @Test
+  void encodeCreateGraph() {
+    final CreateGraph createGraph =
+        CreateGraph.builder(mock(HttpClient.class), mock(Pixela.class))
+            .id("test-graph")
+            .name("グラフ")
+            .unit("commit")
+            .integer()
+            .shibafu()
+            .timezone("Asia/Tokyo")
+            .increment();
+
+    StepVerifier.create(codec.encodeObject(createGraph))
+        .assertNext(
+            json ->
+                assertThatJson(json)
+                    .isEqualTo(
+                        "{\"id\":\"test-graph\",\"name\":\"グラフ\",\"unit\":\"commit\","
+                            + "\"type\":\"int\",\"color\":\"shibafu\",\"timezone\":\"Asia/Tokyo\","
+                            + "\"selfSufficient\":\"increment\"}"))
+        .verifyComplete();
+  }
+
+  @Test
+  void encodeUpdateGraphWithoutFallback() {
+    final UpdateGraph updateGraph =
+        SimpleGraph.of(mock(HttpClient.class), mock(Pixela.class), GraphId.of("test-graph"))
+            .updateGraph()
+            .name("グラフ")
+            .unit("commit")
+            .momiji()
+            .timezone("Asia/Tokyo")
+            .purgeCacheURLs("https://example.com/a", "https://example.com/b")
+            .increment();
+
+    StepVerifier.create(codec.encodeObject(updateGraph))
+        .assertNext(
+            json ->
+                assertThatJson(json)
+                    .isEqualTo(
+                        "{\"name\":\"グラフ\",\"unit\":\"commit\",\"color\":\"momiji\","
+                            + "\"timezone\":\"Asia/Tokyo\",\"purgeCacheURLs\":"
+                            + "[\"https://example.com/a\",\"https://example.com/b\"],"
+                            + "\"selfSufficient\":\"increment\"}"))
+        .verifyComplete();
+  }
+
+  @Test
+  void encodeCreateUser() {
+    final CreateUser createUser =
+        CreateUser.builder(mock(HttpClient.class))
+            .withToken("test-token")
+            .username("test-user")
+            .agreeTermsOfService()
+            .notMinor();
+
+    StepVerifier.create(codec.encodeObject(createUser))
+        .assertNext(
+            json ->
+                assertThatJson(json)
+                    .isEqualTo(
+                        "{\"token\":\"test-token\",\"username\":\"test-user\","
+                            + "\"agreeTermsOfService\":\"yes\",\"notMinor\":\"yes\"}"))
+        .verifyComplete();
+  }
+
+  @Test
+  void encodeCreateWebhook() {
+    final Graph graph = mock(Graph.class);
+    when(graph.id()).thenReturn(GraphId.of("test-graph"));
+    final CreateWebhook createWebhook =
+        CreateWebhook.of(mock(HttpClient.class), mock(Pixela.class), graph, WebhookType.INCREMENT);
+
+    StepVerifier.create(codec.encodeObject(createWebhook))
+        .assertNext(
+            json ->
+                assertThatJson(json)
+                    .isEqualTo("{\"graphID\":\"test-graph\",\"type\":\"increment\"}"))
+        .verifyComplete();
+  }
+
+  @Test
+  void unknownTypeIsHandedToFallbackCreatedOnFirstUse() {
+    final JsonCodec fallback = mock(JsonCodec.class);
+    final List<String> optionalData = Arrays.asList("a", "b");
+    when(fallback.encodeObject(optionalData)).thenReturn(Mono.just("[\"a\",\"b\"]"));
+    when(fallback.decode("[]", List.class)).thenReturn(Mono.just(Collections.emptyList()));
+    final AtomicInteger created = new AtomicInteger();
+    final LightJsonCodec codec =
+        new LightJsonCodec(
+            () -> {
+              created.incrementAndGet();
+              return fallback;
+            },
+            Instrumentation.noop());
+
+    StepVerifier.create(codec.decode("{\"quantity\":\"5\"}", PixelRaw.class))
+        .expectNextCount(1L)
+        .verifyComplete();
+    assertThat(created).hasValue(0);
+
+    StepVerifier.create(codec.encodeObject(optionalData))
+        .expectNext("[\"a\",\"b\"]")
+        .verifyComplete();
+    StepVerifier.create(codec.decode("[]", List.class))
+        .expectNext(Collections.emptyList())
+        .verifyComplete();
+    assertThat(created).hasValue(1);
+  }
+
+  @Test
+  void unknownTypeWithoutFallbackIsError() {
+    StepVerifier.create(codec.encodeObject(Collections.singletonMap("key", "value")))
+        .verifyError(IllegalArgumentException.class);
+    StepVerifier.create(codec.decode("{}", Object.class))
+        .verifyError(IllegalArgumentException.class);
+  }
+}